@@ -22,6 +22,7 @@ import static org.apache.james.backends.jpa.JPAConfiguration.Credential.NO_CREDE
 import static org.apache.james.backends.jpa.JPAConfiguration.ReadyToBuild.CUSTOM_DATASOURCE_PROPERTIES;
 import static org.apache.james.backends.jpa.JPAConfiguration.ReadyToBuild.CUSTOM_OPENJPA_PROPERTIES;
 import static org.apache.james.backends.jpa.JPAConfiguration.ReadyToBuild.NO_ATTACHMENT_STORAGE;
+import static org.apache.james.backends.jpa.JPAConfiguration.ReadyToBuild.NO_CONTENT_DEDUPLICATION;
 import static org.apache.james.backends.jpa.JPAConfiguration.ReadyToBuild.NO_MAX_CONNECTIONS;
 import static org.apache.james.backends.jpa.JPAConfiguration.ReadyToBuild.NO_MULTITHREADED;
 import static org.apache.james.backends.jpa.JPAConfiguration.ReadyToBuild.NO_TEST_ON_BORROW;
@@ -56,6 +57,7 @@ public class JPAConfiguration {
     public static final List<String> DEFAULT_DATASOURCE_PROPERTIES = List.of(DATASOURCE_TEST_ON_BORROW, DATASOURCE_VALIDATION_QUERY_TIMEOUT_SEC, DATASOURCE_VALIDATION_QUERY, DATASOURCE_MAX_TOTAL);
 
     public static final String ATTACHMENT_STORAGE = "attachmentStorage.enabled";
+    public static final String CONTENT_DEDUPLICATION = "contentDeduplication.enabled";
 
     static {
     }
@@ -72,6 +74,7 @@ public class JPAConfiguration {
         this.customDatasourceProperties = Map.of();
         this.customOpenjpaProperties = Map.of();
         this.attachmentStorage = Optional.empty();
+        this.contentDeduplication = Optional.empty();
     }
 
     public static class Credential {
@@ -125,6 +128,7 @@ public class JPAConfiguration {
         static final Map<String,String> CUSTOM_OPENJPA_PROPERTIES = Map.of();
         static final Map<String,String> CUSTOM_DATASOURCE_PROPERTIES = Map.of();
         static final Optional<Boolean> NO_ATTACHMENT_STORAGE = Optional.empty();
+        static final Optional<Boolean> NO_CONTENT_DEDUPLICATION = Optional.empty();
 
         private final String driverName;
         private final String driverURL;
@@ -138,13 +142,14 @@ public class JPAConfiguration {
         private Map<String,String> customDatasourceProperties;
         private Map<String,String> customOpenjpaProperties;
         private Optional<Boolean> attachmentStorage;
+        private Optional<Boolean> contentDeduplication;
 
 
         private ReadyToBuild(String driverName, String driverURL, Optional<Credential> credential,
                             Optional<Boolean> testOnBorrow, Optional<Boolean> multithreaded, Optional<Integer> validationQueryTimeoutSec,
                             Optional<String> validationQuery,Optional<Integer> maxConnections,
                             Map<String,String> customDatasourceProperties, Map<String,String> customOpenjpaProperties,
-                            Optional<Boolean> attachmentStorage
+                            Optional<Boolean> attachmentStorage, Optional<Boolean> contentDeduplication
         ) {
             this.driverName = driverName;
             this.driverURL = driverURL;
@@ -157,15 +162,16 @@ public class JPAConfiguration {
             this.customDatasourceProperties = customDatasourceProperties;
             this.customOpenjpaProperties = customOpenjpaProperties;
             this.attachmentStorage = attachmentStorage;
+            this.contentDeduplication = contentDeduplication;
         }
 
         public JPAConfiguration build() {
-            return new JPAConfiguration(driverName, driverURL, credential, testOnBorrow, multithreaded, validationQueryTimeoutSec, validationQuery, maxConnections, customDatasourceProperties, customOpenjpaProperties, attachmentStorage);
+            return new JPAConfiguration(driverName, driverURL, credential, testOnBorrow, multithreaded, validationQueryTimeoutSec, validationQuery, maxConnections, customDatasourceProperties, customOpenjpaProperties, attachmentStorage, contentDeduplication);
         }
 
         public RequirePassword username(String username) {
             return password -> new ReadyToBuild(driverName, driverURL, Credential.of(username, password),
-                testOnBorrow, multithreaded, validationQueryTimeoutSec, validationQuery, maxConnections, customDatasourceProperties, customOpenjpaProperties, attachmentStorage);
+                testOnBorrow, multithreaded, validationQueryTimeoutSec, validationQuery, maxConnections, customDatasourceProperties, customOpenjpaProperties, attachmentStorage, contentDeduplication);
         }
 
         public ReadyToBuild testOnBorrow(Boolean testOnBorrow) {
@@ -198,6 +204,11 @@ public class JPAConfiguration {
             return this;
         }
 
+        public ReadyToBuild contentDeduplication(Boolean contentDeduplication) {
+            this.contentDeduplication = Optional.ofNullable(contentDeduplication);
+            return this;
+        }
+
         public ReadyToBuild setCustomDatasourceProperties(Map<String, String> customDatasourceProperties) {
             this.customDatasourceProperties = new HashMap<>(customDatasourceProperties);
             DEFAULT_DATASOURCE_PROPERTIES.forEach(this.customDatasourceProperties::remove);
@@ -219,7 +230,8 @@ public class JPAConfiguration {
 
     public static RequireDriverName builder() {
         return driverName -> driverURL -> new ReadyToBuild(driverName, driverURL, NO_CREDENTIAL, NO_TEST_ON_BORROW, NO_MULTITHREADED,
-            NO_VALIDATION_QUERY_TIMEOUT_SEC, NO_VALIDATION_QUERY, NO_MAX_CONNECTIONS, CUSTOM_DATASOURCE_PROPERTIES, CUSTOM_OPENJPA_PROPERTIES, NO_ATTACHMENT_STORAGE);
+            NO_VALIDATION_QUERY_TIMEOUT_SEC, NO_VALIDATION_QUERY, NO_MAX_CONNECTIONS, CUSTOM_DATASOURCE_PROPERTIES, CUSTOM_OPENJPA_PROPERTIES, NO_ATTACHMENT_STORAGE,
+            NO_CONTENT_DEDUPLICATION);
     }
 
     private final String driverName;
@@ -233,12 +245,13 @@ public class JPAConfiguration {
     private Map<String,String> customDatasourceProperties;
     private Map<String,String> customOpenjpaProperties;
     private final Optional<Boolean> attachmentStorage;
+    private final Optional<Boolean> contentDeduplication;
 
 
     @VisibleForTesting
     JPAConfiguration(String driverName, String driverURL, Optional<Credential> credential, Optional<Boolean> testOnBorrow, Optional<Boolean> multithreaded,
                      Optional<Integer> validationQueryTimeoutSec, Optional<String> validationQuery, Optional<Integer> maxConnections, Map<String,String> customDatasourceProperties, Map<String,String> customOpenjpaProperties,
-                     Optional<Boolean> attachmentStorage) {
+                     Optional<Boolean> attachmentStorage, Optional<Boolean> contentDeduplication) {
         Preconditions.checkNotNull(driverName, "driverName cannot be null");
         Preconditions.checkNotNull(driverURL, "driverURL cannot be null");
         validationQueryTimeoutSec.ifPresent(timeoutInSec ->
@@ -257,7 +270,7 @@ public class JPAConfiguration {
         this.customDatasourceProperties = customDatasourceProperties;
         this.customOpenjpaProperties = customOpenjpaProperties;
         this.attachmentStorage = attachmentStorage;
-
+        this.contentDeduplication = contentDeduplication;
     }
 
     public String getDriverName() {
@@ -303,4 +316,8 @@ public class JPAConfiguration {
     public Optional<Boolean> isAttachmentStorageEnabled() {
         return attachmentStorage;
     }
+
+    public Optional<Boolean> isContentDeduplicationEnabled() {
+        return contentDeduplication;
+    }
 }
@@ -37,6 +37,7 @@ class JPAConfigurationTest {
     private static final String PASSWORD = "password";
     private static final String EMPTY_STRING = "";
     private static final boolean ATTACHMENT_STORAGE = true;
+    private static final boolean CONTENT_DEDUPLICATION = true;
 
     @Test
     void buildShouldReturnCorrespondingProperties() {
@@ -50,6 +51,7 @@ class JPAConfigurationTest {
             .password(PASSWORD)
             .maxConnections(MAX_CONNECTIONS)
             .attachmentStorage(ATTACHMENT_STORAGE)
+            .contentDeduplication(CONTENT_DEDUPLICATION)
             .build();
 
         SoftAssertions.assertSoftly(softly -> {
@@ -64,6 +66,7 @@ class JPAConfigurationTest {
             });
             softly.assertThat(configuration.getMaxConnections()).contains(MAX_CONNECTIONS);
             softly.assertThat(configuration.isAttachmentStorageEnabled()).contains(ATTACHMENT_STORAGE);
+            softly.assertThat(configuration.isContentDeduplicationEnabled()).contains(CONTENT_DEDUPLICATION);
         });
     }
 
@@ -84,6 +87,7 @@ class JPAConfigurationTest {
             softly.assertThat(configuration.getCredential()).isEmpty();
             softly.assertThat(configuration.getMaxConnections()).isEmpty();
             softly.assertThat(configuration.isAttachmentStorageEnabled()).isEmpty();
+            softly.assertThat(configuration.isContentDeduplicationEnabled()).isEmpty();
         });
     }
 
@@ -0,0 +1,101 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+
+/**
+ * Builds deterministic RFC-5322 messages of a given size so that benchmark runs are comparable.
+ */
+public class MessageGenerator {
+    private static final String CRLF = "\r\n";
+    private static final String BOUNDARY = "----=_Part_0_benchmark";
+    private static final int LINE_LENGTH = 76;
+    private static final long SEED = 42L;
+
+    /**
+     * @param bodySize approximative size of the text body, in bytes
+     * @param attachmentCount number of base64 encoded attachments
+     * @param attachmentSize size of each attachment, before encoding, in bytes
+     */
+    public static byte[] generate(int bodySize, int attachmentCount, int attachmentSize) {
+        Random random = new Random(SEED);
+        StringBuilder builder = new StringBuilder(bodySize + attachmentCount * attachmentSize * 2 + 1024);
+        builder.append("Return-Path: <bob@domain.tld>").append(CRLF)
+            .append("Received: from mx.domain.tld (mx.domain.tld [192.0.2.1]) by james.domain.tld").append(CRLF)
+            .append("Message-ID: <benchmark-").append(bodySize).append('-').append(attachmentCount).append("@domain.tld>").append(CRLF)
+            .append("Date: Tue, 12 Mar 2024 10:15:30 +0100").append(CRLF)
+            .append("From: Bob <bob@domain.tld>").append(CRLF)
+            .append("To: Alice <alice@domain.tld>, Cedric <cedric@domain.tld>").append(CRLF)
+            .append("Cc: Dave <dave@domain.tld>").append(CRLF)
+            .append("Subject: Benchmark message of ").append(bodySize).append(" bytes").append(CRLF)
+            .append("MIME-Version: 1.0").append(CRLF);
+
+        if (attachmentCount == 0) {
+            builder.append("Content-Type: text/plain; charset=UTF-8").append(CRLF)
+                .append(CRLF);
+            appendText(builder, random, bodySize);
+            return builder.toString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        builder.append("Content-Type: multipart/mixed; boundary=\"").append(BOUNDARY).append('"').append(CRLF)
+            .append(CRLF)
+            .append("--").append(BOUNDARY).append(CRLF)
+            .append("Content-Type: text/plain; charset=UTF-8").append(CRLF)
+            .append(CRLF);
+        appendText(builder, random, bodySize);
+        for (int i = 0; i < attachmentCount; i++) {
+            builder.append("--").append(BOUNDARY).append(CRLF)
+                .append("Content-Type: application/octet-stream; name=\"attachment-").append(i).append(".bin\"").append(CRLF)
+                .append("Content-Disposition: attachment; filename=\"attachment-").append(i).append(".bin\"").append(CRLF)
+                .append("Content-Transfer-Encoding: base64").append(CRLF)
+                .append(CRLF);
+            appendBase64(builder, random, attachmentSize);
+        }
+        builder.append("--").append(BOUNDARY).append("--").append(CRLF);
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void appendText(StringBuilder builder, Random random, int size) {
+        int written = 0;
+        int lineWritten = 0;
+        while (written < size) {
+            char c = random.nextInt(6) == 0 ? ' ' : (char) ('a' + random.nextInt(26));
+            builder.append(c);
+            written++;
+            lineWritten++;
+            if (lineWritten == LINE_LENGTH) {
+                builder.append(CRLF);
+                written += 2;
+                lineWritten = 0;
+            }
+        }
+        builder.append(CRLF);
+    }
+
+    private static void appendBase64(StringBuilder builder, Random random, int size) {
+        byte[] content = new byte[size];
+        random.nextBytes(content);
+        String encoded = Base64.getMimeEncoder(LINE_LENGTH, CRLF.getBytes(StandardCharsets.US_ASCII)).encodeToString(content);
+        builder.append(encoded).append(CRLF);
+    }
+}
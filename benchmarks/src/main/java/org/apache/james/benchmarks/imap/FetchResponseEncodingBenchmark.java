@@ -0,0 +1,282 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.benchmarks.imap;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.mail.Flags;
+
+import org.apache.james.benchmarks.MessageGenerator;
+import org.apache.james.imap.encode.FetchResponseEncoder;
+import org.apache.james.imap.encode.ImapResponseComposer;
+import org.apache.james.imap.encode.ImapResponseWriter;
+import org.apache.james.imap.encode.base.ImapResponseComposerImpl;
+import org.apache.james.imap.message.BytesBackedLiteral;
+import org.apache.james.imap.message.Literal;
+import org.apache.james.imap.message.response.FetchResponse;
+import org.apache.james.mailbox.MessageSequenceNumber;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.ModSeq;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encoding of FETCH responses through {@link FetchResponseEncoder} and {@link ImapResponseComposerImpl}.
+ *
+ * The writer discards its input, so that only the composition cost is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FetchResponseEncodingBenchmark {
+    private static final MessageSequenceNumber MSN = MessageSequenceNumber.of(1234);
+    private static final MessageUid UID = MessageUid.of(98765);
+    private static final Date INTERNAL_DATE = new Date(1710234930000L);
+
+    public static class DiscardingImapResponseWriter implements ImapResponseWriter {
+        private static final byte[] SINK = new byte[8192];
+
+        private long written;
+
+        @Override
+        public void write(Literal literal) throws IOException {
+            Optional<byte[][]> bytesSequence = literal.asBytesSequence();
+            if (bytesSequence.isPresent()) {
+                for (byte[] bytes : bytesSequence.get()) {
+                    written += bytes.length;
+                }
+                return;
+            }
+            try (InputStream in = literal.getInputStream()) {
+                for (int len; (len = in.read(SINK)) != -1; ) {
+                    written += len;
+                }
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes) {
+            written += bytes.length;
+        }
+
+        public long getWritten() {
+            return written;
+        }
+    }
+
+    private static class BenchmarkAddress implements FetchResponse.Envelope.Address {
+        private final String personalName;
+        private final String mailboxName;
+        private final String hostName;
+
+        BenchmarkAddress(String personalName, String mailboxName, String hostName) {
+            this.personalName = personalName;
+            this.mailboxName = mailboxName;
+            this.hostName = hostName;
+        }
+
+        @Override
+        public String getPersonalName() {
+            return personalName;
+        }
+
+        @Override
+        public String getAtDomainList() {
+            return null;
+        }
+
+        @Override
+        public String getMailboxName() {
+            return mailboxName;
+        }
+
+        @Override
+        public String getHostName() {
+            return hostName;
+        }
+    }
+
+    private static class BenchmarkEnvelope implements FetchResponse.Envelope {
+        private final Address[] from;
+        private final Address[] to;
+
+        BenchmarkEnvelope(Address[] from, Address[] to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public String getDate() {
+            return "Tue, 12 Mar 2024 10:15:30 +0100";
+        }
+
+        @Override
+        public String getSubject() {
+            return "Quarterly report =?UTF-8?Q?r=C3=A9sum=C3=A9?=";
+        }
+
+        @Override
+        public Address[] getFrom() {
+            return from;
+        }
+
+        @Override
+        public Address[] getSender() {
+            return from;
+        }
+
+        @Override
+        public Address[] getReplyTo() {
+            return from;
+        }
+
+        @Override
+        public Address[] getTo() {
+            return to;
+        }
+
+        @Override
+        public Address[] getCc() {
+            return null;
+        }
+
+        @Override
+        public Address[] getBcc() {
+            return null;
+        }
+
+        @Override
+        public String getInReplyTo() {
+            return "<previous@domain.tld>";
+        }
+
+        @Override
+        public String getMessageId() {
+            return "<benchmark@domain.tld>";
+        }
+    }
+
+    private static class BenchmarkBodyElement implements FetchResponse.BodyElement {
+        private final BytesBackedLiteral literal;
+
+        BenchmarkBodyElement(byte[] content) {
+            this.literal = BytesBackedLiteral.of(content);
+        }
+
+        @Override
+        public String getName() {
+            return "BODY[]";
+        }
+
+        @Override
+        public long size() {
+            return literal.size();
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return literal.getInputStream();
+        }
+
+        @Override
+        public Optional<byte[][]> asBytesSequence() {
+            return literal.asBytesSequence();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BodyState {
+        @Param({"1024", "65536", "1048576"})
+        int messageSize;
+
+        FetchResponse response;
+
+        @Setup
+        public void setUp() {
+            byte[] content = MessageGenerator.generate(messageSize, 0, 0);
+            response = new FetchResponse(MSN, null, UID, null, null, null, null, null, null, null,
+                List.of(new BenchmarkBodyElement(content)), null, null);
+        }
+    }
+
+    private FetchResponseEncoder encoder;
+    private FetchResponse flagsResponse;
+    private FetchResponse envelopeResponse;
+
+    @Setup
+    public void setUp() {
+        encoder = new FetchResponseEncoder(false);
+
+        Flags flags = new Flags();
+        flags.add(Flags.Flag.SEEN);
+        flags.add(Flags.Flag.ANSWERED);
+        flags.add("$Forwarded");
+        flags.add("$MDNSent");
+        flagsResponse = new FetchResponse(MSN, flags, UID, null, ModSeq.of(456789), null, null, null, null, null, null, null, null);
+
+        FetchResponse.Envelope.Address[] from = {new BenchmarkAddress("Bob Smith", "bob", "domain.tld")};
+        FetchResponse.Envelope.Address[] to = {
+            new BenchmarkAddress("Alice", "alice", "domain.tld"),
+            new BenchmarkAddress("Cedric \"the\" Tester", "cedric", "domain.tld"),
+            new BenchmarkAddress(null, "dave", "other.tld")};
+        envelopeResponse = new FetchResponse(MSN, flags, UID, null, null, INTERNAL_DATE, 15432L, new BenchmarkEnvelope(from, to),
+            null, null, null, null, null);
+    }
+
+    @Benchmark
+    public long flagsAndUid() throws IOException {
+        return encode(flagsResponse);
+    }
+
+    @Benchmark
+    public long envelope() throws IOException {
+        return encode(envelopeResponse);
+    }
+
+    @Benchmark
+    public long bodyLiteral(BodyState state) throws IOException {
+        return encode(state.response);
+    }
+
+    private long encode(FetchResponse response) throws IOException {
+        DiscardingImapResponseWriter writer = new DiscardingImapResponseWriter();
+        ImapResponseComposer composer = new ImapResponseComposerImpl(writer);
+        encoder.encode(response, composer);
+        composer.flush();
+        return writer.getWritten();
+    }
+}
@@ -0,0 +1,143 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.benchmarks.imap;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.james.imap.api.ImapMessage;
+import org.apache.james.imap.api.message.request.SearchKey;
+import org.apache.james.imap.decode.DecodingException;
+import org.apache.james.imap.decode.ImapDecoder;
+import org.apache.james.imap.decode.ImapRequestStreamLineReader;
+import org.apache.james.imap.decode.parser.SearchCommandParser;
+import org.apache.james.imap.encode.FakeImapSession;
+import org.apache.james.imap.main.DefaultImapDecoderFactory;
+import org.apache.james.imap.message.response.UnpooledStatusResponseFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decoding of IMAP command lines through {@link ImapRequestStreamLineReader}, both for the
+ * {@link SearchCommandParser} alone and for the whole {@link ImapDecoder} chain.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ImapDecodingBenchmark {
+    public enum SearchComplexity {
+        SIMPLE("UNSEEN"),
+        HEADERS("FROM \"Bob Smith\" TO alice@domain.tld SUBJECT \"quarterly report\" SINCE 1-Feb-2024"),
+        NESTED("OR (FROM bob SUBJECT \"quarterly report\") (NOT (SEEN) LARGER 10000) UID 1:100,150,200:300,400:* "
+            + "HEADER List-Id \"<dev.james.apache.org>\" BEFORE 1-Mar-2024 NOT DELETED");
+
+        private final String criteria;
+
+        SearchComplexity(String criteria) {
+            this.criteria = criteria;
+        }
+    }
+
+    public enum FetchCommand {
+        FLAGS("a1 UID FETCH 1:* (FLAGS)\r\n"),
+        ENVELOPE("a1 UID FETCH 1:* (UID RFC822.SIZE FLAGS INTERNALDATE BODY.PEEK[HEADER.FIELDS (DATE FROM TO CC SUBJECT CONTENT-TYPE)])\r\n"),
+        SEQUENCE_SET("a1 FETCH 1,3,5,7:9,11,13:20,22,24,26:30,32,34:40,45,50:60,70,80:* (FLAGS UID MODSEQ) (CHANGEDSINCE 12345)\r\n");
+
+        private final String line;
+
+        FetchCommand(String line) {
+            this.line = line;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class SearchState {
+        @Param({"SIMPLE", "HEADERS", "NESTED"})
+        SearchComplexity searchComplexity;
+
+        byte[] searchCriteria;
+        byte[] searchCommand;
+
+        @Setup
+        public void setUp() {
+            searchCriteria = (searchComplexity.criteria + "\r\n").getBytes(StandardCharsets.US_ASCII);
+            searchCommand = ("a1 UID SEARCH " + searchComplexity.criteria + "\r\n").getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class FetchState {
+        @Param({"FLAGS", "ENVELOPE", "SEQUENCE_SET"})
+        FetchCommand fetchCommand;
+
+        byte[] fetchLine;
+
+        @Setup
+        public void setUp() {
+            fetchLine = fetchCommand.line.getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private SearchCommandParser searchCommandParser;
+    private ImapDecoder decoder;
+    private FakeImapSession session;
+
+    @Setup
+    public void setUp() {
+        UnpooledStatusResponseFactory statusResponseFactory = new UnpooledStatusResponseFactory();
+        searchCommandParser = new SearchCommandParser(statusResponseFactory);
+        decoder = new DefaultImapDecoderFactory(statusResponseFactory).buildImapDecoder();
+        session = new FakeImapSession();
+        session.authenticated();
+    }
+
+    @Benchmark
+    public SearchKey searchKeyParsing(SearchState state) throws DecodingException {
+        return searchCommandParser.decode(session, reader(state.searchCriteria));
+    }
+
+    @Benchmark
+    public ImapMessage searchCommandDecoding(SearchState state) {
+        return decoder.decode(reader(state.searchCommand), session);
+    }
+
+    @Benchmark
+    public ImapMessage fetchCommandDecoding(FetchState state) {
+        return decoder.decode(reader(state.fetchLine), session);
+    }
+
+    private ImapRequestStreamLineReader reader(byte[] line) {
+        return new ImapRequestStreamLineReader(new ByteArrayInputStream(line), OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,123 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.benchmarks.imap;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.james.imap.processor.base.UidMsnConverter;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.NullableMessageSequenceNumber;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * UID to MSN (and back) lookups on {@link UidMsnConverter}, as done for every FETCH, STORE and EXPUNGE
+ * on a selected mailbox.
+ *
+ * The sparsity parameter is the average gap between two consecutive UIDs: 1 means a mailbox
+ * where nothing was ever expunged, larger values mimic mailboxes with a long deletion history.
+ * A sparsity above {@code Integer.MAX_VALUE / mailboxSize} forces the long based storage.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class UidMsnConverterBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    int mailboxSize;
+
+    @Param({"1", "10", "5000"})
+    long sparsity;
+
+    private List<MessageUid> uids;
+    private UidMsnConverter converter;
+    private MessageUid lastUid;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        ImmutableList.Builder<MessageUid> builder = ImmutableList.builderWithExpectedSize(mailboxSize);
+        long uid = 1;
+        for (int i = 0; i < mailboxSize; i++) {
+            builder.add(MessageUid.of(uid));
+            uid += 1 + (i % 2) * 2 * (sparsity - 1);
+        }
+        uids = builder.build();
+        lastUid = uids.get(uids.size() - 1);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpIteration() {
+        converter = new UidMsnConverter();
+        converter.addAll(uids);
+        cursor = 0;
+    }
+
+    @Benchmark
+    public NullableMessageSequenceNumber uidToMsn() {
+        return converter.getMsn(nextUid());
+    }
+
+    @Benchmark
+    public Optional<MessageUid> msnToUid() {
+        return converter.getUid(1 + nextIndex());
+    }
+
+    @Benchmark
+    public UidMsnConverter loadMailbox() {
+        UidMsnConverter fresh = new UidMsnConverter();
+        fresh.addAll(uids);
+        return fresh;
+    }
+
+    @Benchmark
+    public Optional<MessageUid> appendThenExpungeLast() {
+        MessageUid next = lastUid.next();
+        converter.addUid(next);
+        converter.remove(next);
+        return converter.getLastUid();
+    }
+
+    private MessageUid nextUid() {
+        return uids.get(nextIndex());
+    }
+
+    private int nextIndex() {
+        // Stride through the mailbox with a prime step to defeat trivial branch prediction
+        cursor = (cursor + 7919) % mailboxSize;
+        return cursor;
+    }
+}
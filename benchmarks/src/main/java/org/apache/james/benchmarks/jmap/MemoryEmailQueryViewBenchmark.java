@@ -0,0 +1,198 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.benchmarks.jmap;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.james.jmap.api.projections.EmailQueryView;
+import org.apache.james.jmap.memory.projections.MemoryEmailQueryView;
+import org.apache.james.mailbox.model.MailboxId;
+import org.apache.james.mailbox.model.MessageId;
+import org.apache.james.mailbox.model.TestId;
+import org.apache.james.mailbox.model.TestMessageId;
+import org.apache.james.util.streams.Limit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.Table;
+import com.google.common.collect.Tables;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Email/query backing queries on {@link MemoryEmailQueryView}, compared with the previous implementation sorting
+ * the whole mailbox on every query.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MemoryEmailQueryViewBenchmark {
+    public enum Implementation {
+        SORTED_INDEX,
+        FULL_SORT
+    }
+
+    /**
+     * The implementation {@link MemoryEmailQueryView} had before maintaining sorted per-mailbox indexes.
+     */
+    private static class FullSortEmailQueryView implements EmailQueryView {
+        private final Table<MailboxId, MessageId, Entry> entries = Tables.synchronizedTable(HashBasedTable.create());
+
+        @Override
+        public Flux<MessageId> listMailboxContentSortedBySentAt(MailboxId mailboxId, Limit limit) {
+            return Flux.fromIterable(entries.row(mailboxId).values())
+                .sort(Comparator.comparing(Entry::getSentAt).reversed())
+                .map(Entry::getMessageId)
+                .take(limit.getLimit().get());
+        }
+
+        @Override
+        public Flux<MessageId> listMailboxContentSinceSentAt(MailboxId mailboxId, ZonedDateTime since, Limit limit) {
+            return Flux.fromIterable(entries.row(mailboxId).values())
+                .filter(e -> e.getSentAt().isAfter(since) || e.getSentAt().isEqual(since))
+                .sort(Comparator.comparing(Entry::getSentAt).reversed())
+                .map(Entry::getMessageId)
+                .take(limit.getLimit().get());
+        }
+
+        @Override
+        public Flux<MessageId> listMailboxContentSinceAfterSortedBySentAt(MailboxId mailboxId, ZonedDateTime since, Limit limit) {
+            return Flux.fromIterable(entries.row(mailboxId).values())
+                .filter(e -> e.getReceivedAt().isAfter(since) || e.getReceivedAt().isEqual(since))
+                .sort(Comparator.comparing(Entry::getSentAt).reversed())
+                .map(Entry::getMessageId)
+                .take(limit.getLimit().get());
+        }
+
+        @Override
+        public Flux<MessageId> listMailboxContentSortedByReceivedAt(MailboxId mailboxId, Limit limit) {
+            return Flux.fromIterable(entries.row(mailboxId).values())
+                .sort(Comparator.comparing(Entry::getReceivedAt).reversed())
+                .map(Entry::getMessageId)
+                .take(limit.getLimit().get());
+        }
+
+        @Override
+        public Flux<MessageId> listMailboxContentSinceAfterSortedByReceivedAt(MailboxId mailboxId, ZonedDateTime since, Limit limit) {
+            return Flux.fromIterable(entries.row(mailboxId).values())
+                .filter(e -> e.getReceivedAt().isAfter(since) || e.getReceivedAt().isEqual(since))
+                .sort(Comparator.comparing(Entry::getReceivedAt).reversed())
+                .map(Entry::getMessageId)
+                .take(limit.getLimit().get());
+        }
+
+        @Override
+        public Flux<MessageId> listMailboxContentBeforeSortedByReceivedAt(MailboxId mailboxId, ZonedDateTime before, Limit limit) {
+            return Flux.fromIterable(entries.row(mailboxId).values())
+                .filter(e -> e.getReceivedAt().isBefore(before) || e.getReceivedAt().isEqual(before))
+                .sort(Comparator.comparing(Entry::getReceivedAt).reversed())
+                .map(Entry::getMessageId)
+                .take(limit.getLimit().get());
+        }
+
+        @Override
+        public Mono<Void> delete(MailboxId mailboxId, MessageId messageId) {
+            return Mono.fromRunnable(() -> entries.remove(mailboxId, messageId));
+        }
+
+        @Override
+        public Mono<Void> delete(MailboxId mailboxId) {
+            return Mono.fromRunnable(() -> entries.row(mailboxId).clear());
+        }
+
+        @Override
+        public Mono<Void> save(MailboxId mailboxId, ZonedDateTime sentAt, ZonedDateTime receivedAt, MessageId messageId) {
+            return Mono.fromRunnable(() -> entries.put(mailboxId, messageId, new Entry(mailboxId, messageId, sentAt, receivedAt)));
+        }
+    }
+
+    private static final MailboxId MAILBOX_ID = TestId.of(1);
+    private static final ZonedDateTime ORIGIN = ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    @Param({"SORTED_INDEX", "FULL_SORT"})
+    Implementation implementation;
+
+    @Param({"1000", "100000"})
+    int mailboxSize;
+
+    @Param({"50"})
+    int limit;
+
+    private EmailQueryView view;
+    private Limit queryLimit;
+    private ZonedDateTime median;
+
+    @Setup
+    public void setUp() {
+        view = switch (implementation) {
+            case SORTED_INDEX -> new MemoryEmailQueryView();
+            case FULL_SORT -> new FullSortEmailQueryView();
+        };
+        queryLimit = Limit.limit(limit);
+        median = ORIGIN.plusMinutes(mailboxSize / 2);
+
+        // Messages are received in a random order, and sent a few minutes before being received
+        Random random = new Random(42);
+        for (int i = 0; i < mailboxSize; i++) {
+            ZonedDateTime receivedAt = ORIGIN.plusMinutes(random.nextInt(mailboxSize));
+            ZonedDateTime sentAt = receivedAt.minusMinutes(random.nextInt(10));
+            view.save(MAILBOX_ID, sentAt, receivedAt, TestMessageId.of(i)).block();
+        }
+    }
+
+    @Benchmark
+    public List<MessageId> sortedByReceivedAt() {
+        return view.listMailboxContentSortedByReceivedAt(MAILBOX_ID, queryLimit).collectList().block();
+    }
+
+    @Benchmark
+    public List<MessageId> sortedBySentAt() {
+        return view.listMailboxContentSortedBySentAt(MAILBOX_ID, queryLimit).collectList().block();
+    }
+
+    @Benchmark
+    public List<MessageId> sinceSentAt() {
+        return view.listMailboxContentSinceSentAt(MAILBOX_ID, median, queryLimit).collectList().block();
+    }
+
+    @Benchmark
+    public List<MessageId> beforeSortedByReceivedAt() {
+        return view.listMailboxContentBeforeSortedByReceivedAt(MAILBOX_ID, median, queryLimit).collectList().block();
+    }
+}
@@ -0,0 +1,106 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.benchmarks.mailbox;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.james.benchmarks.MessageGenerator;
+import org.apache.james.core.Username;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.inmemory.InMemoryMailboxManager;
+import org.apache.james.mailbox.inmemory.manager.InMemoryIntegrationResources;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.store.StoreMessageManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * {@link StoreMessageManager#appendMessage(MessageManager.AppendCommand, MailboxSession)} against the
+ * in-memory mapper, with the default listeners (quota, scanning search index) registered.
+ *
+ * The mailbox is pre-filled with {@code mailboxSize} messages before each iteration so that the cost of
+ * per-mailbox structures growing with the mailbox size is visible. Each appended message is deleted
+ * right after the measured call so that the mailbox size, and the heap, stay constant.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AppendMessageBenchmark {
+    private static final Username USERNAME = Username.of("bob@domain.tld");
+
+    @Param({"1024", "65536", "1048576"})
+    int messageSize;
+
+    @Param({"0", "10000"})
+    int mailboxSize;
+
+    private byte[] message;
+    private MailboxSession session;
+    private MessageManager messageManager;
+    private MessageManager.AppendResult lastAppend;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        message = MessageGenerator.generate(messageSize, 0, 0);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpIteration() throws Exception {
+        InMemoryMailboxManager mailboxManager = InMemoryIntegrationResources.defaultResources().getMailboxManager();
+        session = mailboxManager.createSystemSession(USERNAME);
+        MailboxPath inbox = MailboxPath.inbox(session);
+        mailboxManager.createMailbox(inbox, session);
+        messageManager = mailboxManager.getMailbox(inbox, session);
+
+        byte[] filler = MessageGenerator.generate(256, 0, 0);
+        for (int i = 0; i < mailboxSize; i++) {
+            messageManager.appendMessage(MessageManager.AppendCommand.builder().build(filler), session);
+        }
+    }
+
+    @Benchmark
+    public MessageManager.AppendResult appendMessage() throws MailboxException {
+        lastAppend = messageManager.appendMessage(MessageManager.AppendCommand.builder().build(message), session);
+        return lastAppend;
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteAppendedMessage() throws MailboxException {
+        messageManager.delete(ImmutableList.of(lastAppend.getId().getUid()), session);
+    }
+}
@@ -0,0 +1,118 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.benchmarks.mailbox;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import jakarta.mail.Flags;
+
+import org.apache.james.core.Username;
+import org.apache.james.event.json.MailboxEventSerializer;
+import org.apache.james.events.Event;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.ModSeq;
+import org.apache.james.mailbox.events.MailboxEvents.FlagsUpdated;
+import org.apache.james.mailbox.inmemory.InMemoryId;
+import org.apache.james.mailbox.inmemory.InMemoryMessageId;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.UpdatedFlags;
+import org.apache.james.mailbox.store.quota.DefaultUserQuotaRootResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Serialization of a {@link FlagsUpdated} event, as published on the distributed event bus, in JSON and in the
+ * compact binary format.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EventSerializationBenchmark {
+    public enum Format {
+        JSON,
+        BINARY
+    }
+
+    private static final Username USERNAME = Username.of("bob@domain.tld");
+
+    @Param({"JSON", "BINARY"})
+    Format format;
+
+    @Param({"1", "100", "10000"})
+    int messageCount;
+
+    private MailboxEventSerializer serializer;
+    private FlagsUpdated event;
+    private byte[] serialized;
+
+    @Setup
+    public void setUp() {
+        serializer = new MailboxEventSerializer(new InMemoryId.Factory(), new InMemoryMessageId.Factory(),
+            new DefaultUserQuotaRootResolver.DefaultQuotaRootDeserializer());
+        event = new FlagsUpdated(MailboxSession.SessionId.of(42), USERNAME, MailboxPath.inbox(USERNAME), InMemoryId.of(18),
+            IntStream.rangeClosed(1, messageCount)
+                .mapToObj(i -> UpdatedFlags.builder()
+                    .uid(MessageUid.of(i))
+                    .modSeq(ModSeq.of(messageCount + i))
+                    .messageId(InMemoryMessageId.of(i))
+                    .oldFlags(new Flags())
+                    .newFlags(new Flags(Flags.Flag.SEEN))
+                    .build())
+                .collect(ImmutableList.toImmutableList()),
+            Event.EventId.random());
+        serialized = serialize();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        switch (format) {
+            case BINARY:
+                return serializer.toBinary(event).get();
+            default:
+                return serializer.toJsonBytes(event);
+        }
+    }
+
+    @Benchmark
+    public Event deserialize() {
+        switch (format) {
+            case BINARY:
+                return serializer.fromBinary(serialized);
+            default:
+                return serializer.fromBytes(serialized);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.benchmarks.mailbox;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.james.benchmarks.MessageGenerator;
+import org.apache.james.mailbox.store.mail.model.impl.MessageParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Attachment extraction with {@link MessageParser}, as performed on every append.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MessageParserBenchmark {
+    @Param({"1024", "65536", "1048576"})
+    int bodySize;
+
+    @Param({"0", "1", "5"})
+    int attachmentCount;
+
+    @Param({"102400"})
+    int attachmentSize;
+
+    private MessageParser messageParser;
+    private byte[] message;
+
+    @Setup
+    public void setUp() {
+        messageParser = new MessageParser();
+        message = MessageGenerator.generate(bodySize, attachmentCount, attachmentSize);
+    }
+
+    @Benchmark
+    public int retrieveAttachments() throws IOException {
+        MessageParser.ParsingResult result = messageParser.retrieveAttachments(new ByteArrayInputStream(message));
+        try {
+            return result.getAttachments().size();
+        } finally {
+            result.dispose();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.events;
+
+import java.util.Optional;
+
+/**
+ * {@link EventSerializer} also supporting a compact binary representation of the events.
+ *
+ * Publishers check for this interface before relying on the binary format, and fall back to JSON otherwise.
+ */
+public interface BinaryEventSerializer extends EventSerializer {
+    /**
+     * Compact binary representation of the event, to be read with {@link #fromBinary(byte[])}.
+     *
+     * @return empty when this serializer has no binary representation for this event, which should then be serialized
+     * as JSON.
+     */
+    Optional<byte[]> toBinary(Event event);
+
+    Event fromBinary(byte[] serialized);
+}
@@ -80,4 +80,11 @@ public interface Event {
     boolean isNoop();
 
     EventId getEventId();
+
+    /**
+     * Events sharing the same ordering key are delivered in order when group listeners are executed asynchronously.
+     */
+    default Object getOrderingKey() {
+        return getUsername();
+    }
 }
@@ -21,12 +21,13 @@ package org.apache.james.events;
 
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 
 @Singleton
-public class EventSerializersAggregator implements EventSerializer {
+public class EventSerializersAggregator implements BinaryEventSerializer {
     private final Set<EventSerializer> allEventSerializers;
 
     @Inject
@@ -52,6 +53,45 @@ public class EventSerializersAggregator implements EventSerializer {
             .orElseThrow(() -> new RuntimeException("Could not deserialize event: " + serialized));
     }
 
+    @Override
+    public Optional<byte[]> toBinary(Event event) {
+        return binaryEventSerializers()
+            .map(eventSerializer -> serializeToBinary(event, eventSerializer))
+            .flatMap(Optional::stream)
+            .findFirst();
+    }
+
+    @Override
+    public Event fromBinary(byte[] serialized) {
+        return binaryEventSerializers()
+            .map(eventSerializer -> deserializeBinary(serialized, eventSerializer))
+            .flatMap(Optional::stream)
+            .findFirst()
+            .orElseThrow(() -> new RuntimeException("Could not deserialize binary event of " + serialized.length + " bytes"));
+    }
+
+    private Stream<BinaryEventSerializer> binaryEventSerializers() {
+        return allEventSerializers.stream()
+            .filter(BinaryEventSerializer.class::isInstance)
+            .map(BinaryEventSerializer.class::cast);
+    }
+
+    private Optional<byte[]> serializeToBinary(Event event, BinaryEventSerializer eventSerializer) {
+        try {
+            return eventSerializer.toBinary(event);
+        } catch (Exception ex) {
+            return Optional.empty();
+        }
+    }
+
+    private Optional<Event> deserializeBinary(byte[] serialized, BinaryEventSerializer eventSerializer) {
+        try {
+            return Optional.of(eventSerializer.fromBinary(serialized));
+        } catch (Exception ex) {
+            return Optional.empty();
+        }
+    }
+
     private Optional<String> serialize(Event event, EventSerializer eventSerializer) {
         try {
             return Optional.of(eventSerializer.toJson(event));
@@ -32,6 +32,7 @@ import static org.apache.james.events.RabbitMQEventBus.EVENT_BUS_ID;
 
 import java.time.Duration;
 import java.util.Collection;
+import java.util.Optional;
 import java.util.Set;
 
 import org.apache.james.backends.rabbitmq.RabbitMQConfiguration;
@@ -59,12 +60,24 @@ import reactor.util.retry.Retry;
 
 public class EventDispatcher {
     private static final Logger LOGGER = LoggerFactory.getLogger(EventDispatcher.class);
+    private static final String BINARY_CONTENT_TYPE = "application/octet-stream";
+
+    private static class SerializedEvent {
+        private final byte[] payload;
+        private final AMQP.BasicProperties properties;
+
+        SerializedEvent(byte[] payload, AMQP.BasicProperties properties) {
+            this.payload = payload;
+            this.properties = properties;
+        }
+    }
 
     private final NamingStrategy namingStrategy;
     private final EventSerializer eventSerializer;
     private final Sender sender;
     private final LocalListenerRegistry localListenerRegistry;
     private final AMQP.BasicProperties basicProperties;
+    private final AMQP.BasicProperties binaryBasicProperties;
     private final ListenerExecutor listenerExecutor;
     private final EventDeadLetters deadLetters;
     private final RabbitMQConfiguration configuration;
@@ -85,6 +98,11 @@ public class EventDispatcher {
             .priority(PERSISTENT_TEXT_PLAIN.getPriority())
             .contentType(PERSISTENT_TEXT_PLAIN.getContentType())
             .build();
+        this.binaryBasicProperties = basicProperties.builder()
+            .headers(ImmutableMap.of(EVENT_BUS_ID, eventBusId.asString(),
+                EventSerializationFormat.EVENT_FORMAT, EventSerializationFormat.BINARY_FORMAT_VALUE))
+            .contentType(BINARY_CONTENT_TYPE)
+            .build();
         this.listenerExecutor = listenerExecutor;
         this.deadLetters = deadLetters;
         this.configuration = configuration;
@@ -159,7 +177,7 @@ public class EventDispatcher {
             .then();
     }
 
-    private Mono<Void> remoteGroupsDispatch(byte[] serializedEvent, Event event) {
+    private Mono<Void> remoteGroupsDispatch(SerializedEvent serializedEvent, Event event) {
         return remoteDispatchWithAcks(serializedEvent)
             .doOnError(ex -> LOGGER.error(
                 "cannot dispatch event of type '{}' belonging '{}' with id '{}' to remote groups, store it into dead letter",
@@ -178,21 +196,21 @@ public class EventDispatcher {
         return Mono.empty();
     }
 
-    private Mono<Void> remoteKeysDispatch(byte[] serializedEvent, Set<RegistrationKey> keys) {
+    private Mono<Void> remoteKeysDispatch(SerializedEvent serializedEvent, Set<RegistrationKey> keys) {
         return remoteDispatch(serializedEvent,
             keys.stream()
                 .map(RoutingKey::of)
                 .collect(ImmutableList.toImmutableList()));
     }
 
-    private Mono<Void> remoteDispatch(byte[] serializedEvent, Collection<RoutingKey> routingKeys) {
+    private Mono<Void> remoteDispatch(SerializedEvent serializedEvent, Collection<RoutingKey> routingKeys) {
         if (routingKeys.isEmpty()) {
             return Mono.empty();
         }
         return sender.send(toMessages(serializedEvent, routingKeys));
     }
 
-    private Mono<Void> remoteDispatchWithAcks(byte[] serializedEvent) {
+    private Mono<Void> remoteDispatchWithAcks(SerializedEvent serializedEvent) {
         if (configuration.isEventBusPublishConfirmEnabled()) {
             return Mono.from(sender.sendWithPublishConfirms(Mono.just(toMessage(serializedEvent, RoutingKey.empty())))
                 .subscribeOn(Schedulers.boundedElastic())) // channel.confirmSelect is synchronous
@@ -205,16 +223,22 @@ public class EventDispatcher {
         }
     }
 
-    private Flux<OutboundMessage> toMessages(byte[] serializedEvent, Collection<RoutingKey> routingKeys) {
+    private Flux<OutboundMessage> toMessages(SerializedEvent serializedEvent, Collection<RoutingKey> routingKeys) {
         return Flux.fromIterable(routingKeys)
                 .map(routingKey -> toMessage(serializedEvent, routingKey));
     }
 
-    private OutboundMessage toMessage(byte[] serializedEvent, RoutingKey routingKey) {
-        return new OutboundMessage(namingStrategy.exchange(), routingKey.asString(), basicProperties, serializedEvent);
+    private OutboundMessage toMessage(SerializedEvent serializedEvent, RoutingKey routingKey) {
+        return new OutboundMessage(namingStrategy.exchange(), routingKey.asString(), serializedEvent.properties, serializedEvent.payload);
     }
 
-    private byte[] serializeEvent(Event event) {
-        return eventSerializer.toJsonBytes(event);
+    private SerializedEvent serializeEvent(Event event) {
+        if (configuration.isEventBusBinarySerializationEnabled() && eventSerializer instanceof BinaryEventSerializer binaryEventSerializer) {
+            Optional<byte[]> binary = binaryEventSerializer.toBinary(event);
+            if (binary.isPresent()) {
+                return new SerializedEvent(binary.get(), binaryBasicProperties);
+            }
+        }
+        return new SerializedEvent(eventSerializer.toJsonBytes(event), basicProperties);
     }
 }
@@ -0,0 +1,56 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.events;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Format of the events published on RabbitMQ, carried by the {@link #EVENT_FORMAT} message header.
+ *
+ * Messages without this header are JSON encoded, which keeps messages published by previous versions readable.
+ * Consumers read both formats, publishers only use the binary one when enabled, for the events supporting it.
+ */
+enum EventSerializationFormat {
+    JSON,
+    BINARY;
+
+    static final String EVENT_FORMAT = "eventFormat";
+    static final String BINARY_FORMAT_VALUE = "binary";
+
+    static EventSerializationFormat fromHeaders(Map<String, Object> headers) {
+        return Optional.ofNullable(headers)
+            .flatMap(values -> Optional.ofNullable(values.get(EVENT_FORMAT)))
+            .map(Object::toString)
+            .filter(BINARY_FORMAT_VALUE::equals)
+            .map(any -> BINARY)
+            .orElse(JSON);
+    }
+
+    static Event deserialize(EventSerializer eventSerializer, Map<String, Object> headers, byte[] body) {
+        if (fromHeaders(headers) == BINARY) {
+            if (eventSerializer instanceof BinaryEventSerializer binaryEventSerializer) {
+                return binaryEventSerializer.fromBinary(body);
+            }
+            throw new IllegalStateException("Received a binary event but " + eventSerializer.getClass().getName() + " does not support binary serialization");
+        }
+        return eventSerializer.fromBytes(body);
+    }
+}
@@ -153,10 +153,9 @@ class GroupRegistration implements Registration {
     }
 
     private Mono<Void> deliver(AcknowledgableDelivery acknowledgableDelivery) {
-        byte[] eventAsBytes = acknowledgableDelivery.getBody();
         int currentRetryCount = getRetryCount(acknowledgableDelivery);
 
-        return deserializeEvent(eventAsBytes)
+        return deserializeEvent(acknowledgableDelivery)
             .flatMap(event -> delayGenerator.delayIfHaveTo(currentRetryCount)
                 .flatMap(any -> runListenerReliably(currentRetryCount, event))
                 .then(Mono.<Void>fromRunnable(acknowledgableDelivery::ack).subscribeOn(Schedulers.boundedElastic())))
@@ -173,8 +172,9 @@ class GroupRegistration implements Registration {
             .onErrorResume(throwable -> retryHandler.handleRetry(event, currentRetryCount, throwable));
     }
 
-    private Mono<Event> deserializeEvent(byte[] eventAsBytes) {
-        return Mono.fromCallable(() -> eventSerializer.fromBytes(eventAsBytes))
+    private Mono<Event> deserializeEvent(AcknowledgableDelivery acknowledgableDelivery) {
+        return Mono.fromCallable(() -> EventSerializationFormat.deserialize(eventSerializer,
+                acknowledgableDelivery.getProperties().getHeaders(), acknowledgableDelivery.getBody()))
             .subscribeOn(Schedulers.parallel());
     }
 
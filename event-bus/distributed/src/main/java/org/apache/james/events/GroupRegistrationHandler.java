@@ -136,9 +136,7 @@ class GroupRegistrationHandler {
     }
 
     private Mono<Void> deliver(AcknowledgableDelivery acknowledgableDelivery) {
-        byte[] eventAsBytes = acknowledgableDelivery.getBody();
-
-        return deserializeEvent(eventAsBytes)
+        return deserializeEvent(acknowledgableDelivery)
             .flatMapIterable(aa -> groupRegistrations.values()
                 .stream()
                 .map(group -> Pair.of(group, aa))
@@ -154,8 +152,9 @@ class GroupRegistrationHandler {
             });
     }
 
-    private Mono<Event> deserializeEvent(byte[] eventAsBytes) {
-        return Mono.fromCallable(() -> eventSerializer.fromBytes(eventAsBytes));
+    private Mono<Event> deserializeEvent(AcknowledgableDelivery acknowledgableDelivery) {
+        return Mono.fromCallable(() -> EventSerializationFormat.deserialize(eventSerializer,
+            acknowledgableDelivery.getProperties().getHeaders(), acknowledgableDelivery.getBody()));
     }
 
     void stop() {
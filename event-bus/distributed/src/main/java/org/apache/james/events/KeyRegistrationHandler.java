@@ -219,7 +219,7 @@ class KeyRegistrationHandler {
     }
 
     private Event toEvent(Delivery delivery) {
-        return eventSerializer.fromBytes(delivery.getBody());
+        return EventSerializationFormat.deserialize(eventSerializer, delivery.getProperties().getHeaders(), delivery.getBody());
     }
 
     private StructuredLogger structuredLogger(Event event, RegistrationKey key) {
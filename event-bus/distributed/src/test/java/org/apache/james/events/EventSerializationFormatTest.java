@@ -0,0 +1,54 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.events;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.rabbitmq.client.impl.LongStringHelper;
+
+class EventSerializationFormatTest {
+    @Test
+    void fromHeadersShouldDefaultToJsonWhenNoHeaders() {
+        assertThat(EventSerializationFormat.fromHeaders(null))
+            .isEqualTo(EventSerializationFormat.JSON);
+    }
+
+    @Test
+    void fromHeadersShouldDefaultToJsonWhenNoFormatHeader() {
+        assertThat(EventSerializationFormat.fromHeaders(ImmutableMap.of(RabbitMQEventBus.EVENT_BUS_ID, "id")))
+            .isEqualTo(EventSerializationFormat.JSON);
+    }
+
+    @Test
+    void fromHeadersShouldReadBinaryFormat() {
+        assertThat(EventSerializationFormat.fromHeaders(ImmutableMap.of(EventSerializationFormat.EVENT_FORMAT,
+                LongStringHelper.asLongString(EventSerializationFormat.BINARY_FORMAT_VALUE))))
+            .isEqualTo(EventSerializationFormat.BINARY);
+    }
+
+    @Test
+    void fromHeadersShouldFallbackToJsonWhenUnknownFormat() {
+        assertThat(EventSerializationFormat.fromHeaders(ImmutableMap.of(EventSerializationFormat.EVENT_FORMAT, "unknown")))
+            .isEqualTo(EventSerializationFormat.JSON);
+    }
+}
@@ -19,41 +19,183 @@
 
 package org.apache.james.events;
 
+import java.time.Duration;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
 
+import jakarta.annotation.PreDestroy;
 import jakarta.inject.Inject;
 
 import org.apache.james.events.delivery.EventDelivery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
 
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+import reactor.util.retry.Retry;
 
 public class InVMEventBus implements EventBus {
+    private static final Logger LOGGER = LoggerFactory.getLogger(InVMEventBus.class);
+    private static final Duration LANE_FULL_FIRST_BACKOFF = Duration.ofMillis(1);
+    private static final Duration LANE_FULL_MAX_BACKOFF = Duration.ofMillis(100);
+    private static final int NO_PREFETCH = 0;
 
     public static EventBusName IN_VN_EVENTBUS_NAME = new EventBusName("InVMEventBus");
 
+    private static class LaneFullException extends RuntimeException {
+        LaneFullException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Buffers the events of a group listener, and delivers them one after the other.
+     */
+    private class Lane {
+        private final Group group;
+        private final Sinks.Many<Event> sink;
+        private final Sinks.Empty<Void> terminated;
+        private final Disposable subscription;
+
+        Lane(Group group, EventListener.ReactiveEventListener listener, int capacity) {
+            this.group = group;
+            this.sink = Sinks.many().unicast().onBackpressureBuffer(Queues.<Event>get(capacity).get());
+            this.terminated = Sinks.empty();
+            this.subscription = sink.asFlux()
+                .concatMap(event -> Mono.defer(() -> groupDelivery(event, listener, group))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .onErrorResume(e -> {
+                        LOGGER.error("Asynchronous delivery of {} to {} failed", event.getEventId().getId(), group.asString(), e);
+                        return Mono.empty();
+                    }), NO_PREFETCH)
+                .doFinally(signal -> terminated.tryEmitEmpty())
+                .subscribe();
+        }
+
+        Mono<Void> enqueue(Event event) {
+            return Mono.fromCallable(() -> tryEnqueue(event))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, LANE_FULL_FIRST_BACKOFF)
+                    .maxBackoff(LANE_FULL_MAX_BACKOFF)
+                    .filter(LaneFullException.class::isInstance))
+                .timeout(configuration.getGroupDeliveryEnqueueTimeout())
+                .onErrorResume(TimeoutException.class, e -> {
+                    LOGGER.error("Could not enqueue {} for {} within {}, storing it in dead letters",
+                        event.getEventId().getId(), group.asString(), configuration.getGroupDeliveryEnqueueTimeout());
+                    return Mono.just(false);
+                })
+                .filter(enqueued -> !enqueued)
+                .flatMap(any -> eventDeadLetters.store(group, event))
+                .then();
+        }
+
+        private synchronized boolean tryEnqueue(Event event) {
+            Sinks.EmitResult result = sink.tryEmitNext(event);
+            if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+                throw new LaneFullException();
+            }
+            if (result.isFailure()) {
+                LOGGER.warn("Storing {} in dead letters as the delivery lane of {} is {}", event.getEventId().getId(), group.asString(), result);
+                return false;
+            }
+            return true;
+        }
+
+        synchronized void complete() {
+            sink.tryEmitComplete();
+        }
+
+        Mono<Void> terminated() {
+            return terminated.asMono();
+        }
+
+        void dispose() {
+            subscription.dispose();
+        }
+    }
+
+    private class GroupLanes {
+        private final List<Lane> lanes;
+
+        GroupLanes(Group group, EventListener.ReactiveEventListener listener) {
+            this.lanes = IntStream.range(0, configuration.getGroupDeliveryLanes())
+                .mapToObj(i -> new Lane(group, listener, configuration.getGroupDeliveryLaneCapacity()))
+                .collect(ImmutableList.toImmutableList());
+        }
+
+        Mono<Void> enqueue(Event event) {
+            int laneIndex = Math.floorMod(Objects.hashCode(event.getOrderingKey()), lanes.size());
+            return lanes.get(laneIndex).enqueue(event);
+        }
+
+        void complete() {
+            lanes.forEach(Lane::complete);
+        }
+
+        Mono<Void> terminated() {
+            return Flux.fromIterable(lanes)
+                .flatMap(Lane::terminated)
+                .then();
+        }
+
+        void dispose() {
+            lanes.forEach(Lane::dispose);
+        }
+    }
+
     private final Multimap<RegistrationKey, EventListener.ReactiveEventListener> registrations;
     private final ConcurrentHashMap<Group, EventListener.ReactiveEventListener> groups;
+    private final ConcurrentHashMap<Group, GroupLanes> groupLanes;
     private final EventDelivery eventDelivery;
     private final RetryBackoffConfiguration retryBackoff;
     private final EventDeadLetters eventDeadLetters;
+    private final InVMEventBusConfiguration configuration;
 
-    @Inject
     public InVMEventBus(EventDelivery eventDelivery, RetryBackoffConfiguration retryBackoff, EventDeadLetters eventDeadLetters) {
+        this(eventDelivery, retryBackoff, eventDeadLetters, InVMEventBusConfiguration.DEFAULT);
+    }
+
+    @Inject
+    public InVMEventBus(EventDelivery eventDelivery, RetryBackoffConfiguration retryBackoff, EventDeadLetters eventDeadLetters,
+                        InVMEventBusConfiguration configuration) {
         this.eventDelivery = eventDelivery;
         this.retryBackoff = retryBackoff;
         this.eventDeadLetters = eventDeadLetters;
+        this.configuration = configuration;
         this.registrations = Multimaps.synchronizedSetMultimap(
                 Multimaps.newSetMultimap(new HashMap<>(), ConcurrentHashMap::newKeySet));
         this.groups = new ConcurrentHashMap<>();
+        this.groupLanes = new ConcurrentHashMap<>();
+    }
+
+    @PreDestroy
+    public void stop() {
+        List<GroupLanes> stoppedLanes = ImmutableList.copyOf(groupLanes.values());
+        groupLanes.clear();
+        stoppedLanes.forEach(GroupLanes::complete);
+
+        Flux.fromIterable(stoppedLanes)
+            .flatMap(GroupLanes::terminated)
+            .then()
+            .timeout(configuration.getGroupDeliveryDrainTimeout(), Mono.fromRunnable(() ->
+                LOGGER.warn("Group delivery lanes were not drained within {}, pending deliveries are lost", configuration.getGroupDeliveryDrainTimeout())))
+            .block();
+        stoppedLanes.forEach(GroupLanes::dispose);
     }
 
     @Override
@@ -66,7 +208,15 @@ public class InVMEventBus implements EventBus {
     public Registration register(EventListener.ReactiveEventListener listener, Group group) {
         EventListener previous = groups.putIfAbsent(group, listener);
         if (previous == null) {
-            return () -> Mono.fromRunnable(() -> groups.remove(group, listener));
+            if (configuration.isAsynchronousGroupDelivery()) {
+                groupLanes.put(group, new GroupLanes(group, listener));
+            }
+            return () -> Mono.fromRunnable(() -> {
+                if (groups.remove(group, listener)) {
+                    Optional.ofNullable(groupLanes.remove(group))
+                        .ifPresent(GroupLanes::complete);
+                }
+            });
         }
         throw new GroupAlreadyRegistered(group);
     }
@@ -111,6 +261,11 @@ public class InVMEventBus implements EventBus {
     }
 
     private Mono<Void> groupDeliveries(Event event) {
+        if (configuration.isAsynchronousGroupDelivery()) {
+            return Flux.fromIterable(groupLanes.values())
+                .concatMap(lanes -> lanes.enqueue(event))
+                .then();
+        }
         return Flux.fromIterable(groups.entrySet())
             .flatMap(entry -> groupDelivery(event, entry.getValue(), entry.getKey()), EventBus.EXECUTION_RATE)
             .then();
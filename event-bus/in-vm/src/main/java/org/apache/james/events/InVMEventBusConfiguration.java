@@ -0,0 +1,203 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.events;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+public class InVMEventBusConfiguration {
+    public static class Builder {
+        private Optional<Boolean> asynchronousGroupDelivery;
+        private Optional<Integer> groupDeliveryLanes;
+        private Optional<Integer> groupDeliveryLaneCapacity;
+        private Optional<Duration> groupDeliveryEnqueueTimeout;
+        private Optional<Duration> groupDeliveryDrainTimeout;
+
+        private Builder() {
+            asynchronousGroupDelivery = Optional.empty();
+            groupDeliveryLanes = Optional.empty();
+            groupDeliveryLaneCapacity = Optional.empty();
+            groupDeliveryEnqueueTimeout = Optional.empty();
+            groupDeliveryDrainTimeout = Optional.empty();
+        }
+
+        public Builder asynchronousGroupDelivery(boolean asynchronousGroupDelivery) {
+            this.asynchronousGroupDelivery = Optional.of(asynchronousGroupDelivery);
+            return this;
+        }
+
+        public Builder asynchronousGroupDelivery(Optional<Boolean> asynchronousGroupDelivery) {
+            this.asynchronousGroupDelivery = asynchronousGroupDelivery;
+            return this;
+        }
+
+        public Builder groupDeliveryLanes(int groupDeliveryLanes) {
+            this.groupDeliveryLanes = Optional.of(groupDeliveryLanes);
+            return this;
+        }
+
+        public Builder groupDeliveryLanes(Optional<Integer> groupDeliveryLanes) {
+            this.groupDeliveryLanes = groupDeliveryLanes;
+            return this;
+        }
+
+        public Builder groupDeliveryLaneCapacity(int groupDeliveryLaneCapacity) {
+            this.groupDeliveryLaneCapacity = Optional.of(groupDeliveryLaneCapacity);
+            return this;
+        }
+
+        public Builder groupDeliveryLaneCapacity(Optional<Integer> groupDeliveryLaneCapacity) {
+            this.groupDeliveryLaneCapacity = groupDeliveryLaneCapacity;
+            return this;
+        }
+
+        public Builder groupDeliveryEnqueueTimeout(Duration groupDeliveryEnqueueTimeout) {
+            this.groupDeliveryEnqueueTimeout = Optional.of(groupDeliveryEnqueueTimeout);
+            return this;
+        }
+
+        public Builder groupDeliveryEnqueueTimeout(Optional<Duration> groupDeliveryEnqueueTimeout) {
+            this.groupDeliveryEnqueueTimeout = groupDeliveryEnqueueTimeout;
+            return this;
+        }
+
+        public Builder groupDeliveryDrainTimeout(Duration groupDeliveryDrainTimeout) {
+            this.groupDeliveryDrainTimeout = Optional.of(groupDeliveryDrainTimeout);
+            return this;
+        }
+
+        public Builder groupDeliveryDrainTimeout(Optional<Duration> groupDeliveryDrainTimeout) {
+            this.groupDeliveryDrainTimeout = groupDeliveryDrainTimeout;
+            return this;
+        }
+
+        public InVMEventBusConfiguration build() {
+            return new InVMEventBusConfiguration(
+                asynchronousGroupDelivery.orElse(DEFAULT_ASYNCHRONOUS_GROUP_DELIVERY),
+                groupDeliveryLanes.orElse(DEFAULT_GROUP_DELIVERY_LANES),
+                groupDeliveryLaneCapacity.orElse(DEFAULT_GROUP_DELIVERY_LANE_CAPACITY),
+                groupDeliveryEnqueueTimeout.orElse(DEFAULT_GROUP_DELIVERY_ENQUEUE_TIMEOUT),
+                groupDeliveryDrainTimeout.orElse(DEFAULT_GROUP_DELIVERY_DRAIN_TIMEOUT));
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    static final boolean DEFAULT_ASYNCHRONOUS_GROUP_DELIVERY = false;
+    static final int DEFAULT_GROUP_DELIVERY_LANES = 8;
+    static final int DEFAULT_GROUP_DELIVERY_LANE_CAPACITY = 1024;
+    static final Duration DEFAULT_GROUP_DELIVERY_ENQUEUE_TIMEOUT = Duration.ofMinutes(1);
+    static final Duration DEFAULT_GROUP_DELIVERY_DRAIN_TIMEOUT = Duration.ofSeconds(30);
+    public static final InVMEventBusConfiguration DEFAULT = builder().build();
+
+    private final boolean asynchronousGroupDelivery;
+    private final int groupDeliveryLanes;
+    private final int groupDeliveryLaneCapacity;
+    private final Duration groupDeliveryEnqueueTimeout;
+    private final Duration groupDeliveryDrainTimeout;
+
+    private InVMEventBusConfiguration(boolean asynchronousGroupDelivery, int groupDeliveryLanes, int groupDeliveryLaneCapacity,
+                                      Duration groupDeliveryEnqueueTimeout, Duration groupDeliveryDrainTimeout) {
+        Preconditions.checkArgument(groupDeliveryLanes > 0, "'groupDeliveryLanes' needs to be strictly positive");
+        Preconditions.checkArgument(groupDeliveryLaneCapacity > 0, "'groupDeliveryLaneCapacity' needs to be strictly positive");
+        Preconditions.checkArgument(!groupDeliveryEnqueueTimeout.isNegative() && !groupDeliveryEnqueueTimeout.isZero(),
+            "'groupDeliveryEnqueueTimeout' needs to be strictly positive");
+        Preconditions.checkArgument(!groupDeliveryDrainTimeout.isNegative(), "'groupDeliveryDrainTimeout' needs to be positive");
+
+        this.asynchronousGroupDelivery = asynchronousGroupDelivery;
+        this.groupDeliveryLanes = groupDeliveryLanes;
+        this.groupDeliveryLaneCapacity = groupDeliveryLaneCapacity;
+        this.groupDeliveryEnqueueTimeout = groupDeliveryEnqueueTimeout;
+        this.groupDeliveryDrainTimeout = groupDeliveryDrainTimeout;
+    }
+
+    /**
+     * When enabled, {@link EventBus#dispatch(Event, java.util.Set)} only waits for key listeners: group listeners are
+     * executed in the background, in order for events sharing the same {@link Event#getOrderingKey()}.
+     */
+    public boolean isAsynchronousGroupDelivery() {
+        return asynchronousGroupDelivery;
+    }
+
+    /**
+     * Count of lanes each group listener consumes concurrently.
+     */
+    public int getGroupDeliveryLanes() {
+        return groupDeliveryLanes;
+    }
+
+    /**
+     * Count of events a lane buffers before dispatching callers get slowed down.
+     */
+    public int getGroupDeliveryLaneCapacity() {
+        return groupDeliveryLaneCapacity;
+    }
+
+    /**
+     * How long dispatching callers wait for room in a full lane. Past it, the event is stored in the dead letters of the group.
+     */
+    public Duration getGroupDeliveryEnqueueTimeout() {
+        return groupDeliveryEnqueueTimeout;
+    }
+
+    /**
+     * How long {@link InVMEventBus#stop()} waits for the lanes to deliver their buffered events.
+     */
+    public Duration getGroupDeliveryDrainTimeout() {
+        return groupDeliveryDrainTimeout;
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof InVMEventBusConfiguration) {
+            InVMEventBusConfiguration that = (InVMEventBusConfiguration) o;
+
+            return Objects.equals(this.asynchronousGroupDelivery, that.asynchronousGroupDelivery)
+                && Objects.equals(this.groupDeliveryLanes, that.groupDeliveryLanes)
+                && Objects.equals(this.groupDeliveryLaneCapacity, that.groupDeliveryLaneCapacity)
+                && Objects.equals(this.groupDeliveryEnqueueTimeout, that.groupDeliveryEnqueueTimeout)
+                && Objects.equals(this.groupDeliveryDrainTimeout, that.groupDeliveryDrainTimeout);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(asynchronousGroupDelivery, groupDeliveryLanes, groupDeliveryLaneCapacity,
+            groupDeliveryEnqueueTimeout, groupDeliveryDrainTimeout);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("asynchronousGroupDelivery", asynchronousGroupDelivery)
+            .add("groupDeliveryLanes", groupDeliveryLanes)
+            .add("groupDeliveryLaneCapacity", groupDeliveryLaneCapacity)
+            .add("groupDeliveryEnqueueTimeout", groupDeliveryEnqueueTimeout)
+            .add("groupDeliveryDrainTimeout", groupDeliveryDrainTimeout)
+            .toString();
+    }
+}
@@ -0,0 +1,226 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.events;
+
+import static org.apache.james.events.EventBusTestFixture.GROUP_A;
+import static org.apache.james.events.EventBusTestFixture.NO_KEYS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Durations.ONE_MINUTE;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.apache.james.core.Username;
+import org.apache.james.events.delivery.InVmEventDelivery;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+class AsynchronousGroupDeliveryInVMEventBusTest implements KeyContract.SingleEventBusKeyContract, GroupContract.SingleEventBusGroupContract,
+    ErrorHandlingContract {
+
+    private InVMEventBus eventBus;
+    private MemoryEventDeadLetters deadLetters;
+
+    @BeforeEach
+    void setUp() {
+        deadLetters = new MemoryEventDeadLetters();
+        eventBus = new InVMEventBus(
+            new InVmEventDelivery(new RecordingMetricFactory()), EventBusTestFixture.RETRY_BACKOFF_CONFIGURATION, deadLetters,
+            InVMEventBusConfiguration.builder()
+                .asynchronousGroupDelivery(true)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventBus.stop();
+    }
+
+    @Test
+    void dispatchShouldNotWaitForGroupListeners() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger deliveries = new AtomicInteger();
+        eventBus.register(event -> {
+            latch.await();
+            deliveries.incrementAndGet();
+        }, GROUP_A);
+
+        eventBus.dispatch(EventBusTestFixture.EVENT, NO_KEYS).block(Duration.ofSeconds(5));
+        assertThat(deliveries.get()).isZero();
+
+        latch.countDown();
+        Awaitility.await().atMost(ONE_MINUTE).untilAsserted(() -> assertThat(deliveries.get()).isEqualTo(1));
+    }
+
+    @Test
+    void eventsSharingAnOrderingKeyShouldBeDeliveredInOrder() {
+        List<Event.EventId> deliveredEvents = new CopyOnWriteArrayList<>();
+        eventBus.register(event -> {
+            Thread.sleep((long) (Math.random() * 5));
+            deliveredEvents.add(event.getEventId());
+        }, GROUP_A);
+
+        ImmutableList<Event> events = IntStream.range(0, 100)
+            .mapToObj(i -> (Event) new EventBusTestFixture.TestEvent(Event.EventId.random(), Username.of("user")))
+            .collect(ImmutableList.toImmutableList());
+        Flux.fromIterable(events)
+            .concatMap(event -> eventBus.dispatch(event, NO_KEYS))
+            .blockLast();
+
+        Awaitility.await().atMost(ONE_MINUTE).untilAsserted(() -> assertThat(deliveredEvents)
+            .containsExactlyElementsOf(events.stream().map(Event::getEventId).collect(ImmutableList.toImmutableList())));
+    }
+
+    private void useConfiguration(InVMEventBusConfiguration configuration) {
+        eventBus.stop();
+        eventBus = new InVMEventBus(
+            new InVmEventDelivery(new RecordingMetricFactory()), EventBusTestFixture.RETRY_BACKOFF_CONFIGURATION, deadLetters,
+            configuration);
+    }
+
+    @Test
+    void dispatchShouldWaitWhenTheLaneIsFull() {
+        useConfiguration(InVMEventBusConfiguration.builder()
+            .asynchronousGroupDelivery(true)
+            .groupDeliveryLanes(1)
+            .groupDeliveryLaneCapacity(1)
+            .build());
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger deliveries = new AtomicInteger();
+        eventBus.register(event -> {
+            latch.await();
+            deliveries.incrementAndGet();
+        }, GROUP_A);
+        AtomicInteger dispatched = new AtomicInteger();
+
+        Mono<Void> dispatches = Flux.range(0, 5)
+            .concatMap(i -> eventBus.dispatch(new EventBusTestFixture.TestEvent(Event.EventId.random(), Username.of("user")), NO_KEYS)
+                .doOnSuccess(any -> dispatched.incrementAndGet()))
+            .then()
+            .cache();
+        dispatches.subscribe();
+
+        // One event being delivered, one buffered
+        Awaitility.await().atMost(ONE_MINUTE).untilAsserted(() -> assertThat(dispatched.get()).isEqualTo(2));
+        Mono.delay(Duration.ofMillis(200)).block();
+        assertThat(dispatched.get()).isEqualTo(2);
+
+        latch.countDown();
+        dispatches.block(Duration.ofMinutes(1));
+        Awaitility.await().atMost(ONE_MINUTE).untilAsserted(() -> assertThat(deliveries.get()).isEqualTo(5));
+    }
+
+    @Test
+    void dispatchShouldStoreInDeadLettersEventsThatCannotBeEnqueuedInTime() {
+        useConfiguration(InVMEventBusConfiguration.builder()
+            .asynchronousGroupDelivery(true)
+            .groupDeliveryLanes(1)
+            .groupDeliveryLaneCapacity(1)
+            .groupDeliveryEnqueueTimeout(Duration.ofMillis(200))
+            .build());
+        CountDownLatch latch = new CountDownLatch(1);
+        eventBus.register(event -> {
+            latch.await();
+        }, GROUP_A);
+
+        // One event being delivered, one buffered, one timing out
+        Flux.range(0, 3)
+            .concatMap(i -> eventBus.dispatch(new EventBusTestFixture.TestEvent(Event.EventId.random(), Username.of("user")), NO_KEYS))
+            .blockLast(Duration.ofMinutes(1));
+
+        assertThat(deadLetters.failedIds(GROUP_A).collectList().block()).hasSize(1);
+        latch.countDown();
+    }
+
+    @Test
+    void stopShouldDrainPendingDeliveries() {
+        AtomicInteger deliveries = new AtomicInteger();
+        eventBus.register(event -> {
+            Thread.sleep(20);
+            deliveries.incrementAndGet();
+        }, GROUP_A);
+
+        Flux.range(0, 10)
+            .concatMap(i -> eventBus.dispatch(new EventBusTestFixture.TestEvent(Event.EventId.random(), Username.of("user")), NO_KEYS))
+            .blockLast(Duration.ofMinutes(1));
+        eventBus.stop();
+
+        assertThat(deliveries.get()).isEqualTo(10);
+    }
+
+    @Test
+    void stopShouldNotWaitForPendingDeliveriesPastTheDrainTimeout() {
+        useConfiguration(InVMEventBusConfiguration.builder()
+            .asynchronousGroupDelivery(true)
+            .groupDeliveryDrainTimeout(Duration.ofMillis(200))
+            .build());
+        CountDownLatch latch = new CountDownLatch(1);
+        eventBus.register(event -> {
+            latch.await();
+        }, GROUP_A);
+        eventBus.dispatch(EventBusTestFixture.EVENT, NO_KEYS).block(Duration.ofSeconds(5));
+
+        Mono.fromRunnable(eventBus::stop)
+            .subscribeOn(Schedulers.boundedElastic())
+            .block(Duration.ofSeconds(10));
+        latch.countDown();
+    }
+
+    @Test
+    void failingGroupDeliveriesShouldBeStoredInDeadLetters() {
+        EventListener failingListener = event -> {
+            throw new RuntimeException("failing");
+        };
+        eventBus.register(failingListener, GROUP_A);
+
+        eventBus.dispatch(EventBusTestFixture.EVENT, NO_KEYS).block();
+
+        Awaitility.await().atMost(ONE_MINUTE).untilAsserted(() -> assertThat(deadLetters.failedIds(GROUP_A).collectList().block())
+            .hasSize(1));
+    }
+
+    @Override
+    public EnvironmentSpeedProfile getSpeedProfile() {
+        return EnvironmentSpeedProfile.FAST;
+    }
+
+    @Override
+    public EventBus eventBus() {
+        return eventBus;
+    }
+
+    @Override
+    public EventDeadLetters deadLetter() {
+        return deadLetters;
+    }
+}
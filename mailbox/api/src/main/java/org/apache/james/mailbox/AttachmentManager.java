@@ -27,6 +27,9 @@ import org.apache.james.mailbox.exception.AttachmentNotFoundException;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.model.AttachmentId;
 import org.apache.james.mailbox.model.AttachmentMetadata;
+import org.apache.james.util.io.InputStreamUtils;
+
+import com.github.fge.lambdas.Throwing;
 
 import reactor.core.publisher.Mono;
 
@@ -42,6 +45,16 @@ public interface AttachmentManager extends AttachmentContentLoader {
 
     Mono<InputStream> loadAttachmentContentReactive(AttachmentId attachmentId, MailboxSession mailboxSession);
 
+    /**
+     * Loads {@code length} bytes of the content of the given attachment, starting at {@code offset}.
+     *
+     * By default the bytes before the range are read and skipped.
+     */
+    default Mono<InputStream> loadAttachmentContentReactive(AttachmentId attachmentId, MailboxSession mailboxSession, long offset, long length) {
+        return loadAttachmentContentReactive(attachmentId, mailboxSession)
+            .map(Throwing.function((InputStream stream) -> InputStreamUtils.range(stream, offset, length)).sneakyThrow());
+    }
+
     @Override
     default InputStream load(AttachmentMetadata attachment, MailboxSession mailboxSession) throws IOException, AttachmentNotFoundException {
         return loadAttachmentContent(attachment.getAttachmentId(), mailboxSession);
@@ -41,6 +41,7 @@ import org.apache.james.mailbox.model.MailboxId;
 import org.apache.james.mailbox.model.MailboxPath;
 import org.apache.james.mailbox.model.MessageId;
 import org.apache.james.mailbox.model.MessageMetaData;
+import org.apache.james.mailbox.model.ParsedMessage;
 import org.apache.james.mailbox.model.Quota;
 import org.apache.james.mailbox.model.QuotaRoot;
 import org.apache.james.mailbox.model.UpdatedFlags;
@@ -160,6 +161,11 @@ public interface MailboxEvents {
             return eventId;
         }
 
+        @Override
+        public Object getOrderingKey() {
+            return mailboxId;
+        }
+
         /**
          * Gets the sessionId in which's context the {@link MailboxEvent}
          * happened
@@ -548,15 +554,25 @@ public interface MailboxEvents {
         private final boolean isAppended;
 
         private final Optional<MailboxId> movedFromMailboxId;
+        // Only available to the listeners of the JVM that appended the messages: neither serialized, nor compared
+        private final Map<MessageUid, ParsedMessage> parsedMessages;
 
         public Added(MailboxSession.SessionId sessionId, Username username, MailboxPath path, MailboxId mailboxId,
                      SortedMap<MessageUid, MessageMetaData> uids, EventId eventId,
                      boolean isDelivery, boolean isAppended, Optional<MailboxId> movedFromMailboxId) {
+            this(sessionId, username, path, mailboxId, uids, eventId, isDelivery, isAppended, movedFromMailboxId, ImmutableMap.of());
+        }
+
+        public Added(MailboxSession.SessionId sessionId, Username username, MailboxPath path, MailboxId mailboxId,
+                     SortedMap<MessageUid, MessageMetaData> uids, EventId eventId,
+                     boolean isDelivery, boolean isAppended, Optional<MailboxId> movedFromMailboxId,
+                     Map<MessageUid, ParsedMessage> parsedMessages) {
             super(sessionId, username, path, mailboxId, eventId);
             this.added = ImmutableMap.copyOf(uids);
             this.isDelivery = isDelivery;
             this.isAppended = isAppended;
             this.movedFromMailboxId = movedFromMailboxId;
+            this.parsedMessages = ImmutableMap.copyOf(parsedMessages);
         }
 
         /**
@@ -593,6 +609,14 @@ public interface MailboxEvents {
             return movedFromMailboxId;
         }
 
+        /**
+         * @return the MIME structure of the given message, lazily parsed upon append by this JVM, {@link ParsedMessage#NONE}
+         * for events received from another JVM
+         */
+        public ParsedMessage getParsedMessage(MessageUid uid) {
+            return parsedMessages.getOrDefault(uid, ParsedMessage.NONE);
+        }
+
         @Override
         public boolean isNoop() {
             return added.isEmpty();
@@ -0,0 +1,73 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.events;
+
+import java.util.Objects;
+
+import org.apache.james.core.Username;
+import org.apache.james.events.RegistrationKey;
+
+/**
+ * Key under which changes to the mailbox hierarchy of a user (mailbox creation, deletion, rename and ACL updates)
+ * are dispatched, allowing to track them without registering every mailbox of that user.
+ */
+public class MailboxHierarchyRegistrationKey implements RegistrationKey {
+    public static class Factory implements RegistrationKey.Factory {
+        @Override
+        public Class<? extends RegistrationKey> forClass() {
+            return MailboxHierarchyRegistrationKey.class;
+        }
+
+        @Override
+        public RegistrationKey fromString(String asString) {
+            return new MailboxHierarchyRegistrationKey(Username.of(asString));
+        }
+    }
+
+    private final Username owner;
+
+    public MailboxHierarchyRegistrationKey(Username owner) {
+        this.owner = owner;
+    }
+
+    public Username getOwner() {
+        return owner;
+    }
+
+    @Override
+    public String asString() {
+        return owner.asString();
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof MailboxHierarchyRegistrationKey) {
+            MailboxHierarchyRegistrationKey that = (MailboxHierarchyRegistrationKey) o;
+
+            return Objects.equals(this.owner, that.owner);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(owner);
+    }
+}
@@ -0,0 +1,42 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.model;
+
+import java.util.Optional;
+
+import org.apache.james.mime4j.dom.Message;
+
+/**
+ * MIME structure of an appended message, parsed at most once upon append and handed to the listeners running in the
+ * same JVM along with the {@link org.apache.james.mailbox.events.MailboxEvents.Added} event.
+ *
+ * The parsed message is only guaranteed to be available while this event is dispatched: listeners running afterward,
+ * or in another JVM, might get an empty result and then need to read and parse the message by themselves.
+ */
+public interface ParsedMessage {
+    ParsedMessage NONE = Optional::empty;
+
+    /**
+     * The returned message is shared: it must neither be modified nor disposed.
+     *
+     * @return the parsed message, or empty when it is no longer available or could not be parsed
+     */
+    Optional<Message> getMessage();
+}
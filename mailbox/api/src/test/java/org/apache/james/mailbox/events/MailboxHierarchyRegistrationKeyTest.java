@@ -0,0 +1,53 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.events;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.james.core.Username;
+import org.junit.jupiter.api.Test;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+
+class MailboxHierarchyRegistrationKeyTest {
+    private static final String OWNER = "bob@domain.tld";
+
+    private static final MailboxHierarchyRegistrationKey.Factory FACTORY = new MailboxHierarchyRegistrationKey.Factory();
+
+    private static final MailboxHierarchyRegistrationKey MAILBOX_HIERARCHY_REGISTRATION_KEY = new MailboxHierarchyRegistrationKey(Username.of(OWNER));
+
+    @Test
+    void shouldRespectBeanContract() {
+        EqualsVerifier.forClass(MailboxHierarchyRegistrationKey.class)
+            .verify();
+    }
+
+    @Test
+    void asStringShouldReturnOwner() {
+        assertThat(MAILBOX_HIERARCHY_REGISTRATION_KEY.asString())
+            .isEqualTo(OWNER);
+    }
+
+    @Test
+    void fromStringShouldReturnCorrespondingRegistrationKey() {
+        assertThat(FACTORY.fromString(OWNER))
+            .isEqualTo(MAILBOX_HIERARCHY_REGISTRATION_KEY);
+    }
+}
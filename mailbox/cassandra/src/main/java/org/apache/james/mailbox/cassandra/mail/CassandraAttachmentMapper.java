@@ -104,6 +104,13 @@ public class CassandraAttachmentMapper implements AttachmentMapper {
             .switchIfEmpty(Mono.error(() -> new AttachmentNotFoundException(attachmentId.toString())));
     }
 
+    @Override
+    public Mono<InputStream> loadAttachmentContentReactive(AttachmentId attachmentId, long offset, long length) {
+        return attachmentDAOV2.getAttachment(attachmentId)
+            .flatMap(daoAttachment -> Mono.from(blobStore.readRangeReactive(blobStore.getDefaultBucketName(), daoAttachment.getBlobId(), offset, length)))
+            .switchIfEmpty(Mono.error(() -> new AttachmentNotFoundException(attachmentId.toString())));
+    }
+
 
     public Mono<AttachmentMetadata> getAttachmentsAsMono(AttachmentId attachmentId) {
         return getAttachmentInternal(attachmentId)
@@ -0,0 +1,454 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.event.json;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import jakarta.mail.Flags;
+
+import org.apache.james.core.Username;
+import org.apache.james.events.Event;
+import org.apache.james.mailbox.FlagsBuilder;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.ModSeq;
+import org.apache.james.mailbox.events.MailboxEvents.Added;
+import org.apache.james.mailbox.events.MailboxEvents.Expunged;
+import org.apache.james.mailbox.events.MailboxEvents.FlagsUpdated;
+import org.apache.james.mailbox.events.MailboxEvents.MailboxEvent;
+import org.apache.james.mailbox.model.MailboxId;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.MessageId;
+import org.apache.james.mailbox.model.MessageMetaData;
+import org.apache.james.mailbox.model.ThreadId;
+import org.apache.james.mailbox.model.UpdatedFlags;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Compact binary encoding of the mailbox events carrying per message data, whose JSON representation grows large
+ * for bulk operations.
+ *
+ * An encoded event starts with the format version, followed by the event type. Integers are written as variable
+ * length quantities, UIDs, modseqs and dates are delta encoded against the previous message, and system flags are
+ * written as a bitset.
+ */
+public class MailboxEventBinaryCodec {
+    public static final byte FORMAT_VERSION = 1;
+
+    private static final byte ADDED = 1;
+    private static final byte EXPUNGED = 2;
+    private static final byte FLAGS_UPDATED = 3;
+
+    private static final byte NO_THREAD_ID = 0;
+    private static final byte THREAD_ID_IS_MESSAGE_ID = 1;
+    private static final byte EXPLICIT_THREAD_ID = 2;
+
+    private static final int IS_DELIVERY_BIT = 1;
+    private static final int IS_APPENDED_BIT = 2;
+
+    private static final List<Flags.Flag> SYSTEM_FLAGS = ImmutableList.of(
+        Flags.Flag.ANSWERED,
+        Flags.Flag.DELETED,
+        Flags.Flag.DRAFT,
+        Flags.Flag.FLAGGED,
+        Flags.Flag.RECENT,
+        Flags.Flag.SEEN,
+        Flags.Flag.USER);
+
+    private static class Header {
+        private final Event.EventId eventId;
+        private final MailboxSession.SessionId sessionId;
+        private final Username username;
+        private final MailboxPath path;
+        private final MailboxId mailboxId;
+
+        private Header(Event.EventId eventId, MailboxSession.SessionId sessionId, Username username, MailboxPath path, MailboxId mailboxId) {
+            this.eventId = eventId;
+            this.sessionId = sessionId;
+            this.username = username;
+            this.path = path;
+            this.mailboxId = mailboxId;
+        }
+    }
+
+    private static class Writer {
+        private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        void writeByte(int value) {
+            output.write(value);
+        }
+
+        void writeLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                output.write((int) (value >>> shift));
+            }
+        }
+
+        void writeVarLong(long value) {
+            long remaining = value;
+            while ((remaining & ~0x7FL) != 0) {
+                output.write((int) ((remaining & 0x7F) | 0x80));
+                remaining >>>= 7;
+            }
+            output.write((int) remaining);
+        }
+
+        void writeSignedVarLong(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            output.writeBytes(bytes);
+        }
+
+        void writeOptionalString(Optional<String> value) {
+            writeByte(value.isPresent() ? 1 : 0);
+            value.ifPresent(this::writeString);
+        }
+
+        byte[] toByteArray() {
+            return output.toByteArray();
+        }
+    }
+
+    private static class Reader {
+        private final ByteBuffer buffer;
+
+        Reader(byte[] bytes) {
+            this.buffer = ByteBuffer.wrap(bytes);
+        }
+
+        byte readByte() {
+            return buffer.get();
+        }
+
+        long readLong() {
+            return buffer.getLong();
+        }
+
+        long readVarLong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte current = buffer.get();
+                result |= (long) (current & 0x7F) << shift;
+                if ((current & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("Malformed variable length integer");
+        }
+
+        long readSignedVarLong() {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        String readString() {
+            int length = Math.toIntExact(readVarLong());
+            String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+
+        Optional<String> readOptionalString() {
+            if (readByte() == 0) {
+                return Optional.empty();
+            }
+            return Optional.of(readString());
+        }
+    }
+
+    private final MailboxId.Factory mailboxIdFactory;
+    private final MessageId.Factory messageIdFactory;
+
+    public MailboxEventBinaryCodec(MailboxId.Factory mailboxIdFactory, MessageId.Factory messageIdFactory) {
+        this.mailboxIdFactory = mailboxIdFactory;
+        this.messageIdFactory = messageIdFactory;
+    }
+
+    /**
+     * @return empty for events not having a binary encoding
+     */
+    public Optional<byte[]> encode(Event event) {
+        if (event instanceof Added) {
+            return Optional.of(encodeAdded((Added) event));
+        }
+        if (event instanceof Expunged) {
+            return Optional.of(encodeExpunged((Expunged) event));
+        }
+        if (event instanceof FlagsUpdated) {
+            return Optional.of(encodeFlagsUpdated((FlagsUpdated) event));
+        }
+        return Optional.empty();
+    }
+
+    public Event decode(byte[] serialized) {
+        Reader reader = new Reader(serialized);
+        byte version = reader.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported binary event format version " + version);
+        }
+        byte type = reader.readByte();
+        switch (type) {
+            case ADDED:
+                return decodeAdded(reader);
+            case EXPUNGED:
+                return decodeExpunged(reader);
+            case FLAGS_UPDATED:
+                return decodeFlagsUpdated(reader);
+            default:
+                throw new IllegalArgumentException("Unknown binary event type " + type);
+        }
+    }
+
+    private byte[] encodeAdded(Added added) {
+        Writer writer = writeHeader(ADDED, added);
+        int flags = (added.isDelivery() ? IS_DELIVERY_BIT : 0) | (added.isAppended() ? IS_APPENDED_BIT : 0);
+        writer.writeByte(flags);
+        writer.writeOptionalString(added.movedFromMailboxId().map(MailboxId::serialize));
+        writeMetaData(writer, added.getAdded());
+        return writer.toByteArray();
+    }
+
+    private Added decodeAdded(Reader reader) {
+        Header header = readHeader(reader);
+        int flags = reader.readByte();
+        Optional<MailboxId> movedFrom = reader.readOptionalString().map(mailboxIdFactory::fromString);
+        SortedMap<MessageUid, MessageMetaData> metaData = readMetaData(reader);
+        return new Added(header.sessionId, header.username, header.path, header.mailboxId, metaData, header.eventId,
+            (flags & IS_DELIVERY_BIT) != 0, (flags & IS_APPENDED_BIT) != 0, movedFrom);
+    }
+
+    private byte[] encodeExpunged(Expunged expunged) {
+        Writer writer = writeHeader(EXPUNGED, expunged);
+        writer.writeOptionalString(expunged.movedToMailboxId().map(MailboxId::serialize));
+        writeMetaData(writer, expunged.getExpunged());
+        return writer.toByteArray();
+    }
+
+    private Expunged decodeExpunged(Reader reader) {
+        Header header = readHeader(reader);
+        Optional<MailboxId> movedTo = reader.readOptionalString().map(mailboxIdFactory::fromString);
+        SortedMap<MessageUid, MessageMetaData> metaData = readMetaData(reader);
+        return new Expunged(header.sessionId, header.username, header.path, header.mailboxId, metaData, header.eventId, movedTo);
+    }
+
+    private byte[] encodeFlagsUpdated(FlagsUpdated flagsUpdated) {
+        Writer writer = writeHeader(FLAGS_UPDATED, flagsUpdated);
+        List<UpdatedFlags> updatedFlags = flagsUpdated.getUpdatedFlags();
+        writer.writeVarLong(updatedFlags.size());
+        long previousUid = 0;
+        long previousModSeq = 0;
+        for (UpdatedFlags updated : updatedFlags) {
+            long uid = updated.getUid().asLong();
+            long modSeq = updated.getModSeq().asLong();
+
+            writer.writeSignedVarLong(uid - previousUid);
+            writer.writeSignedVarLong(modSeq - previousModSeq);
+            writer.writeOptionalString(updated.getMessageId().map(MessageId::serialize));
+            writeFlags(writer, updated.getOldFlags());
+            writeFlags(writer, updated.getNewFlags());
+
+            previousUid = uid;
+            previousModSeq = modSeq;
+        }
+        return writer.toByteArray();
+    }
+
+    private FlagsUpdated decodeFlagsUpdated(Reader reader) {
+        Header header = readHeader(reader);
+        int count = Math.toIntExact(reader.readVarLong());
+        ImmutableList.Builder<UpdatedFlags> updatedFlags = ImmutableList.builderWithExpectedSize(count);
+        long previousUid = 0;
+        long previousModSeq = 0;
+        for (int i = 0; i < count; i++) {
+            long uid = previousUid + reader.readSignedVarLong();
+            long modSeq = previousModSeq + reader.readSignedVarLong();
+            updatedFlags.add(UpdatedFlags.builder()
+                .uid(MessageUid.of(uid))
+                .modSeq(ModSeq.of(modSeq))
+                .messageId(reader.readOptionalString().map(messageIdFactory::fromString))
+                .oldFlags(readFlags(reader))
+                .newFlags(readFlags(reader))
+                .build());
+
+            previousUid = uid;
+            previousModSeq = modSeq;
+        }
+        return new FlagsUpdated(header.sessionId, header.username, header.path, header.mailboxId, updatedFlags.build(), header.eventId);
+    }
+
+    private Writer writeHeader(byte type, MailboxEvent event) {
+        Writer writer = new Writer();
+        writer.writeByte(FORMAT_VERSION);
+        writer.writeByte(type);
+        UUID eventId = event.getEventId().getId();
+        writer.writeLong(eventId.getMostSignificantBits());
+        writer.writeLong(eventId.getLeastSignificantBits());
+        writer.writeSignedVarLong(event.getSessionId().getValue());
+        writer.writeString(event.getUsername().asString());
+        MailboxPath path = event.getMailboxPath();
+        writer.writeString(path.getNamespace());
+        writer.writeOptionalString(Optional.ofNullable(path.getUser()).map(Username::asString));
+        writer.writeString(path.getName());
+        writer.writeString(event.getMailboxId().serialize());
+        return writer;
+    }
+
+    private Header readHeader(Reader reader) {
+        Event.EventId eventId = Event.EventId.of(new UUID(reader.readLong(), reader.readLong()));
+        MailboxSession.SessionId sessionId = MailboxSession.SessionId.of(reader.readSignedVarLong());
+        Username username = Username.of(reader.readString());
+        String namespace = reader.readString();
+        Username pathUser = reader.readOptionalString().map(Username::of).orElse(null);
+        MailboxPath path = new MailboxPath(namespace, pathUser, reader.readString());
+        MailboxId mailboxId = mailboxIdFactory.fromString(reader.readString());
+        return new Header(eventId, sessionId, username, path, mailboxId);
+    }
+
+    private void writeMetaData(Writer writer, Map<MessageUid, MessageMetaData> metaData) {
+        List<MessageMetaData> sortedMetaData = metaData.values()
+            .stream()
+            .sorted(Comparator.comparing(MessageMetaData::getUid))
+            .collect(ImmutableList.toImmutableList());
+        writer.writeVarLong(sortedMetaData.size());
+        long previousUid = 0;
+        long previousModSeq = 0;
+        long previousInternalDate = 0;
+        for (MessageMetaData messageMetaData : sortedMetaData) {
+            long uid = messageMetaData.getUid().asLong();
+            long modSeq = messageMetaData.getModSeq().asLong();
+            long internalDate = messageMetaData.getInternalDate().getTime();
+
+            writer.writeVarLong(uid - previousUid);
+            writer.writeSignedVarLong(modSeq - previousModSeq);
+            writeFlags(writer, messageMetaData.getFlags());
+            writer.writeVarLong(messageMetaData.getSize());
+            writer.writeSignedVarLong(internalDate - previousInternalDate);
+            writer.writeByte(messageMetaData.getSaveDate().isPresent() ? 1 : 0);
+            messageMetaData.getSaveDate()
+                .ifPresent(saveDate -> writer.writeSignedVarLong(saveDate.getTime() - internalDate));
+            writer.writeString(messageMetaData.getMessageId().serialize());
+            writeThreadId(writer, messageMetaData);
+
+            previousUid = uid;
+            previousModSeq = modSeq;
+            previousInternalDate = internalDate;
+        }
+    }
+
+    private SortedMap<MessageUid, MessageMetaData> readMetaData(Reader reader) {
+        int count = Math.toIntExact(reader.readVarLong());
+        SortedMap<MessageUid, MessageMetaData> result = new TreeMap<>();
+        long previousUid = 0;
+        long previousModSeq = 0;
+        long previousInternalDate = 0;
+        for (int i = 0; i < count; i++) {
+            long uid = previousUid + reader.readVarLong();
+            long modSeq = previousModSeq + reader.readSignedVarLong();
+            Flags flags = readFlags(reader);
+            long size = reader.readVarLong();
+            long internalDate = previousInternalDate + reader.readSignedVarLong();
+            Optional<Date> saveDate = Optional.empty();
+            if (reader.readByte() != 0) {
+                saveDate = Optional.of(new Date(internalDate + reader.readSignedVarLong()));
+            }
+            MessageId messageId = messageIdFactory.fromString(reader.readString());
+            ThreadId threadId = readThreadId(reader, messageId);
+
+            result.put(MessageUid.of(uid), new MessageMetaData(MessageUid.of(uid), ModSeq.of(modSeq), flags, size,
+                new Date(internalDate), saveDate, messageId, threadId));
+
+            previousUid = uid;
+            previousModSeq = modSeq;
+            previousInternalDate = internalDate;
+        }
+        return result;
+    }
+
+    private void writeThreadId(Writer writer, MessageMetaData messageMetaData) {
+        ThreadId threadId = messageMetaData.getThreadId();
+        if (threadId == null) {
+            writer.writeByte(NO_THREAD_ID);
+        } else if (threadId.getBaseMessageId().equals(messageMetaData.getMessageId())) {
+            writer.writeByte(THREAD_ID_IS_MESSAGE_ID);
+        } else {
+            writer.writeByte(EXPLICIT_THREAD_ID);
+            writer.writeString(threadId.serialize());
+        }
+    }
+
+    private ThreadId readThreadId(Reader reader, MessageId messageId) {
+        byte marker = reader.readByte();
+        switch (marker) {
+            case NO_THREAD_ID:
+            case THREAD_ID_IS_MESSAGE_ID:
+                // Like the JSON format, a missing thread id defaults to the message id
+                return ThreadId.fromBaseMessageId(messageId);
+            case EXPLICIT_THREAD_ID:
+                return ThreadId.fromBaseMessageId(messageIdFactory.fromString(reader.readString()));
+            default:
+                throw new IllegalArgumentException("Unknown thread id marker " + marker);
+        }
+    }
+
+    private void writeFlags(Writer writer, Flags flags) {
+        int systemFlags = 0;
+        for (int i = 0; i < SYSTEM_FLAGS.size(); i++) {
+            if (flags.contains(SYSTEM_FLAGS.get(i))) {
+                systemFlags |= 1 << i;
+            }
+        }
+        writer.writeByte(systemFlags);
+        String[] userFlags = flags.getUserFlags();
+        writer.writeVarLong(userFlags.length);
+        for (String userFlag : userFlags) {
+            writer.writeString(userFlag);
+        }
+    }
+
+    private Flags readFlags(Reader reader) {
+        FlagsBuilder builder = FlagsBuilder.builder();
+        int systemFlags = reader.readByte();
+        for (int i = 0; i < SYSTEM_FLAGS.size(); i++) {
+            if ((systemFlags & (1 << i)) != 0) {
+                builder.add(SYSTEM_FLAGS.get(i));
+            }
+        }
+        long userFlagCount = reader.readVarLong();
+        for (long i = 0; i < userFlagCount; i++) {
+            builder.add(reader.readString());
+        }
+        return builder.build();
+    }
+}
@@ -20,7 +20,7 @@
 package org.apache.james.event.json
 
 import java.time.Instant
-import java.util.{TreeMap => JavaTreeMap}
+import java.util.{Optional, TreeMap => JavaTreeMap}
 
 import jakarta.inject.Inject
 import julienrf.json.derived
@@ -29,7 +29,7 @@ import org.apache.james.core.quota.{QuotaCountLimit, QuotaCountUsage, QuotaSizeL
 import org.apache.james.event.json.DTOs.SystemFlag.SystemFlag
 import org.apache.james.event.json.DTOs._
 import org.apache.james.events.Event.EventId
-import org.apache.james.events.{EventSerializer, Event => JavaEvent}
+import org.apache.james.events.{BinaryEventSerializer, Event => JavaEvent}
 import org.apache.james.mailbox.MailboxSession.SessionId
 import org.apache.james.mailbox.events.MailboxEvents.Added.IS_APPENDED
 import org.apache.james.mailbox.events.MailboxEvents.{Added => JavaAdded, Expunged => JavaExpunged, FlagsUpdated => JavaFlagsUpdated, MailboxACLUpdated => JavaMailboxACLUpdated, MailboxAdded => JavaMailboxAdded, MailboxDeletion => JavaMailboxDeletion, MailboxRenamed => JavaMailboxRenamed, MailboxSubscribedEvent => JavaMailboxSubscribedEvent, MailboxUnsubscribedEvent => JavaMailboxUnsubscribedEvent, QuotaUsageUpdatedEvent => JavaQuotaUsageUpdatedEvent}
@@ -409,8 +409,9 @@ class JsonSerialize(mailboxIdFactory: MailboxId.Factory, messageIdFactory: Messa
     .map(event => event.toJava)
 }
 
-class MailboxEventSerializer @Inject()(mailboxIdFactory: MailboxId.Factory, messageIdFactory: MessageId.Factory, quotaRootDeserializer: QuotaRootDeserializer) extends EventSerializer{
+class MailboxEventSerializer @Inject()(mailboxIdFactory: MailboxId.Factory, messageIdFactory: MessageId.Factory, quotaRootDeserializer: QuotaRootDeserializer) extends BinaryEventSerializer {
   private val jsonSerialize = new JsonSerialize(mailboxIdFactory, messageIdFactory, quotaRootDeserializer)
+  private val binaryCodec = new MailboxEventBinaryCodec(mailboxIdFactory, messageIdFactory)
 
   override def toJson(event: JavaEvent): String = jsonSerialize.toJson(event)
 
@@ -419,5 +420,9 @@ class MailboxEventSerializer @Inject()(mailboxIdFactory: MailboxId.Factory, mess
   def fromJson(json: String): JsResult[JavaEvent] = jsonSerialize.fromJson(json)
 
   override def asEvent(serialized: String): JavaEvent = fromJson(serialized).get
+
+  override def toBinary(event: JavaEvent): Optional[Array[Byte]] = binaryCodec.encode(event)
+
+  override def fromBinary(serialized: Array[Byte]): JavaEvent = binaryCodec.decode(serialized)
 }
 
@@ -0,0 +1,170 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.event.json;
+
+import static org.apache.james.event.json.SerializerFixture.EVENT_ID;
+import static org.apache.james.event.json.SerializerFixture.EVENT_SERIALIZER;
+import static org.apache.james.mailbox.events.MailboxEvents.Added.IS_APPENDED;
+import static org.apache.james.mailbox.events.MailboxEvents.Added.IS_DELIVERY;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.stream.IntStream;
+
+import jakarta.mail.Flags;
+
+import org.apache.james.core.Username;
+import org.apache.james.mailbox.FlagsBuilder;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.ModSeq;
+import org.apache.james.mailbox.events.MailboxEvents.Added;
+import org.apache.james.mailbox.events.MailboxEvents.Expunged;
+import org.apache.james.mailbox.events.MailboxEvents.FlagsUpdated;
+import org.apache.james.mailbox.events.MailboxEvents.MailboxAdded;
+import org.apache.james.mailbox.model.MailboxConstants;
+import org.apache.james.mailbox.model.MailboxId;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.MessageMetaData;
+import org.apache.james.mailbox.model.TestId;
+import org.apache.james.mailbox.model.TestMessageId;
+import org.apache.james.mailbox.model.ThreadId;
+import org.apache.james.mailbox.model.UpdatedFlags;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedMap;
+
+class BinarySerializationTest {
+    private static final Username USERNAME = Username.of("user");
+    private static final MailboxSession.SessionId SESSION_ID = MailboxSession.SessionId.of(-42);
+    private static final MailboxId MAILBOX_ID = TestId.of(18);
+    private static final MailboxId OTHER_MAILBOX_ID = TestId.of(28);
+    private static final MailboxPath MAILBOX_PATH = new MailboxPath(MailboxConstants.USER_NAMESPACE, USERNAME, "mailbox name é");
+    private static final Instant INSTANT = Instant.parse("2018-12-14T09:41:51.541Z");
+    private static final Flags FLAGS = FlagsBuilder.builder()
+        .add(Flags.Flag.ANSWERED, Flags.Flag.DRAFT)
+        .add("User Custom Flag")
+        .build();
+    private static final MessageMetaData FIRST_MESSAGE = new MessageMetaData(MessageUid.of(123456), ModSeq.of(35), FLAGS, 45,
+        Date.from(INSTANT), Optional.of(Date.from(INSTANT.plusSeconds(3))), TestMessageId.of(42), ThreadId.fromBaseMessageId(TestMessageId.of(42)));
+    private static final MessageMetaData SECOND_MESSAGE = new MessageMetaData(MessageUid.of(123458), ModSeq.of(33), new Flags(), 4500,
+        Date.from(INSTANT.minusSeconds(60)), Optional.empty(), TestMessageId.of(43), ThreadId.fromBaseMessageId(TestMessageId.of(100)));
+    private static final SortedMap<MessageUid, MessageMetaData> META_DATA = ImmutableSortedMap.of(
+        FIRST_MESSAGE.getUid(), FIRST_MESSAGE,
+        SECOND_MESSAGE.getUid(), SECOND_MESSAGE);
+
+    @Test
+    void addedShouldBeWellSerialized() {
+        Added added = new Added(SESSION_ID, USERNAME, MAILBOX_PATH, MAILBOX_ID, META_DATA, EVENT_ID, IS_DELIVERY, !IS_APPENDED, Optional.of(OTHER_MAILBOX_ID));
+
+        assertThat(EVENT_SERIALIZER.fromBinary(EVENT_SERIALIZER.toBinary(added).get()))
+            .isEqualTo(added);
+    }
+
+    @Test
+    void addedWithoutMoveShouldBeWellSerialized() {
+        Added added = new Added(SESSION_ID, USERNAME, MAILBOX_PATH, MAILBOX_ID, META_DATA, EVENT_ID, !IS_DELIVERY, IS_APPENDED, Optional.empty());
+
+        assertThat(EVENT_SERIALIZER.fromBinary(EVENT_SERIALIZER.toBinary(added).get()))
+            .isEqualTo(added);
+    }
+
+    @Test
+    void expungedShouldBeWellSerialized() {
+        Expunged expunged = new Expunged(SESSION_ID, USERNAME, MAILBOX_PATH, MAILBOX_ID,
+            ImmutableMap.of(SECOND_MESSAGE.getUid(), SECOND_MESSAGE, FIRST_MESSAGE.getUid(), FIRST_MESSAGE), EVENT_ID, Optional.of(OTHER_MAILBOX_ID));
+
+        assertThat(EVENT_SERIALIZER.fromBinary(EVENT_SERIALIZER.toBinary(expunged).get()))
+            .isEqualTo(expunged);
+    }
+
+    @Test
+    void flagsUpdatedShouldBeWellSerialized() {
+        FlagsUpdated flagsUpdated = new FlagsUpdated(SESSION_ID, USERNAME, MAILBOX_PATH, MAILBOX_ID,
+            ImmutableList.of(
+                UpdatedFlags.builder()
+                    .uid(MessageUid.of(36))
+                    .modSeq(ModSeq.of(40))
+                    .messageId(TestMessageId.of(42))
+                    .oldFlags(FLAGS)
+                    .newFlags(new Flags(Flags.Flag.SEEN))
+                    .build(),
+                UpdatedFlags.builder()
+                    .uid(MessageUid.of(3))
+                    .modSeq(ModSeq.of(38))
+                    .oldFlags(new Flags())
+                    .newFlags(FLAGS)
+                    .build()),
+            EVENT_ID);
+
+        assertThat(EVENT_SERIALIZER.fromBinary(EVENT_SERIALIZER.toBinary(flagsUpdated).get()))
+            .isEqualTo(flagsUpdated);
+    }
+
+    @Test
+    void pathWithoutUserShouldBeWellSerialized() {
+        MailboxPath sharedPath = new MailboxPath("#shared", null, "shared");
+        Expunged expunged = new Expunged(SESSION_ID, USERNAME, sharedPath, MAILBOX_ID, META_DATA, EVENT_ID, Optional.empty());
+
+        assertThat(EVENT_SERIALIZER.fromBinary(EVENT_SERIALIZER.toBinary(expunged).get()))
+            .isEqualTo(expunged);
+    }
+
+    @Test
+    void toBinaryShouldReturnEmptyForEventsWithoutBinaryFormat() {
+        MailboxAdded mailboxAdded = new MailboxAdded(SESSION_ID, USERNAME, MAILBOX_PATH, MAILBOX_ID, EVENT_ID);
+
+        assertThat(EVENT_SERIALIZER.toBinary(mailboxAdded)).isEmpty();
+    }
+
+    @Test
+    void fromBinaryShouldRejectUnknownVersions() {
+        Added added = new Added(SESSION_ID, USERNAME, MAILBOX_PATH, MAILBOX_ID, META_DATA, EVENT_ID, IS_DELIVERY, IS_APPENDED, Optional.empty());
+        byte[] serialized = EVENT_SERIALIZER.toBinary(added).get();
+        serialized[0] = MailboxEventBinaryCodec.FORMAT_VERSION + 1;
+
+        assertThatThrownBy(() -> EVENT_SERIALIZER.fromBinary(serialized))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void binaryFormatShouldBeMuchSmallerThanJsonForLargeFlagUpdates() {
+        FlagsUpdated flagsUpdated = new FlagsUpdated(SESSION_ID, USERNAME, MAILBOX_PATH, MAILBOX_ID,
+            IntStream.range(1, 10_000)
+                .mapToObj(i -> UpdatedFlags.builder()
+                    .uid(MessageUid.of(i))
+                    .modSeq(ModSeq.of(1000 + i))
+                    .messageId(TestMessageId.of(i))
+                    .oldFlags(new Flags())
+                    .newFlags(new Flags(Flags.Flag.SEEN))
+                    .build())
+                .collect(ImmutableList.toImmutableList()),
+            EVENT_ID);
+
+        assertThat(EVENT_SERIALIZER.toBinary(flagsUpdated).get().length * 10)
+            .isLessThan(EVENT_SERIALIZER.toJsonBytes(flagsUpdated).length);
+    }
+}
@@ -19,6 +19,7 @@
 
 package org.apache.james.mailbox.jpa.mail;
 
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 import jakarta.persistence.EntityExistsException;
@@ -163,7 +164,9 @@ public class JPAMailboxMapper extends JPATransactionalMapper implements MailboxM
     public Mono<Void> delete(Mailbox mailbox) {
         return Mono.fromRunnable(() -> {
             JPAId mailboxId = (JPAId) mailbox.getMailboxId();
+            Map<String, Long> contentReferences = JPAMessageContentReferences.referencesInMailbox(getEntityManager(), mailboxId);
             getEntityManager().createNamedQuery("deleteMessages").setParameter("idParam", mailboxId.getRawId()).executeUpdate();
+            JPAMessageContentReferences.release(getEntityManager(), contentReferences);
             JPAMailbox jpaMailbox = getEntityManager().find(JPAMailbox.class, mailboxId.getRawId());
             getEntityManager().remove(jpaMailbox);
         })
@@ -0,0 +1,149 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.mailbox.jpa.mail;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceException;
+
+import org.apache.james.backends.jpa.EntityManagerUtils;
+import org.apache.james.mailbox.jpa.JPAId;
+import org.apache.james.mailbox.jpa.mail.model.JPAMessageContent;
+import org.apache.james.mailbox.jpa.mail.model.openjpa.AbstractJPAMailboxMessage;
+import org.apache.james.mailbox.store.mail.model.MailboxMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Maintains the reference counts of the deduplicated {@link JPAMessageContent}, within the transaction of the
+ * calling mapper.
+ *
+ * Contents are created unreferenced in their own short transaction, so that concurrent deliveries of the same new
+ * content do not fail the transaction of the mapper on a duplicate key. Their count is then incremented, within the
+ * transaction of the mapper, for each message referencing them, and they are deleted once no message references them
+ * anymore. A content created for a transaction rolled back afterward stays unreferenced until the next release of
+ * that content.
+ */
+class JPAMessageContentReferences {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JPAMessageContentReferences.class);
+    private static final int MAX_REFERENCE_ATTEMPTS = 3;
+
+    /**
+     * Makes the given message, not persisted yet, reference its deduplicated content, creating it if needed.
+     *
+     * @param deduplicate whether inline content should be deduplicated. Messages copied from a message referencing a
+     *                    deduplicated content always keep referencing it.
+     */
+    static void reference(EntityManagerFactory entityManagerFactory, EntityManager entityManager, AbstractJPAMailboxMessage message, boolean deduplicate) {
+        Optional<String> sharedHash = message.getContentHash();
+        if (sharedHash.isPresent()) {
+            increment(entityManager, sharedHash.get());
+            message.setContent(entityManager.getReference(JPAMessageContent.class, sharedHash.get()));
+            return;
+        }
+        if (!deduplicate) {
+            return;
+        }
+
+        String hash = message.computeContentHash();
+        for (int attempt = 0; attempt < MAX_REFERENCE_ATTEMPTS; attempt++) {
+            createIfMissing(entityManagerFactory, message.toMessageContent(hash));
+            if (increment(entityManager, hash)) {
+                message.setContent(entityManager.getReference(JPAMessageContent.class, hash));
+                return;
+            }
+        }
+        LOGGER.warn("Could not reference deduplicated content {}, storing it inline", hash);
+    }
+
+    /**
+     * Creates the given content in its own transaction, before the transaction of the mapper locks it, unless it
+     * already exists. A concurrent transaction creating the same content first makes this one fail, which is ignored:
+     * the content then exists.
+     */
+    private static void createIfMissing(EntityManagerFactory entityManagerFactory, JPAMessageContent content) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            if (entityManager.find(JPAMessageContent.class, content.getHash()) == null) {
+                entityManager.persist(content);
+            }
+            entityManager.getTransaction().commit();
+        } catch (PersistenceException e) {
+            LOGGER.debug("Content {} was concurrently created", content.getHash(), e);
+            if (entityManager.getTransaction().isActive()) {
+                entityManager.getTransaction().rollback();
+            }
+        } finally {
+            EntityManagerUtils.safelyClose(entityManager);
+        }
+    }
+
+    private static boolean increment(EntityManager entityManager, String hash) {
+        return entityManager.createNamedQuery("incrementMessageContentReferenceCount")
+            .setParameter(1, hash)
+            .executeUpdate() > 0;
+    }
+
+    /**
+     * @return the count of the given messages referencing each deduplicated content
+     */
+    static Map<String, Long> referencesOf(Collection<? extends MailboxMessage> messages) {
+        return messages.stream()
+            .filter(AbstractJPAMailboxMessage.class::isInstance)
+            .map(AbstractJPAMailboxMessage.class::cast)
+            .flatMap(message -> message.getContentHash().stream())
+            .collect(ImmutableMap.toImmutableMap(Function.identity(), hash -> 1L, Long::sum));
+    }
+
+    /**
+     * @return the count of the messages of the given mailbox referencing each deduplicated content
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Long> referencesInMailbox(EntityManager entityManager, JPAId mailboxId) {
+        List<Object[]> rows = entityManager.createNamedQuery("countMessageContentReferencesInMailbox")
+            .setParameter("idParam", mailboxId.getRawId())
+            .getResultList();
+        return rows.stream()
+            .collect(ImmutableMap.toImmutableMap(row -> (String) row[0], row -> (Long) row[1]));
+    }
+
+    /**
+     * Releases references once the referencing messages are deleted, deleting the contents no longer referenced.
+     */
+    static void release(EntityManager entityManager, Map<String, Long> references) {
+        references.forEach((hash, count) -> {
+            entityManager.createNamedQuery("decrementMessageContentReferenceCount")
+                .setParameter(1, count)
+                .setParameter(2, hash)
+                .executeUpdate();
+            entityManager.createNamedQuery("deleteUnreferencedMessageContent")
+                .setParameter(1, hash)
+                .executeUpdate();
+        });
+    }
+}
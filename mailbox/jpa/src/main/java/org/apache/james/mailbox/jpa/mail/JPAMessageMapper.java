@@ -178,7 +178,12 @@ public class JPAMessageMapper extends JPATransactionalMapper implements MessageM
     public void delete(Mailbox mailbox, MailboxMessage message) throws MailboxException {
         try {
             AbstractJPAMailboxMessage jpaMessage = getEntityManager().find(AbstractJPAMailboxMessage.class, buildKey(mailbox, message));
+            Map<String, Long> contentReferences = JPAMessageContentReferences.referencesOf(Optional.ofNullable(jpaMessage).stream().collect(ImmutableList.toImmutableList()));
             getEntityManager().remove(jpaMessage);
+            if (!contentReferences.isEmpty()) {
+                getEntityManager().flush();
+                JPAMessageContentReferences.release(getEntityManager(), contentReferences);
+            }
 
         } catch (PersistenceException e) {
             throw new MailboxException("Delete of message " + message + " failed in mailbox " + mailbox, e);
@@ -270,7 +275,9 @@ public class JPAMessageMapper extends JPATransactionalMapper implements MessageM
         ranges.forEach(Throwing.<MessageRange>consumer(range -> {
             List<MailboxMessage> messages = findAsList(mailboxId, range, JPAMessageMapper.UNLIMITED);
             data.putAll(createMetaData(messages));
+            Map<String, Long> contentReferences = JPAMessageContentReferences.referencesOf(messages);
             deleteMessages(range, mailboxId);
+            JPAMessageContentReferences.release(getEntityManager(), contentReferences);
         }).sneakyThrow());
 
         return data;
@@ -298,6 +305,23 @@ public class JPAMessageMapper extends JPATransactionalMapper implements MessageM
         }
     }
 
+    @Override
+    public List<MessageMetaData> move(Mailbox mailbox, List<MailboxMessage> originals) throws MailboxException {
+        List<MessageMetaData> messageMetaData = copy(mailbox, originals);
+        for (MailboxMessage original : originals) {
+            JPAId originalMailboxId = (JPAId) original.getMailboxId();
+            JPAMailbox originalMailbox = getEntityManager().find(JPAMailbox.class, originalMailboxId.getRawId());
+            delete(originalMailbox.toMailbox(), original);
+        }
+        return messageMetaData;
+    }
+
+    @Override
+    public Mono<List<MessageMetaData>> moveReactive(Mailbox mailbox, List<MailboxMessage> originals) {
+        return Mono.fromCallable(() -> move(mailbox, originals))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
     @Override
     public MessageMetaData move(Mailbox mailbox, MailboxMessage original) throws MailboxException {
         JPAId originalMailboxId = (JPAId) original.getMailboxId();
@@ -335,6 +359,25 @@ public class JPAMessageMapper extends JPATransactionalMapper implements MessageM
         return copy(mailbox, uidProvider.nextUid(mailbox), modSeqProvider.nextModSeq(mailbox), original);
     }
 
+    /**
+     * Copies the given messages reserving all their uids at once, and sharing a single mod-sequence, so that the count
+     * of transactions against the mailbox row does not depend on the count of copied messages.
+     */
+    @Override
+    public List<MessageMetaData> copy(Mailbox mailbox, List<MailboxMessage> originals) throws MailboxException {
+        if (originals.isEmpty()) {
+            return ImmutableList.of();
+        }
+        List<MessageUid> uids = uidProvider.reserveUids(mailbox.getMailboxId(), originals.size());
+        ModSeq modSeq = modSeqProvider.nextModSeq(mailbox);
+
+        ImmutableList.Builder<MessageMetaData> messageMetaData = ImmutableList.builder();
+        for (int i = 0; i < originals.size(); i++) {
+            messageMetaData.add(copy(mailbox, uids.get(i), modSeq, originals.get(i)));
+        }
+        return messageMetaData.build();
+    }
+
     @Override
     public Optional<MessageUid> getLastUid(Mailbox mailbox) throws MailboxException {
         return uidProvider.lastUid(mailbox, getEntityManager());
@@ -379,18 +422,24 @@ public class JPAMessageMapper extends JPATransactionalMapper implements MessageM
             JPAMailbox currentMailbox = getEntityManager().find(JPAMailbox.class, mailboxId.getRawId());
 
             boolean isAttachmentStorage = false;
+            boolean isContentDeduplication = false;
             if (Objects.nonNull(jpaConfiguration)) {
                 isAttachmentStorage = jpaConfiguration.isAttachmentStorageEnabled().orElse(false);
+                isContentDeduplication = jpaConfiguration.isContentDeduplicationEnabled().orElse(false);
             }
 
             if (message instanceof AbstractJPAMailboxMessage) {
                 ((AbstractJPAMailboxMessage) message).setMailbox(currentMailbox);
 
+                if (!getEntityManager().contains(message)) {
+                    JPAMessageContentReferences.reference(entityManagerFactory, getEntityManager(), (AbstractJPAMailboxMessage) message, isContentDeduplication);
+                }
                 getEntityManager().persist(message);
                 return message.metaData();
             } else if (isAttachmentStorage) {
                 JPAMailboxMessageWithAttachmentStorage persistData = new JPAMailboxMessageWithAttachmentStorage(currentMailbox, message.getUid(), message.getModSeq(), message);
                 persistData.setFlags(message.createFlags());
+                JPAMessageContentReferences.reference(entityManagerFactory, getEntityManager(), persistData, isContentDeduplication);
 
                 if (message.getAttachments().isEmpty()) {
                     getEntityManager().persist(persistData);
@@ -410,6 +459,7 @@ public class JPAMessageMapper extends JPATransactionalMapper implements MessageM
             } else {
                 JPAMailboxMessage persistData = new JPAMailboxMessage(currentMailbox, message.getUid(), message.getModSeq(), message);
                 persistData.setFlags(message.createFlags());
+                JPAMessageContentReferences.reference(entityManagerFactory, getEntityManager(), persistData, isContentDeduplication);
                 getEntityManager().persist(persistData);
                 return persistData.metaData();
             }
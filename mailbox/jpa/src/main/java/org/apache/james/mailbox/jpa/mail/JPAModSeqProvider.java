@@ -21,6 +21,7 @@ package org.apache.james.mailbox.jpa.mail;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.PersistenceException;
 
 import org.apache.james.backends.jpa.EntityManagerUtils;
@@ -67,7 +68,7 @@ public class JPAModSeqProvider implements ModSeqProvider {
         try {
             manager = factory.createEntityManager();
             manager.getTransaction().begin();
-            JPAMailbox m = manager.find(JPAMailbox.class, mailboxId.getRawId());
+            JPAMailbox m = manager.find(JPAMailbox.class, mailboxId.getRawId(), LockModeType.PESSIMISTIC_WRITE);
             long modSeq = m.consumeModSeq();
             manager.persist(m);
             manager.getTransaction().commit();
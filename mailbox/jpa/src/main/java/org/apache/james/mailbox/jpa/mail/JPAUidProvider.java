@@ -18,11 +18,14 @@
  ****************************************************************/
 package org.apache.james.mailbox.jpa.mail;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.PersistenceException;
 
 import org.apache.james.backends.jpa.EntityManagerUtils;
@@ -34,6 +37,12 @@ import org.apache.james.mailbox.model.Mailbox;
 import org.apache.james.mailbox.model.MailboxId;
 import org.apache.james.mailbox.store.mail.UidProvider;
 
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
 public class JPAUidProvider implements UidProvider {
 
     private final EntityManagerFactory factory;
@@ -77,15 +86,39 @@ public class JPAUidProvider implements UidProvider {
     }
 
     private MessageUid nextUid(JPAId mailboxId) throws MailboxException {
+        return MessageUid.of(reserveUids(mailboxId, 1));
+    }
+
+    @Override
+    public Mono<List<MessageUid>> nextUids(MailboxId mailboxId, int count) {
+        return Mono.fromCallable(() -> reserveUids(mailboxId, count))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Reserves a range of consecutive uids in a single transaction, locking the mailbox row for its duration.
+     */
+    public List<MessageUid> reserveUids(MailboxId mailboxId, int count) throws MailboxException {
+        Preconditions.checkArgument(count >= 0, "Count of uids to reserve should be positive");
+        if (count == 0) {
+            return ImmutableList.of();
+        }
+        long firstUid = reserveUids((JPAId) mailboxId, count);
+        return LongStream.range(firstUid, firstUid + count)
+            .mapToObj(MessageUid::of)
+            .collect(ImmutableList.toImmutableList());
+    }
+
+    private long reserveUids(JPAId mailboxId, int count) throws MailboxException {
         EntityManager manager = null;
         try {
             manager = factory.createEntityManager();
             manager.getTransaction().begin();
-            JPAMailbox m = manager.find(JPAMailbox.class, mailboxId.getRawId());
-            long uid = m.consumeUid();
+            JPAMailbox m = manager.find(JPAMailbox.class, mailboxId.getRawId(), LockModeType.PESSIMISTIC_WRITE);
+            long firstUid = m.consumeUids(count);
             manager.persist(m);
             manager.getTransaction().commit();
-            return MessageUid.of(uid);
+            return firstUid;
         } catch (PersistenceException e) {
             if (manager != null && manager.getTransaction().isActive()) {
                 manager.getTransaction().rollback();
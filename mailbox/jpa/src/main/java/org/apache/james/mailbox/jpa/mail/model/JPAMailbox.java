@@ -129,6 +129,17 @@ public class JPAMailbox {
         return ++lastUid;
     }
 
+    /**
+     * Reserves the given count of consecutive uids.
+     *
+     * @return the first reserved uid
+     */
+    public long consumeUids(int count) {
+        long firstUid = lastUid + 1;
+        lastUid += count;
+        return firstUid;
+    }
+
     public long consumeModSeq() {
         return ++highestModSeq;
     }
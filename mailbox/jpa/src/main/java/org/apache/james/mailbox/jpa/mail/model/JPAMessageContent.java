@@ -0,0 +1,127 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.mailbox.jpa.mail.model;
+
+import java.util.Objects;
+
+import jakarta.persistence.Basic;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.NamedNativeQuery;
+import jakarta.persistence.Table;
+
+import com.google.common.hash.Hashing;
+
+/**
+ * Message header and body shared by all the messages having the same content, identified by the SHA-256 of that
+ * content. Used when content deduplication is enabled: copies and deliveries of the same message to several
+ * mailboxes then only write message metadata, and reference this content.
+ *
+ * The reference count is the number of messages referencing this content. It is only updated through native SQL
+ * updates, evaluated by the database, so that concurrent transactions do not overwrite each other's changes.
+ */
+@Entity(name = "MessageContent")
+@Table(name = "JAMES_MAIL_CONTENT")
+@NamedNativeQuery(name = "incrementMessageContentReferenceCount", query = "UPDATE JAMES_MAIL_CONTENT SET REFERENCE_COUNT = REFERENCE_COUNT + 1 WHERE CONTENT_HASH = ?")
+@NamedNativeQuery(name = "decrementMessageContentReferenceCount", query = "UPDATE JAMES_MAIL_CONTENT SET REFERENCE_COUNT = REFERENCE_COUNT - ? WHERE CONTENT_HASH = ?")
+@NamedNativeQuery(name = "deleteUnreferencedMessageContent", query = "DELETE FROM JAMES_MAIL_CONTENT WHERE CONTENT_HASH = ? AND REFERENCE_COUNT <= 0")
+public class JPAMessageContent {
+
+    public static String hash(byte[] header, byte[] body) {
+        return Hashing.sha256()
+            .newHasher()
+            .putInt(header.length)
+            .putBytes(header)
+            .putBytes(body)
+            .hash()
+            .toString();
+    }
+
+    @Id
+    @Column(name = "CONTENT_HASH", length = 64, nullable = false)
+    private String hash;
+
+    @Basic(optional = false)
+    @Column(name = "REFERENCE_COUNT", nullable = false)
+    private long referenceCount;
+
+    /** We use a max length to represent 1gb data, as for the message body */
+    @Basic(optional = false, fetch = FetchType.LAZY)
+    @Column(name = "MAIL_BYTES", length = 1048576000, nullable = false)
+    @Lob
+    private byte[] body;
+
+    /** We use a max length to represent 10mb data, as for the message header */
+    @Basic(optional = false, fetch = FetchType.LAZY)
+    @Column(name = "HEADER_BYTES", length = 10485760, nullable = false)
+    @Lob
+    private byte[] header;
+
+    public JPAMessageContent() {
+    }
+
+    /**
+     * Builds a content not referenced by any message yet: references are then added by incrementing its count.
+     */
+    public JPAMessageContent(String hash, byte[] header, byte[] body) {
+        this.hash = hash;
+        this.header = header;
+        this.body = body;
+        this.referenceCount = 0;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public long getReferenceCount() {
+        return referenceCount;
+    }
+
+    public byte[] getHeader() {
+        return header;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof JPAMessageContent) {
+            JPAMessageContent that = (JPAMessageContent) o;
+
+            return Objects.equals(this.hash, that.hash);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(hash);
+    }
+
+    @Override
+    public String toString() {
+        return "MessageContent ( hash = " + hash + " referenceCount = " + referenceCount + " )";
+    }
+}
@@ -36,6 +36,7 @@ import jakarta.persistence.Embeddable;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.IdClass;
+import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.MappedSuperclass;
 import jakarta.persistence.NamedQuery;
@@ -47,6 +48,7 @@ import org.apache.james.mailbox.ModSeq;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.jpa.JPAId;
 import org.apache.james.mailbox.jpa.mail.model.JPAMailbox;
+import org.apache.james.mailbox.jpa.mail.model.JPAMessageContent;
 import org.apache.james.mailbox.jpa.mail.model.JPAProperty;
 import org.apache.james.mailbox.jpa.mail.model.JPAUserFlag;
 import org.apache.james.mailbox.model.ComposedMessageId;
@@ -66,6 +68,8 @@ import org.apache.james.mailbox.store.mail.model.impl.Properties;
 import org.apache.james.mailbox.store.mail.model.impl.PropertyBuilder;
 import org.apache.openjpa.persistence.jdbc.ElementJoinColumn;
 import org.apache.openjpa.persistence.jdbc.ElementJoinColumns;
+import org.apache.openjpa.persistence.jdbc.ForeignKey;
+import org.apache.openjpa.persistence.jdbc.ForeignKeyAction;
 import org.apache.openjpa.persistence.jdbc.Index;
 
 import com.github.fge.lambdas.Throwing;
@@ -98,10 +102,12 @@ import com.google.common.collect.ImmutableList;
 @NamedQuery(name = "countMessagesInMailbox", query = "SELECT COUNT(message) FROM MailboxMessage message WHERE message.mailbox.mailboxId = :idParam")
 @NamedQuery(name = "deleteMessages", query = "DELETE FROM MailboxMessage message WHERE message.mailbox.mailboxId = :idParam")
 @NamedQuery(name = "findLastUidInMailbox", query = "SELECT message.uid FROM MailboxMessage message WHERE message.mailbox.mailboxId = :idParam ORDER BY message.uid DESC")
+@NamedQuery(name = "countMessageContentReferencesInMailbox", query = "SELECT message.content.hash, COUNT(message) FROM MailboxMessage message WHERE message.mailbox.mailboxId = :idParam GROUP BY message.content.hash")
 @NamedQuery(name = "findHighestModSeqInMailbox", query = "SELECT message.modSeq FROM MailboxMessage message WHERE message.mailbox.mailboxId = :idParam ORDER BY message.modSeq DESC")
 @MappedSuperclass
 public abstract class AbstractJPAMailboxMessage implements MailboxMessage {
     private static final String TOSTRING_SEPARATOR = " ";
+    private static final byte[] EMPTY_ARRAY = new byte[] {};
 
     /**
      * Identifies composite key
@@ -277,6 +283,14 @@ public abstract class AbstractJPAMailboxMessage implements MailboxMessage {
         @ElementJoinColumn(name = "MAIL_UID", referencedColumnName = "MAIL_UID")})
     private List<JPAUserFlag> userFlags;
 
+    /**
+     * The deduplicated header and body, when content deduplication is used. The inline header and body are then left
+     * empty.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "CONTENT_HASH", nullable = true)
+    @ForeignKey(deleteAction = ForeignKeyAction.RESTRICT)
+    private JPAMessageContent content;
 
     protected AbstractJPAMailboxMessage() {
     }
@@ -515,6 +529,68 @@ public abstract class AbstractJPAMailboxMessage implements MailboxMessage {
         this.mailbox = mailbox;
     }
 
+    public Optional<String> getContentHash() {
+        return getContent()
+            .map(JPAMessageContent::getHash);
+    }
+
+    /**
+     * Computes the hash identifying the header and body of this message.
+     */
+    public String computeContentHash() {
+        return JPAMessageContent.hash(header(), body());
+    }
+
+    public JPAMessageContent toMessageContent(String hash) {
+        return new JPAMessageContent(hash, header(), body());
+    }
+
+    /**
+     * References the given deduplicated content, and drops the inline header and body.
+     */
+    public void setContent(JPAMessageContent content) {
+        this.content = content;
+        clearInlineContent();
+    }
+
+    private Optional<JPAMessageContent> getContent() {
+        return Optional.ofNullable(content);
+    }
+
+    /**
+     * Makes this copy reference the deduplicated content of the original message, if any.
+     *
+     * @return true when the content is shared, the inline header and body then do not need to be copied
+     */
+    protected boolean shareContent(MailboxMessage original) {
+        if (original instanceof AbstractJPAMailboxMessage) {
+            Optional<JPAMessageContent> originalContent = ((AbstractJPAMailboxMessage) original).getContent();
+            originalContent.ifPresent(this::setContent);
+            return originalContent.isPresent();
+        }
+        return false;
+    }
+
+    protected byte[] header() {
+        if (content != null) {
+            return content.getHeader();
+        }
+        return Optional.ofNullable(getInlineHeader()).orElse(EMPTY_ARRAY);
+    }
+
+    protected byte[] body() {
+        if (content != null) {
+            return content.getBody();
+        }
+        return Optional.ofNullable(getInlineBody()).orElse(EMPTY_ARRAY);
+    }
+
+    protected abstract byte[] getInlineHeader();
+
+    protected abstract byte[] getInlineBody();
+
+    protected abstract void clearInlineContent();
+
     @Override
     public InputStream getFullContent() throws IOException {
         return new SequenceInputStream(getHeaderContent(), getBodyContent());
@@ -96,28 +96,40 @@ public class JPAMailboxMessage extends AbstractJPAMailboxMessage {
      */
     public JPAMailboxMessage(JPAMailbox mailbox, MessageUid uid, ModSeq modSeq, MailboxMessage message) throws MailboxException {
         super(mailbox, uid, modSeq, message);
-        try {
-            this.body = IOUtils.toByteArray(message.getBodyContent());
-            this.header = IOUtils.toByteArray(message.getHeaderContent());
-        } catch (IOException e) {
-            throw new MailboxException("Unable to parse message",e);
+        if (!shareContent(message)) {
+            try {
+                this.body = IOUtils.toByteArray(message.getBodyContent());
+                this.header = IOUtils.toByteArray(message.getHeaderContent());
+            } catch (IOException e) {
+                throw new MailboxException("Unable to parse message",e);
+            }
         }
     }
 
+    @Override
+    protected byte[] getInlineHeader() {
+        return header;
+    }
+
+    @Override
+    protected byte[] getInlineBody() {
+        return body;
+    }
+
+    @Override
+    protected void clearInlineContent() {
+        this.header = EMPTY_ARRAY;
+        this.body = EMPTY_ARRAY;
+    }
+
     @Override
     public InputStream getBodyContent() throws IOException {
-        if (body == null) {
-            return new ByteArrayInputStream(EMPTY_ARRAY);
-        }
-        return new ByteArrayInputStream(body);
+        return new ByteArrayInputStream(body());
     }
 
     @Override
     public InputStream getHeaderContent() throws IOException {
-        if (header == null) {
-            return new ByteArrayInputStream(EMPTY_ARRAY);
-        }
-        return new ByteArrayInputStream(header);
+        return new ByteArrayInputStream(header());
     }
 
     @Override
@@ -128,22 +140,22 @@ public class JPAMailboxMessage extends AbstractJPAMailboxMessage {
     @Override
     public Optional<byte[][]> getBodyBytes() {
         byte[][] answer = new byte[1][];
-        answer[0] = body;
+        answer[0] = body();
         return Optional.of(answer);
     }
 
     @Override
     public Optional<byte[][]> getFullBytes() {
         byte[][] answer = new byte[2][];
-        answer[0] = header;
-        answer[1] = body;
+        answer[0] = header();
+        answer[1] = body();
         return Optional.of(answer);
     }
 
     @Override
     public Optional<byte[][]> getHeadersBytes() {
         byte[][] answer = new byte[1][];
-        answer[0] = header;
+        answer[0] = header();
         return Optional.of(answer);
     }
 }
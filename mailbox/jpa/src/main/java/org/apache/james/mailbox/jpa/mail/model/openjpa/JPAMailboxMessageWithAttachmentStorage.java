@@ -107,30 +107,42 @@ public class JPAMailboxMessageWithAttachmentStorage extends AbstractJPAMailboxMe
      */
     public JPAMailboxMessageWithAttachmentStorage(JPAMailbox mailbox, MessageUid uid, ModSeq modSeq, MailboxMessage message) throws MailboxException {
         super(mailbox, uid, modSeq, message);
-        try {
-            this.body = IOUtils.toByteArray(message.getBodyContent());
-            this.header = IOUtils.toByteArray(message.getHeaderContent());
-        } catch (IOException e) {
-            throw new MailboxException("Unable to parse message",e);
+        if (!shareContent(message)) {
+            try {
+                this.body = IOUtils.toByteArray(message.getBodyContent());
+                this.header = IOUtils.toByteArray(message.getHeaderContent());
+            } catch (IOException e) {
+                throw new MailboxException("Unable to parse message",e);
+            }
         }
         attachments = new ArrayList<>();
 
     }
 
+    @Override
+    protected byte[] getInlineHeader() {
+        return header;
+    }
+
+    @Override
+    protected byte[] getInlineBody() {
+        return body;
+    }
+
+    @Override
+    protected void clearInlineContent() {
+        this.header = EMPTY_ARRAY;
+        this.body = EMPTY_ARRAY;
+    }
+
     @Override
     public InputStream getBodyContent() throws IOException {
-        if (body == null) {
-            return new ByteArrayInputStream(EMPTY_ARRAY);
-        }
-        return new ByteArrayInputStream(body);
+        return new ByteArrayInputStream(body());
     }
 
     @Override
     public InputStream getHeaderContent() throws IOException {
-        if (header == null) {
-            return new ByteArrayInputStream(EMPTY_ARRAY);
-        }
-        return new ByteArrayInputStream(header);
+        return new ByteArrayInputStream(header());
     }
 
     @Override
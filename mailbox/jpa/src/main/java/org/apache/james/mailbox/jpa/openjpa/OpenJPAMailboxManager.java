@@ -52,6 +52,21 @@ public class OpenJPAMailboxManager extends StoreMailboxManager {
         MailboxCapabilities.Move,
         MailboxCapabilities.Annotation);
 
+    public OpenJPAMailboxManager(JPAMailboxSessionMapperFactory mapperFactory,
+                                 SessionProvider sessionProvider,
+                                 MessageParser messageParser,
+                                 MessageId.Factory messageIdFactory,
+                                 EventBus eventBus,
+                                 StoreMailboxAnnotationManager annotationManager,
+                                 StoreRightManager storeRightManager,
+                                 QuotaComponents quotaComponents,
+                                 MessageSearchIndex index,
+                                 ThreadIdGuessingAlgorithm threadIdGuessingAlgorithm,
+                                 Clock clock) {
+        this(mapperFactory, sessionProvider, messageParser, messageIdFactory, eventBus, annotationManager, storeRightManager,
+            quotaComponents, index, MailboxManagerConfiguration.DEFAULT, threadIdGuessingAlgorithm, clock);
+    }
+
     @Inject
     public OpenJPAMailboxManager(JPAMailboxSessionMapperFactory mapperFactory,
                                  SessionProvider sessionProvider,
@@ -62,12 +77,13 @@ public class OpenJPAMailboxManager extends StoreMailboxManager {
                                  StoreRightManager storeRightManager,
                                  QuotaComponents quotaComponents,
                                  MessageSearchIndex index,
+                                 MailboxManagerConfiguration configuration,
                                  ThreadIdGuessingAlgorithm threadIdGuessingAlgorithm,
                                  Clock clock) {
         super(mapperFactory, sessionProvider, new JVMMailboxPathLocker(),
             messageParser, messageIdFactory, annotationManager,
             eventBus, storeRightManager, quotaComponents,
-            index, MailboxManagerConfiguration.DEFAULT, PreDeletionHooks.NO_PRE_DELETION_HOOK, threadIdGuessingAlgorithm, clock);
+            index, configuration, PreDeletionHooks.NO_PRE_DELETION_HOOK, threadIdGuessingAlgorithm, clock);
     }
 
     @Override
@@ -24,6 +24,7 @@ import java.util.List;
 import org.apache.james.mailbox.jpa.mail.model.JPAAttachment;
 import org.apache.james.mailbox.jpa.mail.model.JPAMailbox;
 import org.apache.james.mailbox.jpa.mail.model.JPAMailboxAnnotation;
+import org.apache.james.mailbox.jpa.mail.model.JPAMessageContent;
 import org.apache.james.mailbox.jpa.mail.model.JPAProperty;
 import org.apache.james.mailbox.jpa.mail.model.JPAUserFlag;
 import org.apache.james.mailbox.jpa.mail.model.openjpa.AbstractJPAMailboxMessage;
@@ -46,6 +47,7 @@ public interface JPAMailboxFixture {
         JPAMailbox.class,
         AbstractJPAMailboxMessage.class,
         JPAMailboxMessage.class,
+        JPAMessageContent.class,
         JPAProperty.class,
         JPAUserFlag.class,
         JPAMailboxAnnotation.class,
@@ -70,6 +72,7 @@ public interface JPAMailboxFixture {
         "JAMES_MAILBOX_ANNOTATION",
         "JAMES_MAILBOX",
         "JAMES_MAIL",
+        "JAMES_MAIL_CONTENT",
         "JAMES_SUBSCRIPTION",
         "JAMES_ATTACHMENT");
 
@@ -46,9 +46,19 @@ import com.google.common.collect.ImmutableList;
 public class JPAMapperProvider implements MapperProvider {
 
     private final JpaTestCluster jpaTestCluster;
+    private final JPAConfiguration jpaConfiguration;
 
     public JPAMapperProvider(JpaTestCluster jpaTestCluster) {
+        this(jpaTestCluster, JPAConfiguration.builder()
+            .driverName("driverName")
+            .driverURL("driverUrl")
+            .attachmentStorage(true)
+            .build());
+    }
+
+    public JPAMapperProvider(JpaTestCluster jpaTestCluster, JPAConfiguration jpaConfiguration) {
         this.jpaTestCluster = jpaTestCluster;
+        this.jpaConfiguration = jpaConfiguration;
     }
 
     @Override
@@ -60,12 +70,6 @@ public class JPAMapperProvider implements MapperProvider {
     public MessageMapper createMessageMapper() {
         EntityManagerFactory entityManagerFactory = jpaTestCluster.getEntityManagerFactory();
 
-        JPAConfiguration jpaConfiguration = JPAConfiguration.builder()
-            .driverName("driverName")
-            .driverURL("driverUrl")
-            .attachmentStorage(true)
-            .build();
-
         JPAMessageMapper messageMapper = new JPAMessageMapper(new JPAUidProvider(entityManagerFactory),
             new JPAModSeqProvider(entityManagerFactory),
             entityManagerFactory,
@@ -0,0 +1,239 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.mailbox.jpa.mail;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import jakarta.mail.Flags;
+import jakarta.persistence.EntityManager;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.james.backends.jpa.EntityManagerUtils;
+import org.apache.james.backends.jpa.JPAConfiguration;
+import org.apache.james.backends.jpa.JpaTestCluster;
+import org.apache.james.core.Username;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.jpa.JPAMailboxFixture;
+import org.apache.james.mailbox.model.ByteContent;
+import org.apache.james.mailbox.model.Mailbox;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.MessageId;
+import org.apache.james.mailbox.model.MessageMetaData;
+import org.apache.james.mailbox.model.MessageRange;
+import org.apache.james.mailbox.model.ThreadId;
+import org.apache.james.mailbox.model.UidValidity;
+import org.apache.james.mailbox.store.mail.MailboxMapper;
+import org.apache.james.mailbox.store.mail.MessageMapper;
+import org.apache.james.mailbox.store.mail.MessageMapper.FetchType;
+import org.apache.james.mailbox.store.mail.model.DefaultMessageId;
+import org.apache.james.mailbox.store.mail.model.MailboxMessage;
+import org.apache.james.mailbox.store.mail.model.impl.PropertyBuilder;
+import org.apache.james.mailbox.store.mail.model.impl.SimpleMailboxMessage;
+import org.apache.james.util.concurrency.ConcurrentTestRunner;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+class JPAMessageContentReferencesTest {
+    static final JpaTestCluster JPA_TEST_CLUSTER = JpaTestCluster.create(JPAMailboxFixture.MAILBOX_PERSISTANCE_CLASSES);
+    static final Username BOB = Username.of("bob");
+    static final String CONTENT = "Subject: Mailing list\r\n\r\nThe same body for all recipients\r\n";
+    static final String OTHER_CONTENT = "Subject: Other\r\n\r\nAnother body\r\n";
+
+    JPAMapperProvider mapperProvider;
+    MailboxMapper mailboxMapper;
+    MessageMapper messageMapper;
+    Mailbox inbox;
+    Mailbox archive;
+
+    @BeforeEach
+    void setUp() {
+        mapperProvider = new JPAMapperProvider(JPA_TEST_CLUSTER, JPAConfiguration.builder()
+            .driverName("driverName")
+            .driverURL("driverUrl")
+            .contentDeduplication(true)
+            .build());
+        mailboxMapper = mapperProvider.createMailboxMapper();
+        messageMapper = mapperProvider.createMessageMapper();
+        inbox = mailboxMapper.create(MailboxPath.inbox(BOB), UidValidity.of(42)).block();
+        archive = mailboxMapper.create(MailboxPath.forUser(BOB, "archive"), UidValidity.of(43)).block();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        JPA_TEST_CLUSTER.clear(JPAMailboxFixture.MAILBOX_TABLE_NAMES);
+    }
+
+    @Test
+    void addingTheSameContentTwiceShouldStoreItOnce() throws Exception {
+        messageMapper.add(inbox, message(inbox, CONTENT));
+        messageMapper.add(archive, message(archive, CONTENT));
+
+        assertThat(contentReferenceCounts()).containsExactly(2L);
+    }
+
+    @Test
+    void distinctContentsShouldBeStoredSeparately() throws Exception {
+        messageMapper.add(inbox, message(inbox, CONTENT));
+        messageMapper.add(inbox, message(inbox, OTHER_CONTENT));
+
+        assertThat(contentReferenceCounts()).containsExactlyInAnyOrder(1L, 1L);
+    }
+
+    @Test
+    void deduplicatedMessagesShouldBeReadBack() throws Exception {
+        MessageMetaData metaData = messageMapper.add(inbox, message(inbox, CONTENT));
+        messageMapper.add(archive, message(archive, CONTENT));
+
+        MailboxMessage message = messageMapper.findInMailbox(inbox, MessageRange.one(metaData.getUid()), FetchType.FULL, 1).next();
+
+        assertThat(IOUtils.toString(message.getFullContent(), StandardCharsets.UTF_8)).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void copyShouldReferenceTheSameContent() throws Exception {
+        MessageMetaData metaData = messageMapper.add(inbox, message(inbox, CONTENT));
+
+        messageMapper.copy(archive, find(inbox, metaData.getUid()));
+
+        assertThat(contentReferenceCounts()).containsExactly(2L);
+        assertThat(IOUtils.toString(messageMapper.findInMailbox(archive, MessageRange.all(), FetchType.FULL, 1).next().getFullContent(), StandardCharsets.UTF_8))
+            .isEqualTo(CONTENT);
+    }
+
+    @Test
+    void moveShouldNotChangeTheReferenceCount() throws Exception {
+        MessageMetaData metaData = messageMapper.add(inbox, message(inbox, CONTENT));
+
+        messageMapper.move(archive, find(inbox, metaData.getUid()));
+
+        assertThat(contentReferenceCounts()).containsExactly(1L);
+    }
+
+    @Test
+    void deleteShouldDecrementTheReferenceCount() throws Exception {
+        MessageMetaData metaData = messageMapper.add(inbox, message(inbox, CONTENT));
+        messageMapper.add(archive, message(archive, CONTENT));
+
+        messageMapper.delete(inbox, find(inbox, metaData.getUid()));
+
+        assertThat(contentReferenceCounts()).containsExactly(1L);
+    }
+
+    @Test
+    void deletingTheLastReferenceShouldDeleteTheContent() throws Exception {
+        MessageMetaData metaData = messageMapper.add(inbox, message(inbox, CONTENT));
+
+        messageMapper.delete(inbox, find(inbox, metaData.getUid()));
+
+        assertThat(contentReferenceCounts()).isEmpty();
+    }
+
+    @Test
+    void deleteMessagesShouldReleaseAllTheirReferences() throws Exception {
+        MessageMetaData first = messageMapper.add(inbox, message(inbox, CONTENT));
+        MessageMetaData second = messageMapper.add(inbox, message(inbox, CONTENT));
+        messageMapper.add(inbox, message(inbox, OTHER_CONTENT));
+
+        messageMapper.deleteMessages(inbox, ImmutableList.of(first.getUid(), second.getUid()));
+
+        assertThat(contentReferenceCounts()).containsExactly(1L);
+    }
+
+    @Test
+    void deletingAMailboxShouldReleaseTheReferencesOfItsMessages() throws Exception {
+        messageMapper.add(inbox, message(inbox, CONTENT));
+        messageMapper.add(inbox, message(inbox, CONTENT));
+        messageMapper.add(archive, message(archive, CONTENT));
+        messageMapper.add(archive, message(archive, OTHER_CONTENT));
+
+        mailboxMapper.delete(archive).block();
+
+        assertThat(contentReferenceCounts()).containsExactly(2L);
+    }
+
+    @Test
+    void concurrentDeliveriesOfANewContentShouldAllReferenceIt() throws Exception {
+        int threadCount = 4;
+        List<Mailbox> mailboxes = IntStream.range(0, threadCount)
+            .mapToObj(i -> mailboxMapper.create(MailboxPath.forUser(BOB, "mailbox" + i), UidValidity.of(100 + i)).block())
+            .collect(ImmutableList.toImmutableList());
+
+        ConcurrentTestRunner.builder()
+            .operation((threadNumber, step) -> {
+                MessageMapper mapper = mapperProvider.createMessageMapper();
+                try {
+                    Mailbox mailbox = mailboxes.get(threadNumber);
+                    mapper.add(mailbox, message(mailbox, CONTENT));
+                } finally {
+                    mapper.endRequest();
+                }
+            })
+            .threadCount(threadCount)
+            .operationCount(1)
+            .runSuccessfullyWithin(Duration.ofMinutes(1));
+
+        assertThat(contentReferenceCounts()).containsExactly((long) threadCount);
+    }
+
+    @Test
+    void contentShouldNotBeDeduplicatedWhenDisabled() throws Exception {
+        MessageMapper withoutDeduplication = new JPAMapperProvider(JPA_TEST_CLUSTER, JPAConfiguration.builder()
+            .driverName("driverName")
+            .driverURL("driverUrl")
+            .build())
+            .createMessageMapper();
+
+        withoutDeduplication.add(inbox, message(inbox, CONTENT));
+        withoutDeduplication.add(archive, message(archive, CONTENT));
+
+        assertThat(contentReferenceCounts()).isEmpty();
+    }
+
+    private MailboxMessage find(Mailbox mailbox, MessageUid uid) throws MailboxException {
+        return messageMapper.findInMailbox(mailbox, MessageRange.one(uid), FetchType.METADATA, 1).next();
+    }
+
+    private MailboxMessage message(Mailbox mailbox, String content) {
+        MessageId messageId = new DefaultMessageId.Factory().generate();
+        int bodyStart = content.indexOf("\r\n\r\n") + 4;
+        return new SimpleMailboxMessage(messageId, ThreadId.fromBaseMessageId(messageId), new Date(), content.length(), bodyStart,
+            new ByteContent(content.getBytes(StandardCharsets.UTF_8)), new Flags(), new PropertyBuilder().build(), mailbox.getMailboxId());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> contentReferenceCounts() {
+        EntityManager entityManager = JPA_TEST_CLUSTER.getEntityManagerFactory().createEntityManager();
+        try {
+            return entityManager.createQuery("SELECT content.referenceCount FROM MessageContent content")
+                .getResultList();
+        } finally {
+            EntityManagerUtils.safelyClose(entityManager);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.jpa.mail;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.apache.james.backends.jpa.JpaTestCluster;
+import org.apache.james.core.Username;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.jpa.JPAMailboxFixture;
+import org.apache.james.mailbox.model.Mailbox;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.UidValidity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class JPAUidProviderTest {
+    static final JpaTestCluster JPA_TEST_CLUSTER = JpaTestCluster.create(JPAMailboxFixture.MAILBOX_PERSISTANCE_CLASSES);
+
+    private JPAUidProvider testee;
+    private Mailbox mailbox;
+
+    @BeforeEach
+    void setUp() {
+        testee = new JPAUidProvider(JPA_TEST_CLUSTER.getEntityManagerFactory());
+        mailbox = new TransactionalMailboxMapper(new JPAMailboxMapper(JPA_TEST_CLUSTER.getEntityManagerFactory()))
+            .create(MailboxPath.inbox(Username.of("bob")), UidValidity.of(42))
+            .block();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        JPA_TEST_CLUSTER.clear(JPAMailboxFixture.MAILBOX_TABLE_NAMES);
+    }
+
+    @Test
+    void nextUidsShouldReturnConsecutiveUids() {
+        assertThat(testee.nextUids(mailbox.getMailboxId(), 3).block())
+            .containsExactly(MessageUid.of(1), MessageUid.of(2), MessageUid.of(3));
+    }
+
+    @Test
+    void nextUidsShouldUpdateLastUid() throws Exception {
+        testee.nextUids(mailbox.getMailboxId(), 3).block();
+
+        assertThat(testee.lastUid(mailbox)).contains(MessageUid.of(3));
+    }
+
+    @Test
+    void nextUidShouldFollowReservedUids() throws Exception {
+        testee.nextUids(mailbox.getMailboxId(), 3).block();
+
+        assertThat(testee.nextUid(mailbox)).isEqualTo(MessageUid.of(4));
+    }
+
+    @Test
+    void nextUidsShouldFollowPreviousUids() throws Exception {
+        testee.nextUid(mailbox);
+
+        assertThat(testee.nextUids(mailbox.getMailboxId(), 2).block())
+            .containsExactly(MessageUid.of(2), MessageUid.of(3));
+    }
+
+    @Test
+    void reserveUidsShouldReturnEmptyWhenZero() throws Exception {
+        assertThat(testee.reserveUids(mailbox.getMailboxId(), 0)).isEmpty();
+        assertThat(testee.lastUid(mailbox)).isEmpty();
+    }
+
+    @Test
+    void reserveUidsShouldThrowWhenNegative() {
+        assertThatThrownBy(() -> testee.reserveUids(mailbox.getMailboxId(), -1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
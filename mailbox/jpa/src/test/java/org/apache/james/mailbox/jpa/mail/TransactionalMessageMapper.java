@@ -123,12 +123,24 @@ public class TransactionalMessageMapper implements MessageMapper {
             () -> messageMapper.copy(mailbox, original));
     }
 
+    @Override
+    public List<MessageMetaData> copy(Mailbox mailbox, List<MailboxMessage> original) throws MailboxException {
+        return messageMapper.execute(
+            () -> messageMapper.copy(mailbox, original));
+    }
+
     @Override
     public MessageMetaData move(Mailbox mailbox, MailboxMessage original) throws MailboxException {
        return messageMapper.execute(
                 () -> messageMapper.move(mailbox, original));
     }
 
+    @Override
+    public List<MessageMetaData> move(Mailbox mailbox, List<MailboxMessage> original) throws MailboxException {
+        return messageMapper.execute(
+            () -> messageMapper.move(mailbox, original));
+    }
+
     @Override
     public Optional<MessageUid> getLastUid(Mailbox mailbox) throws MailboxException {
         return messageMapper.getLastUid(mailbox);
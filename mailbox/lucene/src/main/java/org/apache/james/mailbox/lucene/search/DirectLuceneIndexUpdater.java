@@ -0,0 +1,82 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.lucene.search;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.Query;
+
+import com.github.fge.lambdas.Throwing;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Applies each write to the index writer on the calling thread. Commits are left to explicit {@link #commit()} calls.
+ */
+class DirectLuceneIndexUpdater implements LuceneIndexUpdater {
+    private final IndexWriter writer;
+    private final LuceneSearcherManager searcherManager;
+
+    DirectLuceneIndexUpdater(IndexWriter writer, LuceneSearcherManager searcherManager) {
+        this.writer = writer;
+        this.searcherManager = searcherManager;
+    }
+
+    @Override
+    public Mono<Void> addDocuments(List<Document> documents) {
+        return Mono.fromRunnable(Throwing.runnable(() -> {
+            writer.addDocuments(documents);
+            searcherManager.onWrite();
+        }));
+    }
+
+    @Override
+    public Mono<Void> updateDocuments(Map<Term, Document> documents) {
+        return Mono.fromRunnable(Throwing.runnable(() -> {
+            for (Map.Entry<Term, Document> entry : documents.entrySet()) {
+                writer.updateDocument(entry.getKey(), entry.getValue());
+            }
+            searcherManager.onWrite();
+        }));
+    }
+
+    @Override
+    public Mono<Void> deleteDocuments(List<Query> queries) {
+        return Mono.fromRunnable(Throwing.runnable(() -> {
+            writer.deleteDocuments(queries.toArray(Query[]::new));
+            searcherManager.onWrite();
+        }));
+    }
+
+    @Override
+    public void commit() throws IOException {
+        writer.commit();
+    }
+
+    @Override
+    public void close() {
+
+    }
+}
@@ -0,0 +1,50 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.lucene.search;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.Query;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Applies the writes of a {@link LuceneMessageSearchIndex} to its index writer.
+ */
+interface LuceneIndexUpdater extends Closeable {
+    Mono<Void> addDocuments(List<Document> documents);
+
+    /**
+     * Replaces, for each term, the documents matching this term with the associated document.
+     */
+    Mono<Void> updateDocuments(Map<Term, Document> documents);
+
+    Mono<Void> deleteDocuments(List<Query> queries);
+
+    /**
+     * Commits the writes submitted so far.
+     */
+    void commit() throws IOException;
+}
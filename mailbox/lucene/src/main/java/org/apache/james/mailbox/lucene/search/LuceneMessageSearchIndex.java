@@ -27,8 +27,10 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.EnumSet;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Stream;
@@ -52,6 +54,7 @@ import org.apache.james.mailbox.model.MailboxId;
 import org.apache.james.mailbox.model.MessageAttachmentMetadata;
 import org.apache.james.mailbox.model.MessageId;
 import org.apache.james.mailbox.model.MessageRange;
+import org.apache.james.mailbox.model.ParsedMessage;
 import org.apache.james.mailbox.model.SearchQuery;
 import org.apache.james.mailbox.model.SearchQuery.AttachmentCriterion;
 import org.apache.james.mailbox.model.SearchQuery.ContainsOperator;
@@ -69,8 +72,17 @@ import org.apache.james.mailbox.store.MailboxSessionMapperFactory;
 import org.apache.james.mailbox.store.mail.model.MailboxMessage;
 import org.apache.james.mailbox.store.search.ListeningMessageSearchIndex;
 import org.apache.james.mailbox.store.search.SearchUtil;
+import org.apache.james.metrics.api.GaugeRegistry;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.NoopGaugeRegistry;
+import org.apache.james.metrics.api.NoopMetricFactory;
 import org.apache.james.mime4j.MimeException;
+import org.apache.james.mime4j.dom.Body;
+import org.apache.james.mime4j.dom.Entity;
 import org.apache.james.mime4j.dom.Header;
+import org.apache.james.mime4j.dom.Message;
+import org.apache.james.mime4j.dom.Multipart;
+import org.apache.james.mime4j.dom.SingleBody;
 import org.apache.james.mime4j.dom.address.Address;
 import org.apache.james.mime4j.dom.address.AddressList;
 import org.apache.james.mime4j.dom.address.Group;
@@ -94,16 +106,13 @@ import org.apache.lucene.document.SortedSetDocValuesField;
 import org.apache.lucene.document.StoredField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
-import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexFormatTooOldException;
-import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.IndexWriterConfig.OpenMode;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
-import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
@@ -397,6 +406,8 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
 
     @VisibleForTesting
     final IndexWriter writer;
+    private final LuceneSearcherManager searcherManager;
+    private final LuceneIndexUpdater indexUpdater;
     private final Directory directory;
 
     private int maxQueryResults = DEFAULT_MAX_QUERY_RESULTS;
@@ -404,6 +415,18 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
     private boolean suffixMatch = false;
 
     @Inject
+    public LuceneMessageSearchIndex(
+        MailboxSessionMapperFactory factory,
+        MailboxId.Factory mailboxIdFactory,
+        Directory directory,
+        MessageId.Factory messageIdFactory,
+        SessionProvider sessionProvider,
+        LuceneSearchIndexConfiguration configuration,
+        MetricFactory metricFactory,
+        GaugeRegistry gaugeRegistry) throws IOException {
+        this(factory, mailboxIdFactory, directory, false, messageIdFactory, sessionProvider, configuration, metricFactory, gaugeRegistry);
+    }
+
     public LuceneMessageSearchIndex(
         MailboxSessionMapperFactory factory,
         MailboxId.Factory mailboxIdFactory,
@@ -420,6 +443,20 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
             boolean dropIndexOnStart,
             MessageId.Factory messageIdFactory,
             SessionProvider sessionProvider) throws IOException {
+        this(factory, mailboxIdFactory, directory, dropIndexOnStart, messageIdFactory, sessionProvider,
+            LuceneSearchIndexConfiguration.DEFAULT, new NoopMetricFactory(), new NoopGaugeRegistry());
+    }
+
+    public LuceneMessageSearchIndex(
+            MailboxSessionMapperFactory factory,
+            MailboxId.Factory mailboxIdFactory,
+            Directory directory,
+            boolean dropIndexOnStart,
+            MessageId.Factory messageIdFactory,
+            SessionProvider sessionProvider,
+            LuceneSearchIndexConfiguration configuration,
+            MetricFactory metricFactory,
+            GaugeRegistry gaugeRegistry) throws IOException {
         super(factory, ImmutableSet.of(), sessionProvider);
         this.mailboxIdFactory = mailboxIdFactory;
         this.messageIdFactory = messageIdFactory;
@@ -429,11 +466,19 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
         } catch (IndexFormatTooOldException e) {
             throw new RuntimeException("Old lucene index version detected, automatic migration is not supported. See https://github.com/james/james-project/blob/master/upgrade-instructions.md#james-4046-refactor-and-update-apache-james-mailbox-lucene for details", e);
         }
+        this.searcherManager = new LuceneSearcherManager(writer, configuration, metricFactory, gaugeRegistry);
+        if (configuration.isWriteBehindEnabled()) {
+            this.indexUpdater = new WriteBehindLuceneIndexUpdater(writer, searcherManager, configuration, metricFactory, gaugeRegistry);
+        } else {
+            this.indexUpdater = new DirectLuceneIndexUpdater(writer, searcherManager);
+        }
     }
 
     @PreDestroy
     public void close() throws IOException {
         log.trace("Closing Lucene index");
+        indexUpdater.close();
+        searcherManager.close();
         writer.commit();
         writer.close();
     }
@@ -519,24 +564,26 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
     public List<Document> searchDocument(Collection<MailboxId> mailboxIds, SearchQuery searchQuery, int maxQueryResults) throws MailboxException {
         Query inMailboxes = buildQueryFromMailboxes(mailboxIds);
 
-        try (IndexReader reader = DirectoryReader.open(writer)) {
-            IndexSearcher searcher = new IndexSearcher(reader);
-            BooleanQuery.Builder queryBuilder = new BooleanQuery.Builder();
-            queryBuilder.add(inMailboxes, BooleanClause.Occur.MUST);
-            // Not return flags documents
-            queryBuilder.add(new PrefixQuery(new Term(FLAGS_FIELD, "")), BooleanClause.Occur.MUST_NOT);
-
-            List<Criterion> crits = searchQuery.getCriteria();
-            for (Criterion crit : crits) {
-                queryBuilder.add(createQuery(crit, inMailboxes, searchQuery.getRecentMessageUids()), BooleanClause.Occur.MUST);
-            }
+        BooleanQuery.Builder queryBuilder = new BooleanQuery.Builder();
+        queryBuilder.add(inMailboxes, BooleanClause.Occur.MUST);
+        // Not return flags documents
+        queryBuilder.add(new PrefixQuery(new Term(FLAGS_FIELD, "")), BooleanClause.Occur.MUST_NOT);
 
-            // query for all the documents sorted as specified in the SearchQuery
-            TopDocs docs = searcher.search(queryBuilder.build(), maxQueryResults, createSort(searchQuery.getSorts()));
+        List<Criterion> crits = searchQuery.getCriteria();
+        for (Criterion crit : crits) {
+            queryBuilder.add(createQuery(crit, inMailboxes, searchQuery.getRecentMessageUids()), BooleanClause.Occur.MUST);
+        }
+        Query query = queryBuilder.build();
 
-            return Stream.of(docs.scoreDocs)
-                .map(Throwing.function(sDoc -> searcher.storedFields().document(sDoc.doc)))
-                .toList();
+        try {
+            return searcherManager.withSearcher(searcher -> {
+                // query for all the documents sorted as specified in the SearchQuery
+                TopDocs docs = searcher.search(query, maxQueryResults, createSort(searchQuery.getSorts()));
+
+                return Stream.of(docs.scoreDocs)
+                    .map(Throwing.function(sDoc -> searcher.storedFields().document(sDoc.doc)))
+                    .toList();
+            });
         } catch (IOException e) {
             throw new MailboxException("Unable to search the mailbox", e);
         }
@@ -556,7 +603,7 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
      * <p>
      * See {@link #createFlagsDocument(MailboxMessage)}
      */
-    private Document createMessageDocument(final MailboxSession session, final MailboxMessage membership) throws IOException, MimeException {
+    private Document createMessageDocument(final MailboxSession session, final MailboxMessage membership, Optional<Message> parsedMessage) throws IOException, MimeException {
         final Document doc = new Document();
         // TODO: Better handling
         doc.add(new StringField(USERS, session.getUser().asString().toUpperCase(Locale.US), Store.YES));
@@ -724,26 +771,17 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
 
             @Override
             public void body(BodyDescriptor desc, InputStream in) throws IOException {
-                String mediaType = desc.getMediaType();
-                if (MEDIA_TYPE_TEXT.equalsIgnoreCase(mediaType) || MEDIA_TYPE_MESSAGE.equalsIgnoreCase(mediaType)) {
-                    String cset = desc.getCharset();
-                    if (cset == null) {
-                        cset = DEFAULT_ENCODING;
-                    }
-                    Charset charset;
-                    try {
-                        charset = Charset.forName(cset);
-                    } catch (Exception e) {
-                        // Invalid charset found so fallback toe the DEFAULT_ENCODING
-                        charset = Charset.forName(DEFAULT_ENCODING);
-                    }
-
-                    String bodyContent = IOUtils.toString(in, charset);
-                    doc.add(new TextField(BODY_FIELD, bodyContent, Store.YES));
-                }
+                indexBody(doc, desc.getMediaType(), desc.getCharset(), in);
             }
 
         };
+
+        if (parsedMessage.isPresent()) {
+            // reuse the message parsed upon append, walking its entities as the parser would have emitted them
+            indexEntity(doc, handler, parsedMessage.get());
+            return doc;
+        }
+
         //config.setStrictParsing(false);
         MimeStreamParser parser = new MimeStreamParser(MimeConfig.PERMISSIVE);
         parser.setContentDecoding(true);
@@ -755,6 +793,41 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
         return doc;
     }
 
+    private static void indexEntity(Document doc, SimpleContentHandler handler, Entity entity) throws IOException {
+        handler.headers(entity.getHeader());
+        Body body = entity.getBody();
+        if (body instanceof Multipart multipart) {
+            for (Entity part : multipart.getBodyParts()) {
+                indexEntity(doc, handler, part);
+            }
+        } else if (body instanceof Message message) {
+            indexEntity(doc, handler, message);
+        } else if (body instanceof SingleBody singleBody) {
+            String mediaType = StringUtils.substringBefore(entity.getMimeType(), "/");
+            try (InputStream in = singleBody.getInputStream()) {
+                indexBody(doc, mediaType, entity.getCharset(), in);
+            }
+        }
+    }
+
+    private static void indexBody(Document doc, String mediaType, String cset, InputStream in) throws IOException {
+        if (MEDIA_TYPE_TEXT.equalsIgnoreCase(mediaType) || MEDIA_TYPE_MESSAGE.equalsIgnoreCase(mediaType)) {
+            if (cset == null) {
+                cset = DEFAULT_ENCODING;
+            }
+            Charset charset;
+            try {
+                charset = Charset.forName(cset);
+            } catch (Exception e) {
+                // Invalid charset found so fallback toe the DEFAULT_ENCODING
+                charset = Charset.forName(DEFAULT_ENCODING);
+            }
+
+            String bodyContent = IOUtils.toString(in, charset);
+            doc.add(new TextField(BODY_FIELD, bodyContent, Store.YES));
+        }
+    }
+
     private static boolean hasAttachment(MailboxMessage membership) {
        return MessageAttachmentMetadata.hasNonInlinedAttachment(membership.getAttachments());
     }
@@ -931,17 +1004,19 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
         }
         queryBuilder.add(inMailboxes, BooleanClause.Occur.MUST);
 
-        try (IndexReader reader = DirectoryReader.open(writer)) {
-            IndexSearcher searcher = new IndexSearcher(reader);
-            Set<MessageUid> uids = new HashSet<>();
-
-            // queryBuilder for all the documents sorted by uid
-            TopDocs docs = searcher.search(queryBuilder.build(), maxQueryResults, new Sort(UID_SORT));
-            ScoreDoc[] sDocs = docs.scoreDocs;
-            for (ScoreDoc sDoc : sDocs) {
-                MessageUid uid = MessageUid.of(searcher.storedFields().document(sDoc.doc).getField(UID_FIELD).numericValue().longValue());
-                uids.add(uid);
-            }
+        try {
+            Set<MessageUid> uids = searcherManager.withSearcher(searcher -> {
+                Set<MessageUid> matchingUids = new HashSet<>();
+
+                // queryBuilder for all the documents sorted by uid
+                TopDocs docs = searcher.search(queryBuilder.build(), maxQueryResults, new Sort(UID_SORT));
+                ScoreDoc[] sDocs = docs.scoreDocs;
+                for (ScoreDoc sDoc : sDocs) {
+                    MessageUid uid = MessageUid.of(searcher.storedFields().document(sDoc.doc).getField(UID_FIELD).numericValue().longValue());
+                    matchingUids.add(uid);
+                }
+                return matchingUids;
+            });
 
             // add or remove recent uids
             if (flag.equalsIgnoreCase("\\RECENT")) {
@@ -1141,33 +1216,36 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
 
     @Override
     public Mono<Void> add(MailboxSession session, Mailbox mailbox, MailboxMessage membership) {
-        return Mono.fromRunnable(Throwing.runnable(() -> {
-            Document doc = createMessageDocument(session, membership);
+        return add(session, mailbox, membership, ParsedMessage.NONE);
+    }
+
+    @Override
+    public Mono<Void> add(MailboxSession session, Mailbox mailbox, MailboxMessage membership, ParsedMessage parsedMessage) {
+        return Mono.fromCallable(() -> {
+            Document doc = createMessageDocument(session, membership, parsedMessage.getMessage());
             Document flagsDoc = createFlagsDocument(membership);
 
             log.trace("Adding document: uid:'{}' with flags: {}", doc.get("uid"), flagsDoc);
 
-            writer.addDocument(doc);
-            writer.addDocument(flagsDoc);
-        }));
+            return ImmutableList.of(doc, flagsDoc);
+        }).flatMap(indexUpdater::addDocuments);
     }
 
     @Override
     public Mono<Void> update(MailboxSession session, MailboxId mailboxId, List<UpdatedFlags> updatedFlagsList) {
-        return Mono.fromRunnable(Throwing.runnable(() -> {
+        return Mono.fromCallable(() -> {
+            Map<Term, Document> updates = new LinkedHashMap<>();
             for (UpdatedFlags updatedFlags : updatedFlagsList) {
-                update(mailboxId, updatedFlags.getUid(), updatedFlags.getNewFlags());
+                MessageUid uid = updatedFlags.getUid();
+                Flags f = updatedFlags.getNewFlags();
+                var term = new Term(ID_FIELD, createFlagsIdField(mailboxId, uid));
+                var doc = createFlagsDocument(mailboxId, uid, f);
+                log.trace("Updating flags document, mailboxId:{}, message uid: {}, flags:'{}', term: {}, new document: {}",
+                        mailboxId, uid, f, term, doc);
+                updates.put(term, doc);
             }
-        }));
-    }
-
-    private void update(MailboxId mailboxId, MessageUid uid, Flags f) throws IOException {
-        var flagsID = createFlagsIdField(mailboxId, uid);
-        var term = new Term(ID_FIELD, flagsID);
-        var doc = createFlagsDocument(mailboxId, uid, f);
-        log.trace("Updating flags document, mailboxId:{}, message uid: {}, flags:'{}', term: {}, new document: {}",
-                mailboxId, uid, f, term, doc);
-        writer.updateDocument(term, doc);
+            return updates;
+        }).flatMap(indexUpdater::updateDocuments);
     }
 
     /**
@@ -1228,26 +1306,33 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
 
     @Override
     public Mono<Void> delete(MailboxSession session, MailboxId mailboxId, Collection<MessageUid> expungedUids) {
-        return Mono.fromRunnable(Throwing.runnable(() -> MessageRange.toRanges(expungedUids)
-            .forEach(Throwing.<MessageRange>consumer(messageRange -> delete(mailboxId, messageRange))
-                .sneakyThrow())));
+        return Mono.fromCallable(() -> MessageRange.toRanges(expungedUids)
+                .stream()
+                .map(messageRange -> createDeleteQuery(mailboxId, messageRange))
+                .collect(ImmutableList.toImmutableList()))
+            .flatMap(indexUpdater::deleteDocuments);
     }
 
     @Override
     public Mono<Void> deleteAll(MailboxSession session, MailboxId mailboxId) {
-        return Mono.fromRunnable(Throwing.runnable(() -> delete(mailboxId, MessageRange.all())));
+        return Mono.fromCallable(() -> ImmutableList.of(createDeleteQuery(mailboxId, MessageRange.all())))
+            .flatMap(indexUpdater::deleteDocuments);
     }
 
     public void delete(MailboxId mailboxId, MessageRange range) throws IOException {
+        indexUpdater.deleteDocuments(ImmutableList.of(createDeleteQuery(mailboxId, range)))
+            .block();
+    }
+
+    private Query createDeleteQuery(MailboxId mailboxId, MessageRange range) {
         BooleanQuery.Builder queryBuilder = new BooleanQuery.Builder();
         queryBuilder.add(new TermQuery(new Term(MAILBOX_ID_FIELD, mailboxId.serialize())), BooleanClause.Occur.MUST);
         queryBuilder.add(createQuery(range), BooleanClause.Occur.MUST);
-
-        writer.deleteDocuments(queryBuilder.build());
+        return queryBuilder.build();
     }
 
     public void commit() throws IOException {
-        writer.commit();
+        indexUpdater.commit();
     }
 
     @Override
@@ -1265,14 +1350,13 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
     }
 
     private Flags retrieveFlags(Mailbox mailbox, MessageUid uid) throws IOException {
-        try (IndexReader reader = DirectoryReader.open(writer)) {
-            IndexSearcher searcher = new IndexSearcher(reader);
-            Flags retrievedFlags = new Flags();
+        BooleanQuery.Builder queryBuilder = new BooleanQuery.Builder();
+        queryBuilder.add(new TermQuery(new Term(MAILBOX_ID_FIELD, mailbox.getMailboxId().serialize())), BooleanClause.Occur.MUST);
+        queryBuilder.add(createQuery(MessageRange.one(uid)), BooleanClause.Occur.MUST);
+        queryBuilder.add(new PrefixQuery(new Term(FLAGS_FIELD, "")), BooleanClause.Occur.MUST);
 
-            BooleanQuery.Builder queryBuilder = new BooleanQuery.Builder();
-            queryBuilder.add(new TermQuery(new Term(MAILBOX_ID_FIELD, mailbox.getMailboxId().serialize())), BooleanClause.Occur.MUST);
-            queryBuilder.add(createQuery(MessageRange.one(uid)), BooleanClause.Occur.MUST);
-            queryBuilder.add(new PrefixQuery(new Term(FLAGS_FIELD, "")), BooleanClause.Occur.MUST);
+        return searcherManager.withSearcher(searcher -> {
+            Flags retrievedFlags = new Flags();
 
             TopDocs docs = searcher.search(queryBuilder.build(), 100000);
             ScoreDoc[] sDocs = docs.scoreDocs;
@@ -1283,7 +1367,7 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
                     .forEach(flag -> fromString(flag).ifPresentOrElse(retrievedFlags::add, () -> retrievedFlags.add(flag)));
             }
             return retrievedFlags;
-        }
+        });
     }
 
     /**
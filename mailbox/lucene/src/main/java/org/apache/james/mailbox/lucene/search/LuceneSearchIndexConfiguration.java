@@ -0,0 +1,280 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.lucene.search;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.apache.commons.configuration2.Configuration;
+import org.apache.james.util.DurationParser;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+public class LuceneSearchIndexConfiguration {
+    public static class Builder {
+        private Optional<Duration> searcherRefreshInterval;
+        private Optional<Integer> searcherRefreshAfterWrites;
+        private Optional<Boolean> readAfterWriteConsistency;
+        private Optional<Boolean> writeBehindEnabled;
+        private Optional<Integer> writeBehindQueueSize;
+        private Optional<Integer> writeBehindBatchSize;
+        private Optional<Duration> writeBehindCommitInterval;
+
+        Builder() {
+            searcherRefreshInterval = Optional.empty();
+            searcherRefreshAfterWrites = Optional.empty();
+            readAfterWriteConsistency = Optional.empty();
+            writeBehindEnabled = Optional.empty();
+            writeBehindQueueSize = Optional.empty();
+            writeBehindBatchSize = Optional.empty();
+            writeBehindCommitInterval = Optional.empty();
+        }
+
+        public Builder searcherRefreshInterval(Optional<Duration> searcherRefreshInterval) {
+            this.searcherRefreshInterval = searcherRefreshInterval;
+            return this;
+        }
+
+        public Builder searcherRefreshInterval(Duration searcherRefreshInterval) {
+            return searcherRefreshInterval(Optional.of(searcherRefreshInterval));
+        }
+
+        public Builder searcherRefreshAfterWrites(Optional<Integer> searcherRefreshAfterWrites) {
+            this.searcherRefreshAfterWrites = searcherRefreshAfterWrites;
+            return this;
+        }
+
+        public Builder searcherRefreshAfterWrites(int searcherRefreshAfterWrites) {
+            return searcherRefreshAfterWrites(Optional.of(searcherRefreshAfterWrites));
+        }
+
+        public Builder readAfterWriteConsistency(Optional<Boolean> readAfterWriteConsistency) {
+            this.readAfterWriteConsistency = readAfterWriteConsistency;
+            return this;
+        }
+
+        public Builder readAfterWriteConsistency(boolean readAfterWriteConsistency) {
+            return readAfterWriteConsistency(Optional.of(readAfterWriteConsistency));
+        }
+
+        public Builder writeBehindEnabled(Optional<Boolean> writeBehindEnabled) {
+            this.writeBehindEnabled = writeBehindEnabled;
+            return this;
+        }
+
+        public Builder writeBehindEnabled(boolean writeBehindEnabled) {
+            return writeBehindEnabled(Optional.of(writeBehindEnabled));
+        }
+
+        public Builder writeBehindQueueSize(Optional<Integer> writeBehindQueueSize) {
+            this.writeBehindQueueSize = writeBehindQueueSize;
+            return this;
+        }
+
+        public Builder writeBehindQueueSize(int writeBehindQueueSize) {
+            return writeBehindQueueSize(Optional.of(writeBehindQueueSize));
+        }
+
+        public Builder writeBehindBatchSize(Optional<Integer> writeBehindBatchSize) {
+            this.writeBehindBatchSize = writeBehindBatchSize;
+            return this;
+        }
+
+        public Builder writeBehindBatchSize(int writeBehindBatchSize) {
+            return writeBehindBatchSize(Optional.of(writeBehindBatchSize));
+        }
+
+        public Builder writeBehindCommitInterval(Optional<Duration> writeBehindCommitInterval) {
+            this.writeBehindCommitInterval = writeBehindCommitInterval;
+            return this;
+        }
+
+        public Builder writeBehindCommitInterval(Duration writeBehindCommitInterval) {
+            return writeBehindCommitInterval(Optional.of(writeBehindCommitInterval));
+        }
+
+        public LuceneSearchIndexConfiguration build() {
+            searcherRefreshInterval.ifPresent(interval -> Preconditions.checkArgument(!interval.isZero() && !interval.isNegative(),
+                "'%s' needs to be strictly positive", SEARCHER_REFRESH_INTERVAL));
+            searcherRefreshAfterWrites.ifPresent(writes -> Preconditions.checkArgument(writes > 0,
+                "'%s' needs to be strictly positive", SEARCHER_REFRESH_AFTER_WRITES));
+            writeBehindQueueSize.ifPresent(size -> Preconditions.checkArgument(size > 0,
+                "'%s' needs to be strictly positive", WRITE_BEHIND_QUEUE_SIZE));
+            writeBehindBatchSize.ifPresent(size -> Preconditions.checkArgument(size > 0,
+                "'%s' needs to be strictly positive", WRITE_BEHIND_BATCH_SIZE));
+            writeBehindCommitInterval.ifPresent(interval -> Preconditions.checkArgument(!interval.isNegative(),
+                "'%s' needs to be positive", WRITE_BEHIND_COMMIT_INTERVAL));
+
+            return new LuceneSearchIndexConfiguration(searcherRefreshInterval, searcherRefreshAfterWrites,
+                readAfterWriteConsistency.orElse(DEFAULT_READ_AFTER_WRITE_CONSISTENCY),
+                writeBehindEnabled.orElse(DEFAULT_WRITE_BEHIND_ENABLED),
+                writeBehindQueueSize.orElse(DEFAULT_WRITE_BEHIND_QUEUE_SIZE),
+                writeBehindBatchSize.orElse(DEFAULT_WRITE_BEHIND_BATCH_SIZE),
+                writeBehindCommitInterval.orElse(DEFAULT_WRITE_BEHIND_COMMIT_INTERVAL));
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    static final String SEARCHER_REFRESH_INTERVAL = "lucene.searcher.refresh.interval";
+    static final String SEARCHER_REFRESH_AFTER_WRITES = "lucene.searcher.refresh.after.writes";
+    static final String READ_AFTER_WRITE_CONSISTENCY = "lucene.searcher.read.after.write.consistency";
+    static final String WRITE_BEHIND_ENABLED = "lucene.indexing.write.behind.enabled";
+    static final String WRITE_BEHIND_QUEUE_SIZE = "lucene.indexing.write.behind.queue.size";
+    static final String WRITE_BEHIND_BATCH_SIZE = "lucene.indexing.write.behind.batch.size";
+    static final String WRITE_BEHIND_COMMIT_INTERVAL = "lucene.indexing.write.behind.commit.interval";
+    static final boolean DEFAULT_READ_AFTER_WRITE_CONSISTENCY = true;
+    static final boolean DEFAULT_WRITE_BEHIND_ENABLED = false;
+    static final int DEFAULT_WRITE_BEHIND_QUEUE_SIZE = 10000;
+    static final int DEFAULT_WRITE_BEHIND_BATCH_SIZE = 500;
+    static final Duration DEFAULT_WRITE_BEHIND_COMMIT_INTERVAL = Duration.ofSeconds(1);
+
+    public static final LuceneSearchIndexConfiguration DEFAULT = builder().build();
+
+    public static LuceneSearchIndexConfiguration fromProperties(Configuration configuration) {
+        return builder()
+            .searcherRefreshInterval(Optional.ofNullable(configuration.getString(SEARCHER_REFRESH_INTERVAL, null))
+                .map(value -> DurationParser.parse(value, ChronoUnit.MILLIS)))
+            .searcherRefreshAfterWrites(Optional.ofNullable(configuration.getInteger(SEARCHER_REFRESH_AFTER_WRITES, null)))
+            .readAfterWriteConsistency(Optional.ofNullable(configuration.getBoolean(READ_AFTER_WRITE_CONSISTENCY, null)))
+            .writeBehindEnabled(Optional.ofNullable(configuration.getBoolean(WRITE_BEHIND_ENABLED, null)))
+            .writeBehindQueueSize(Optional.ofNullable(configuration.getInteger(WRITE_BEHIND_QUEUE_SIZE, null)))
+            .writeBehindBatchSize(Optional.ofNullable(configuration.getInteger(WRITE_BEHIND_BATCH_SIZE, null)))
+            .writeBehindCommitInterval(Optional.ofNullable(configuration.getString(WRITE_BEHIND_COMMIT_INTERVAL, null))
+                .map(value -> DurationParser.parse(value, ChronoUnit.MILLIS)))
+            .build();
+    }
+
+    private final Optional<Duration> searcherRefreshInterval;
+    private final Optional<Integer> searcherRefreshAfterWrites;
+    private final boolean readAfterWriteConsistency;
+    private final boolean writeBehindEnabled;
+    private final int writeBehindQueueSize;
+    private final int writeBehindBatchSize;
+    private final Duration writeBehindCommitInterval;
+
+    private LuceneSearchIndexConfiguration(Optional<Duration> searcherRefreshInterval, Optional<Integer> searcherRefreshAfterWrites,
+                                           boolean readAfterWriteConsistency, boolean writeBehindEnabled, int writeBehindQueueSize,
+                                           int writeBehindBatchSize, Duration writeBehindCommitInterval) {
+        this.searcherRefreshInterval = searcherRefreshInterval;
+        this.searcherRefreshAfterWrites = searcherRefreshAfterWrites;
+        this.readAfterWriteConsistency = readAfterWriteConsistency;
+        this.writeBehindEnabled = writeBehindEnabled;
+        this.writeBehindQueueSize = writeBehindQueueSize;
+        this.writeBehindBatchSize = writeBehindBatchSize;
+        this.writeBehindCommitInterval = writeBehindCommitInterval;
+    }
+
+    /**
+     * Period at which the shared searcher is refreshed in the background. No periodic refresh when empty.
+     */
+    public Optional<Duration> getSearcherRefreshInterval() {
+        return searcherRefreshInterval;
+    }
+
+    /**
+     * Number of index writes after which the writing thread refreshes the shared searcher. Writes do not trigger
+     * refreshes when empty.
+     */
+    public Optional<Integer> getSearcherRefreshAfterWrites() {
+        return searcherRefreshAfterWrites;
+    }
+
+    /**
+     * When true, a search following a write waits for the shared searcher to be refreshed and thus sees that write.
+     * When false, searches are served by the current searcher, and freshness is only bounded by the refresh interval
+     * and the number of writes between refreshes.
+     */
+    public boolean isReadAfterWriteConsistency() {
+        return readAfterWriteConsistency;
+    }
+
+    /**
+     * When true, index writes are queued and applied by batches from a dedicated thread. Concurrent writes then share
+     * index writer calls and commits. A write completes once applied: queued writes, and applied writes not committed
+     * yet, are lost on a crash and are not replayed upon restart.
+     */
+    public boolean isWriteBehindEnabled() {
+        return writeBehindEnabled;
+    }
+
+    /**
+     * Maximum count of queued index writes when write-behind is enabled. Submitting a write waits once it is reached.
+     */
+    public int getWriteBehindQueueSize() {
+        return writeBehindQueueSize;
+    }
+
+    /**
+     * Maximum count of queued index writes applied together when write-behind is enabled.
+     */
+    public int getWriteBehindBatchSize() {
+        return writeBehindBatchSize;
+    }
+
+    /**
+     * Delay between two commits of the applied index writes when write-behind is enabled. Commits requested in between,
+     * for instance on shutdown, happen right away.
+     */
+    public Duration getWriteBehindCommitInterval() {
+        return writeBehindCommitInterval;
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof LuceneSearchIndexConfiguration) {
+            LuceneSearchIndexConfiguration that = (LuceneSearchIndexConfiguration) o;
+
+            return Objects.equals(this.readAfterWriteConsistency, that.readAfterWriteConsistency)
+                && Objects.equals(this.searcherRefreshInterval, that.searcherRefreshInterval)
+                && Objects.equals(this.writeBehindEnabled, that.writeBehindEnabled)
+                && Objects.equals(this.writeBehindQueueSize, that.writeBehindQueueSize)
+                && Objects.equals(this.writeBehindBatchSize, that.writeBehindBatchSize)
+                && Objects.equals(this.searcherRefreshInterval, that.searcherRefreshInterval)
+                && Objects.equals(this.searcherRefreshAfterWrites, that.searcherRefreshAfterWrites)
+                && Objects.equals(this.writeBehindCommitInterval, that.writeBehindCommitInterval);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(searcherRefreshInterval, searcherRefreshAfterWrites, readAfterWriteConsistency,
+            writeBehindEnabled, writeBehindQueueSize, writeBehindBatchSize, writeBehindCommitInterval);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("searcherRefreshInterval", searcherRefreshInterval)
+            .add("searcherRefreshAfterWrites", searcherRefreshAfterWrites)
+            .add("readAfterWriteConsistency", readAfterWriteConsistency)
+            .add("writeBehindEnabled", writeBehindEnabled)
+            .add("writeBehindQueueSize", writeBehindQueueSize)
+            .add("writeBehindBatchSize", writeBehindBatchSize)
+            .add("writeBehindCommitInterval", writeBehindCommitInterval)
+            .toString();
+    }
+}
@@ -0,0 +1,199 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.lucene.search;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Clock;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.james.metrics.api.GaugeRegistry;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.TimeMetric;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ReferenceManager;
+import org.apache.lucene.search.SearcherManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Shares a near-real-time {@link IndexSearcher} across all the searches of a {@link LuceneMessageSearchIndex}.
+ *
+ * Searchers are reference counted by the underlying {@link SearcherManager}, so that a refresh never closes a
+ * searcher still in use. Refreshing only opens the segments written since the previous refresh, hence searches keep
+ * on benefiting from already warmed segments and caches.
+ */
+public class LuceneSearcherManager implements Closeable {
+    @FunctionalInterface
+    public interface SearcherFunction<T> {
+        T apply(IndexSearcher searcher) throws IOException;
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LuceneSearcherManager.class);
+
+    static final String REFRESH_METRIC_NAME = "lucene.searcher.refresh";
+    static final String SEARCHER_AGE_METRIC_NAME = "lucene.searcher.age";
+    static final String PENDING_WRITES_METRIC_NAME = "lucene.searcher.pending.writes";
+
+    private final SearcherManager searcherManager;
+    private final LuceneSearchIndexConfiguration configuration;
+    private final MetricFactory metricFactory;
+    private final Clock clock;
+    private final ReentrantLock refreshLock;
+    private final AtomicLong pendingWrites;
+    private final AtomicLong lastRefreshMillis;
+    private final Optional<Disposable> periodicRefresh;
+
+    public LuceneSearcherManager(IndexWriter writer, LuceneSearchIndexConfiguration configuration,
+                                 MetricFactory metricFactory, GaugeRegistry gaugeRegistry) throws IOException {
+        this(writer, configuration, metricFactory, gaugeRegistry, Clock.systemUTC());
+    }
+
+    @VisibleForTesting
+    LuceneSearcherManager(IndexWriter writer, LuceneSearchIndexConfiguration configuration,
+                          MetricFactory metricFactory, GaugeRegistry gaugeRegistry, Clock clock) throws IOException {
+        this.searcherManager = new SearcherManager(writer, null);
+        this.configuration = configuration;
+        this.metricFactory = metricFactory;
+        this.clock = clock;
+        this.refreshLock = new ReentrantLock();
+        this.pendingWrites = new AtomicLong();
+        this.lastRefreshMillis = new AtomicLong(clock.millis());
+
+        searcherManager.addListener(new ReferenceManager.RefreshListener() {
+            @Override
+            public void beforeRefresh() {
+
+            }
+
+            @Override
+            public void afterRefresh(boolean didRefresh) {
+                if (didRefresh) {
+                    lastRefreshMillis.set(clock.millis());
+                }
+            }
+        });
+        gaugeRegistry.register(SEARCHER_AGE_METRIC_NAME, this::searcherAgeInMillis);
+        gaugeRegistry.register(PENDING_WRITES_METRIC_NAME, pendingWrites::get);
+
+        this.periodicRefresh = configuration.getSearcherRefreshInterval()
+            .map(interval -> Flux.interval(interval, Schedulers.parallel())
+                .onBackpressureDrop()
+                .concatMap(any -> Mono.fromRunnable(this::periodicRefresh)
+                    .subscribeOn(Schedulers.boundedElastic()))
+                .subscribe());
+    }
+
+    /**
+     * Runs the given function against the shared searcher. The searcher must not be used once the function returned.
+     */
+    public <T> T withSearcher(SearcherFunction<T> function) throws IOException {
+        if (configuration.isReadAfterWriteConsistency() && pendingWrites.get() > 0) {
+            refresh();
+        }
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            return function.apply(searcher);
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    /**
+     * To be called once the index writer applied a write, so that the shared searcher gets refreshed accordingly.
+     */
+    public void onWrite() throws IOException {
+        long writes = pendingWrites.incrementAndGet();
+        Optional<Integer> refreshAfterWrites = configuration.getSearcherRefreshAfterWrites();
+        if (refreshAfterWrites.isPresent() && writes >= refreshAfterWrites.get()) {
+            tryRefresh();
+        }
+    }
+
+    /**
+     * Refreshes the shared searcher, waiting for an ongoing refresh to complete if needed.
+     */
+    public void refresh() throws IOException {
+        refreshLock.lock();
+        try {
+            doRefresh();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void tryRefresh() throws IOException {
+        if (refreshLock.tryLock()) {
+            try {
+                doRefresh();
+            } finally {
+                refreshLock.unlock();
+            }
+        }
+    }
+
+    private void doRefresh() throws IOException {
+        long observedWrites = pendingWrites.get();
+        if (observedWrites == 0) {
+            return;
+        }
+        TimeMetric timeMetric = metricFactory.timer(REFRESH_METRIC_NAME);
+        try {
+            searcherManager.maybeRefreshBlocking();
+            pendingWrites.addAndGet(-observedWrites);
+        } finally {
+            timeMetric.stopAndPublish();
+        }
+    }
+
+    private void periodicRefresh() {
+        try {
+            tryRefresh();
+        } catch (Exception e) {
+            LOGGER.error("Failed to refresh the Lucene searcher", e);
+        }
+    }
+
+    @VisibleForTesting
+    long searcherAgeInMillis() {
+        return clock.millis() - lastRefreshMillis.get();
+    }
+
+    @VisibleForTesting
+    long pendingWrites() {
+        return pendingWrites.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        periodicRefresh.ifPresent(Disposable::dispose);
+        searcherManager.close();
+    }
+}
@@ -0,0 +1,345 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.lucene.search;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.james.metrics.api.GaugeRegistry;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.TimeMetric;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.fge.lambdas.Throwing;
+import com.google.common.annotations.VisibleForTesting;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Queues the writes of a {@link LuceneMessageSearchIndex} and applies them by batches from a single thread.
+ *
+ * Consecutive writes of the same kind are grouped into a single index writer call. When such a call fails, its writes
+ * are applied one by one so that only the faulty ones fail. The queue is bounded: once full, submitting a write waits
+ * for room to be available.
+ *
+ * Applied writes are committed once the commit interval elapsed since the previous commit, or when a commit is
+ * requested.
+ *
+ * A write completes once applied, and is then visible to searches. Commits happen in the background: writes applied
+ * since the last commit, as well as the queued ones, are lost on a crash. Nothing replays them upon restart. As with the
+ * direct mode, which only commits on shutdown, the index then needs to be rebuilt with a re-indexing task.
+ */
+class WriteBehindLuceneIndexUpdater implements LuceneIndexUpdater {
+    private interface Operation {
+
+    }
+
+    private record AddDocuments(List<Document> documents) implements Operation {
+
+    }
+
+    private record UpdateDocuments(Map<Term, Document> documents) implements Operation {
+
+    }
+
+    private record DeleteDocuments(List<Query> queries) implements Operation {
+
+    }
+
+    private record Commit() implements Operation {
+
+    }
+
+    private record PendingWrite(Operation operation, Sinks.One<Void> completion) {
+        static PendingWrite of(Operation operation) {
+            return new PendingWrite(operation, Sinks.one());
+        }
+    }
+
+    /**
+     * Accumulates consecutive writes of the same kind so that they are applied with a single writer call.
+     * Pending writes of another kind are applied first, so that the submission order is preserved.
+     */
+    private class BatchApplier {
+        private final List<PendingWrite> pending = new ArrayList<>();
+        private final List<PendingWrite> applied = new ArrayList<>();
+
+        void add(PendingWrite write) {
+            if (!pending.isEmpty() && pending.get(0).operation().getClass() != write.operation().getClass()) {
+                applyPending();
+            }
+            pending.add(write);
+        }
+
+        List<PendingWrite> applyAll() {
+            applyPending();
+            return applied;
+        }
+
+        private void applyPending() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                apply(pending);
+                applied.addAll(pending);
+            } catch (Exception e) {
+                if (pending.size() == 1) {
+                    fail(pending.get(0), e);
+                } else {
+                    LOGGER.warn("Failed to apply {} Lucene index writes together, applying them one by one", pending.size(), e);
+                    pending.forEach(this::applyAlone);
+                }
+            }
+            pending.clear();
+        }
+
+        private void applyAlone(PendingWrite write) {
+            try {
+                apply(List.of(write));
+                applied.add(write);
+            } catch (Exception e) {
+                fail(write, e);
+            }
+        }
+
+        private void fail(PendingWrite write, Exception e) {
+            LOGGER.error("Failed to apply a Lucene index write", e);
+            write.completion().tryEmitError(e);
+        }
+
+        private void apply(List<PendingWrite> writes) throws IOException {
+            Operation operation = writes.get(0).operation();
+            if (operation instanceof AddDocuments) {
+                writer.addDocuments(writes.stream()
+                    .flatMap(write -> ((AddDocuments) write.operation()).documents().stream())
+                    .toList());
+            } else if (operation instanceof UpdateDocuments) {
+                Map<Term, Document> updates = new LinkedHashMap<>();
+                writes.forEach(write -> updates.putAll(((UpdateDocuments) write.operation()).documents()));
+                for (Map.Entry<Term, Document> entry : updates.entrySet()) {
+                    writer.updateDocument(entry.getKey(), entry.getValue());
+                }
+            } else if (operation instanceof DeleteDocuments) {
+                writer.deleteDocuments(writes.stream()
+                    .flatMap(write -> ((DeleteDocuments) write.operation()).queries().stream())
+                    .toArray(Query[]::new));
+            }
+        }
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WriteBehindLuceneIndexUpdater.class);
+
+    static final String BATCH_METRIC_NAME = "lucene.indexing.batch";
+    static final String COMMIT_METRIC_NAME = "lucene.indexing.commit";
+    static final String QUEUE_SIZE_METRIC_NAME = "lucene.indexing.queue.size";
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(100);
+
+    private final IndexWriter writer;
+    private final LuceneSearcherManager searcherManager;
+    private final MetricFactory metricFactory;
+    private final Clock clock;
+    private final int batchSize;
+    private final Duration commitInterval;
+    private final BlockingQueue<PendingWrite> queue;
+    private final List<PendingWrite> commitRequests;
+    private int uncommittedWrites;
+    private final AtomicBoolean running;
+    private final CountDownLatch stopped;
+    private final Scheduler scheduler;
+    private Instant lastCommit;
+
+    WriteBehindLuceneIndexUpdater(IndexWriter writer, LuceneSearcherManager searcherManager, LuceneSearchIndexConfiguration configuration,
+                                  MetricFactory metricFactory, GaugeRegistry gaugeRegistry) {
+        this(writer, searcherManager, configuration, metricFactory, gaugeRegistry, Clock.systemUTC());
+    }
+
+    @VisibleForTesting
+    WriteBehindLuceneIndexUpdater(IndexWriter writer, LuceneSearcherManager searcherManager, LuceneSearchIndexConfiguration configuration,
+                                  MetricFactory metricFactory, GaugeRegistry gaugeRegistry, Clock clock) {
+        this.writer = writer;
+        this.searcherManager = searcherManager;
+        this.metricFactory = metricFactory;
+        this.clock = clock;
+        this.batchSize = configuration.getWriteBehindBatchSize();
+        this.commitInterval = configuration.getWriteBehindCommitInterval();
+        this.queue = new ArrayBlockingQueue<>(configuration.getWriteBehindQueueSize());
+        this.commitRequests = new ArrayList<>();
+        this.uncommittedWrites = 0;
+        this.running = new AtomicBoolean(true);
+        this.stopped = new CountDownLatch(1);
+        this.lastCommit = clock.instant();
+
+        gaugeRegistry.register(QUEUE_SIZE_METRIC_NAME, queue::size);
+        this.scheduler = Schedulers.newSingle("lucene-write-behind", true);
+        scheduler.schedule(this::processWrites);
+    }
+
+    @Override
+    public Mono<Void> addDocuments(List<Document> documents) {
+        return submit(new AddDocuments(documents));
+    }
+
+    @Override
+    public Mono<Void> updateDocuments(Map<Term, Document> documents) {
+        return submit(new UpdateDocuments(documents));
+    }
+
+    @Override
+    public Mono<Void> deleteDocuments(List<Query> queries) {
+        return submit(new DeleteDocuments(queries));
+    }
+
+    @Override
+    public void commit() {
+        submit(new Commit()).block();
+    }
+
+    private Mono<Void> submit(Operation operation) {
+        return Mono.defer(() -> {
+            if (!running.get()) {
+                return Mono.error(new IllegalStateException("Lucene write-behind indexing is stopped"));
+            }
+            PendingWrite write = PendingWrite.of(operation);
+            if (queue.offer(write)) {
+                return write.completion().asMono();
+            }
+            return Mono.fromRunnable(Throwing.runnable(() -> queue.put(write)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then(write.completion().asMono());
+        });
+    }
+
+    private void processWrites() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        try {
+            while (running.get() || !queue.isEmpty()) {
+                PendingWrite first = queue.poll(POLL_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    process(batch);
+                    batch.clear();
+                }
+                if (uncommittedWrites > 0 && commitIntervalElapsed()) {
+                    commitWrites();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            commitWrites();
+            stopped.countDown();
+        }
+    }
+
+    private void process(List<PendingWrite> batch) {
+        TimeMetric timeMetric = metricFactory.timer(BATCH_METRIC_NAME);
+        List<PendingWrite> applied;
+        try {
+            BatchApplier applier = new BatchApplier();
+            for (PendingWrite write : batch) {
+                if (write.operation() instanceof Commit) {
+                    commitRequests.add(write);
+                } else {
+                    applier.add(write);
+                }
+            }
+            applied = applier.applyAll();
+        } finally {
+            timeMetric.stopAndPublish();
+        }
+
+        if (!applied.isEmpty()) {
+            notifySearcherManager();
+        }
+        uncommittedWrites += applied.size();
+        applied.forEach(write -> write.completion().tryEmitEmpty());
+        if (!commitRequests.isEmpty() || commitIntervalElapsed()) {
+            commitWrites();
+        }
+    }
+
+    private void notifySearcherManager() {
+        try {
+            searcherManager.onWrite();
+        } catch (Exception e) {
+            LOGGER.warn("Failed to refresh the Lucene searcher after index writes", e);
+        }
+    }
+
+    private boolean commitIntervalElapsed() {
+        return !clock.instant().isBefore(lastCommit.plus(commitInterval));
+    }
+
+    private void commitWrites() {
+        if (uncommittedWrites == 0 && commitRequests.isEmpty()) {
+            return;
+        }
+        TimeMetric timeMetric = metricFactory.timer(COMMIT_METRIC_NAME);
+        try {
+            writer.commit();
+            lastCommit = clock.instant();
+            commitRequests.forEach(write -> write.completion().tryEmitEmpty());
+        } catch (Exception e) {
+            LOGGER.error("Failed to commit {} Lucene index writes", uncommittedWrites, e);
+            commitRequests.forEach(write -> write.completion().tryEmitError(e));
+        } finally {
+            uncommittedWrites = 0;
+            commitRequests.clear();
+            timeMetric.stopAndPublish();
+        }
+    }
+
+    /**
+     * Stops accepting writes, then waits for the queued writes to be applied and committed.
+     */
+    @Override
+    public void close() throws IOException {
+        running.set(false);
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for queued Lucene index writes", e);
+        } finally {
+            scheduler.dispose();
+        }
+    }
+}
@@ -28,6 +28,8 @@ import org.apache.james.mailbox.model.MailboxId;
 import org.apache.james.mailbox.model.MessageId;
 import org.apache.james.mailbox.model.SearchQuery;
 import org.apache.james.mailbox.store.search.AbstractMessageSearchIndexTest;
+import org.apache.james.metrics.api.NoopGaugeRegistry;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
 import org.apache.lucene.store.ByteBuffersDirectory;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
@@ -50,8 +52,9 @@ class LuceneMessageSearchIndexTest extends AbstractMessageSearchIndexTest {
             .defaultMessageParser()
             .listeningSearchIndex(Throwing.function(preInstanciationStage -> new LuceneMessageSearchIndex(
                 preInstanciationStage.getMapperFactory(), new InMemoryId.Factory(), new ByteBuffersDirectory(),
-                new InMemoryMessageId.Factory(),
-                preInstanciationStage.getSessionProvider())))
+                false, new InMemoryMessageId.Factory(),
+                preInstanciationStage.getSessionProvider(), configuration(),
+                new RecordingMetricFactory(), new NoopGaugeRegistry())))
             .noPreDeletionHooks()
             .storeQuotaManager()
             .build();
@@ -63,6 +66,10 @@ class LuceneMessageSearchIndexTest extends AbstractMessageSearchIndexTest {
         messageIdFactory = new InMemoryMessageId.Factory();
     }
 
+    protected LuceneSearchIndexConfiguration configuration() {
+        return LuceneSearchIndexConfiguration.DEFAULT;
+    }
+
     @Override
     protected MessageId initNewBasedMessageId() {
         return InMemoryMessageId.of(100);
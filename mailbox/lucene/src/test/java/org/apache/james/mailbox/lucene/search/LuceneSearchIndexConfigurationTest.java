@@ -0,0 +1,120 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.lucene.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+
+import org.apache.commons.configuration2.PropertiesConfiguration;
+import org.junit.jupiter.api.Test;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+
+class LuceneSearchIndexConfigurationTest {
+    @Test
+    void shouldMatchBeanContract() {
+        EqualsVerifier.forClass(LuceneSearchIndexConfiguration.class)
+            .verify();
+    }
+
+    @Test
+    void fromPropertiesShouldReturnDefaultWhenEmpty() {
+        assertThat(LuceneSearchIndexConfiguration.fromProperties(new PropertiesConfiguration()))
+            .isEqualTo(LuceneSearchIndexConfiguration.DEFAULT);
+    }
+
+    @Test
+    void defaultShouldRefreshOnReadOnly() {
+        assertThat(LuceneSearchIndexConfiguration.DEFAULT.isReadAfterWriteConsistency()).isTrue();
+        assertThat(LuceneSearchIndexConfiguration.DEFAULT.getSearcherRefreshInterval()).isEmpty();
+        assertThat(LuceneSearchIndexConfiguration.DEFAULT.getSearcherRefreshAfterWrites()).isEmpty();
+    }
+
+    @Test
+    void writeBehindShouldBeDisabledByDefault() {
+        assertThat(LuceneSearchIndexConfiguration.DEFAULT.isWriteBehindEnabled()).isFalse();
+    }
+
+    @Test
+    void fromPropertiesShouldReadAllProperties() {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+        configuration.addProperty("lucene.searcher.refresh.interval", "500ms");
+        configuration.addProperty("lucene.searcher.refresh.after.writes", "100");
+        configuration.addProperty("lucene.searcher.read.after.write.consistency", "false");
+        configuration.addProperty("lucene.indexing.write.behind.enabled", "true");
+        configuration.addProperty("lucene.indexing.write.behind.queue.size", "2000");
+        configuration.addProperty("lucene.indexing.write.behind.batch.size", "200");
+        configuration.addProperty("lucene.indexing.write.behind.commit.interval", "5s");
+
+        assertThat(LuceneSearchIndexConfiguration.fromProperties(configuration))
+            .isEqualTo(LuceneSearchIndexConfiguration.builder()
+                .searcherRefreshInterval(Duration.ofMillis(500))
+                .searcherRefreshAfterWrites(100)
+                .readAfterWriteConsistency(false)
+                .writeBehindEnabled(true)
+                .writeBehindQueueSize(2000)
+                .writeBehindBatchSize(200)
+                .writeBehindCommitInterval(Duration.ofSeconds(5))
+                .build());
+    }
+
+    @Test
+    void refreshIntervalShouldDefaultToMilliseconds() {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+        configuration.addProperty("lucene.searcher.refresh.interval", "250");
+
+        assertThat(LuceneSearchIndexConfiguration.fromProperties(configuration).getSearcherRefreshInterval())
+            .contains(Duration.ofMillis(250));
+    }
+
+    @Test
+    void buildShouldThrowWhenZeroRefreshInterval() {
+        assertThatThrownBy(() -> LuceneSearchIndexConfiguration.builder()
+                .searcherRefreshInterval(Duration.ZERO)
+                .build())
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void buildShouldThrowWhenZeroWriteBehindQueueSize() {
+        assertThatThrownBy(() -> LuceneSearchIndexConfiguration.builder()
+                .writeBehindQueueSize(0)
+                .build())
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void buildShouldThrowWhenZeroWriteBehindBatchSize() {
+        assertThatThrownBy(() -> LuceneSearchIndexConfiguration.builder()
+                .writeBehindBatchSize(0)
+                .build())
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void buildShouldThrowWhenNegativeRefreshAfterWrites() {
+        assertThatThrownBy(() -> LuceneSearchIndexConfiguration.builder()
+                .searcherRefreshAfterWrites(-1)
+                .build())
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,142 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.lucene.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+
+import org.apache.james.metrics.api.NoopGaugeRegistry;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LuceneSearcherManagerTest {
+    private IndexWriter writer;
+    private RecordingMetricFactory metricFactory;
+    private LuceneSearcherManager testee;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(new StandardAnalyzer()));
+        metricFactory = new RecordingMetricFactory();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        testee.close();
+        writer.close();
+    }
+
+    private LuceneSearcherManager searcherManager(LuceneSearchIndexConfiguration configuration) throws IOException {
+        testee = new LuceneSearcherManager(writer, configuration, metricFactory, new NoopGaugeRegistry());
+        return testee;
+    }
+
+    private void write() throws IOException {
+        Document document = new Document();
+        document.add(new StringField("id", "1", Field.Store.YES));
+        writer.addDocument(document);
+        testee.onWrite();
+    }
+
+    private int documentCount() throws IOException {
+        return testee.withSearcher(searcher -> searcher.getIndexReader().numDocs());
+    }
+
+    @Test
+    void searchShouldSeePreviousWritesByDefault() throws IOException {
+        searcherManager(LuceneSearchIndexConfiguration.DEFAULT);
+
+        write();
+
+        assertThat(documentCount()).isEqualTo(1);
+    }
+
+    @Test
+    void searchShouldNotRefreshWhenNoWrite() throws IOException {
+        searcherManager(LuceneSearchIndexConfiguration.DEFAULT);
+
+        documentCount();
+        documentCount();
+
+        assertThat(metricFactory.executionTimesFor(LuceneSearcherManager.REFRESH_METRIC_NAME)).isEmpty();
+    }
+
+    @Test
+    void searchesShouldShareTheSearcherBetweenWrites() throws IOException {
+        searcherManager(LuceneSearchIndexConfiguration.DEFAULT);
+        write();
+
+        IndexSearcher first = testee.withSearcher(searcher -> searcher);
+        IndexSearcher second = testee.withSearcher(searcher -> searcher);
+
+        assertThat(first).isSameAs(second);
+    }
+
+    @Test
+    void searchShouldNotRefreshWhenReadAfterWriteConsistencyIsDisabled() throws IOException {
+        searcherManager(LuceneSearchIndexConfiguration.builder()
+            .readAfterWriteConsistency(false)
+            .build());
+
+        write();
+
+        assertThat(documentCount()).isZero();
+        assertThat(testee.pendingWrites()).isEqualTo(1);
+    }
+
+    @Test
+    void explicitRefreshShouldExposePendingWrites() throws IOException {
+        searcherManager(LuceneSearchIndexConfiguration.builder()
+            .readAfterWriteConsistency(false)
+            .build());
+        write();
+
+        testee.refresh();
+
+        assertThat(documentCount()).isEqualTo(1);
+        assertThat(testee.pendingWrites()).isZero();
+    }
+
+    @Test
+    void writesShouldTriggerRefreshWhenThresholdIsReached() throws IOException {
+        searcherManager(LuceneSearchIndexConfiguration.builder()
+            .readAfterWriteConsistency(false)
+            .searcherRefreshAfterWrites(2)
+            .build());
+
+        write();
+        assertThat(documentCount()).isZero();
+
+        write();
+        assertThat(documentCount()).isEqualTo(2);
+        assertThat(metricFactory.executionTimesFor(LuceneSearcherManager.REFRESH_METRIC_NAME)).hasSize(1);
+    }
+}
@@ -0,0 +1,262 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.lucene.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import org.apache.james.metrics.api.NoopGaugeRegistry;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class WriteBehindLuceneIndexUpdaterTest {
+    private static final String ID_FIELD = "id";
+    private static final String VALUE_FIELD = "value";
+
+    private Directory directory;
+    private IndexWriter writer;
+    private LuceneSearcherManager searcherManager;
+    private RecordingMetricFactory metricFactory;
+    private WriteBehindLuceneIndexUpdater testee;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = new ByteBuffersDirectory();
+        writer = new IndexWriter(directory, new IndexWriterConfig(new StandardAnalyzer()));
+        metricFactory = new RecordingMetricFactory();
+        searcherManager = new LuceneSearcherManager(writer, LuceneSearchIndexConfiguration.DEFAULT, metricFactory, new NoopGaugeRegistry());
+        testee = updater(LuceneSearchIndexConfiguration.builder()
+            .writeBehindEnabled(true)
+            .build());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        testee.close();
+        searcherManager.close();
+        writer.close();
+    }
+
+    private WriteBehindLuceneIndexUpdater updater(LuceneSearchIndexConfiguration configuration) {
+        return new WriteBehindLuceneIndexUpdater(writer, searcherManager, configuration, metricFactory, new NoopGaugeRegistry());
+    }
+
+    private static Document document(String id, String value) {
+        Document document = new Document();
+        document.add(new StringField(ID_FIELD, id, Field.Store.YES));
+        document.add(new StringField(VALUE_FIELD, value, Field.Store.YES));
+        return document;
+    }
+
+    private Mono<Void> add(String id) {
+        return testee.addDocuments(ImmutableList.of(document(id, "initial")));
+    }
+
+    private int committedCount(String field, String value) throws IOException {
+        try (DirectoryReader reader = DirectoryReader.open(directory)) {
+            return new IndexSearcher(reader).count(new TermQuery(new Term(field, value)));
+        }
+    }
+
+    private int committedCount() throws IOException {
+        if (!DirectoryReader.indexExists(directory)) {
+            return 0;
+        }
+        try (DirectoryReader reader = DirectoryReader.open(directory)) {
+            return reader.numDocs();
+        }
+    }
+
+    private int visibleCount(String field, String value) throws IOException {
+        return searcherManager.withSearcher(searcher -> searcher.count(new TermQuery(new Term(field, value))));
+    }
+
+    private int visibleCount() throws IOException {
+        return searcherManager.withSearcher(searcher -> searcher.getIndexReader().numDocs());
+    }
+
+    @Test
+    void completedWriteShouldBeCommittedInTheBackground() {
+        add("1").block();
+
+        await().atMost(Duration.ofSeconds(10))
+            .untilAsserted(() -> assertThat(committedCount()).isEqualTo(1));
+    }
+
+    @Test
+    void completedWriteShouldBeVisibleToSearches() throws IOException {
+        add("1").block();
+
+        int visibleCount = searcherManager.withSearcher(searcher -> searcher.getIndexReader().numDocs());
+        assertThat(visibleCount).isEqualTo(1);
+    }
+
+    @Test
+    void writesShouldNotBeCommittedBeforeTheCommitInterval() throws IOException {
+        testee.close();
+        testee = updater(LuceneSearchIndexConfiguration.builder()
+            .writeBehindEnabled(true)
+            .writeBehindCommitInterval(Duration.ofHours(1))
+            .build());
+
+        add("1").block();
+        Mono.delay(Duration.ofMillis(500)).block();
+
+        assertThat(committedCount()).isZero();
+        testee.commit();
+        assertThat(committedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void failingWriteShouldNotFailTheOtherWritesOfItsBatch() throws IOException {
+        String immenseTerm = "a".repeat(IndexWriter.MAX_TERM_LENGTH + 1);
+
+        List<Boolean> succeeded = Flux.mergeSequential(
+                succeeded(add("1")),
+                succeeded(testee.addDocuments(ImmutableList.of(document("2", immenseTerm)))),
+                succeeded(add("3")))
+            .collectList()
+            .block();
+
+        assertThat(succeeded).containsExactly(true, false, true);
+        assertThat(visibleCount()).isEqualTo(2);
+    }
+
+    private Mono<Boolean> succeeded(Mono<Void> write) {
+        return write.thenReturn(true)
+            .onErrorResume(e -> Mono.just(false));
+    }
+
+    @Test
+    void concurrentWritesShouldAllBeApplied() throws IOException {
+        Flux.range(0, 1000)
+            .flatMap(i -> add(String.valueOf(i)), 64)
+            .then()
+            .block();
+
+        assertThat(visibleCount()).isEqualTo(1000);
+    }
+
+    @Test
+    void concurrentWritesShouldShareCommits() {
+        Flux.range(0, 1000)
+            .flatMap(i -> add(String.valueOf(i)), 64)
+            .then()
+            .block();
+
+        assertThat(metricFactory.executionTimesFor(WriteBehindLuceneIndexUpdater.COMMIT_METRIC_NAME))
+            .hasSizeLessThan(1000);
+    }
+
+    @Test
+    void writesShouldBeAppliedInSubmissionOrder() throws IOException {
+        Mono.when(
+                add("1"),
+                testee.deleteDocuments(ImmutableList.of(new TermQuery(new Term(ID_FIELD, "1")))),
+                testee.addDocuments(ImmutableList.of(document("1", "second"))))
+            .block();
+
+        assertThat(visibleCount(ID_FIELD, "1")).isEqualTo(1);
+        assertThat(visibleCount(VALUE_FIELD, "second")).isEqualTo(1);
+    }
+
+    @Test
+    void updatesOfTheSameTermShouldKeepTheLastDocument() throws IOException {
+        Term term = new Term(ID_FIELD, "1");
+        Mono.when(
+                add("1"),
+                testee.updateDocuments(ImmutableMap.of(term, document("1", "first"))),
+                testee.updateDocuments(ImmutableMap.of(term, document("1", "second"))))
+            .block();
+
+        assertThat(visibleCount(ID_FIELD, "1")).isEqualTo(1);
+        assertThat(visibleCount(VALUE_FIELD, "second")).isEqualTo(1);
+    }
+
+    @Test
+    void writesShouldSucceedWhenQueueIsFull() throws IOException {
+        testee.close();
+        testee = updater(LuceneSearchIndexConfiguration.builder()
+            .writeBehindEnabled(true)
+            .writeBehindQueueSize(1)
+            .writeBehindBatchSize(1)
+            .build());
+
+        Flux.range(0, 100)
+            .flatMap(i -> add(String.valueOf(i)), 16)
+            .then()
+            .block();
+
+        assertThat(visibleCount()).isEqualTo(100);
+    }
+
+    @Test
+    void closeShouldCommitQueuedWrites() throws IOException {
+        Flux.range(0, 100)
+            .flatMap(i -> add(String.valueOf(i)))
+            .subscribe();
+
+        testee.close();
+
+        assertThat(committedCount()).isEqualTo(100);
+    }
+
+    @Test
+    void writesShouldFailOnceClosed() throws IOException {
+        testee.close();
+
+        assertThatThrownBy(() -> add("1").block())
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void commitShouldCommitPreviousWrites() throws IOException {
+        add("1").subscribe();
+
+        testee.commit();
+
+        assertThat(committedCount()).isEqualTo(1);
+    }
+}
@@ -52,6 +52,21 @@ public class InMemoryMailboxManager extends StoreMailboxManager {
         MailboxCapabilities.Quota);
     public static final EnumSet<MessageCapabilities> MESSAGE_CAPABILITIES = EnumSet.of(MessageCapabilities.UniqueID);
 
+    public InMemoryMailboxManager(MailboxSessionMapperFactory mailboxSessionMapperFactory, SessionProvider sessionProvider,
+                                  MailboxPathLocker locker, MessageParser messageParser, MessageId.Factory messageIdFactory,
+                                  EventBus eventBus,
+                                  StoreMailboxAnnotationManager annotationManager,
+                                  StoreRightManager storeRightManager,
+                                  QuotaComponents quotaComponents,
+                                  MessageSearchIndex searchIndex,
+                                  PreDeletionHooks preDeletionHooks,
+                                  ThreadIdGuessingAlgorithm threadIdGuessingAlgorithm,
+                                  Clock clock) {
+        this(mailboxSessionMapperFactory, sessionProvider, locker, messageParser, messageIdFactory, eventBus, annotationManager,
+            storeRightManager, quotaComponents, searchIndex, MailboxManagerConfiguration.DEFAULT, preDeletionHooks,
+            threadIdGuessingAlgorithm, clock);
+    }
+
     @Inject
     public InMemoryMailboxManager(MailboxSessionMapperFactory mailboxSessionMapperFactory, SessionProvider sessionProvider,
                                   MailboxPathLocker locker, MessageParser messageParser, MessageId.Factory messageIdFactory,
@@ -60,11 +75,12 @@ public class InMemoryMailboxManager extends StoreMailboxManager {
                                   StoreRightManager storeRightManager,
                                   QuotaComponents quotaComponents,
                                   MessageSearchIndex searchIndex,
+                                  MailboxManagerConfiguration configuration,
                                   PreDeletionHooks preDeletionHooks,
                                   ThreadIdGuessingAlgorithm threadIdGuessingAlgorithm,
                                   Clock clock) {
         super(mailboxSessionMapperFactory, sessionProvider, locker, messageParser, messageIdFactory,
-            annotationManager, eventBus, storeRightManager, quotaComponents, searchIndex, MailboxManagerConfiguration.DEFAULT,
+            annotationManager, eventBus, storeRightManager, quotaComponents, searchIndex, configuration,
             preDeletionHooks, threadIdGuessingAlgorithm, clock);
     }
 
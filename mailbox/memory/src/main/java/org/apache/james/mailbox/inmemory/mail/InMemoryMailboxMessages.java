@@ -0,0 +1,146 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.inmemory.mail;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.model.MessageRange;
+import org.apache.james.mailbox.store.mail.model.MailboxMessage;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Messages of a mailbox, ordered by {@link MessageUid}.
+ *
+ * Unseen, recent and deleted messages are tracked in secondary ordered sets so that flag based lookups do not need to
+ * scan the mailbox. Writes are serialized, reads are lock free and see each write atomically per message.
+ */
+class InMemoryMailboxMessages {
+    private final ConcurrentSkipListMap<MessageUid, MailboxMessage> messagesByUid;
+    private final ConcurrentSkipListSet<MessageUid> unseen;
+    private final ConcurrentSkipListSet<MessageUid> recent;
+    private final ConcurrentSkipListSet<MessageUid> deleted;
+    private volatile int count;
+    private volatile int unseenCount;
+
+    InMemoryMailboxMessages() {
+        this.messagesByUid = new ConcurrentSkipListMap<>();
+        this.unseen = new ConcurrentSkipListSet<>();
+        this.recent = new ConcurrentSkipListSet<>();
+        this.deleted = new ConcurrentSkipListSet<>();
+    }
+
+    synchronized void put(MailboxMessage message) {
+        MessageUid uid = message.getUid();
+        if (messagesByUid.put(uid, message) == null) {
+            count++;
+        }
+        if (message.isSeen()) {
+            if (unseen.remove(uid)) {
+                unseenCount--;
+            }
+        } else if (unseen.add(uid)) {
+            unseenCount++;
+        }
+        track(recent, uid, message.isRecent());
+        track(deleted, uid, message.isDeleted());
+    }
+
+    private void track(NavigableSet<MessageUid> index, MessageUid uid, boolean flagged) {
+        if (flagged) {
+            index.add(uid);
+        } else {
+            index.remove(uid);
+        }
+    }
+
+    synchronized Optional<MailboxMessage> remove(MessageUid uid) {
+        MailboxMessage removed = messagesByUid.remove(uid);
+        if (removed == null) {
+            return Optional.empty();
+        }
+        count--;
+        if (unseen.remove(uid)) {
+            unseenCount--;
+        }
+        recent.remove(uid);
+        deleted.remove(uid);
+        return Optional.of(removed);
+    }
+
+    int count() {
+        return count;
+    }
+
+    int unseenCount() {
+        return unseenCount;
+    }
+
+    /**
+     * @param limit maximum count of returned messages, or a non-positive value for no limit
+     */
+    List<MailboxMessage> find(MessageRange range, int limit) {
+        Collection<MailboxMessage> messages = subMap(range).values();
+        if (limit > 0) {
+            return messages.stream()
+                .limit(limit)
+                .collect(ImmutableList.toImmutableList());
+        }
+        return ImmutableList.copyOf(messages);
+    }
+
+    Collection<MailboxMessage> all() {
+        return messagesByUid.values();
+    }
+
+    List<MessageUid> recent() {
+        return ImmutableList.copyOf(recent);
+    }
+
+    Optional<MessageUid> firstUnseen() {
+        return Optional.ofNullable(unseen.ceiling(MessageUid.MIN_VALUE));
+    }
+
+    List<MessageUid> deleted(MessageRange range) {
+        if (isEmpty(range)) {
+            return ImmutableList.of();
+        }
+        return ImmutableList.copyOf(deleted.subSet(range.getUidFrom(), true, range.getUidTo(), true));
+    }
+
+    private NavigableMap<MessageUid, MailboxMessage> subMap(MessageRange range) {
+        if (isEmpty(range)) {
+            return Collections.emptyNavigableMap();
+        }
+        return messagesByUid.subMap(range.getUidFrom(), true, range.getUidTo(), true);
+    }
+
+    private boolean isEmpty(MessageRange range) {
+        return range.getUidFrom().compareTo(range.getUidTo()) > 0;
+    }
+}
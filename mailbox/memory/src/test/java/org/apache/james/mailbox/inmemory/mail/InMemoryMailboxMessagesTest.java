@@ -0,0 +1,166 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.inmemory.mail;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import jakarta.mail.Flags;
+
+import org.apache.james.mailbox.FlagsBuilder;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.inmemory.InMemoryId;
+import org.apache.james.mailbox.inmemory.InMemoryMessageId;
+import org.apache.james.mailbox.model.ByteContent;
+import org.apache.james.mailbox.model.MessageRange;
+import org.apache.james.mailbox.model.ThreadId;
+import org.apache.james.mailbox.store.mail.model.MailboxMessage;
+import org.apache.james.mailbox.store.mail.model.impl.PropertyBuilder;
+import org.apache.james.mailbox.store.mail.model.impl.SimpleMailboxMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class InMemoryMailboxMessagesTest {
+    private static final byte[] CONTENT = "Subject: test\r\n\r\nbody".getBytes(StandardCharsets.UTF_8);
+
+    private InMemoryMailboxMessages testee;
+
+    @BeforeEach
+    void setUp() {
+        testee = new InMemoryMailboxMessages();
+    }
+
+    private static MailboxMessage message(long uid, Flags flags) {
+        InMemoryMessageId messageId = InMemoryMessageId.of(uid);
+        SimpleMailboxMessage message = SimpleMailboxMessage.builder()
+            .messageId(messageId)
+            .threadId(ThreadId.fromBaseMessageId(messageId))
+            .mailboxId(InMemoryId.of(1))
+            .internalDate(new Date())
+            .bodyStartOctet(16)
+            .size(CONTENT.length)
+            .content(new ByteContent(CONTENT))
+            .flags(flags)
+            .properties(new PropertyBuilder())
+            .build();
+        message.setUid(MessageUid.of(uid));
+        return message;
+    }
+
+    private static Flags seen() {
+        return new Flags(Flags.Flag.SEEN);
+    }
+
+    @Test
+    void findShouldReturnMessagesOfTheRangeInUidOrder() {
+        testee.put(message(3, seen()));
+        testee.put(message(1, seen()));
+        testee.put(message(4, seen()));
+        testee.put(message(2, seen()));
+
+        assertThat(testee.find(MessageRange.range(MessageUid.of(2), MessageUid.of(3)), 0))
+            .extracting(MailboxMessage::getUid)
+            .containsExactly(MessageUid.of(2), MessageUid.of(3));
+    }
+
+    @Test
+    void findShouldApplyTheLimit() {
+        testee.put(message(1, seen()));
+        testee.put(message(2, seen()));
+        testee.put(message(3, seen()));
+
+        assertThat(testee.find(MessageRange.all(), 2))
+            .extracting(MailboxMessage::getUid)
+            .containsExactly(MessageUid.of(1), MessageUid.of(2));
+    }
+
+    @Test
+    void findShouldSupportOpenEndedRanges() {
+        testee.put(message(1, seen()));
+        testee.put(message(5, seen()));
+
+        assertThat(testee.find(MessageRange.from(MessageUid.of(2)), 0))
+            .extracting(MailboxMessage::getUid)
+            .containsExactly(MessageUid.of(5));
+    }
+
+    @Test
+    void countsShouldBeMaintainedUponFlagUpdates() {
+        testee.put(message(1, new Flags()));
+        testee.put(message(2, new Flags()));
+        testee.put(message(1, seen()));
+
+        assertThat(testee.count()).isEqualTo(2);
+        assertThat(testee.unseenCount()).isEqualTo(1);
+        assertThat(testee.firstUnseen()).contains(MessageUid.of(2));
+    }
+
+    @Test
+    void removeShouldUpdateAllIndexes() {
+        testee.put(message(1, new FlagsBuilder().add(Flags.Flag.RECENT, Flags.Flag.DELETED).build()));
+
+        assertThat(testee.remove(MessageUid.of(1))).isPresent();
+
+        assertThat(testee.count()).isZero();
+        assertThat(testee.unseenCount()).isZero();
+        assertThat(testee.firstUnseen()).isEmpty();
+        assertThat(testee.recent()).isEmpty();
+        assertThat(testee.deleted(MessageRange.all())).isEmpty();
+    }
+
+    @Test
+    void removeShouldBeIdempotent() {
+        testee.put(message(1, new Flags()));
+        testee.remove(MessageUid.of(1));
+
+        assertThat(testee.remove(MessageUid.of(1))).isEmpty();
+        assertThat(testee.count()).isZero();
+        assertThat(testee.unseenCount()).isZero();
+    }
+
+    @Test
+    void recentShouldReturnRecentMessagesInUidOrder() {
+        testee.put(message(3, new Flags(Flags.Flag.RECENT)));
+        testee.put(message(1, new Flags(Flags.Flag.RECENT)));
+        testee.put(message(2, seen()));
+
+        assertThat(testee.recent()).containsExactly(MessageUid.of(1), MessageUid.of(3));
+    }
+
+    @Test
+    void recentShouldNoLongerReturnMessagesWhoseRecentFlagWasRemoved() {
+        testee.put(message(1, new Flags(Flags.Flag.RECENT)));
+        testee.put(message(1, new Flags()));
+
+        assertThat(testee.recent()).isEmpty();
+    }
+
+    @Test
+    void deletedShouldBeRestrictedToTheRange() {
+        testee.put(message(1, new Flags(Flags.Flag.DELETED)));
+        testee.put(message(2, new Flags()));
+        testee.put(message(3, new Flags(Flags.Flag.DELETED)));
+
+        assertThat(testee.deleted(MessageRange.range(MessageUid.of(2), MessageUid.of(10))))
+            .containsExactly(MessageUid.of(3));
+    }
+}
@@ -0,0 +1,307 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.store;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.apache.james.core.Username;
+import org.apache.james.events.Event;
+import org.apache.james.events.EventBus;
+import org.apache.james.events.EventListener;
+import org.apache.james.events.Registration;
+import org.apache.james.events.RegistrationKey;
+import org.apache.james.mailbox.events.MailboxEvents.MailboxACLUpdated;
+import org.apache.james.mailbox.events.MailboxEvents.MailboxAdded;
+import org.apache.james.mailbox.events.MailboxEvents.MailboxDeletion;
+import org.apache.james.mailbox.events.MailboxEvents.MailboxRenamed;
+import org.apache.james.mailbox.events.MailboxHierarchyRegistrationKey;
+import org.apache.james.mailbox.events.MailboxIdRegistrationKey;
+import org.apache.james.mailbox.model.Mailbox;
+import org.apache.james.mailbox.model.MailboxId;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.search.MailboxQuery;
+import org.apache.james.mailbox.store.mail.MailboxMapper;
+import org.reactivestreams.Publisher;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * In memory copy of the mailbox hierarchy of a user (paths, ids and ACLs), serving mailbox searches without going
+ * through the {@link MailboxMapper}.
+ *
+ * A hierarchy is loaded on first access, then dropped upon any creation, deletion, rename or ACL update of a mailbox
+ * of its owner. These changes are dispatched under a {@link MailboxHierarchyRegistrationKey}, so that changes done on
+ * other James nodes invalidate the local copy too. Changes that do not go through the mailbox manager, for instance
+ * administrative data migrations, are only reflected once the copy expires.
+ */
+public class MailboxHierarchyCache {
+    public static class Configuration {
+        public static final long DEFAULT_MAXIMUM_OWNER_COUNT = 10_000;
+        public static final Duration DEFAULT_EXPIRE_AFTER_ACCESS = Duration.ofHours(1);
+        public static final Configuration DISABLED = builder().build();
+
+        public static Builder builder() {
+            return new Builder();
+        }
+
+        public static class Builder {
+            private Optional<Boolean> enabled;
+            private Optional<Long> maximumOwnerCount;
+            private Optional<Duration> expireAfterAccess;
+
+            private Builder() {
+                enabled = Optional.empty();
+                maximumOwnerCount = Optional.empty();
+                expireAfterAccess = Optional.empty();
+            }
+
+            public Builder enabled(boolean enabled) {
+                this.enabled = Optional.of(enabled);
+                return this;
+            }
+
+            public Builder maximumOwnerCount(long maximumOwnerCount) {
+                Preconditions.checkArgument(maximumOwnerCount > 0, "'maximumOwnerCount' must be greater than zero");
+                this.maximumOwnerCount = Optional.of(maximumOwnerCount);
+                return this;
+            }
+
+            public Builder expireAfterAccess(Duration expireAfterAccess) {
+                Preconditions.checkArgument(!expireAfterAccess.isNegative() && !expireAfterAccess.isZero(), "'expireAfterAccess' must be strictly positive");
+                this.expireAfterAccess = Optional.of(expireAfterAccess);
+                return this;
+            }
+
+            public Configuration build() {
+                return new Configuration(
+                    enabled.orElse(false),
+                    maximumOwnerCount.orElse(DEFAULT_MAXIMUM_OWNER_COUNT),
+                    expireAfterAccess.orElse(DEFAULT_EXPIRE_AFTER_ACCESS));
+            }
+        }
+
+        private final boolean enabled;
+        private final long maximumOwnerCount;
+        private final Duration expireAfterAccess;
+
+        private Configuration(boolean enabled, long maximumOwnerCount, Duration expireAfterAccess) {
+            this.enabled = enabled;
+            this.maximumOwnerCount = maximumOwnerCount;
+            this.expireAfterAccess = expireAfterAccess;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public long getMaximumOwnerCount() {
+            return maximumOwnerCount;
+        }
+
+        public Duration getExpireAfterAccess() {
+            return expireAfterAccess;
+        }
+
+        @Override
+        public final boolean equals(Object o) {
+            if (o instanceof Configuration) {
+                Configuration that = (Configuration) o;
+
+                return Objects.equals(this.enabled, that.enabled)
+                    && Objects.equals(this.maximumOwnerCount, that.maximumOwnerCount)
+                    && Objects.equals(this.expireAfterAccess, that.expireAfterAccess);
+            }
+            return false;
+        }
+
+        @Override
+        public final int hashCode() {
+            return Objects.hash(enabled, maximumOwnerCount, expireAfterAccess);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                .add("enabled", enabled)
+                .add("maximumOwnerCount", maximumOwnerCount)
+                .add("expireAfterAccess", expireAfterAccess)
+                .toString();
+        }
+    }
+
+    /**
+     * Keys a mailbox hierarchy change needs to be dispatched with: the mailbox one, and the hierarchy one of the owners
+     * of the given paths.
+     */
+    static ImmutableSet<RegistrationKey> hierarchyChangeKeys(MailboxId mailboxId, MailboxPath... paths) {
+        return ImmutableSet.<RegistrationKey>builder()
+            .add(new MailboxIdRegistrationKey(mailboxId))
+            .addAll(Arrays.stream(paths)
+                .map(MailboxPath::getUser)
+                .filter(Objects::nonNull)
+                .map(MailboxHierarchyRegistrationKey::new)
+                .iterator())
+            .build();
+    }
+
+    private static class Owner {
+        private final String namespace;
+        private final Username user;
+
+        Owner(String namespace, Username user) {
+            this.namespace = namespace;
+            this.user = user;
+        }
+
+        @Override
+        public final boolean equals(Object o) {
+            if (o instanceof Owner) {
+                Owner that = (Owner) o;
+
+                return Objects.equals(this.namespace, that.namespace)
+                    && Objects.equals(this.user, that.user);
+            }
+            return false;
+        }
+
+        @Override
+        public final int hashCode() {
+            return Objects.hash(namespace, user);
+        }
+    }
+
+    private class Hierarchy implements EventListener.ReactiveEventListener {
+        private final MailboxQuery.UserBound allMailboxes;
+        private final Mono<Registration> registration;
+        private Optional<List<Mailbox>> mailboxes;
+        private long version;
+
+        Hierarchy(Owner owner) {
+            this.allMailboxes = MailboxQuery.builder()
+                .namespace(owner.namespace)
+                .user(owner.user)
+                .matchesAllMailboxNames()
+                .build()
+                .asUserBound();
+            this.registration = Mono.from(eventBus.register(this, new MailboxHierarchyRegistrationKey(owner.user)))
+                .cache();
+            this.mailboxes = Optional.empty();
+        }
+
+        Mono<List<Mailbox>> mailboxes(MailboxMapper mapper) {
+            // Registering before loading ensures no change happening during the load is missed
+            return registration.then(Mono.defer(() -> cached()
+                .map(Mono::just)
+                .orElseGet(() -> load(mapper))));
+        }
+
+        private Mono<List<Mailbox>> load(MailboxMapper mapper) {
+            long loadedVersion = version();
+            return mapper.findMailboxWithPathLike(allMailboxes)
+                .collectList()
+                .<List<Mailbox>>map(ImmutableList::copyOf)
+                .doOnNext(loaded -> store(loadedVersion, loaded));
+        }
+
+        private synchronized Optional<List<Mailbox>> cached() {
+            return mailboxes;
+        }
+
+        private synchronized long version() {
+            return version;
+        }
+
+        private synchronized void store(long loadedVersion, List<Mailbox> loaded) {
+            if (loadedVersion == version) {
+                mailboxes = Optional.of(loaded);
+            }
+        }
+
+        private synchronized void invalidate() {
+            version++;
+            mailboxes = Optional.empty();
+        }
+
+        void close() {
+            registration.flatMap(value -> Mono.from(value.unregister()))
+                .subscribe();
+        }
+
+        @Override
+        public boolean isHandling(Event event) {
+            return event instanceof MailboxAdded
+                || event instanceof MailboxDeletion
+                || event instanceof MailboxRenamed
+                || event instanceof MailboxACLUpdated;
+        }
+
+        @Override
+        public Publisher<Void> reactiveEvent(Event event) {
+            return Mono.fromRunnable(this::invalidate);
+        }
+    }
+
+    private final EventBus eventBus;
+    private final Configuration configuration;
+    private final LoadingCache<Owner, Hierarchy> hierarchies;
+
+    public MailboxHierarchyCache(EventBus eventBus, Configuration configuration) {
+        this.eventBus = eventBus;
+        this.configuration = configuration;
+        this.hierarchies = CacheBuilder.newBuilder()
+            .maximumSize(configuration.getMaximumOwnerCount())
+            .expireAfterAccess(configuration.getExpireAfterAccess())
+            .removalListener((RemovalNotification<Owner, Hierarchy> notification) -> notification.getValue().close())
+            .build(CacheLoader.from(Hierarchy::new));
+    }
+
+    public Flux<Mailbox> findMailboxWithPathLike(MailboxQuery.UserBound query, MailboxMapper mapper) {
+        if (!configuration.isEnabled()) {
+            return mapper.findMailboxWithPathLike(query);
+        }
+        return hierarchies.getUnchecked(new Owner(query.getFixedNamespace(), query.getFixedUser()))
+            .mailboxes(mapper)
+            .flatMapIterable(Function.identity())
+            .filter(query::matches)
+            .map(Mailbox::new);
+    }
+
+    @VisibleForTesting
+    long cachedOwnerCount() {
+        hierarchies.cleanUp();
+        return hierarchies.size();
+    }
+}
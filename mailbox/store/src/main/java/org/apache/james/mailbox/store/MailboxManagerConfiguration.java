@@ -25,13 +25,23 @@ public class MailboxManagerConfiguration {
     public static final MailboxManagerConfiguration DEFAULT = new MailboxManagerConfiguration(BatchSizes.defaultValues());
 
     private final BatchSizes batchSizes;
+    private final MailboxHierarchyCache.Configuration hierarchyCacheConfiguration;
 
-    @Inject
     public MailboxManagerConfiguration(BatchSizes batchSizes) {
+        this(batchSizes, MailboxHierarchyCache.Configuration.DISABLED);
+    }
+
+    @Inject
+    public MailboxManagerConfiguration(BatchSizes batchSizes, MailboxHierarchyCache.Configuration hierarchyCacheConfiguration) {
         this.batchSizes = batchSizes;
+        this.hierarchyCacheConfiguration = hierarchyCacheConfiguration;
     }
 
     public BatchSizes getBatchSizes() {
         return batchSizes;
     }
+
+    public MailboxHierarchyCache.Configuration getHierarchyCacheConfiguration() {
+        return hierarchyCacheConfiguration;
+    }
 }
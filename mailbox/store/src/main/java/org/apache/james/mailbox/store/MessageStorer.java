@@ -35,6 +35,7 @@ import org.apache.james.mailbox.model.Mailbox;
 import org.apache.james.mailbox.model.MessageAttachmentMetadata;
 import org.apache.james.mailbox.model.MessageId;
 import org.apache.james.mailbox.model.MessageMetaData;
+import org.apache.james.mailbox.model.ParsedMessage;
 import org.apache.james.mailbox.model.ThreadId;
 import org.apache.james.mailbox.store.mail.AttachmentMapperFactory;
 import org.apache.james.mailbox.store.mail.MessageMapper;
@@ -45,7 +46,6 @@ import org.apache.james.mailbox.store.mail.model.Subject;
 import org.apache.james.mailbox.store.mail.model.impl.MessageParser;
 import org.apache.james.mailbox.store.mail.model.impl.PropertyBuilder;
 import org.apache.james.mailbox.store.mail.utils.MimeMessageHeadersUtil;
-import org.apache.james.mime4j.dom.Message;
 import org.apache.james.mime4j.message.HeaderImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,11 +60,11 @@ import reactor.util.function.Tuple2;
 public interface MessageStorer {
     /**
      * If supported by the underlying implementation, this method will parse the messageContent to retrieve associated
-     * attachments and will store them.
+     * attachments and will store them. The parsed message is shared with the listeners of the resulting event.
      * <p>
      * Otherwize an empty optional will be returned on the right side of the pair.
      */
-    Mono<Pair<MessageMetaData, Optional<List<MessageAttachmentMetadata>>>> appendMessageToStore(Mailbox mailbox, Date internalDate, int size, int bodyStartOctet, Content content, Flags flags, PropertyBuilder propertyBuilder, Optional<Message> maybeMessage, MailboxSession session, HeaderImpl headers) throws MailboxException;
+    Mono<Pair<MessageMetaData, Optional<List<MessageAttachmentMetadata>>>> appendMessageToStore(Mailbox mailbox, Date internalDate, int size, int bodyStartOctet, Content content, Flags flags, PropertyBuilder propertyBuilder, ParsedMessage parsedMessage, MailboxSession session, HeaderImpl headers) throws MailboxException;
 
     /**
      * MessageStorer parsing, storing and returning AttachmentMetadata
@@ -95,7 +95,7 @@ public interface MessageStorer {
         }
 
         @Override
-        public Mono<Pair<MessageMetaData, Optional<List<MessageAttachmentMetadata>>>> appendMessageToStore(Mailbox mailbox, Date internalDate, int size, int bodyStartOctet, Content content, Flags flags, PropertyBuilder propertyBuilder, Optional<Message> maybeMessage, MailboxSession session, HeaderImpl headers) {
+        public Mono<Pair<MessageMetaData, Optional<List<MessageAttachmentMetadata>>>> appendMessageToStore(Mailbox mailbox, Date internalDate, int size, int bodyStartOctet, Content content, Flags flags, PropertyBuilder propertyBuilder, ParsedMessage parsedMessage, MailboxSession session, HeaderImpl headers) {
             MessageMapper messageMapper = mapperFactory.getMessageMapper(session);
             MessageId messageId = messageIdFactory.generate();
             Optional<MimeMessageId> mimeMessageId = MimeMessageHeadersUtil.parseMimeMessageId(headers);
@@ -105,7 +105,7 @@ public interface MessageStorer {
 
             return mapperFactory.getMessageMapper(session)
                 .executeReactive(
-                    storeAttachments(messageId, content, maybeMessage, session)
+                    storeAttachments(messageId, content, parsedMessage, session)
                         .subscribeOn(Schedulers.boundedElastic())
                         .zipWith(threadIdGuessingAlgorithm.guessThreadIdReactive(messageId, mimeMessageId, inReplyTo, references, subject, session))
                         .flatMap(Throwing.function((Tuple2<List<MessageAttachmentMetadata>, ThreadId> pair) -> {
@@ -119,15 +119,15 @@ public interface MessageStorer {
                         }).sneakyThrow()));
         }
 
-        private Mono<List<MessageAttachmentMetadata>> storeAttachments(MessageId messageId, Content messageContent, Optional<Message> maybeMessage, MailboxSession session) {
-            return Mono.usingWhen(Mono.fromCallable(() -> extractAttachments(messageContent, maybeMessage)),
+        private Mono<List<MessageAttachmentMetadata>> storeAttachments(MessageId messageId, Content messageContent, ParsedMessage parsedMessage, MailboxSession session) {
+            return Mono.usingWhen(Mono.fromCallable(() -> extractAttachments(messageContent, parsedMessage)),
                 attachments -> attachmentMapperFactory.getAttachmentMapper(session)
                     .storeAttachmentsReactive(attachments.getAttachments(), messageId),
                 parsingResults -> Mono.fromRunnable(parsingResults::dispose).subscribeOn(Schedulers.boundedElastic()));
         }
 
-        private MessageParser.ParsingResult extractAttachments(Content contentIn, Optional<Message> maybeMessage) {
-            return maybeMessage.map(message -> {
+        private MessageParser.ParsingResult extractAttachments(Content contentIn, ParsedMessage parsedMessage) {
+            return parsedMessage.getMessage().map(message -> {
                 try {
                     return new MessageParser.ParsingResult(messageParser.retrieveAttachments(message), () -> {
 
@@ -168,7 +168,7 @@ public interface MessageStorer {
         }
 
         @Override
-        public Mono<Pair<MessageMetaData, Optional<List<MessageAttachmentMetadata>>>> appendMessageToStore(Mailbox mailbox, Date internalDate, int size, int bodyStartOctet, Content content, Flags flags, PropertyBuilder propertyBuilder, Optional<Message> maybeMessage, MailboxSession session, HeaderImpl headers) throws MailboxException {
+        public Mono<Pair<MessageMetaData, Optional<List<MessageAttachmentMetadata>>>> appendMessageToStore(Mailbox mailbox, Date internalDate, int size, int bodyStartOctet, Content content, Flags flags, PropertyBuilder propertyBuilder, ParsedMessage parsedMessage, MailboxSession session, HeaderImpl headers) throws MailboxException {
             MessageMapper messageMapper = mapperFactory.getMessageMapper(session);
             MessageId messageId = messageIdFactory.generate();
             Optional<MimeMessageId> mimeMessageId = MimeMessageHeadersUtil.parseMimeMessageId(headers);
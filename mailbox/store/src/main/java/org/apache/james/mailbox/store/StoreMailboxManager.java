@@ -44,7 +44,6 @@ import org.apache.james.mailbox.MailboxSession;
 import org.apache.james.mailbox.MessageManager;
 import org.apache.james.mailbox.MetadataWithMailboxId;
 import org.apache.james.mailbox.SessionProvider;
-import org.apache.james.mailbox.events.MailboxIdRegistrationKey;
 import org.apache.james.mailbox.exception.InboxAlreadyCreated;
 import org.apache.james.mailbox.exception.InsufficientRightsException;
 import org.apache.james.mailbox.exception.MailboxException;
@@ -134,6 +133,7 @@ public class StoreMailboxManager implements MailboxManager {
     protected final MailboxManagerConfiguration configuration;
     private final ThreadIdGuessingAlgorithm threadIdGuessingAlgorithm;
     private final Clock clock;
+    private final MailboxHierarchyCache hierarchyCache;
 
     @Inject
     public StoreMailboxManager(MailboxSessionMapperFactory mailboxSessionMapperFactory, SessionProvider sessionProvider,
@@ -161,6 +161,7 @@ public class StoreMailboxManager implements MailboxManager {
         this.preDeletionHooks = preDeletionHooks;
         this.threadIdGuessingAlgorithm = threadIdGuessingAlgorithm;
         this.clock = clock;
+        this.hierarchyCache = new MailboxHierarchyCache(eventBus, configuration.getHierarchyCacheConfiguration());
     }
 
     public QuotaComponents getQuotaComponents() {
@@ -423,7 +424,7 @@ public class StoreMailboxManager implements MailboxManager {
                             .mailboxSession(mailboxSession)
                             .mailbox(mailbox)
                             .build(),
-                        new MailboxIdRegistrationKey(mailbox.getMailboxId()))
+                        MailboxHierarchyCache.hierarchyChangeKeys(mailbox.getMailboxId(), mailbox.generateAssociatedPath()))
                     .thenReturn(mailbox.getMailboxId()))
             .onErrorResume(MailboxExistsException.class, e -> {
                 LOGGER.info("{} mailbox was created concurrently", mailboxPath.asString());
@@ -518,7 +519,7 @@ public class StoreMailboxManager implements MailboxManager {
                             .quotaCount(QuotaCountUsage.count(quotaRootWithMessageCount.getT2()))
                             .quotaSize(QuotaSizeUsage.size(totalSize))
                             .build(),
-                        new MailboxIdRegistrationKey(mailbox.getMailboxId())));
+                        MailboxHierarchyCache.hierarchyChangeKeys(mailbox.getMailboxId(), mailbox.generateAssociatedPath())));
             })
             .retryWhen(RETRY_BACKOFF_SPEC)
             // We need to create a copy of the mailbox as maybe we can not refer to the real
@@ -681,7 +682,7 @@ public class StoreMailboxManager implements MailboxManager {
                         .oldPath(result.getOriginPath())
                         .newPath(result.getDestinationPath())
                         .build(),
-                    new MailboxIdRegistrationKey(result.getMailboxId())))
+                    MailboxHierarchyCache.hierarchyChangeKeys(result.getMailboxId(), result.getOriginPath(), result.getDestinationPath())))
                 .then()))
             .then(Mono.fromCallable(resultBuilder::build));
     }
@@ -808,8 +809,8 @@ public class StoreMailboxManager implements MailboxManager {
 
     private Flux<Mailbox> searchMailboxes(MailboxQuery mailboxQuery, MailboxSession session, Right right) {
         MailboxMapper mailboxMapper = mailboxSessionMapperFactory.getMailboxMapper(session);
-        Flux<Mailbox> baseMailboxes = mailboxMapper
-            .findMailboxWithPathLike(toSingleUserQuery(mailboxQuery, session));
+        Flux<Mailbox> baseMailboxes = hierarchyCache
+            .findMailboxWithPathLike(toSingleUserQuery(mailboxQuery, session), mailboxMapper);
         Flux<Mailbox> delegatedMailboxes = getDelegatedMailboxes(mailboxMapper, mailboxQuery, right, session)
             .filter(Throwing.predicate(mailbox -> storeRightManager.hasRight(mailbox, right, session)))
             .filter(mailbox -> !mailbox.getUser().equals(session.getUser()));
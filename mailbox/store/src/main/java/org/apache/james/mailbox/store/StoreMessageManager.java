@@ -93,6 +93,7 @@ import org.apache.james.mailbox.store.mail.FetchGroupConverter;
 import org.apache.james.mailbox.store.mail.MessageMapper;
 import org.apache.james.mailbox.store.mail.MessageMapper.FetchType;
 import org.apache.james.mailbox.store.mail.model.MailboxMessage;
+import org.apache.james.mailbox.store.mail.model.impl.LazyParsedMessage;
 import org.apache.james.mailbox.store.mail.model.impl.PropertyBuilder;
 import org.apache.james.mailbox.store.quota.QuotaChecker;
 import org.apache.james.mailbox.store.search.MessageSearchIndex;
@@ -528,11 +529,13 @@ public class StoreMessageManager implements MessageManager {
                                                         boolean isDelivery) throws MailboxException {
         int size = (int) content.size();
         QuotaRoot quotaRoot = quotaRootResolver.getQuotaRoot(mailbox);
+        // Parsed at most once, by the first of the attachment extraction and the in-JVM listeners needing it
+        LazyParsedMessage parsedMessage = LazyParsedMessage.of(content, maybeMessage);
         return Mono.from(quotaManager.getQuotasReactive(quotaRoot))
             .map(quotas -> new QuotaChecker(quotas, quotaRoot))
             .doOnNext(Throwing.consumer((QuotaChecker quotaChecker) -> quotaChecker.tryAddition(1, size)).sneakyThrow())
             .then(Mono.from(locker.executeReactiveWithLockReactive(getMailboxPath(),
-                messageStorer.appendMessageToStore(mailbox, internalDate, size, bodyStartOctet, content, flags, propertyBuilder, maybeMessage, mailboxSession, headers)
+                messageStorer.appendMessageToStore(mailbox, internalDate, size, bodyStartOctet, content, flags, propertyBuilder, parsedMessage, mailboxSession, headers)
                     .flatMap(data -> eventBus.dispatch(EventFactory.added()
                             .randomEventId()
                             .mailboxSession(mailboxSession)
@@ -540,10 +543,12 @@ public class StoreMessageManager implements MessageManager {
                             .addMetaData(data.getLeft())
                             .isDelivery(isDelivery)
                             .isAppended(true)
+                            .parsedMessage(data.getLeft().getUid(), parsedMessage)
                             .build(),
                         new MailboxIdRegistrationKey(mailbox.getMailboxId()))
                         .thenReturn(computeAppendResult(data, mailbox))),
-                MailboxPathLocker.LockType.Write)));
+                MailboxPathLocker.LockType.Write)))
+            .doFinally(any -> parsedMessage.dispose());
     }
 
     private AppendResult computeAppendResult(Pair<MessageMetaData, Optional<List<MessageAttachmentMetadata>>> data, Mailbox mailbox) {
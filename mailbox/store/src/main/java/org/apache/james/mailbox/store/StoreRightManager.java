@@ -36,7 +36,6 @@ import org.apache.james.mailbox.MailboxSession;
 import org.apache.james.mailbox.RightManager;
 import org.apache.james.mailbox.acl.ACLDiff;
 import org.apache.james.mailbox.acl.MailboxACLResolver;
-import org.apache.james.mailbox.events.MailboxIdRegistrationKey;
 import org.apache.james.mailbox.exception.DifferentDomainException;
 import org.apache.james.mailbox.exception.InsufficientRightsException;
 import org.apache.james.mailbox.exception.MailboxException;
@@ -199,7 +198,7 @@ public class StoreRightManager implements RightManager {
                 .mailbox(mailbox)
                 .aclDiff(aclDiff)
                 .build(),
-            new MailboxIdRegistrationKey(mailbox.getMailboxId()));
+            MailboxHierarchyCache.hierarchyChangeKeys(mailbox.getMailboxId(), mailbox.generateAssociatedPath()));
     }
 
     @Override
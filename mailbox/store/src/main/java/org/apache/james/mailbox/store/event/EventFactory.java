@@ -53,6 +53,7 @@ import org.apache.james.mailbox.model.MailboxACL;
 import org.apache.james.mailbox.model.MailboxId;
 import org.apache.james.mailbox.model.MailboxPath;
 import org.apache.james.mailbox.model.MessageMetaData;
+import org.apache.james.mailbox.model.ParsedMessage;
 import org.apache.james.mailbox.model.Quota;
 import org.apache.james.mailbox.model.QuotaRoot;
 import org.apache.james.mailbox.model.UpdatedFlags;
@@ -60,6 +61,7 @@ import org.apache.james.mailbox.store.mail.model.MailboxMessage;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSortedMap;
 
 public class EventFactory {
@@ -241,6 +243,7 @@ public class EventFactory {
 
             private boolean isAppended;
             private Optional<MailboxId> movedFromMailboxId;
+            private final ImmutableMap.Builder<MessageUid, ParsedMessage> parsedMessages;
 
             public Builder(Event.EventId eventId, MailboxPath path, MailboxId mailboxId, Username username,
                            MailboxSession.SessionId sessionId, Map<MessageUid, MessageMetaData> metaData) {
@@ -253,6 +256,7 @@ public class EventFactory {
                 this.isDelivery = IS_DELIVERY_DEFAULT;
                 this.isAppended = IS_APPENDED_DEFAULT;
                 this.movedFromMailboxId = Optional.empty();
+                this.parsedMessages = ImmutableMap.builder();
             }
 
             public Builder isDelivery(boolean isDelivery) {
@@ -270,8 +274,13 @@ public class EventFactory {
                 return this;
             }
 
+            public Builder parsedMessage(MessageUid uid, ParsedMessage parsedMessage) {
+                this.parsedMessages.put(uid, parsedMessage);
+                return this;
+            }
+
             public Added build() {
-                return new AddedFinalStage(eventId, path, mailboxId, username, sessionId, metaData, isDelivery, isAppended, movedFromMailboxId).build();
+                return new AddedFinalStage(eventId, path, mailboxId, username, sessionId, metaData, isDelivery, isAppended, movedFromMailboxId, parsedMessages.build()).build();
             }
         }
 
@@ -285,10 +294,12 @@ public class EventFactory {
 
         private final boolean isAppended;
         private final Optional<MailboxId> movedFromMailboxId;
+        private final Map<MessageUid, ParsedMessage> parsedMessages;
 
         AddedFinalStage(Event.EventId eventId, MailboxPath path, MailboxId mailboxId, Username username,
                         MailboxSession.SessionId sessionId, Map<MessageUid, MessageMetaData> metaData,
-                        boolean isDelivery, boolean isAppended, Optional<MailboxId> movedFromMailboxId) {
+                        boolean isDelivery, boolean isAppended, Optional<MailboxId> movedFromMailboxId,
+                        Map<MessageUid, ParsedMessage> parsedMessages) {
             this.eventId = eventId;
             this.path = path;
             this.mailboxId = mailboxId;
@@ -298,6 +309,7 @@ public class EventFactory {
             this.isDelivery = isDelivery;
             this.isAppended = isAppended;
             this.movedFromMailboxId = movedFromMailboxId;
+            this.parsedMessages = parsedMessages;
         }
 
         public Added build() {
@@ -307,7 +319,7 @@ public class EventFactory {
             Preconditions.checkNotNull(sessionId);
             Preconditions.checkNotNull(metaData);
 
-            return new Added(sessionId, username, path, mailboxId, metaData, eventId, isDelivery, isAppended, movedFromMailboxId);
+            return new Added(sessionId, username, path, mailboxId, metaData, eventId, isDelivery, isAppended, movedFromMailboxId, parsedMessages);
         }
     }
 
@@ -32,6 +32,9 @@ import org.apache.james.mailbox.model.MessageId;
 import org.apache.james.mailbox.model.ParsedAttachment;
 import org.apache.james.mailbox.store.transaction.Mapper;
 import org.apache.james.util.ReactorUtils;
+import org.apache.james.util.io.InputStreamUtils;
+
+import com.github.fge.lambdas.Throwing;
 
 import reactor.core.publisher.Mono;
 
@@ -44,6 +47,17 @@ public interface AttachmentMapper extends Mapper {
             .subscribeOn(ReactorUtils.BLOCKING_CALL_WRAPPER);
     }
 
+    /**
+     * Loads {@code length} bytes of the content of the given attachment, starting at {@code offset}.
+     *
+     * By default the bytes before the range are read and skipped: mappers whose storage can start reading at an
+     * offset should override this method.
+     */
+    default Mono<InputStream> loadAttachmentContentReactive(AttachmentId attachmentId, long offset, long length) {
+        return loadAttachmentContentReactive(attachmentId)
+            .map(Throwing.function((InputStream stream) -> InputStreamUtils.range(stream, offset, length)).sneakyThrow());
+    }
+
     AttachmentMetadata getAttachment(AttachmentId attachmentId) throws AttachmentNotFoundException;
 
     default Mono<AttachmentMetadata> getAttachmentReactive(AttachmentId attachmentId) {
@@ -0,0 +1,121 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.store.mail.model.impl;
+
+import java.io.InputStream;
+import java.util.Optional;
+
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.model.Content;
+import org.apache.james.mailbox.model.ParsedMessage;
+import org.apache.james.mime4j.codec.DecodeMonitor;
+import org.apache.james.mime4j.dom.Disposable;
+import org.apache.james.mime4j.dom.Message;
+import org.apache.james.mime4j.message.DefaultMessageBuilder;
+import org.apache.james.mime4j.stream.MimeConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link ParsedMessage} of a message being appended, parsed upon first access.
+ *
+ * As {@link MessageParser} does, large bodies are buffered into temporary files, released by {@link #dispose()}. Once
+ * disposed, the parsed message remains available only if it was parsed beforehand and, being smaller than
+ * {@link FileBufferedBodyFactory#FILE_THRESHOLD}, entirely held in memory: asynchronous listeners can then still use it.
+ * Its bodies are then left to the garbage collector, as releasing them would empty the binary ones.
+ */
+public class LazyParsedMessage implements ParsedMessage, Disposable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LazyParsedMessage.class);
+
+    public static LazyParsedMessage of(Content content) {
+        return new LazyParsedMessage(content, Optional.empty(), false);
+    }
+
+    /**
+     * @param message the already parsed message, that remains owned, and thus disposed, by the caller
+     */
+    public static LazyParsedMessage of(Content content, Optional<Message> message) {
+        return message.map(value -> new LazyParsedMessage(content, Optional.of(value), true))
+            .orElseGet(() -> of(content));
+    }
+
+    private final Content content;
+    private Optional<Message> message;
+    private Optional<FileBufferedBodyFactory> bodyFactory;
+    private boolean parsed;
+    private boolean disposed;
+
+    private LazyParsedMessage(Content content, Optional<Message> message, boolean parsed) {
+        this.content = content;
+        this.message = message;
+        this.bodyFactory = Optional.empty();
+        this.parsed = parsed;
+        this.disposed = false;
+    }
+
+    @Override
+    public synchronized Optional<Message> getMessage() {
+        if (disposed) {
+            // The content might no longer be readable
+            return message;
+        }
+        if (!parsed) {
+            message = parse();
+            parsed = true;
+        }
+        return message;
+    }
+
+    private Optional<Message> parse() {
+        FileBufferedBodyFactory fileBufferedBodyFactory = new FileBufferedBodyFactory();
+        DefaultMessageBuilder defaultMessageBuilder = new DefaultMessageBuilder();
+        defaultMessageBuilder.setMimeEntityConfig(MimeConfig.PERMISSIVE);
+        defaultMessageBuilder.setDecodeMonitor(DecodeMonitor.SILENT);
+        defaultMessageBuilder.setBodyFactory(fileBufferedBodyFactory);
+        try (InputStream inputStream = content.getInputStream()) {
+            Message parsedMessage = defaultMessageBuilder.parseMessage(inputStream);
+            bodyFactory = Optional.of(fileBufferedBodyFactory);
+            return Optional.of(parsedMessage);
+        } catch (Exception e) {
+            LOGGER.warn("Error while parsing appended message: {}", e.getMessage(), e);
+            fileBufferedBodyFactory.dispose();
+            return Optional.empty();
+        }
+    }
+
+    private boolean isHeldInMemory() {
+        try {
+            return parsed && content.size() <= FileBufferedBodyFactory.FILE_THRESHOLD;
+        } catch (MailboxException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized void dispose() {
+        disposed = true;
+        if (isHeldInMemory()) {
+            return;
+        }
+        message = Optional.empty();
+        bodyFactory.ifPresent(FileBufferedBodyFactory::dispose);
+        bodyFactory = Optional.empty();
+    }
+}
@@ -39,6 +39,7 @@ import org.apache.james.mailbox.exception.MailboxNotFoundException;
 import org.apache.james.mailbox.model.Mailbox;
 import org.apache.james.mailbox.model.MailboxId;
 import org.apache.james.mailbox.model.MessageRange;
+import org.apache.james.mailbox.model.ParsedMessage;
 import org.apache.james.mailbox.model.SearchQuery;
 import org.apache.james.mailbox.model.UpdatedFlags;
 import org.apache.james.mailbox.store.MailboxSessionMapperFactory;
@@ -141,7 +142,7 @@ public abstract class ListeningMessageSearchIndex implements MessageSearchIndex,
         return Flux.fromIterable(MessageRange.toRanges(added.getUids()))
             .concatMap(range -> retrieveMailboxMessages(session, mailbox, range, fetchType))
             .publishOn(Schedulers.parallel())
-            .concatMap(mailboxMessage -> add(session, mailbox, mailboxMessage))
+            .concatMap(mailboxMessage -> add(session, mailbox, mailboxMessage, added.getParsedMessage(mailboxMessage.getUid())))
             .then();
     }
 
@@ -161,6 +162,16 @@ public abstract class ListeningMessageSearchIndex implements MessageSearchIndex,
      */
     public abstract Mono<Void> add(MailboxSession session, Mailbox mailbox, MailboxMessage message);
 
+    /**
+     * Add the {@link MailboxMessage} for the given {@link Mailbox} to the index, indexes relying on the MIME structure
+     * of the message being able to reuse the one parsed upon append.
+     *
+     * @param parsedMessage The MIME structure of the added message, if still available
+     */
+    public Mono<Void> add(MailboxSession session, Mailbox mailbox, MailboxMessage message, ParsedMessage parsedMessage) {
+        return add(session, mailbox, message);
+    }
+
     /**
      * Delete the concerned UIDs for the given {@link Mailbox} from the index
      *
@@ -0,0 +1,209 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.apache.james.core.Username;
+import org.apache.james.events.InVMEventBus;
+import org.apache.james.events.MemoryEventDeadLetters;
+import org.apache.james.events.delivery.InVmEventDelivery;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MailboxSessionUtil;
+import org.apache.james.mailbox.events.MailboxHierarchyRegistrationKey;
+import org.apache.james.mailbox.events.MailboxIdRegistrationKey;
+import org.apache.james.mailbox.model.Mailbox;
+import org.apache.james.mailbox.model.MailboxConstants;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.TestId;
+import org.apache.james.mailbox.model.UidValidity;
+import org.apache.james.mailbox.model.search.MailboxQuery;
+import org.apache.james.mailbox.model.search.PrefixedWildcard;
+import org.apache.james.mailbox.store.event.EventFactory;
+import org.apache.james.mailbox.store.mail.MailboxMapper;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Flux;
+
+class MailboxHierarchyCacheTest {
+    static final Username BOB = Username.of("bob");
+    static final Username ALICE = Username.of("alice");
+    static final MailboxSession BOB_SESSION = MailboxSessionUtil.create(BOB);
+    static final Mailbox INBOX = new Mailbox(MailboxPath.inbox(BOB), UidValidity.of(42), TestId.of(1));
+    static final Mailbox INBOX_CHILD = new Mailbox(MailboxPath.forUser(BOB, "INBOX.child"), UidValidity.of(42), TestId.of(2));
+    static final Mailbox SENT = new Mailbox(MailboxPath.forUser(BOB, "Sent"), UidValidity.of(42), TestId.of(3));
+    static final MailboxQuery.UserBound ALL_QUERY = MailboxQuery.builder()
+        .privateNamespace()
+        .user(BOB)
+        .matchesAllMailboxNames()
+        .build()
+        .asUserBound();
+    static final MailboxQuery.UserBound INBOX_CHILDREN_QUERY = MailboxQuery.builder()
+        .privateNamespace()
+        .user(BOB)
+        .expression(new PrefixedWildcard("INBOX."))
+        .build()
+        .asUserBound();
+    static final MailboxHierarchyCache.Configuration ENABLED = MailboxHierarchyCache.Configuration.builder()
+        .enabled(true)
+        .build();
+
+    InVMEventBus eventBus;
+    MailboxMapper mailboxMapper;
+
+    @BeforeEach
+    void setUp() {
+        eventBus = new InVMEventBus(new InVmEventDelivery(new RecordingMetricFactory()), StoreMailboxManagerTest.RETRY_BACKOFF_CONFIGURATION, new MemoryEventDeadLetters());
+        mailboxMapper = mock(MailboxMapper.class);
+        when(mailboxMapper.findMailboxWithPathLike(any()))
+            .thenAnswer(invocation -> Flux.just(INBOX, INBOX_CHILD, SENT)
+                .map(Mailbox::new)
+                .filter(((MailboxQuery.UserBound) invocation.getArgument(0))::matches));
+    }
+
+    @Test
+    void disabledCacheShouldQueryTheMapperEveryTime() {
+        MailboxHierarchyCache testee = new MailboxHierarchyCache(eventBus, MailboxHierarchyCache.Configuration.DISABLED);
+
+        testee.findMailboxWithPathLike(ALL_QUERY, mailboxMapper).collectList().block();
+        testee.findMailboxWithPathLike(ALL_QUERY, mailboxMapper).collectList().block();
+
+        verify(mailboxMapper, times(2)).findMailboxWithPathLike(ALL_QUERY);
+    }
+
+    @Test
+    void enabledCacheShouldQueryTheMapperOnce() {
+        MailboxHierarchyCache testee = new MailboxHierarchyCache(eventBus, ENABLED);
+
+        testee.findMailboxWithPathLike(ALL_QUERY, mailboxMapper).collectList().block();
+        testee.findMailboxWithPathLike(INBOX_CHILDREN_QUERY, mailboxMapper).collectList().block();
+
+        verify(mailboxMapper, times(1)).findMailboxWithPathLike(any());
+    }
+
+    @Test
+    void enabledCacheShouldFilterMailboxesAccordingToTheQuery() {
+        MailboxHierarchyCache testee = new MailboxHierarchyCache(eventBus, ENABLED);
+
+        testee.findMailboxWithPathLike(ALL_QUERY, mailboxMapper).collectList().block();
+
+        assertThat(testee.findMailboxWithPathLike(INBOX_CHILDREN_QUERY, mailboxMapper).collectList().block())
+            .extracting(Mailbox::getMailboxId)
+            .containsOnly(INBOX_CHILD.getMailboxId());
+    }
+
+    @Test
+    void enabledCacheShouldReturnCopies() {
+        MailboxHierarchyCache testee = new MailboxHierarchyCache(eventBus, ENABLED);
+
+        testee.findMailboxWithPathLike(ALL_QUERY, mailboxMapper)
+            .doOnNext(mailbox -> mailbox.setName("modified"))
+            .blockLast();
+
+        assertThat(testee.findMailboxWithPathLike(ALL_QUERY, mailboxMapper).collectList().block())
+            .extracting(Mailbox::getName)
+            .containsOnly("INBOX", "INBOX.child", "Sent");
+    }
+
+    @Test
+    void hierarchyChangesShouldInvalidateTheCache() {
+        MailboxHierarchyCache testee = new MailboxHierarchyCache(eventBus, ENABLED);
+        testee.findMailboxWithPathLike(ALL_QUERY, mailboxMapper).collectList().block();
+
+        eventBus.dispatch(EventFactory.mailboxAdded()
+                .randomEventId()
+                .mailboxSession(BOB_SESSION)
+                .mailbox(SENT)
+                .build(),
+            MailboxHierarchyCache.hierarchyChangeKeys(SENT.getMailboxId(), SENT.generateAssociatedPath()))
+            .block();
+        testee.findMailboxWithPathLike(ALL_QUERY, mailboxMapper).collectList().block();
+
+        verify(mailboxMapper, times(2)).findMailboxWithPathLike(any());
+    }
+
+    @Test
+    void hierarchyChangesOfOtherUsersShouldNotInvalidateTheCache() {
+        MailboxHierarchyCache testee = new MailboxHierarchyCache(eventBus, ENABLED);
+        testee.findMailboxWithPathLike(ALL_QUERY, mailboxMapper).collectList().block();
+
+        Mailbox aliceInbox = new Mailbox(MailboxPath.inbox(ALICE), UidValidity.of(42), TestId.of(4));
+        eventBus.dispatch(EventFactory.mailboxAdded()
+                .randomEventId()
+                .mailboxSession(MailboxSessionUtil.create(ALICE))
+                .mailbox(aliceInbox)
+                .build(),
+            MailboxHierarchyCache.hierarchyChangeKeys(aliceInbox.getMailboxId(), aliceInbox.generateAssociatedPath()))
+            .block();
+        testee.findMailboxWithPathLike(ALL_QUERY, mailboxMapper).collectList().block();
+
+        verify(mailboxMapper, times(1)).findMailboxWithPathLike(any());
+    }
+
+    @Test
+    void hierarchyChangeKeysShouldContainTheOwnersOfAllPaths() {
+        assertThat(MailboxHierarchyCache.hierarchyChangeKeys(SENT.getMailboxId(), MailboxPath.forUser(BOB, "Sent"), MailboxPath.forUser(ALICE, "Sent")))
+            .containsOnly(new MailboxIdRegistrationKey(SENT.getMailboxId()),
+                new MailboxHierarchyRegistrationKey(BOB),
+                new MailboxHierarchyRegistrationKey(ALICE));
+    }
+
+    @Test
+    void hierarchyChangeKeysShouldIgnorePathsWithoutOwner() {
+        assertThat(MailboxHierarchyCache.hierarchyChangeKeys(SENT.getMailboxId(), new MailboxPath(MailboxConstants.USER_NAMESPACE, null, "shared")))
+            .containsOnly(new MailboxIdRegistrationKey(SENT.getMailboxId()));
+    }
+
+    @Test
+    void cacheShouldBeBoundedByTheMaximumOwnerCount() {
+        MailboxHierarchyCache testee = new MailboxHierarchyCache(eventBus, MailboxHierarchyCache.Configuration.builder()
+            .enabled(true)
+            .maximumOwnerCount(1)
+            .build());
+
+        testee.findMailboxWithPathLike(ALL_QUERY, mailboxMapper).collectList().block();
+        testee.findMailboxWithPathLike(MailboxQuery.builder()
+                .privateNamespace()
+                .user(ALICE)
+                .matchesAllMailboxNames()
+                .build()
+                .asUserBound(), mailboxMapper)
+            .collectList()
+            .block();
+
+        assertThat(testee.cachedOwnerCount()).isEqualTo(1);
+    }
+
+    @Test
+    void expireAfterAccessShouldBeStrictlyPositive() {
+        assertThatThrownBy(() -> MailboxHierarchyCache.Configuration.builder().expireAfterAccess(Duration.ZERO))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -131,6 +131,24 @@ public abstract class AttachmentMapperTest {
             .hasSameContentAs(new ByteArrayInputStream(bytes));
     }
 
+    @Test
+    void loadAttachmentContentReactiveShouldReturnTheRequestedRange() throws Exception {
+        ContentType content = ContentType.of("content");
+        byte[] bytes = "payload".getBytes(StandardCharsets.UTF_8);
+
+        MessageId messageId1 = generateMessageId();
+        AttachmentMetadata stored = attachmentMapper.storeAttachments(ImmutableList.of(ParsedAttachment.builder()
+            .contentType(content)
+            .content(ByteSource.wrap(bytes))
+            .noName()
+            .noCid()
+            .inline(false)), messageId1).get(0)
+            .getAttachment();
+
+        assertThat(attachmentMapper.loadAttachmentContentReactive(stored.getAttachmentId(), 2, 3).block())
+            .hasSameContentAs(new ByteArrayInputStream("ylo".getBytes(StandardCharsets.UTF_8)));
+    }
+
     @Test
     void getAttachmentsShouldThrowWhenNullAttachmentId() {
         assertThatThrownBy(() -> attachmentMapper.getAttachments(null))
@@ -0,0 +1,169 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.store.mail.model.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.james.mailbox.model.ByteContent;
+import org.apache.james.mailbox.model.Content;
+import org.apache.james.mime4j.dom.BinaryBody;
+import org.apache.james.mime4j.dom.Message;
+import org.apache.james.mime4j.dom.Multipart;
+import org.apache.james.mime4j.dom.TextBody;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.base.Strings;
+
+class LazyParsedMessageTest {
+    private static final String MESSAGE = "Subject: test\r\n" +
+        "Content-Type: text/plain; charset=UTF-8\r\n" +
+        "\r\n" +
+        "Body of the message\r\n";
+
+    static class CountingContent implements Content {
+        private final ByteContent content;
+        private final AtomicInteger reads;
+
+        CountingContent(String value) {
+            this.content = new ByteContent(value.getBytes(StandardCharsets.UTF_8));
+            this.reads = new AtomicInteger();
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            reads.incrementAndGet();
+            return content.getInputStream();
+        }
+
+        @Override
+        public long size() {
+            return content.size();
+        }
+    }
+
+    CountingContent content;
+
+    @BeforeEach
+    void setUp() {
+        content = new CountingContent(MESSAGE);
+    }
+
+    @Test
+    void getMessageShouldNotParseUntilCalled() {
+        LazyParsedMessage.of(content);
+
+        assertThat(content.reads).hasValue(0);
+    }
+
+    @Test
+    void getMessageShouldReturnTheParsedMessage() throws Exception {
+        Message message = LazyParsedMessage.of(content).getMessage().get();
+
+        assertThat(message.getSubject()).isEqualTo("test");
+        assertThat(((TextBody) message.getBody()).getReader().read()).isEqualTo('B');
+    }
+
+    @Test
+    void getMessageShouldParseOnlyOnce() {
+        LazyParsedMessage parsedMessage = LazyParsedMessage.of(content);
+
+        parsedMessage.getMessage();
+        parsedMessage.getMessage();
+
+        assertThat(content.reads).hasValue(1);
+    }
+
+    @Test
+    void getMessageShouldReturnTheProvidedMessageWithoutParsing() throws Exception {
+        Message message = Message.Builder.of()
+            .setSubject("provided")
+            .setBody("body", StandardCharsets.UTF_8)
+            .build();
+
+        LazyParsedMessage parsedMessage = LazyParsedMessage.of(content, Optional.of(message));
+
+        assertThat(parsedMessage.getMessage()).containsSame(message);
+        assertThat(content.reads).hasValue(0);
+    }
+
+    @Test
+    void getMessageShouldReturnEmptyWhenDisposedBeforeParsing() {
+        LazyParsedMessage parsedMessage = LazyParsedMessage.of(content);
+
+        parsedMessage.dispose();
+
+        assertThat(parsedMessage.getMessage()).isEmpty();
+        assertThat(content.reads).hasValue(0);
+    }
+
+    @Test
+    void getMessageShouldStillReturnSmallMessagesOnceDisposed() {
+        LazyParsedMessage parsedMessage = LazyParsedMessage.of(content);
+        parsedMessage.getMessage();
+
+        parsedMessage.dispose();
+
+        assertThat(parsedMessage.getMessage()).isPresent();
+    }
+
+    @Test
+    void binaryAttachmentsOfSmallMessagesShouldRemainReadableOnceDisposed() throws Exception {
+        CountingContent contentWithAttachment = new CountingContent("Subject: test\r\n" +
+            "Content-Type: multipart/mixed; boundary=\"boundary\"\r\n" +
+            "\r\n" +
+            "--boundary\r\n" +
+            "Content-Type: text/plain; charset=UTF-8\r\n" +
+            "\r\n" +
+            "Body of the message\r\n" +
+            "--boundary\r\n" +
+            "Content-Type: application/octet-stream\r\n" +
+            "Content-Transfer-Encoding: base64\r\n" +
+            "Content-Disposition: attachment; filename=\"data.bin\"\r\n" +
+            "\r\n" +
+            "AAECAwQ=\r\n" +
+            "--boundary--\r\n");
+        LazyParsedMessage parsedMessage = LazyParsedMessage.of(contentWithAttachment);
+        parsedMessage.getMessage();
+
+        parsedMessage.dispose();
+
+        Multipart multipart = (Multipart) parsedMessage.getMessage().get().getBody();
+        BinaryBody attachment = (BinaryBody) multipart.getBodyParts().get(1).getBody();
+        assertThat(attachment.getInputStream()).hasBinaryContent(new byte[] {0, 1, 2, 3, 4});
+    }
+
+    @Test
+    void getMessageShouldReturnEmptyForLargeMessagesOnceDisposed() {
+        CountingContent largeContent = new CountingContent(MESSAGE + Strings.repeat("0123456789\r\n", FileBufferedBodyFactory.FILE_THRESHOLD / 10));
+        LazyParsedMessage parsedMessage = LazyParsedMessage.of(largeContent);
+        parsedMessage.getMessage();
+
+        parsedMessage.dispose();
+
+        assertThat(parsedMessage.getMessage()).isEmpty();
+    }
+}
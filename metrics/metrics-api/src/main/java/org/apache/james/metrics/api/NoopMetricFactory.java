@@ -0,0 +1,106 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.metrics.api;
+
+import java.time.Duration;
+
+import org.reactivestreams.Publisher;
+
+public class NoopMetricFactory implements MetricFactory {
+    private static class NoopMetric implements Metric {
+        @Override
+        public void increment() {
+
+        }
+
+        @Override
+        public void decrement() {
+
+        }
+
+        @Override
+        public void add(int value) {
+
+        }
+
+        @Override
+        public void remove(int value) {
+
+        }
+
+        @Override
+        public long getCount() {
+            return 0;
+        }
+    }
+
+    private static class NoopTimeMetric implements TimeMetric {
+        private final String name;
+
+        NoopTimeMetric(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public ExecutionResult stopAndPublish() {
+            return new ExecutionResult() {
+                @Override
+                public Duration elasped() {
+                    return Duration.ZERO;
+                }
+
+                @Override
+                public ExecutionResult logWhenExceedP99(Duration thresholdInNanoSeconds) {
+                    return this;
+                }
+            };
+        }
+
+        @Override
+        public void record(Duration duration) {
+
+        }
+    }
+
+    @Override
+    public Metric generate(String name) {
+        return new NoopMetric();
+    }
+
+    @Override
+    public TimeMetric timer(String name) {
+        return new NoopTimeMetric(name);
+    }
+
+    @Override
+    public <T> Publisher<T> decoratePublisherWithTimerMetric(String name, Publisher<T> publisher) {
+        return publisher;
+    }
+
+    @Override
+    public <T> Publisher<T> decoratePublisherWithTimerMetricLogP99(String name, Publisher<T> publisher) {
+        return publisher;
+    }
+}
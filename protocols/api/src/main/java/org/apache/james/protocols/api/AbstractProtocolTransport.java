@@ -48,7 +48,10 @@ public abstract class AbstractProtocolTransport implements ProtocolTransport {
                 }
             }
 
-            if (response instanceof StreamResponse) {
+            if (response instanceof DotStuffedStreamResponse) {
+                writeToClient(toBytes(response), session, false);
+                writeDotStuffedToClient((DotStuffedStreamResponse) response, session, startTLS);
+            } else if (response instanceof StreamResponse) {
                 writeToClient(toBytes(response), session, false);
                 writeToClient(((StreamResponse) response).getStream(), session, startTLS);
             } else {
@@ -105,6 +108,19 @@ public abstract class AbstractProtocolTransport implements ProtocolTransport {
      * @param startTLS true if startTLS should be started after the {@link InputStream} was written to the client
      */
     protected abstract void writeToClient(InputStream in, ProtocolSession session, boolean startTLS);
+
+    /**
+     * Write the given {@link DotStuffedStreamResponse} content to the remote peer. Defaults to writing its already
+     * encoded {@link DotStuffedStreamResponse#getStream()}, transports able to encode the raw content in bulk should
+     * override it.
+     *
+     * @param response the {@link DotStuffedStreamResponse} which content should be written back to the client
+     * @param session  the {@link ProtocolSession} for the write request
+     * @param startTLS true if startTLS should be started after the content was written to the client
+     */
+    protected void writeDotStuffedToClient(DotStuffedStreamResponse response, ProtocolSession session, boolean startTLS) {
+        writeToClient(response.getStream(), session, startTLS);
+    }
     
     /**
      * Close the Transport
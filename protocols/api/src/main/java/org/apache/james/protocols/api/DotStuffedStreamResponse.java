@@ -0,0 +1,39 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.protocols.api;
+
+import java.io.InputStream;
+
+/**
+ * {@link StreamResponse} whose content is sent as a multi-line data block: dot-stuffed, CRLF terminated and followed by
+ * the <code>.CRLF</code> terminator, as POP3 multi-line responses (RFC 1939) or SMTP DATA (RFC 5321).
+ *
+ * {@link #getStream()} returns the encoded block, while {@link #getRawStream()} returns the content as is, for
+ * {@link ProtocolTransport}s able to encode it in bulk.
+ */
+public interface DotStuffedStreamResponse extends StreamResponse {
+
+    /**
+     * Return the content before dot-stuffing. Like {@link #getStream()} it should only be consumed once, and only one
+     * of them should be.
+     */
+    InputStream getRawStream();
+
+}
@@ -252,4 +252,10 @@ public interface ProtocolSession extends CommandDetectionSession {
      * Pop the last command handler 
      */
     void popLineHandler();
+
+    /**
+     * Hand the next <code>length</code> received bytes over to the current line handler as they arrive, regardless of
+     * line delimiters
+     */
+    void readBinaryData(long length);
 }
@@ -237,4 +237,9 @@ public class ProtocolSessionImpl implements ProtocolSession {
         transport.pushLineHandler(overrideCommandHandler, this);
     }
 
+    @Override
+    public void readBinaryData(long length) {
+        transport.readBinaryData(length);
+    }
+
 }
@@ -86,6 +86,12 @@ public interface ProtocolTransport {
      * Push a {@link LineHandler} in.
      */
     void pushLineHandler(LineHandler<? extends ProtocolSession> overrideCommandHandler, ProtocolSession session);
+
+    /**
+     * Hand the next <code>length</code> received bytes over to the current {@link LineHandler} as they arrive,
+     * without splitting them into lines. Line framing resumes once they were all received.
+     */
+    void readBinaryData(long length);
     
     
     /**
@@ -133,6 +133,11 @@ public class AbstractProtocolTransportTest {
             public void pushLineHandler(LineHandler<? extends ProtocolSession> overrideCommandHandler, ProtocolSession session) {
                 throw new UnsupportedOperationException();
             }
+
+            @Override
+            public void readBinaryData(long length) {
+                throw new UnsupportedOperationException();
+            }
         };
         for (Response message : messages) {
             transport.writeResponse(message, null);
@@ -218,6 +218,8 @@ public interface ImapConstants {
     ImapCommand FETCH_COMMAND = ImapCommand.selectedStateCommand("FETCH");
     ImapCommand MOVE_COMMAND = ImapCommand.selectedStateCommand("MOVE");
     ImapCommand SEARCH_COMMAND = ImapCommand.selectedStateCommand("SEARCH");
+    ImapCommand SORT_COMMAND = ImapCommand.selectedStateCommand("SORT");
+    ImapCommand THREAD_COMMAND = ImapCommand.selectedStateCommand("THREAD");
     ImapCommand STORE_COMMAND = ImapCommand.selectedStateCommand("STORE");
     ImapCommand UID_COMMAND = ImapCommand.selectedStateCommand("UID");
     ImapCommand REPLACE_COMMAND = ImapCommand.selectedStateCommand("REPLACE");
@@ -992,9 +992,22 @@ public class SearchCommandParser extends AbstractUidCommandParser {
     }
 
     public SearchKey decode(ImapSession session, ImapRequestLineReader request) throws DecodingException, IllegalCharsetNameException, UnsupportedCharsetException {
+        return decode(session, request, new Context(), true);
+    }
+
+    /**
+     * Decodes the search keys of commands specifying their charset as a mandatory argument, such as
+     * <code>SORT</code> and <code>THREAD</code>. The <code>CHARSET</code> search key is thus not allowed.
+     */
+    public SearchKey decode(ImapSession session, ImapRequestLineReader request, Charset charset) throws DecodingException {
+        Context context = new Context();
+        context.setCharset(charset);
+        return decode(session, request, context, false);
+    }
+
+    private SearchKey decode(ImapSession session, ImapRequestLineReader request, Context context, boolean allowCharset) throws DecodingException, IllegalCharsetNameException, UnsupportedCharsetException {
         request.nextWordChar();
-        final Context context = new Context();
-        final SearchKey firstKey = searchKey(session, request, context, true);
+        final SearchKey firstKey = searchKey(session, request, context, allowCharset);
         final SearchKey result;
         if (request.nextChar() == ' ') {
             List<SearchKey> keys = new ArrayList<>();
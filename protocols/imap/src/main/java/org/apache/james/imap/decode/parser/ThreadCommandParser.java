@@ -0,0 +1,81 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.decode.parser;
+
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.Optional;
+
+import jakarta.inject.Inject;
+
+import org.apache.james.imap.api.ImapConstants;
+import org.apache.james.imap.api.ImapMessage;
+import org.apache.james.imap.api.Tag;
+import org.apache.james.imap.api.display.HumanReadableText;
+import org.apache.james.imap.api.message.request.SearchKey;
+import org.apache.james.imap.api.message.request.SearchOperation;
+import org.apache.james.imap.api.message.response.StatusResponse;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.api.process.ImapSession;
+import org.apache.james.imap.decode.DecodingException;
+import org.apache.james.imap.decode.ImapRequestLineReader;
+import org.apache.james.imap.message.request.ThreadRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Parse THREAD commands, as defined in RFC-5256.
+ */
+public class ThreadCommandParser extends AbstractUidCommandParser {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ThreadCommandParser.class);
+
+    private final SearchCommandParser searchCommandParser;
+
+    @Inject
+    public ThreadCommandParser(StatusResponseFactory statusResponseFactory) {
+        super(ImapConstants.THREAD_COMMAND, statusResponseFactory);
+        this.searchCommandParser = new SearchCommandParser(statusResponseFactory);
+    }
+
+    @Override
+    protected ImapMessage decode(ImapRequestLineReader request, Tag tag, boolean useUids, ImapSession session) throws DecodingException {
+        try {
+            ThreadRequest.Algorithm algorithm = algorithm(request.atom());
+            Charset charset = Charset.forName(request.astring());
+            SearchKey searchKey = searchCommandParser.decode(session, request, charset);
+
+            return new ThreadRequest(new SearchOperation(searchKey, new ArrayList<>(), Optional.empty()), algorithm, useUids, tag);
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+            LOGGER.debug("Unable to decode request", e);
+            return taggedNo(tag, ImapConstants.THREAD_COMMAND, HumanReadableText.BAD_CHARSET, StatusResponse.ResponseCode.badCharset());
+        }
+    }
+
+    private ThreadRequest.Algorithm algorithm(String value) throws DecodingException {
+        try {
+            return ThreadRequest.Algorithm.valueOf(value.toUpperCase(Locale.US));
+        } catch (IllegalArgumentException e) {
+            throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Unknown threading algorithm " + value);
+        }
+    }
+}
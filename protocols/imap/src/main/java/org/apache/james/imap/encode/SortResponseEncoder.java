@@ -0,0 +1,58 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.encode;
+
+import java.io.IOException;
+
+import org.apache.james.imap.api.ImapConstants;
+import org.apache.james.imap.message.response.SortResponse;
+import org.apache.james.mailbox.ModSeq;
+
+import it.unimi.dsi.fastutil.longs.LongList;
+
+/**
+ * Encodes RFC-5256 <code>SORT</code> responses.
+ */
+public class SortResponseEncoder implements ImapResponseEncoder<SortResponse> {
+    @Override
+    public Class<SortResponse> acceptableMessages() {
+        return SortResponse.class;
+    }
+
+    @Override
+    public void encode(SortResponse response, ImapResponseComposer composer) throws IOException {
+        LongList ids = response.getIds();
+        ModSeq highestModSeq = response.getHighestModSeq();
+        composer.untagged();
+        composer.commandName(ImapConstants.SORT_COMMAND);
+        for (int i = 0; i < ids.size(); i++) {
+            composer.message(ids.getLong(i));
+        }
+
+        // add MODSEQ
+        if (highestModSeq != null) {
+            composer.openParen();
+            composer.message("MODSEQ");
+            composer.message(highestModSeq.asLong());
+            composer.closeParen();
+        }
+        composer.end();
+    }
+}
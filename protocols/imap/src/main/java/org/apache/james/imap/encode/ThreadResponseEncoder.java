@@ -0,0 +1,67 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.encode;
+
+import java.io.IOException;
+
+import org.apache.james.imap.api.ImapConstants;
+import org.apache.james.imap.message.response.ThreadResponse;
+
+import it.unimi.dsi.fastutil.longs.LongList;
+
+/**
+ * Encodes RFC-5256 <code>THREAD</code> responses.
+ *
+ * A thread is encoded as its root followed by its children: a single child is written as the continuation of the
+ * root (<code>(1 2)</code>) whereas several children are written as nested threads (<code>(1 (2)(3))</code>).
+ */
+public class ThreadResponseEncoder implements ImapResponseEncoder<ThreadResponse> {
+    @Override
+    public Class<ThreadResponse> acceptableMessages() {
+        return ThreadResponse.class;
+    }
+
+    @Override
+    public void encode(ThreadResponse response, ImapResponseComposer composer) throws IOException {
+        composer.untagged();
+        composer.commandName(ImapConstants.THREAD_COMMAND);
+        if (!response.getThreads().isEmpty()) {
+            StringBuilder threads = new StringBuilder();
+            for (LongList thread : response.getThreads()) {
+                appendThread(threads, thread);
+            }
+            composer.message(threads.toString());
+        }
+        composer.end();
+    }
+
+    private void appendThread(StringBuilder builder, LongList thread) {
+        builder.append('(').append(thread.getLong(0));
+        if (thread.size() == 2) {
+            builder.append(' ').append(thread.getLong(1));
+        } else if (thread.size() > 2) {
+            builder.append(' ');
+            for (int i = 1; i < thread.size(); i++) {
+                builder.append('(').append(thread.getLong(i)).append(')');
+            }
+        }
+        builder.append(')');
+    }
+}
@@ -18,6 +18,7 @@
  ****************************************************************/
 package org.apache.james.imap.message.request;
 
+import org.apache.james.imap.api.ImapCommand;
 import org.apache.james.imap.api.ImapConstants;
 import org.apache.james.imap.api.Tag;
 import org.apache.james.imap.api.message.request.SearchOperation;
@@ -29,7 +30,11 @@ public class SearchRequest extends AbstractImapRequest {
     private final boolean useUids;
 
     public SearchRequest(SearchOperation operation, boolean useUids, Tag tag) {
-        super(tag, ImapConstants.SEARCH_COMMAND);
+        this(operation, useUids, tag, ImapConstants.SEARCH_COMMAND);
+    }
+
+    protected SearchRequest(SearchOperation operation, boolean useUids, Tag tag, ImapCommand command) {
+        super(tag, command);
         this.operation = operation;
         this.useUids = useUids;
     }
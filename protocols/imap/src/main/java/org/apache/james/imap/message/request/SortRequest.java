@@ -0,0 +1,55 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.message.request;
+
+import java.util.List;
+
+import org.apache.james.imap.api.ImapConstants;
+import org.apache.james.imap.api.Tag;
+import org.apache.james.imap.api.message.request.SearchOperation;
+import org.apache.james.mailbox.model.SearchQuery;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * RFC-5256 <code>SORT</code> request.
+ */
+public class SortRequest extends SearchRequest {
+    private final List<SearchQuery.Sort> sorts;
+
+    public SortRequest(SearchOperation operation, List<SearchQuery.Sort> sorts, boolean useUids, Tag tag) {
+        super(operation, useUids, tag, ImapConstants.SORT_COMMAND);
+        this.sorts = ImmutableList.copyOf(sorts);
+    }
+
+    public List<SearchQuery.Sort> getSorts() {
+        return sorts;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("operation", getSearchOperation())
+            .add("sorts", sorts)
+            .add("useUids", isUseUids())
+            .toString();
+    }
+}
@@ -0,0 +1,62 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.message.request;
+
+import org.apache.james.imap.api.ImapConstants;
+import org.apache.james.imap.api.Tag;
+import org.apache.james.imap.api.message.request.SearchOperation;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * RFC-5256 <code>THREAD</code> request.
+ */
+public class ThreadRequest extends SearchRequest {
+    public enum Algorithm {
+        /**
+         * Groups messages sharing the same base subject.
+         */
+        ORDEREDSUBJECT,
+        /**
+         * Groups messages of a same conversation, as tracked by the mailbox {@link org.apache.james.mailbox.model.ThreadId}.
+         */
+        REFERENCES
+    }
+
+    private final Algorithm algorithm;
+
+    public ThreadRequest(SearchOperation operation, Algorithm algorithm, boolean useUids, Tag tag) {
+        super(operation, useUids, tag, ImapConstants.THREAD_COMMAND);
+        this.algorithm = algorithm;
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("operation", getSearchOperation())
+            .add("algorithm", algorithm)
+            .add("useUids", isUseUids())
+            .toString();
+    }
+}
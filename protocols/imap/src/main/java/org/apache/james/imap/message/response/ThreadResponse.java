@@ -0,0 +1,70 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.message.response;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.apache.james.imap.api.message.response.ImapResponseMessage;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+
+import it.unimi.dsi.fastutil.longs.LongList;
+
+public class ThreadResponse implements ImapResponseMessage {
+    private final List<LongList> threads;
+
+    /**
+     * Constructs a <code>THREAD</code> response.
+     *
+     * @param threads the ids of each thread, not null. The first id of a thread is its root, the following ones
+     *                are its children.
+     */
+    public ThreadResponse(List<LongList> threads) {
+        this.threads = ImmutableList.copyOf(threads);
+    }
+
+    public final List<LongList> getThreads() {
+        return threads;
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof ThreadResponse) {
+            ThreadResponse that = (ThreadResponse) o;
+
+            return Objects.equals(this.threads, that.threads);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(threads);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("threads", threads)
+            .toString();
+    }
+}
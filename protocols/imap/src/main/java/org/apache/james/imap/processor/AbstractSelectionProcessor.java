@@ -52,6 +52,7 @@ import org.apache.james.imap.message.request.AbstractMailboxSelectionRequest.Cli
 import org.apache.james.imap.message.response.ExistsResponse;
 import org.apache.james.imap.message.response.RecentResponse;
 import org.apache.james.imap.processor.base.SelectedMailboxImpl;
+import org.apache.james.imap.processor.base.UidMsnSnapshots;
 import org.apache.james.mailbox.MailboxManager;
 import org.apache.james.mailbox.MailboxSession;
 import org.apache.james.mailbox.MessageManager;
@@ -84,14 +85,21 @@ abstract class AbstractSelectionProcessor<R extends AbstractMailboxSelectionRequ
     private final StatusResponseFactory statusResponseFactory;
     private final boolean openReadOnly;
     private final EventBus eventBus;
+    private final UidMsnSnapshots uidMsnSnapshots;
 
     public AbstractSelectionProcessor(Class<R> acceptableClass, MailboxManager mailboxManager, StatusResponseFactory statusResponseFactory, boolean openReadOnly,
                                       MetricFactory metricFactory, EventBus eventBus) {
+        this(acceptableClass, mailboxManager, statusResponseFactory, openReadOnly, metricFactory, eventBus, new UidMsnSnapshots(eventBus));
+    }
+
+    public AbstractSelectionProcessor(Class<R> acceptableClass, MailboxManager mailboxManager, StatusResponseFactory statusResponseFactory, boolean openReadOnly,
+                                      MetricFactory metricFactory, EventBus eventBus, UidMsnSnapshots uidMsnSnapshots) {
         super(acceptableClass, mailboxManager, statusResponseFactory, metricFactory);
         this.statusResponseFactory = statusResponseFactory;
         this.openReadOnly = openReadOnly;
 
         this.eventBus = eventBus;
+        this.uidMsnSnapshots = uidMsnSnapshots;
     }
 
     @Override
@@ -420,7 +428,7 @@ abstract class AbstractSelectionProcessor<R extends AbstractMailboxSelectionRequ
                 responder.respond(getStatusResponseFactory()
                     .untaggedOk(HumanReadableText.QRESYNC_CLOSED, ResponseCode.closed()));
             }
-            SelectedMailboxImpl selectedMailbox = new SelectedMailboxImpl(getMailboxManager(), eventBus, session.getMailboxSession(), mailbox);
+            SelectedMailboxImpl selectedMailbox = new SelectedMailboxImpl(getMailboxManager(), eventBus, uidMsnSnapshots, session.getMailboxSession(), mailbox);
 
             return session.selected(selectedMailbox)
                 .then(selectedMailbox.finishInit())
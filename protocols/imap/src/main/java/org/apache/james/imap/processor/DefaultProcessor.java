@@ -32,6 +32,7 @@ import org.apache.james.imap.api.process.ImapSession;
 import org.apache.james.imap.api.process.MailboxTyper;
 import org.apache.james.imap.processor.base.AbstractProcessor;
 import org.apache.james.imap.processor.base.ImapResponseMessageProcessor;
+import org.apache.james.imap.processor.base.UidMsnSnapshots;
 import org.apache.james.imap.processor.fetch.FetchProcessor;
 import org.apache.james.mailbox.MailboxManager;
 import org.apache.james.mailbox.SubscriptionManager;
@@ -57,6 +58,7 @@ public class DefaultProcessor implements ImapProcessor {
                                                        MetricFactory metricFactory) {
 
         ImmutableList.Builder<AbstractProcessor> builder = ImmutableList.builder();
+        UidMsnSnapshots uidMsnSnapshots = new UidMsnSnapshots(eventBus);
         CapabilityProcessor capabilityProcessor = new CapabilityProcessor(mailboxManager, statusResponseFactory, metricFactory);
         builder.add(new SystemMessageProcessor(mailboxManager));
         builder.add(new LogoutProcessor(mailboxManager, statusResponseFactory, metricFactory));
@@ -74,7 +76,7 @@ public class DefaultProcessor implements ImapProcessor {
         builder.add(new AuthenticateProcessor(mailboxManager, statusResponseFactory, metricFactory));
         builder.add(new ExpungeProcessor(mailboxManager, statusResponseFactory, metricFactory));
         builder.add(new ReplaceProcessor(mailboxManager, statusResponseFactory, metricFactory));
-        builder.add(new ExamineProcessor(mailboxManager, eventBus, statusResponseFactory, metricFactory));
+        builder.add(new ExamineProcessor(mailboxManager, eventBus, uidMsnSnapshots, statusResponseFactory, metricFactory));
         builder.add(new AppendProcessor(mailboxManager, statusResponseFactory, metricFactory));
         builder.add(new StoreProcessor(mailboxManager, statusResponseFactory, metricFactory));
         builder.add(new NoopProcessor(mailboxManager, statusResponseFactory, metricFactory));
@@ -85,7 +87,9 @@ public class DefaultProcessor implements ImapProcessor {
         builder.add(new XListProcessor(mailboxManager, statusResponseFactory, mailboxTyper, metricFactory, subscriptionManager));
         builder.add(new ListProcessor<>(mailboxManager, statusResponseFactory, metricFactory, subscriptionManager, statusProcessor, mailboxTyper));
         builder.add(new SearchProcessor(mailboxManager, statusResponseFactory, metricFactory));
-        builder.add(new SelectProcessor(mailboxManager, eventBus, statusResponseFactory, metricFactory));
+        builder.add(new SortProcessor(mailboxManager, statusResponseFactory, metricFactory));
+        builder.add(new ThreadProcessor(mailboxManager, statusResponseFactory, metricFactory));
+        builder.add(new SelectProcessor(mailboxManager, eventBus, uidMsnSnapshots, statusResponseFactory, metricFactory));
         builder.add(new NamespaceProcessor(mailboxManager, statusResponseFactory, metricFactory));
         builder.add(new FetchProcessor(mailboxManager, statusResponseFactory, metricFactory));
         builder.add(new StartTLSProcessor(statusResponseFactory));
@@ -29,18 +29,24 @@ import org.apache.james.imap.api.message.IdRange;
 import org.apache.james.imap.api.message.UidRange;
 import org.apache.james.imap.api.message.response.StatusResponseFactory;
 import org.apache.james.imap.message.request.ExamineRequest;
+import org.apache.james.imap.processor.base.UidMsnSnapshots;
 import org.apache.james.mailbox.MailboxManager;
 import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.util.MDCBuilder;
 
 public class ExamineProcessor extends AbstractSelectionProcessor<ExamineRequest> {
 
-    @Inject
     public ExamineProcessor(MailboxManager mailboxManager, EventBus eventBus, StatusResponseFactory statusResponseFactory,
                             MetricFactory metricFactory) {
         super(ExamineRequest.class, mailboxManager, statusResponseFactory, true, metricFactory, eventBus);
     }
 
+    @Inject
+    public ExamineProcessor(MailboxManager mailboxManager, EventBus eventBus, UidMsnSnapshots uidMsnSnapshots, StatusResponseFactory statusResponseFactory,
+                            MetricFactory metricFactory) {
+        super(ExamineRequest.class, mailboxManager, statusResponseFactory, true, metricFactory, eventBus, uidMsnSnapshots);
+    }
+
     @Override
     protected MDCBuilder mdc(ExamineRequest request) {
         return MDCBuilder.create()
@@ -102,16 +102,14 @@ public class SearchProcessor extends AbstractMailboxProcessor<SearchRequest> imp
 
         try {
             MailboxSession msession = session.getMailboxSession();
-            SearchQuery query = toQuery(searchKey, session);
+            SearchQuery query = toQuery(searchKey, sorts(request), session);
             boolean useUids = request.isUseUids();
             boolean omitExpunged = (!useUids);
             return getSelectedMailboxReactive(session)
                 .flatMap(Throwing.function(mailbox -> performUidSearch(mailbox, query, msession)
                     .flatMap(uids -> computeHighestModSeqIfNeeded(session, responder, mailbox, msession, uids)
-                        .doOnNext(highestModSeq -> {
-                            ImapResponseMessage response = toResponse(request, session, uids, highestModSeq);
-                            responder.respond(response);
-                        }))
+                        .flatMap(highestModSeq -> toResponse(request, session, mailbox, msession, uids, highestModSeq))
+                        .doOnNext(responder::respond))
                     .then(unsolicitedResponses(session, responder, omitExpunged, useUids))))
                 .then(Mono.fromRunnable(() -> {
                     okComplete(request, responder);
@@ -156,17 +154,35 @@ public class SearchProcessor extends AbstractMailboxProcessor<SearchRequest> imp
         }
     }
 
-    private ImapResponseMessage toResponse(SearchRequest request, ImapSession session, Collection<MessageUid> uids, Optional<ModSeq> highestModSeq) {
+    /**
+     * The sorts applied to the search results.
+     */
+    protected List<SearchQuery.Sort> sorts(SearchRequest request) {
+        return ImmutableList.of(DEFAULT_IMAP_SORT);
+    }
+
+    /**
+     * Builds the response of a search whose matching uids are ordered according to {@link #sorts(SearchRequest)}.
+     */
+    protected Mono<ImapResponseMessage> toResponse(SearchRequest request, ImapSession session, MessageManager mailbox, MailboxSession mailboxSession,
+                                                   Collection<MessageUid> uids, Optional<ModSeq> highestModSeq) {
         LongList ids = asResults(session, request.isUseUids(), uids);
 
         List<SearchResultOption> resultOptions = request.getSearchOperation().getResultOptions();
         if (resultOptions == null || resultOptions.isEmpty()) {
-            return new SearchResponse(ids, highestModSeq.orElse(null));
+            return Mono.just(unextendedResponse(ids, highestModSeq.orElse(null)));
         } else {
-            return handleResultOptions(request, session, highestModSeq.orElse(null), ids);
+            return Mono.just(handleResultOptions(request, session, highestModSeq.orElse(null), ids));
         }
     }
 
+    /**
+     * The response of a search not relying on ESEARCH.
+     */
+    protected ImapResponseMessage unextendedResponse(LongList ids, ModSeq highestModSeq) {
+        return new SearchResponse(ids, highestModSeq);
+    }
+
     private ImapResponseMessage handleResultOptions(SearchRequest request, ImapSession session, ModSeq highestModSeq, LongList ids) {
         List<SearchResultOption> resultOptions = request.getSearchOperation().getResultOptions();
 
@@ -218,7 +234,7 @@ public class SearchProcessor extends AbstractMailboxProcessor<SearchRequest> imp
         } else {
             // Just save the returned sequence-set as this is not SEARCHRES + ESEARCH
             SearchResUtil.saveSequenceSet(session, idRanges);
-            return new SearchResponse(ids, highestModSeq);
+            return unextendedResponse(ids, highestModSeq);
         }
     }
 
@@ -239,8 +255,15 @@ public class SearchProcessor extends AbstractMailboxProcessor<SearchRequest> imp
     /**
      * Optimization of IdRange.mergeRanges(idsAsRanges) for list of long
      */
-    private IdRange[] asRanges(LongList ids) {
+    protected IdRange[] asRanges(LongList ids) {
         ids.sort(LongComparators.NATURAL_COMPARATOR);
+        return consecutiveRanges(ids);
+    }
+
+    /**
+     * Groups the consecutive increasing ids into ranges, without re-ordering them.
+     */
+    protected static IdRange[] consecutiveRanges(LongList ids) {
         List<IdRange> idsAsRanges = new ArrayList<>();
         long lowBound = -1;
         long highBound = -1;
@@ -267,7 +290,7 @@ public class SearchProcessor extends AbstractMailboxProcessor<SearchRequest> imp
         return idsAsRanges.toArray(result);
     }
 
-    private LongList asResults(ImapSession session, boolean useUids, Collection<MessageUid> uids) {
+    protected LongList asResults(ImapSession session, boolean useUids, Collection<MessageUid> uids) {
         LongList result = new LongArrayList(uids.size());
         // Avoid using streams here as the overhead for large search responses is massive.
         if (useUids) {
@@ -308,7 +331,7 @@ public class SearchProcessor extends AbstractMailboxProcessor<SearchRequest> imp
             .switchIfEmpty(Mono.fromCallable(Optional::empty));
     }
 
-    private SearchQuery toQuery(SearchKey key, ImapSession session) throws MessageRangeException {
+    private SearchQuery toQuery(SearchKey key, List<SearchQuery.Sort> sorts, ImapSession session) throws MessageRangeException {
         SearchQuery.Criterion criterion = toCriterion(key, session);
         SearchQuery.Builder builder = SearchQuery.builder();
         SelectedMailbox selected = session.getSelected();
@@ -316,7 +339,7 @@ public class SearchProcessor extends AbstractMailboxProcessor<SearchRequest> imp
             builder.addRecentMessageUids(selected.getRecent());
         }
         return builder.andCriterion(criterion)
-            .sorts(DEFAULT_IMAP_SORT)
+            .sorts(sorts)
             .build();
     }
 
@@ -567,7 +590,7 @@ public class SearchProcessor extends AbstractMailboxProcessor<SearchRequest> imp
     @Override
     protected MDCBuilder mdc(SearchRequest request) {
         return MDCBuilder.create()
-            .addToContext(MDCBuilder.ACTION, "SEARCH")
+            .addToContext(MDCBuilder.ACTION, request.getCommand().getName())
             .addToContext("useUid", Boolean.toString(request.isUseUids()))
             .addToContext("searchOperation", request.getSearchOperation().toString());
     }
@@ -29,18 +29,24 @@ import org.apache.james.imap.api.message.IdRange;
 import org.apache.james.imap.api.message.UidRange;
 import org.apache.james.imap.api.message.response.StatusResponseFactory;
 import org.apache.james.imap.message.request.SelectRequest;
+import org.apache.james.imap.processor.base.UidMsnSnapshots;
 import org.apache.james.mailbox.MailboxManager;
 import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.util.MDCBuilder;
 
 public class SelectProcessor extends AbstractSelectionProcessor<SelectRequest> {
 
-    @Inject
     public SelectProcessor(MailboxManager mailboxManager, EventBus eventBus, StatusResponseFactory statusResponseFactory,
                            MetricFactory metricFactory) {
         super(SelectRequest.class, mailboxManager, statusResponseFactory, false, metricFactory, eventBus);
     }
 
+    @Inject
+    public SelectProcessor(MailboxManager mailboxManager, EventBus eventBus, UidMsnSnapshots uidMsnSnapshots, StatusResponseFactory statusResponseFactory,
+                           MetricFactory metricFactory) {
+        super(SelectRequest.class, mailboxManager, statusResponseFactory, false, metricFactory, eventBus, uidMsnSnapshots);
+    }
+
     @Override
     protected MDCBuilder mdc(SelectRequest message) {
         return MDCBuilder.create()
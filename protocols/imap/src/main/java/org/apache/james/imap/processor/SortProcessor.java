@@ -0,0 +1,88 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.processor;
+
+import java.util.List;
+
+import jakarta.inject.Inject;
+
+import org.apache.james.imap.api.message.Capability;
+import org.apache.james.imap.api.message.IdRange;
+import org.apache.james.imap.api.message.response.ImapResponseMessage;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.api.process.ImapSession;
+import org.apache.james.imap.message.request.SearchRequest;
+import org.apache.james.imap.message.request.SortRequest;
+import org.apache.james.imap.message.response.SortResponse;
+import org.apache.james.mailbox.MailboxManager;
+import org.apache.james.mailbox.ModSeq;
+import org.apache.james.mailbox.model.SearchQuery;
+import org.apache.james.metrics.api.MetricFactory;
+
+import com.google.common.collect.ImmutableList;
+
+import it.unimi.dsi.fastutil.longs.LongList;
+
+/**
+ * Implements RFC-5256 <code>SORT</code>, and the RFC-5267 <code>ESORT</code> extension.
+ *
+ * Ordering is delegated to the mailbox search index through the {@link SearchQuery.Sort} of the underlying search, so that clients no longer need to fetch the envelopes of a whole
+ * mailbox in order to sort it themselves.
+ */
+public class SortProcessor extends SearchProcessor {
+    private static final List<Capability> CAPS = ImmutableList.of(Capability.of("SORT"),
+        Capability.of("ESORT"));
+
+    @Inject
+    public SortProcessor(MailboxManager mailboxManager, StatusResponseFactory factory,
+                         MetricFactory metricFactory) {
+        super(mailboxManager, factory, metricFactory);
+    }
+
+    @Override
+    public List<Class<? extends SearchRequest>> acceptableClasses() {
+        return ImmutableList.of(SortRequest.class);
+    }
+
+    @Override
+    protected List<SearchQuery.Sort> sorts(SearchRequest request) {
+        // Messages that are equivalent according to the requested sort criteria are ordered by sequence number
+        return ImmutableList.<SearchQuery.Sort>builder()
+            .addAll(((SortRequest) request).getSorts())
+            .add(DEFAULT_IMAP_SORT)
+            .build();
+    }
+
+    @Override
+    protected ImapResponseMessage unextendedResponse(LongList ids, ModSeq highestModSeq) {
+        return new SortResponse(ids, highestModSeq);
+    }
+
+    @Override
+    protected IdRange[] asRanges(LongList ids) {
+        // ESORT results are returned in the sort order
+        return consecutiveRanges(ids);
+    }
+
+    @Override
+    public List<Capability> getImplementedCapabilities(ImapSession session) {
+        return CAPS;
+    }
+}
@@ -0,0 +1,205 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.processor;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import jakarta.inject.Inject;
+
+import org.apache.james.imap.api.message.Capability;
+import org.apache.james.imap.api.message.response.ImapResponseMessage;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.api.process.ImapSession;
+import org.apache.james.imap.message.request.SearchRequest;
+import org.apache.james.imap.message.request.ThreadRequest;
+import org.apache.james.imap.message.response.ThreadResponse;
+import org.apache.james.mailbox.MailboxManager;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.ModSeq;
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.model.FetchGroup;
+import org.apache.james.mailbox.model.Header;
+import org.apache.james.mailbox.model.MessageRange;
+import org.apache.james.mailbox.model.MessageResult;
+import org.apache.james.mailbox.model.SearchQuery;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.mime4j.codec.DecodeMonitor;
+import org.apache.james.mime4j.codec.DecoderUtil;
+import org.apache.james.mime4j.util.MimeUtil;
+
+import com.github.fge.lambdas.Throwing;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Implements RFC-5256 <code>THREAD</code>.
+ *
+ * <ul>
+ *     <li><code>REFERENCES</code> groups messages sharing the {@link org.apache.james.mailbox.model.ThreadId} the mailbox
+ *     stored for them, rather than rebuilding the reference graph of the mailbox on each request.</li>
+ *     <li><code>ORDEREDSUBJECT</code> groups messages sharing the same base subject.</li>
+ * </ul>
+ *
+ * Threads are ordered by the sent date of their first message, which is their root. The other messages of a thread
+ * are returned as children of the root, ordered by sent date.
+ */
+public class ThreadProcessor extends SearchProcessor {
+    private static final List<Capability> CAPS = ImmutableList.of(Capability.of("THREAD=ORDEREDSUBJECT"),
+        Capability.of("THREAD=REFERENCES"));
+    private static final List<SearchQuery.Sort> SENT_DATE_SORT = ImmutableList.of(
+        new SearchQuery.Sort(SearchQuery.Sort.SortClause.SentDate),
+        DEFAULT_IMAP_SORT);
+    private static final String SUBJECT = "Subject";
+    private static final Pattern WHITESPACES = Pattern.compile("\\s+");
+    private static final Pattern SUBJ_TRAILER = Pattern.compile("(\\s|\\(fwd\\))+$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern SUBJ_LEADER = Pattern.compile("^\\s*(\\[[^\\[\\]]*\\]\\s*)*(re|fwd?)\\s*(\\[[^\\[\\]]*\\])?\\s*:\\s*", Pattern.CASE_INSENSITIVE);
+    private static final Pattern SUBJ_BLOB = Pattern.compile("^\\s*\\[[^\\[\\]]*\\]\\s*");
+    private static final Pattern SUBJ_FWD_WRAPPER = Pattern.compile("^\\[fwd:(.*)\\]$", Pattern.CASE_INSENSITIVE);
+
+    @Inject
+    public ThreadProcessor(MailboxManager mailboxManager, StatusResponseFactory factory,
+                           MetricFactory metricFactory) {
+        super(mailboxManager, factory, metricFactory);
+    }
+
+    @Override
+    public List<Class<? extends SearchRequest>> acceptableClasses() {
+        return ImmutableList.of(ThreadRequest.class);
+    }
+
+    @Override
+    protected List<SearchQuery.Sort> sorts(SearchRequest request) {
+        return SENT_DATE_SORT;
+    }
+
+    @Override
+    protected Mono<ImapResponseMessage> toResponse(SearchRequest request, ImapSession session, MessageManager mailbox, MailboxSession mailboxSession,
+                                                   Collection<MessageUid> uids, Optional<ModSeq> highestModSeq) {
+        ThreadRequest.Algorithm algorithm = ((ThreadRequest) request).getAlgorithm();
+
+        return Flux.fromIterable(MessageRange.toRanges(uids))
+            .concatMap(range -> mailbox.getMessagesReactive(range, fetchGroup(algorithm), mailboxSession))
+            .collectMap(MessageResult::getUid, Throwing.function(result -> threadKey(algorithm, result)))
+            .map(threadKeys -> new ThreadResponse(threads(session, request.isUseUids(), uids, threadKeys)));
+    }
+
+    private List<LongList> threads(ImapSession session, boolean useUids, Collection<MessageUid> uidsBySentDate, Map<MessageUid, Object> threadKeys) {
+        Map<Object, LongList> threads = new LinkedHashMap<>();
+        for (MessageUid uid : uidsBySentDate) {
+            Object threadKey = threadKeys.get(uid);
+            if (threadKey != null) {
+                id(session, useUids, uid)
+                    .ifPresent(id -> threads.computeIfAbsent(threadKey, any -> new LongArrayList()).add(id.longValue()));
+            }
+        }
+        return ImmutableList.copyOf(threads.values());
+    }
+
+    private Optional<Long> id(ImapSession session, boolean useUids, MessageUid uid) {
+        if (useUids) {
+            return Optional.of(uid.asLong());
+        }
+        return session.getSelected().msn(uid).asInt()
+            .map(Integer::longValue);
+    }
+
+    private FetchGroup fetchGroup(ThreadRequest.Algorithm algorithm) {
+        switch (algorithm) {
+            case ORDEREDSUBJECT:
+                return FetchGroup.HEADERS;
+            case REFERENCES:
+                return FetchGroup.MINIMAL;
+            default:
+                throw new IllegalArgumentException("Unsupported threading algorithm " + algorithm);
+        }
+    }
+
+    private Object threadKey(ThreadRequest.Algorithm algorithm, MessageResult result) throws MailboxException {
+        switch (algorithm) {
+            case ORDEREDSUBJECT:
+                return baseSubject(subject(result));
+            case REFERENCES:
+                return result.getThreadId();
+            default:
+                throw new IllegalArgumentException("Unsupported threading algorithm " + algorithm);
+        }
+    }
+
+    private String subject(MessageResult result) throws MailboxException {
+        Iterator<Header> headers = result.getHeaders().headers();
+        while (headers.hasNext()) {
+            Header header = headers.next();
+            if (SUBJECT.equalsIgnoreCase(header.getName())) {
+                return DecoderUtil.decodeEncodedWords(MimeUtil.unfold(header.getValue()), DecodeMonitor.SILENT);
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Extracts the base subject of a message, as defined in RFC-5256 section 2.1, stripping reply and forward markers
+     * as well as subject blobs. The result is upper-cased so that base subjects compare case-insensitively.
+     */
+    @VisibleForTesting
+    static String baseSubject(String subject) {
+        String result = WHITESPACES.matcher(subject).replaceAll(" ").trim();
+        String previous;
+        do {
+            previous = result;
+            result = SUBJ_TRAILER.matcher(result).replaceFirst("");
+
+            String beforeLeaders;
+            do {
+                beforeLeaders = result;
+                result = SUBJ_LEADER.matcher(result).replaceFirst("");
+                String withoutBlob = SUBJ_BLOB.matcher(result).replaceFirst("");
+                if (!withoutBlob.isEmpty()) {
+                    result = withoutBlob;
+                }
+            } while (!result.equals(beforeLeaders));
+
+            Matcher fwdWrapper = SUBJ_FWD_WRAPPER.matcher(result);
+            if (fwdWrapper.matches()) {
+                result = fwdWrapper.group(1).trim();
+            }
+        } while (!result.equals(previous));
+        return result.toUpperCase(Locale.US);
+    }
+
+    @Override
+    public List<Capability> getImplementedCapabilities(ImapSession session) {
+        return CAPS;
+    }
+}
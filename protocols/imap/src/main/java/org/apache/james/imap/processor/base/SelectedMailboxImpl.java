@@ -59,16 +59,13 @@ import org.apache.james.mailbox.events.MailboxIdRegistrationKey;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.model.MailboxId;
 import org.apache.james.mailbox.model.MailboxPath;
-import org.apache.james.mailbox.model.SearchQuery;
 import org.apache.james.mailbox.model.UpdatedFlags;
 import org.reactivestreams.Publisher;
 
 import com.github.fge.lambdas.Throwing;
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSortedSet;
 
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
@@ -127,6 +124,8 @@ public class SelectedMailboxImpl implements SelectedMailbox, EventListener.React
     private final EventBus eventBus;
     private final MailboxSession mailboxSession;
     private final UidMsnConverter uidMsnConverter;
+    private final Optional<UidMsnSnapshots> uidMsnSnapshots;
+    private final AtomicReference<UidMsnSnapshots.Snapshot> uidMsnSnapshot = new AtomicReference<>();
     private final Set<MessageUid> recentUids = new TreeSet<>();
     private final Set<MessageUid> flagUpdateUids = new TreeSet<>();
     private final Set<MessageUid> expungedUids = new TreeSet<>();
@@ -139,7 +138,16 @@ public class SelectedMailboxImpl implements SelectedMailbox, EventListener.React
     private ApplicableFlags applicableFlags = ApplicableFlags.from(new Flags());
 
     public SelectedMailboxImpl(MailboxManager mailboxManager, EventBus eventBus, MailboxSession session, MessageManager messageManager) {
+        this(mailboxManager, eventBus, Optional.empty(), session, messageManager);
+    }
+
+    public SelectedMailboxImpl(MailboxManager mailboxManager, EventBus eventBus, UidMsnSnapshots uidMsnSnapshots, MailboxSession session, MessageManager messageManager) {
+        this(mailboxManager, eventBus, Optional.of(uidMsnSnapshots), session, messageManager);
+    }
+
+    private SelectedMailboxImpl(MailboxManager mailboxManager, EventBus eventBus, Optional<UidMsnSnapshots> uidMsnSnapshots, MailboxSession session, MessageManager messageManager) {
         this.eventBus = eventBus;
+        this.uidMsnSnapshots = uidMsnSnapshots;
         this.mailboxManager = mailboxManager;
         this.messageManager = messageManager;
         this.mailboxSession = session;
@@ -159,12 +167,26 @@ public class SelectedMailboxImpl implements SelectedMailbox, EventListener.React
                     applicableFlags = applicableFlags.updateWithNewFlags(flags);
                     applicableFlagsLock.unlockWrite(stamp);
                 }))
-            .then(Flux.from(messageManager.search(SearchQuery.of(SearchQuery.all()), mailboxSession))
-                .collect(ImmutableList.toImmutableList())
-                .doOnNext(uidMsnConverter::addAll))
+            .then(loadUids())
             .then();
     }
 
+    private Mono<Void> loadUids() {
+        return uidMsnSnapshots
+            .map(snapshots -> snapshots.acquire(messageManager, mailboxSession, uidMsnConverter)
+                .doOnNext(uidMsnSnapshot::set)
+                .then())
+            .orElseGet(() -> UidMsnSnapshots.listUids(messageManager, mailboxSession)
+                .doOnNext(uidMsnConverter::addAll)
+                .then());
+    }
+
+    private Mono<Void> releaseUids() {
+        return Mono.justOrEmpty(uidMsnSnapshot.getAndSet(null))
+            .flatMap(snapshot -> uidMsnSnapshots.map(snapshots -> snapshots.release(snapshot))
+                .orElse(Mono.empty()));
+    }
+
     @Override
     public void registerIdle(ReactiveEventListener idle) {
         idleEventListener.set(idle);
@@ -196,6 +218,7 @@ public class SelectedMailboxImpl implements SelectedMailbox, EventListener.React
             Optional.ofNullable(registration.get())
                 .map(Registration::unregister)
                 .orElse(Mono.empty()))
+            .then(releaseUids())
             .then(Mono.fromRunnable(this::clearInternalStructures)
                 .subscribeOn(Schedulers.boundedElastic()))
             .then();
@@ -23,6 +23,8 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
 
 import org.apache.james.mailbox.MessageUid;
 import org.apache.james.mailbox.NullableMessageSequenceNumber;
@@ -41,9 +43,11 @@ public class UidMsnConverter {
     private static final int FIRST_MSN = 1;
     private static final long INTEGER_MAX_VALUE = Integer.MAX_VALUE;
 
-    @VisibleForTesting final LongArrayList uids;
-    @VisibleForTesting final IntArrayList uidsAsInts;
+    @VisibleForTesting LongArrayList uids;
+    @VisibleForTesting IntArrayList uidsAsInts;
     @VisibleForTesting boolean usesInts = true;
+    // When true, the UID arrays might be shared with another converter, and need to be copied before being modified
+    private boolean shared = false;
 
     public UidMsnConverter() {
         this.uids = new LongArrayList();
@@ -51,9 +55,40 @@ public class UidMsnConverter {
     }
 
     public synchronized void addAll(Collection<MessageUid> addedUids) {
+        unshare();
         addAllUnSynchronized(addedUids);
     }
 
+    /**
+     * Adds the UIDs of the given converter.
+     *
+     * When this converter is empty, it shares the UIDs of the given converter, until one of them gets modified, instead
+     * of copying them.
+     */
+    public synchronized void addAll(UidMsnConverter other) {
+        List<MessageUid> otherUids;
+        synchronized (other) {
+            if (isEmpty()) {
+                other.shared = true;
+                shared = true;
+                usesInts = other.usesInts;
+                uids = LongArrayList.wrap(other.uids.elements(), other.uids.size());
+                uidsAsInts = IntArrayList.wrap(other.uidsAsInts.elements(), other.uidsAsInts.size());
+                return;
+            }
+            otherUids = other.allUids();
+        }
+        addAll(otherUids);
+    }
+
+    private void unshare() {
+        if (shared) {
+            uids = new LongArrayList(uids);
+            uidsAsInts = new IntArrayList(uidsAsInts);
+            shared = false;
+        }
+    }
+
     private void addAllUnSynchronized(Collection<MessageUid> addedUids) {
         if (usesInts) {
             if (uidsAsInts.isEmpty()) {
@@ -195,9 +230,30 @@ public class UidMsnConverter {
     }
 
     public synchronized void remove(MessageUid uid) {
+        unshare();
         removeUnsynchronized(uid);
     }
 
+    /**
+     * Removes the given UIDs in a single pass over the UIDs of this converter.
+     */
+    public synchronized void removeAll(Collection<MessageUid> removedUids) {
+        unshare();
+        if (usesInts) {
+            IntAVLTreeSet removed = new IntAVLTreeSet();
+            removedUids.stream()
+                .filter(uid -> uid.asLong() <= INTEGER_MAX_VALUE)
+                .forEach(uid -> removed.add((int) uid.asLong()));
+            IntPredicate isRemoved = removed::contains;
+            uidsAsInts.removeIf(isRemoved);
+        } else {
+            LongAVLTreeSet removed = new LongAVLTreeSet();
+            removedUids.forEach(uid -> removed.add(uid.asLong()));
+            LongPredicate isRemoved = removed::contains;
+            uids.removeIf(isRemoved);
+        }
+    }
+
     private void removeUnsynchronized(MessageUid uid) {
         if (usesInts) {
             if (uid.asLong() > INTEGER_MAX_VALUE) {
@@ -216,6 +272,7 @@ public class UidMsnConverter {
     }
 
     public synchronized NullableMessageSequenceNumber getAndRemove(MessageUid uid) {
+        unshare();
         NullableMessageSequenceNumber result = getMsnUnsynchronized(uid);
         removeUnsynchronized(uid);
         return result;
@@ -226,11 +283,18 @@ public class UidMsnConverter {
     }
 
     public synchronized void clear() {
-        uids.clear();
-        uidsAsInts.clear();
+        if (shared) {
+            uids = new LongArrayList();
+            uidsAsInts = new IntArrayList();
+            shared = false;
+        } else {
+            uids.clear();
+            uidsAsInts.clear();
+        }
     }
 
     public synchronized void addUid(MessageUid uid) {
+        unshare();
         addUidUnSynchronized(uid);
     }
 
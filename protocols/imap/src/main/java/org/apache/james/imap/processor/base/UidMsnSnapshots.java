@@ -0,0 +1,219 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imap.processor.base;
+
+import java.util.EnumSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import jakarta.inject.Inject;
+
+import org.apache.james.events.Event;
+import org.apache.james.events.EventBus;
+import org.apache.james.events.EventListener;
+import org.apache.james.events.Registration;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.MessageManager.MailboxMetaData;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.ModSeq;
+import org.apache.james.mailbox.events.MailboxEvents.Added;
+import org.apache.james.mailbox.events.MailboxEvents.Expunged;
+import org.apache.james.mailbox.events.MailboxEvents.FlagsUpdated;
+import org.apache.james.mailbox.events.MailboxEvents.MailboxDeletion;
+import org.apache.james.mailbox.events.MailboxIdRegistrationKey;
+import org.apache.james.mailbox.model.MailboxId;
+import org.apache.james.mailbox.model.SearchQuery;
+import org.reactivestreams.Publisher;
+
+import com.github.fge.lambdas.Throwing;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * UIDs of the mailboxes selected by IMAP sessions, shared by the sessions selecting the same mailbox.
+ *
+ * The first session selecting a mailbox lists its UIDs. They are then kept up to date from the mailbox events, for as
+ * long as a session selects this mailbox. Sessions selecting this mailbox meanwhile start from these UIDs instead of
+ * listing them: their {@link UidMsnConverter} shares the UIDs of the snapshot until one of them gets modified.
+ *
+ * As events are processed asynchronously, the snapshot tracks the next UID and the highest mod-sequence of the changes
+ * it applied, and is checked against those of the mailbox, along with its message count: a message expunged and another
+ * one added meanwhile leave the count unchanged. When they do not match, the session lists the UIDs of the mailbox
+ * itself, and the snapshot is discarded.
+ */
+public class UidMsnSnapshots {
+    @VisibleForTesting
+    class Snapshot implements EventListener.ReactiveEventListener {
+        private final MailboxId mailboxId;
+        private final UidMsnConverter uids;
+        private final AtomicReference<MessageUid> uidNext;
+        private final AtomicReference<ModSeq> highestModSeq;
+        private final AtomicInteger references;
+        private final AtomicReference<Registration> registration;
+        private final Mono<Void> loading;
+
+        Snapshot(MailboxId mailboxId, MessageManager messageManager, MailboxSession session) {
+            this.mailboxId = mailboxId;
+            this.uids = new UidMsnConverter();
+            this.uidNext = new AtomicReference<>(MessageUid.MIN_VALUE);
+            this.highestModSeq = new AtomicReference<>(ModSeq.first());
+            this.references = new AtomicInteger();
+            this.registration = new AtomicReference<>();
+            this.loading = Mono.from(eventBus.register(this, new MailboxIdRegistrationKey(mailboxId)))
+                .doOnNext(registration::set)
+                .then(metaData(messageManager, session, EnumSet.of(MailboxMetaData.Item.NextUid, MailboxMetaData.Item.HighestModSeq)))
+                .doOnNext(metaData -> {
+                    trackUidNext(metaData.getUidNext());
+                    trackModSeq(metaData.getHighestModSeq());
+                })
+                .then(listUids(messageManager, session))
+                .doOnNext(uids::addAll)
+                .then()
+                .cache();
+        }
+
+        @Override
+        public Publisher<Void> reactiveEvent(Event event) {
+            if (event instanceof MailboxDeletion) {
+                return discard(this);
+            }
+            return Mono.fromRunnable(() -> apply(event));
+        }
+
+        private void apply(Event event) {
+            if (event instanceof Added added) {
+                uids.addAll(added.getUids());
+                added.getAdded().forEach((uid, metaData) -> {
+                    trackUidNext(uid.next());
+                    trackModSeq(metaData.getModSeq());
+                });
+            } else if (event instanceof Expunged expunged) {
+                uids.removeAll(expunged.getUids());
+            } else if (event instanceof FlagsUpdated flagsUpdated) {
+                flagsUpdated.getUpdatedFlags().forEach(updatedFlags -> trackModSeq(updatedFlags.getModSeq()));
+            }
+        }
+
+        private void trackUidNext(MessageUid nextUid) {
+            uidNext.accumulateAndGet(nextUid, (a, b) -> a.compareTo(b) >= 0 ? a : b);
+        }
+
+        private void trackModSeq(ModSeq modSeq) {
+            highestModSeq.accumulateAndGet(modSeq, (a, b) -> a.compareTo(b) >= 0 ? a : b);
+        }
+
+        private boolean isUpToDate(MailboxMetaData metaData) {
+            return uids.getNumMessage() == metaData.getMessageCount()
+                && uidNext.get().equals(metaData.getUidNext())
+                && highestModSeq.get().equals(metaData.getHighestModSeq());
+        }
+
+        @VisibleForTesting
+        Mono<Void> unregister() {
+            return Mono.justOrEmpty(registration.getAndSet(null))
+                .flatMap(value -> Mono.from(value.unregister()));
+        }
+    }
+
+    private static Mono<MailboxMetaData> metaData(MessageManager messageManager, MailboxSession session, EnumSet<MailboxMetaData.Item> items) {
+        return Mono.defer(Throwing.supplier(() -> messageManager.getMetaDataReactive(MailboxMetaData.RecentMode.IGNORE, session, items)).sneakyThrow());
+    }
+
+    static Mono<ImmutableList<MessageUid>> listUids(MessageManager messageManager, MailboxSession session) {
+        return Flux.defer(Throwing.supplier(() -> Flux.from(messageManager.search(SearchQuery.of(SearchQuery.all()), session))).sneakyThrow())
+            .collect(ImmutableList.toImmutableList());
+    }
+
+    private final EventBus eventBus;
+    private final ConcurrentHashMap<MailboxId, Snapshot> snapshots;
+
+    @Inject
+    public UidMsnSnapshots(EventBus eventBus) {
+        this.eventBus = eventBus;
+        this.snapshots = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Fills the given converter with the UIDs of the mailbox.
+     *
+     * @return the snapshot the session holds a reference on, to be released once the mailbox is no longer selected
+     */
+    Mono<Snapshot> acquire(MessageManager messageManager, MailboxSession session, UidMsnConverter target) {
+        Snapshot snapshot = snapshots.compute(messageManager.getId(), (mailboxId, existing) -> {
+            Snapshot result = existing;
+            if (result == null) {
+                result = new Snapshot(mailboxId, messageManager, session);
+            }
+            result.references.incrementAndGet();
+            return result;
+        });
+
+        return snapshot.loading
+            .then(metaData(messageManager, session, MailboxMetaData.FetchGroup.NO_UNSEEN.getItems()))
+            .flatMap(metaData -> copyOrList(snapshot, metaData, messageManager, session, target))
+            .thenReturn(snapshot)
+            .onErrorResume(e -> discard(snapshot)
+                .then(release(snapshot))
+                .then(Mono.error(e)));
+    }
+
+    private Mono<Void> copyOrList(Snapshot snapshot, MailboxMetaData metaData, MessageManager messageManager, MailboxSession session, UidMsnConverter target) {
+        if (snapshot.isUpToDate(metaData)) {
+            return Mono.fromRunnable(() -> target.addAll(snapshot.uids));
+        }
+        return discard(snapshot)
+            .then(listUids(messageManager, session))
+            .doOnNext(target::addAll)
+            .then();
+    }
+
+    private Mono<Void> discard(Snapshot snapshot) {
+        snapshots.remove(snapshot.mailboxId, snapshot);
+        return snapshot.unregister();
+    }
+
+    Mono<Void> release(Snapshot snapshot) {
+        AtomicBoolean lastReference = new AtomicBoolean(false);
+        snapshots.compute(snapshot.mailboxId, (mailboxId, existing) -> {
+            if (snapshot.references.decrementAndGet() > 0) {
+                return existing;
+            }
+            lastReference.set(true);
+            if (existing == snapshot) {
+                return null;
+            }
+            return existing;
+        });
+        if (lastReference.get()) {
+            return snapshot.unregister();
+        }
+        return Mono.empty();
+    }
+
+    @VisibleForTesting
+    int snapshotCount() {
+        return snapshots.size();
+    }
+}
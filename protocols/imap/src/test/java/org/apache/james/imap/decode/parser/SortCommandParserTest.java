@@ -0,0 +1,154 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.decode.parser;
+
+import static org.apache.james.imap.ImapFixture.TAG;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+
+import org.apache.james.imap.api.message.request.SearchKey;
+import org.apache.james.imap.api.message.request.SearchResultOption;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.decode.DecodingException;
+import org.apache.james.imap.decode.ImapRequestStreamLineReader;
+import org.apache.james.imap.message.request.SortRequest;
+import org.apache.james.imap.message.request.ThreadRequest;
+import org.apache.james.mailbox.model.SearchQuery.Sort;
+import org.apache.james.mailbox.model.SearchQuery.Sort.Order;
+import org.apache.james.mailbox.model.SearchQuery.Sort.SortClause;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+class SortCommandParserTest {
+    private SortCommandParser sortParser;
+    private ThreadCommandParser threadParser;
+
+    @BeforeEach
+    void setUp() {
+        sortParser = new SortCommandParser(mock(StatusResponseFactory.class));
+        threadParser = new ThreadCommandParser(mock(StatusResponseFactory.class));
+    }
+
+    @Test
+    void sortShouldParseSortCriteria() throws Exception {
+        SortRequest request = decodeSort(" (REVERSE DATE subject ARRIVAL) UTF-8 ALL\r\n");
+
+        assertThat(request.getSorts()).containsExactly(
+            new Sort(SortClause.SentDate, Order.REVERSE),
+            new Sort(SortClause.BaseSubject, Order.NATURAL),
+            new Sort(SortClause.Arrival, Order.NATURAL));
+        assertThat(request.getSearchOperation().getSearchKey()).isEqualTo(SearchKey.buildAll());
+        assertThat(request.getSearchOperation().getResultOptions()).isEmpty();
+        assertThat(request.isUseUids()).isFalse();
+    }
+
+    @Test
+    void sortShouldParseAllSortKeys() throws Exception {
+        SortRequest request = decodeSort(" (ARRIVAL CC DATE FROM SIZE SUBJECT TO) US-ASCII ALL\r\n");
+
+        assertThat(request.getSorts()).extracting(Sort::getSortClause).containsExactly(
+            SortClause.Arrival, SortClause.MailboxCc, SortClause.SentDate, SortClause.MailboxFrom,
+            SortClause.Size, SortClause.BaseSubject, SortClause.MailboxTo);
+    }
+
+    @Test
+    void sortShouldParseSearchKeys() throws Exception {
+        SortRequest request = decodeSort(" (SIZE) UTF-8 FROM \"bob\" SEEN\r\n");
+
+        assertThat(request.getSearchOperation().getSearchKey())
+            .isEqualTo(SearchKey.buildAnd(ImmutableList.of(SearchKey.buildFrom("bob"), SearchKey.buildSeen())));
+    }
+
+    @Test
+    void sortShouldParseReturnOptions() throws Exception {
+        SortRequest request = decodeSort(" RETURN (MIN COUNT PARTIAL 1:10) (SIZE) UTF-8 ALL\r\n");
+
+        assertThat(request.getSearchOperation().getResultOptions())
+            .containsExactly(SearchResultOption.MIN, SearchResultOption.COUNT, SearchResultOption.PARTIAL);
+        assertThat(request.getSearchOperation().getPartialRange())
+            .hasValueSatisfying(range -> {
+                assertThat(range.getLowVal()).isEqualTo(1);
+                assertThat(range.getUpVal()).isEqualTo(10);
+            });
+    }
+
+    @Test
+    void sortShouldRejectUnknownSortKeys() {
+        assertThatThrownBy(() -> decodeSort(" (UNKNOWN) UTF-8 ALL\r\n"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void sortShouldRejectDanglingReverse() {
+        assertThatThrownBy(() -> decodeSort(" (SIZE REVERSE) UTF-8 ALL\r\n"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void sortShouldRejectEmptySortCriteria() {
+        assertThatThrownBy(() -> decodeSort(" () UTF-8 ALL\r\n"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void sortShouldRejectCharsetSearchKey() {
+        assertThatThrownBy(() -> decodeSort(" (SIZE) UTF-8 CHARSET UTF-8 ALL\r\n"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void threadShouldParseAlgorithm() throws Exception {
+        ThreadRequest request = decodeThread(" references UTF-8 ALL\r\n");
+
+        assertThat(request.getAlgorithm()).isEqualTo(ThreadRequest.Algorithm.REFERENCES);
+        assertThat(request.getSearchOperation().getSearchKey()).isEqualTo(SearchKey.buildAll());
+    }
+
+    @Test
+    void threadShouldParseOrderedSubjectAlgorithm() throws Exception {
+        ThreadRequest request = decodeThread(" ORDEREDSUBJECT UTF-8 SEEN\r\n");
+
+        assertThat(request.getAlgorithm()).isEqualTo(ThreadRequest.Algorithm.ORDEREDSUBJECT);
+        assertThat(request.getSearchOperation().getSearchKey()).isEqualTo(SearchKey.buildSeen());
+    }
+
+    @Test
+    void threadShouldRejectUnknownAlgorithms() {
+        assertThatThrownBy(() -> decodeThread(" REFS UTF-8 ALL\r\n"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    private SortRequest decodeSort(String command) throws DecodingException {
+        return (SortRequest) sortParser.decode(reader(command), TAG, false, null);
+    }
+
+    private ThreadRequest decodeThread(String command) throws DecodingException {
+        return (ThreadRequest) threadParser.decode(reader(command), TAG, false, null);
+    }
+
+    private ImapRequestStreamLineReader reader(String command) {
+        return new ImapRequestStreamLineReader(new ByteArrayInputStream(command.getBytes()), null);
+    }
+}
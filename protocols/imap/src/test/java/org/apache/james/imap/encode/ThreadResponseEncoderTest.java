@@ -0,0 +1,67 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.encode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.james.imap.encode.base.ByteImapResponseWriter;
+import org.apache.james.imap.encode.base.ImapResponseComposerImpl;
+import org.apache.james.imap.message.response.ThreadResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+class ThreadResponseEncoderTest {
+    private ThreadResponseEncoder encoder;
+    private ByteImapResponseWriter writer = new ByteImapResponseWriter();
+    private ImapResponseComposer composer = new ImapResponseComposerImpl(writer);
+
+    @BeforeEach
+    void setUp() {
+        encoder = new ThreadResponseEncoder();
+    }
+
+    @Test
+    void acceptableMessagesShouldReturnThreadResponseClass() {
+        assertThat(encoder.acceptableMessages()).isEqualTo(ThreadResponse.class);
+    }
+
+    @Test
+    void encodeShouldSupportEmptyResults() throws Exception {
+        encoder.encode(new ThreadResponse(ImmutableList.of()), composer);
+        composer.flush();
+
+        assertThat(writer.getString()).isEqualTo("* THREAD\r\n");
+    }
+
+    @Test
+    void encodeShouldWriteThreads() throws Exception {
+        encoder.encode(new ThreadResponse(ImmutableList.of(
+            LongArrayList.of(2L),
+            LongArrayList.of(3L, 6L),
+            LongArrayList.of(4L, 23L, 44L))), composer);
+        composer.flush();
+
+        assertThat(writer.getString()).isEqualTo("* THREAD (2)(3 6)(4 (23)(44))\r\n");
+    }
+}
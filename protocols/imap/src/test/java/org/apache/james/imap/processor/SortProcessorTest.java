@@ -0,0 +1,135 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import jakarta.mail.util.SharedByteArrayInputStream;
+
+import org.apache.james.core.Username;
+import org.apache.james.imap.api.Tag;
+import org.apache.james.imap.api.message.request.SearchKey;
+import org.apache.james.imap.api.message.request.SearchOperation;
+import org.apache.james.imap.api.message.request.SearchResultOption;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.decode.main.OutputStreamImapResponseWriter;
+import org.apache.james.imap.encode.FakeImapSession;
+import org.apache.james.imap.encode.base.ImapResponseComposerImpl;
+import org.apache.james.imap.encode.main.DefaultImapEncoderFactory;
+import org.apache.james.imap.encode.main.DefaultLocalizer;
+import org.apache.james.imap.main.ResponseEncoder;
+import org.apache.james.imap.message.request.AbstractMailboxSelectionRequest;
+import org.apache.james.imap.message.request.SelectRequest;
+import org.apache.james.imap.message.request.SortRequest;
+import org.apache.james.imap.message.response.UnpooledStatusResponseFactory;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.inmemory.InMemoryMailboxManager;
+import org.apache.james.mailbox.inmemory.manager.InMemoryIntegrationResources;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.SearchQuery.Sort;
+import org.apache.james.mailbox.model.SearchQuery.Sort.Order;
+import org.apache.james.mailbox.model.SearchQuery.Sort.SortClause;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+class SortProcessorTest {
+    private static final Username BOB = Username.of("bob");
+    private static final Tag TAG = new Tag("A1");
+
+    private SortProcessor testee;
+    private FakeImapSession session;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        InMemoryIntegrationResources integrationResources = InMemoryIntegrationResources.defaultResources();
+        InMemoryMailboxManager mailboxManager = integrationResources.getMailboxManager();
+        StatusResponseFactory statusResponseFactory = new UnpooledStatusResponseFactory();
+        testee = new SortProcessor(mailboxManager, statusResponseFactory, new RecordingMetricFactory());
+
+        MailboxSession mailboxSession = mailboxManager.createSystemSession(BOB);
+        mailboxManager.createMailbox(MailboxPath.inbox(BOB), mailboxSession);
+        MessageManager mailbox = mailboxManager.getMailbox(MailboxPath.inbox(BOB), mailboxSession);
+        append(mailbox, mailboxSession, "Mon, 3 Jan 2022 10:00:00 +0000", "bbb", 10);
+        append(mailbox, mailboxSession, "Sat, 1 Jan 2022 10:00:00 +0000", "ccc", 100);
+        append(mailbox, mailboxSession, "Sun, 2 Jan 2022 10:00:00 +0000", "aaa", 1000);
+
+        session = new FakeImapSession();
+        session.authenticated();
+        session.setMailboxSession(mailboxSession);
+        new SelectProcessor(mailboxManager, integrationResources.getEventBus(), statusResponseFactory, new RecordingMetricFactory())
+            .process(new SelectRequest("INBOX", false, AbstractMailboxSelectionRequest.ClientSpecifiedUidValidity.UNKNOWN,
+                    null, null, null, null, new Tag("A0")),
+                responseEncoder(new ByteArrayOutputStream()), session);
+    }
+
+    @Test
+    void sortShouldOrderMessagesBySentDate() {
+        assertThat(sort(ImmutableList.of(new Sort(SortClause.SentDate)), ImmutableList.of()))
+            .startsWith("* SORT 2 3 1\r\n");
+    }
+
+    @Test
+    void sortShouldSupportReverseOrder() {
+        assertThat(sort(ImmutableList.of(new Sort(SortClause.Size, Order.REVERSE)), ImmutableList.of()))
+            .startsWith("* SORT 3 2 1\r\n");
+    }
+
+    @Test
+    void sortShouldOrderMessagesBySubject() {
+        assertThat(sort(ImmutableList.of(new Sort(SortClause.BaseSubject)), ImmutableList.of()))
+            .startsWith("* SORT 3 1 2\r\n");
+    }
+
+    @Test
+    void esortShouldReturnResultsInTheSortOrder() {
+        assertThat(sort(ImmutableList.of(new Sort(SortClause.SentDate)),
+                ImmutableList.of(SearchResultOption.MIN, SearchResultOption.MAX, SearchResultOption.COUNT, SearchResultOption.ALL)))
+            .startsWith("* ESEARCH (TAG \"A1\") MIN 2 MAX 1 COUNT 3 ALL 2:3,1\r\n");
+    }
+
+    private String sort(ImmutableList<Sort> sorts, ImmutableList<SearchResultOption> options) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        SortRequest request = new SortRequest(new SearchOperation(SearchKey.buildAll(), options, Optional.empty()), sorts, false, TAG);
+        ResponseEncoder responseEncoder = responseEncoder(outputStream);
+        testee.process(request, responseEncoder, session);
+        responseEncoder.flush();
+        return outputStream.toString(StandardCharsets.US_ASCII);
+    }
+
+    private void append(MessageManager mailbox, MailboxSession mailboxSession, String date, String subject, int bodySize) throws Exception {
+        String message = "Date: " + date + "\r\nSubject: " + subject + "\r\n\r\n" + "b".repeat(bodySize);
+        mailbox.appendMessage(MessageManager.AppendCommand.builder()
+            .build(new SharedByteArrayInputStream(message.getBytes(StandardCharsets.US_ASCII))), mailboxSession);
+    }
+
+    private ResponseEncoder responseEncoder(ByteArrayOutputStream outputStream) {
+        return new ResponseEncoder(
+            new DefaultImapEncoderFactory(new DefaultLocalizer(), true).buildImapEncoder(),
+            new ImapResponseComposerImpl(new OutputStreamImapResponseWriter(outputStream)));
+    }
+}
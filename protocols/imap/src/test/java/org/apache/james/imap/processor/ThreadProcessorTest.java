@@ -0,0 +1,155 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Optional;
+
+import jakarta.mail.util.SharedByteArrayInputStream;
+
+import org.apache.james.core.Username;
+import org.apache.james.imap.api.Tag;
+import org.apache.james.imap.api.message.request.SearchKey;
+import org.apache.james.imap.api.message.request.SearchOperation;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.decode.main.OutputStreamImapResponseWriter;
+import org.apache.james.imap.encode.FakeImapSession;
+import org.apache.james.imap.encode.base.ImapResponseComposerImpl;
+import org.apache.james.imap.encode.main.DefaultImapEncoderFactory;
+import org.apache.james.imap.encode.main.DefaultLocalizer;
+import org.apache.james.imap.main.ResponseEncoder;
+import org.apache.james.imap.message.request.AbstractMailboxSelectionRequest;
+import org.apache.james.imap.message.request.SelectRequest;
+import org.apache.james.imap.message.request.ThreadRequest;
+import org.apache.james.imap.message.response.UnpooledStatusResponseFactory;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.inmemory.InMemoryMailboxManager;
+import org.apache.james.mailbox.inmemory.manager.InMemoryIntegrationResources;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ThreadProcessorTest {
+    private static final Username BOB = Username.of("bob");
+    private static final Tag TAG = new Tag("A1");
+
+    private ThreadProcessor testee;
+    private FakeImapSession session;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        InMemoryIntegrationResources integrationResources = InMemoryIntegrationResources.defaultResources();
+        InMemoryMailboxManager mailboxManager = integrationResources.getMailboxManager();
+        StatusResponseFactory statusResponseFactory = new UnpooledStatusResponseFactory();
+        testee = new ThreadProcessor(mailboxManager, statusResponseFactory, new RecordingMetricFactory());
+
+        MailboxSession mailboxSession = mailboxManager.createSystemSession(BOB);
+        mailboxManager.createMailbox(MailboxPath.inbox(BOB), mailboxSession);
+        MessageManager mailbox = mailboxManager.getMailbox(MailboxPath.inbox(BOB), mailboxSession);
+        append(mailbox, mailboxSession, "Tue, 4 Jan 2022 10:00:00 +0000", "Re: meeting");
+        append(mailbox, mailboxSession, "Sat, 1 Jan 2022 10:00:00 +0000", "meeting");
+        append(mailbox, mailboxSession, "Sun, 2 Jan 2022 10:00:00 +0000", "lunch");
+        append(mailbox, mailboxSession, "Mon, 3 Jan 2022 10:00:00 +0000", "Fwd: [list] MEETING (fwd)");
+
+        session = new FakeImapSession();
+        session.authenticated();
+        session.setMailboxSession(mailboxSession);
+        new SelectProcessor(mailboxManager, integrationResources.getEventBus(), statusResponseFactory, new RecordingMetricFactory())
+            .process(new SelectRequest("INBOX", false, AbstractMailboxSelectionRequest.ClientSpecifiedUidValidity.UNKNOWN,
+                    null, null, null, null, new Tag("A0")),
+                responseEncoder(new ByteArrayOutputStream()), session);
+    }
+
+    @Test
+    void orderedSubjectShouldGroupMessagesByBaseSubject() {
+        assertThat(thread(ThreadRequest.Algorithm.ORDEREDSUBJECT))
+            .startsWith("* THREAD (2 (4)(1))(3)\r\n");
+    }
+
+    @Test
+    void referencesShouldGroupMessagesByThreadId() {
+        // The in-memory mailbox does not guess threads: each message is its own thread
+        assertThat(thread(ThreadRequest.Algorithm.REFERENCES))
+            .startsWith("* THREAD (2)(3)(4)(1)\r\n");
+    }
+
+    @Test
+    void baseSubjectShouldStripReplyAndForwardMarkers() {
+        assertThat(ThreadProcessor.baseSubject("Re: RE: fwd: Meeting"))
+            .isEqualTo("MEETING");
+    }
+
+    @Test
+    void baseSubjectShouldStripSubjectBlobs() {
+        assertThat(ThreadProcessor.baseSubject("[list] Re: [list] meeting"))
+            .isEqualTo("MEETING");
+    }
+
+    @Test
+    void baseSubjectShouldStripTrailers() {
+        assertThat(ThreadProcessor.baseSubject("meeting (fwd)  (FWD)"))
+            .isEqualTo("MEETING");
+    }
+
+    @Test
+    void baseSubjectShouldUnwrapForwardedSubjects() {
+        assertThat(ThreadProcessor.baseSubject("[Fwd: Re: meeting]"))
+            .isEqualTo("MEETING");
+    }
+
+    @Test
+    void baseSubjectShouldCollapseWhitespaces() {
+        assertThat(ThreadProcessor.baseSubject("  team \t  meeting "))
+            .isEqualTo("TEAM MEETING");
+    }
+
+    @Test
+    void baseSubjectShouldKeepBlobOnlySubjects() {
+        assertThat(ThreadProcessor.baseSubject("[list]"))
+            .isEqualTo("[LIST]");
+    }
+
+    private String thread(ThreadRequest.Algorithm algorithm) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ThreadRequest request = new ThreadRequest(new SearchOperation(SearchKey.buildAll(), new ArrayList<>(), Optional.empty()), algorithm, false, TAG);
+        ResponseEncoder responseEncoder = responseEncoder(outputStream);
+        testee.process(request, responseEncoder, session);
+        responseEncoder.flush();
+        return outputStream.toString(StandardCharsets.US_ASCII);
+    }
+
+    private void append(MessageManager mailbox, MailboxSession mailboxSession, String date, String subject) throws Exception {
+        String message = "Date: " + date + "\r\nSubject: " + subject + "\r\n\r\nbody";
+        mailbox.appendMessage(MessageManager.AppendCommand.builder()
+            .build(new SharedByteArrayInputStream(message.getBytes(StandardCharsets.US_ASCII))), mailboxSession);
+    }
+
+    private ResponseEncoder responseEncoder(ByteArrayOutputStream outputStream) {
+        return new ResponseEncoder(
+            new DefaultImapEncoderFactory(new DefaultLocalizer(), true).buildImapEncoder(),
+            new ImapResponseComposerImpl(new OutputStreamImapResponseWriter(outputStream)));
+    }
+}
@@ -620,4 +620,80 @@ class UidMsnConverterTest {
         return result.build();
     }
 
-}
\ No newline at end of file
+    @Test
+    void addAllFromOtherConverterShouldCopyItsUids() {
+        UidMsnConverter other = new UidMsnConverter();
+        other.addAll(ImmutableList.of(messageUid1, messageUid2, messageUid3));
+
+        testee.addAll(other);
+
+        assertThat(testee.allUids()).containsExactly(messageUid1, messageUid2, messageUid3);
+    }
+
+    @Test
+    void addAllFromOtherConverterShouldMergeWhenNotEmpty() {
+        UidMsnConverter other = new UidMsnConverter();
+        other.addAll(ImmutableList.of(messageUid1, messageUid3));
+        testee.addUid(messageUid2);
+        testee.addUid(messageUid3);
+
+        testee.addAll(other);
+
+        assertThat(testee.allUids()).containsExactly(messageUid1, messageUid2, messageUid3);
+    }
+
+    @Test
+    void modifyingAConverterShouldNotModifyTheConverterItIsSharedWith() {
+        UidMsnConverter other = new UidMsnConverter();
+        other.addAll(ImmutableList.of(messageUid1, messageUid2, messageUid3));
+        testee.addAll(other);
+
+        testee.remove(messageUid2);
+        testee.addUid(messageUid4);
+
+        assertThat(other.allUids()).containsExactly(messageUid1, messageUid2, messageUid3);
+    }
+
+    @Test
+    void modifyingASharedConverterShouldNotModifyTheConverterSharingIt() {
+        UidMsnConverter other = new UidMsnConverter();
+        other.addAll(ImmutableList.of(messageUid1, messageUid2, messageUid3));
+        testee.addAll(other);
+
+        other.removeAll(ImmutableList.of(messageUid1));
+        other.addUid(messageUid4);
+        other.clear();
+
+        assertThat(testee.allUids()).containsExactly(messageUid1, messageUid2, messageUid3);
+    }
+
+    @Test
+    void addAllFromOtherConverterShouldPreserveLongUids() {
+        MessageUid bigUid = MessageUid.of(Integer.MAX_VALUE + 1L);
+        UidMsnConverter other = new UidMsnConverter();
+        other.addAll(ImmutableList.of(messageUid1, bigUid));
+
+        testee.addAll(other);
+
+        assertThat(testee.getMsn(bigUid)).isEqualTo(NullableMessageSequenceNumber.of(2));
+    }
+
+    @Test
+    void removeAllShouldRemoveTheGivenUids() {
+        testee.addAll(ImmutableList.of(messageUid1, messageUid2, messageUid3, messageUid4));
+
+        testee.removeAll(ImmutableList.of(messageUid1, messageUid3, MessageUid.of(12)));
+
+        assertThat(testee.allUids()).containsExactly(messageUid2, messageUid4);
+    }
+
+    @Test
+    void removeAllShouldRemoveLongUids() {
+        MessageUid bigUid = MessageUid.of(Integer.MAX_VALUE + 1L);
+        testee.addAll(ImmutableList.of(messageUid1, messageUid2, bigUid));
+
+        testee.removeAll(ImmutableList.of(messageUid1, bigUid));
+
+        assertThat(testee.allUids()).containsExactly(messageUid2);
+    }
+}
@@ -0,0 +1,161 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.processor.base;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+
+import jakarta.mail.Flags;
+import jakarta.mail.util.SharedByteArrayInputStream;
+
+import org.apache.james.core.Username;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.inmemory.InMemoryMailboxManager;
+import org.apache.james.mailbox.inmemory.manager.InMemoryIntegrationResources;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.MessageRange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class UidMsnSnapshotsTest {
+    private static final Username BOB = Username.of("bob");
+
+    private InMemoryMailboxManager mailboxManager;
+    private MailboxSession session;
+    private MessageManager mailbox;
+    private UidMsnSnapshots testee;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        InMemoryIntegrationResources integrationResources = InMemoryIntegrationResources.defaultResources();
+        mailboxManager = integrationResources.getMailboxManager();
+        session = mailboxManager.createSystemSession(BOB);
+        mailboxManager.createMailbox(MailboxPath.inbox(BOB), session);
+        mailbox = mailboxManager.getMailbox(MailboxPath.inbox(BOB), session);
+        testee = new UidMsnSnapshots(integrationResources.getEventBus());
+    }
+
+    @Test
+    void acquireShouldLoadTheUidsOfTheMailbox() throws Exception {
+        MessageUid uid1 = append();
+        MessageUid uid2 = append();
+        UidMsnConverter converter = new UidMsnConverter();
+
+        testee.acquire(mailbox, session, converter).block();
+
+        assertThat(converter.allUids()).containsExactly(uid1, uid2);
+    }
+
+    @Test
+    void acquireShouldShareTheSnapshotOfAMailbox() throws Exception {
+        append();
+
+        UidMsnSnapshots.Snapshot first = testee.acquire(mailbox, session, new UidMsnConverter()).block();
+        UidMsnSnapshots.Snapshot second = testee.acquire(mailbox, session, new UidMsnConverter()).block();
+
+        assertThat(first).isSameAs(second);
+        assertThat(testee.snapshotCount()).isEqualTo(1);
+    }
+
+    @Test
+    void snapshotShouldTrackAddedAndExpungedMessages() throws Exception {
+        MessageUid uid1 = append();
+        testee.acquire(mailbox, session, new UidMsnConverter()).block();
+
+        MessageUid uid2 = append();
+        mailbox.setFlags(new Flags(Flags.Flag.DELETED), MessageManager.FlagsUpdateMode.ADD, MessageRange.one(uid1), session);
+        mailbox.expunge(MessageRange.all(), session);
+        UidMsnConverter converter = new UidMsnConverter();
+        testee.acquire(mailbox, session, converter).block();
+
+        assertThat(converter.allUids()).containsExactly(uid2);
+    }
+
+    @Test
+    void acquireShouldListTheUidsWhenTheSnapshotMissedChangesKeepingTheMessageCount() throws Exception {
+        MessageUid uid1 = append();
+        UidMsnSnapshots.Snapshot snapshot = testee.acquire(mailbox, session, new UidMsnConverter()).block();
+        snapshot.unregister().block();
+
+        MessageUid uid2 = append();
+        mailbox.setFlags(new Flags(Flags.Flag.DELETED), MessageManager.FlagsUpdateMode.ADD, MessageRange.one(uid1), session);
+        mailbox.expunge(MessageRange.all(), session);
+        UidMsnConverter converter = new UidMsnConverter();
+        testee.acquire(mailbox, session, converter).block();
+
+        assertThat(converter.allUids()).containsExactly(uid2);
+    }
+
+    @Test
+    void flagUpdatesShouldNotDiscardTheSnapshot() throws Exception {
+        MessageUid uid1 = append();
+        UidMsnSnapshots.Snapshot first = testee.acquire(mailbox, session, new UidMsnConverter()).block();
+
+        mailbox.setFlags(new Flags(Flags.Flag.SEEN), MessageManager.FlagsUpdateMode.ADD, MessageRange.one(uid1), session);
+        UidMsnSnapshots.Snapshot second = testee.acquire(mailbox, session, new UidMsnConverter()).block();
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void sessionsShouldNotSeeChangesOfTheSnapshotOnceLoaded() throws Exception {
+        MessageUid uid1 = append();
+        UidMsnConverter converter = new UidMsnConverter();
+        testee.acquire(mailbox, session, converter).block();
+
+        append();
+
+        assertThat(converter.allUids()).containsExactly(uid1);
+    }
+
+    @Test
+    void releaseShouldDropTheSnapshotOnceNoLongerReferenced() throws Exception {
+        append();
+        UidMsnSnapshots.Snapshot first = testee.acquire(mailbox, session, new UidMsnConverter()).block();
+        UidMsnSnapshots.Snapshot second = testee.acquire(mailbox, session, new UidMsnConverter()).block();
+
+        testee.release(first).block();
+        assertThat(testee.snapshotCount()).isEqualTo(1);
+
+        testee.release(second).block();
+        assertThat(testee.snapshotCount()).isZero();
+    }
+
+    @Test
+    void mailboxDeletionShouldDiscardTheSnapshot() throws Exception {
+        append();
+        testee.acquire(mailbox, session, new UidMsnConverter()).block();
+
+        mailboxManager.deleteMailbox(MailboxPath.inbox(BOB), session);
+
+        assertThat(testee.snapshotCount()).isZero();
+    }
+
+    private MessageUid append() throws Exception {
+        String message = "Subject: test\r\n\r\nbody";
+        return mailbox.appendMessage(MessageManager.AppendCommand.builder()
+                .build(new SharedByteArrayInputStream(message.getBytes(StandardCharsets.US_ASCII))), session)
+            .getId()
+            .getUid();
+    }
+}
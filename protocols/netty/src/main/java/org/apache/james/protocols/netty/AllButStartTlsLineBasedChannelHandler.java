@@ -35,13 +35,15 @@ import io.netty.handler.codec.LineBasedFrameDecoder;
 import io.netty.util.AttributeKey;
 
 
-public class AllButStartTlsLineBasedChannelHandler extends LineBasedFrameDecoder {
+public class AllButStartTlsLineBasedChannelHandler extends LineBasedFrameDecoder implements BinaryDataAware {
     private static final Boolean FAIL_FAST = true;
     private static final CharMatcher CRLF_MATCHER = CharMatcher.anyOf("\r\n");
     private static final Splitter CRLF_SPLITTER = Splitter.on(CRLF_MATCHER).omitEmptyStrings();
     private static final AttributeKey<Object> ATTRIBUTE_KEY = AttributeKey.valueOf("startTlsInFlight");
     private final ChannelPipeline pipeline;
     private final String pattern;
+    // Only accessed from the channel executor, which runs both the framer and the core handler
+    private long pendingBinaryBytes;
 
     private static final AttributeKey<CommandDetectionSession> sessionAttributeKey =
             AttributeKey.valueOf("session");
@@ -52,8 +54,16 @@ public class AllButStartTlsLineBasedChannelHandler extends LineBasedFrameDecoder
         this.pattern = pattern;
     }
 
+    @Override
+    public void readBinaryData(long length) {
+        pendingBinaryBytes = length;
+    }
+
     @Override
     protected Object decode(ChannelHandlerContext ctx, ByteBuf buffer) throws Exception {
+        if (pendingBinaryBytes > 0) {
+            return decodeBinaryData(buffer);
+        }
         CommandDetectionSession session = retrieveSession(ctx);
 
         if (session == null || session.needsCommandInjectionDetection()) {
@@ -78,6 +88,15 @@ public class AllButStartTlsLineBasedChannelHandler extends LineBasedFrameDecoder
         return super.decode(ctx, buffer);
     }
 
+    private ByteBuf decodeBinaryData(ByteBuf buffer) {
+        int length = (int) Math.min(buffer.readableBytes(), pendingBinaryBytes);
+        if (length == 0) {
+            return null;
+        }
+        pendingBinaryBytes -= length;
+        return buffer.readRetainedSlice(length);
+    }
+
     protected CommandDetectionSession retrieveSession(ChannelHandlerContext ctx) {
         return pipeline.context(HandlerConstants.CORE_HANDLER).channel().attr(sessionAttributeKey).get();
     }
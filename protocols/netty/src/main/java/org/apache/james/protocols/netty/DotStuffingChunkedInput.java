@@ -0,0 +1,240 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.protocols.netty;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Optional;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.stream.ChunkedInput;
+import io.netty.util.ByteProcessor;
+
+/**
+ * {@link ChunkedInput} writing an {@link InputStream} as a multi-line data block (RFC 1939 POP3 multi-line responses,
+ * RFC 5321 SMTP DATA): dots starting a line are doubled, the content is CRLF terminated and followed by
+ * <code>.CRLF</code>.
+ *
+ * The content is read and scanned chunk by chunk. Chunks without any line starting with a dot, the vast majority, are
+ * written as read, other chunks are copied once with the extra dots.
+ */
+public class DotStuffingChunkedInput implements ChunkedInput<ByteBuf> {
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+    private static final byte DOT = '.';
+    private static final byte[] TERMINATOR = {DOT, CR, LF};
+    private static final byte[] CRLF_TERMINATOR = {CR, LF, DOT, CR, LF};
+    private static final byte[] LF_TERMINATOR = {LF, DOT, CR, LF};
+    private static final int NONE = -1;
+
+    /**
+     * Bytes to write after the content, given its last two bytes (-1 when absent).
+     */
+    static byte[] terminator(int previousLast, int last) {
+        if (last == LF && previousLast == CR) {
+            return TERMINATOR;
+        }
+        if (last == CR) {
+            return LF_TERMINATOR;
+        }
+        return CRLF_TERMINATOR;
+    }
+
+    /**
+     * Scans the content of a file, from its current position, to find out whether it can be sent as is.
+     *
+     * @return the bytes to write after the file content when no dot-stuffing is needed, empty otherwise
+     */
+    public static Optional<byte[]> terminatorIfNoStuffingNeeded(FileChannel fileChannel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(DEFAULT_CHUNK_SIZE);
+        LineStartScanner scanner = new LineStartScanner();
+        long position = fileChannel.position();
+        while (fileChannel.read(buffer, position) > 0) {
+            buffer.flip();
+            position += buffer.remaining();
+            if (scanner.hasLineStartingWithDot(Unpooled.wrappedBuffer(buffer))) {
+                return Optional.empty();
+            }
+            buffer.clear();
+        }
+        return Optional.of(terminator(scanner.previousLast, scanner.last));
+    }
+
+    /**
+     * Tracks line starts across chunks. As {@code ExtraDotInputStream} does, only CRLF ends a line.
+     *
+     * The last bytes are kept unsigned, so that a 0xFF byte is not mistaken for {@link #NONE}.
+     */
+    private static class LineStartScanner {
+        private int previousLast = NONE;
+        private int last = NONE;
+
+        boolean isLineStart(ByteBuf chunk, int index) {
+            int start = chunk.readerIndex();
+            if (index == start) {
+                return (last == LF && previousLast == CR) || (last == NONE && previousLast == NONE);
+            }
+            if (chunk.getByte(index - 1) != LF) {
+                return false;
+            }
+            int beforeLf = index - 2 >= start ? chunk.getUnsignedByte(index - 2) : last;
+            return beforeLf == CR;
+        }
+
+        int countLineStartsWithDot(ByteBuf chunk) {
+            int count = 0;
+            int index = chunk.readerIndex();
+            int end = chunk.writerIndex();
+            while (index < end) {
+                if (chunk.getByte(index) == DOT && isLineStart(chunk, index)) {
+                    count++;
+                }
+                int lf = chunk.forEachByte(index, end - index, ByteProcessor.FIND_LF);
+                if (lf < 0) {
+                    break;
+                }
+                index = lf + 1;
+            }
+            return count;
+        }
+
+        boolean hasLineStartingWithDot(ByteBuf chunk) {
+            boolean result = countLineStartsWithDot(chunk) > 0;
+            advance(chunk);
+            return result;
+        }
+
+        void advance(ByteBuf chunk) {
+            int readable = chunk.readableBytes();
+            if (readable >= 2) {
+                previousLast = chunk.getUnsignedByte(chunk.writerIndex() - 2);
+                last = chunk.getUnsignedByte(chunk.writerIndex() - 1);
+            } else if (readable == 1) {
+                previousLast = last;
+                last = chunk.getUnsignedByte(chunk.readerIndex());
+            }
+        }
+    }
+
+    private final InputStream in;
+    private final int chunkSize;
+    private final LineStartScanner scanner;
+    private long progress;
+    private boolean endOfContent;
+    private boolean endOfInput;
+
+    public DotStuffingChunkedInput(InputStream in) {
+        this(in, DEFAULT_CHUNK_SIZE);
+    }
+
+    public DotStuffingChunkedInput(InputStream in, int chunkSize) {
+        this.in = in;
+        this.chunkSize = chunkSize;
+        this.scanner = new LineStartScanner();
+    }
+
+    @Override
+    public boolean isEndOfInput() {
+        return endOfInput;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    @Override
+    @Deprecated
+    public ByteBuf readChunk(ChannelHandlerContext ctx) throws Exception {
+        return readChunk(ctx.alloc());
+    }
+
+    @Override
+    public ByteBuf readChunk(ByteBufAllocator allocator) throws Exception {
+        if (endOfInput) {
+            return null;
+        }
+        if (endOfContent) {
+            endOfInput = true;
+            byte[] terminator = terminator(scanner.previousLast, scanner.last);
+            progress += terminator.length;
+            return Unpooled.wrappedBuffer(terminator);
+        }
+        ByteBuf chunk = allocator.buffer(chunkSize);
+        try {
+            int read = chunk.writeBytes(in, chunkSize);
+            if (read < 0) {
+                chunk.release();
+                endOfContent = true;
+                return readChunk(allocator);
+            }
+            ByteBuf result = stuff(chunk, allocator);
+            progress += result.readableBytes();
+            return result;
+        } catch (Exception e) {
+            chunk.release();
+            throw e;
+        }
+    }
+
+    private ByteBuf stuff(ByteBuf chunk, ByteBufAllocator allocator) {
+        int dots = scanner.countLineStartsWithDot(chunk);
+        if (dots == 0) {
+            scanner.advance(chunk);
+            return chunk;
+        }
+        ByteBuf stuffed = allocator.buffer(chunk.readableBytes() + dots);
+        int from = chunk.readerIndex();
+        int end = chunk.writerIndex();
+        for (int index = from; index < end; index++) {
+            if (chunk.getByte(index) == DOT && scanner.isLineStart(chunk, index)) {
+                stuffed.writeBytes(chunk, from, index - from);
+                stuffed.writeByte(DOT);
+                from = index;
+            }
+            int lf = chunk.forEachByte(index, end - index, ByteProcessor.FIND_LF);
+            if (lf < 0) {
+                break;
+            }
+            index = lf;
+        }
+        stuffed.writeBytes(chunk, from, end - from);
+        scanner.advance(chunk);
+        chunk.release();
+        return stuffed;
+    }
+
+    @Override
+    public long length() {
+        return -1;
+    }
+
+    @Override
+    public long progress() {
+        return progress;
+    }
+}
@@ -30,12 +30,14 @@ import javax.net.ssl.SSLEngine;
 import javax.net.ssl.SSLSession;
 
 import org.apache.james.protocols.api.AbstractProtocolTransport;
+import org.apache.james.protocols.api.DotStuffedStreamResponse;
 import org.apache.james.protocols.api.ProtocolSession;
 import org.apache.james.protocols.api.handler.LineHandler;
 
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandler;
 import io.netty.channel.DefaultFileRegion;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.handler.stream.ChunkedStream;
@@ -136,6 +138,35 @@ public class NettyProtocolTransport extends AbstractProtocolTransport {
         channel.writeAndFlush(new ChunkedStream(in));
     }
 
+    /**
+     * Dot-stuffing and CRLF termination are done in bulk by {@link DotStuffingChunkedInput}. Files that do not need
+     * stuffing, which is most of them, are sent with a zero-copy {@link DefaultFileRegion} followed by the terminator.
+     */
+    @Override
+    protected void writeDotStuffedToClient(DotStuffedStreamResponse response, ProtocolSession session, boolean startTLS) {
+        if (startTLS) {
+            prepareStartTLS();
+        }
+        InputStream in = response.getRawStream();
+        if (!isTLSStarted() && in instanceof FileInputStream) {
+            FileChannel fChannel = ((FileInputStream) in).getChannel();
+            try {
+                long position = fChannel.position();
+                Optional<byte[]> terminator = DotStuffingChunkedInput.terminatorIfNoStuffingNeeded(fChannel);
+                if (terminator.isPresent()) {
+                    channel.write(new DefaultFileRegion(fChannel, position, fChannel.size() - position));
+                    channel.writeAndFlush(Unpooled.wrappedBuffer(terminator.get()));
+                    return;
+                }
+            } catch (IOException e) {
+                // We handle this later
+                channel.writeAndFlush(new ChunkedStream(new ExceptionInputStream(e)));
+                return;
+            }
+        }
+        channel.writeAndFlush(new DotStuffingChunkedInput(in));
+    }
+
     @Override
     public void setReadable(boolean readable) {
         channel.config().setAutoRead(readable);
@@ -158,6 +189,15 @@ public class NettyProtocolTransport extends AbstractProtocolTransport {
             .get(HandlerConstants.CORE_HANDLER);
         channelHandler.pushLineHandler(new LineHandlerUpstreamHandler(session, overrideCommandHandler));
     }
+
+    @Override
+    public void readBinaryData(long length) {
+        ChannelHandler framer = channel.pipeline().get(HandlerConstants.FRAMER);
+        if (!(framer instanceof BinaryDataAware)) {
+            throw new UnsupportedOperationException("Framer does not support reading binary data");
+        }
+        ((BinaryDataAware) framer).readBinaryData(length);
+    }
     
    
     /**
@@ -0,0 +1,141 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.protocols.netty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+
+class DotStuffingChunkedInputTest {
+
+    private static String encode(String content, int chunkSize) throws Exception {
+        return new String(encode(content.getBytes(StandardCharsets.US_ASCII), chunkSize), StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] encode(byte[] content, int chunkSize) throws Exception {
+        DotStuffingChunkedInput input = new DotStuffingChunkedInput(new ByteArrayInputStream(content), chunkSize);
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        while (!input.isEndOfInput()) {
+            ByteBuf chunk = input.readChunk(ByteBufAllocator.DEFAULT);
+            if (chunk != null) {
+                chunk.readBytes(result, chunk.readableBytes());
+                chunk.release();
+            }
+        }
+        assertThat(input.progress()).isEqualTo(result.size());
+        return result.toByteArray();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 8192})
+    void contentWithoutDotsShouldBeTerminated(int chunkSize) throws Exception {
+        assertThat(encode("a\r\nb\r\n", chunkSize)).isEqualTo("a\r\nb\r\n.\r\n");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 8192})
+    void leadingDotShouldBeStuffed(int chunkSize) throws Exception {
+        assertThat(encode(".a\r\n", chunkSize)).isEqualTo("..a\r\n.\r\n");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 4, 5, 8192})
+    void dotsAfterCrlfShouldBeStuffed(int chunkSize) throws Exception {
+        assertThat(encode("a\r\n.b\r\n..\r\n.\r\n", chunkSize)).isEqualTo("a\r\n..b\r\n...\r\n..\r\n.\r\n");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 8192})
+    void dotsAfterBareLfShouldNotBeStuffed(int chunkSize) throws Exception {
+        assertThat(encode("a\n.b\r\n", chunkSize)).isEqualTo("a\n.b\r\n.\r\n");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 8192})
+    void dotsInsideLinesShouldNotBeStuffed(int chunkSize) throws Exception {
+        assertThat(encode("a.b\r\nc.\r\n", chunkSize)).isEqualTo("a.b\r\nc.\r\n.\r\n");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 8192})
+    void missingTrailingCrlfShouldBeAdded(int chunkSize) throws Exception {
+        assertThat(encode("a\r\nb", chunkSize)).isEqualTo("a\r\nb\r\n.\r\n");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 8192})
+    void trailingCrShouldBeCompleted(int chunkSize) throws Exception {
+        assertThat(encode("a\r", chunkSize)).isEqualTo("a\r\n.\r\n");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 8192})
+    void trailingBareLfShouldBeFollowedByCrlf(int chunkSize) throws Exception {
+        assertThat(encode("a\n", chunkSize)).isEqualTo("a\n\r\n.\r\n");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 8192})
+    void dotsAfterEightBitBytesShouldNotBeStuffed(int chunkSize) throws Exception {
+        byte[] content = {(byte) 0xFF, (byte) 0xFF, '.', 'a'};
+
+        assertThat(encode(content, chunkSize)).containsExactly(0xFF, 0xFF, '.', 'a', '\r', '\n', '.', '\r', '\n');
+    }
+
+    @Test
+    void emptyContentShouldBeTerminated() throws Exception {
+        assertThat(encode("", 8192)).isEqualTo("\r\n.\r\n");
+    }
+
+    @Test
+    void terminatorIfNoStuffingNeededShouldReturnTheTerminatorWhenNoDotStartsALine(@TempDir Path tempDir) throws Exception {
+        File file = Files.writeString(tempDir.resolve("message"), "a.b\r\nc\n.d").toFile();
+
+        try (FileInputStream in = new FileInputStream(file)) {
+            assertThat(DotStuffingChunkedInput.terminatorIfNoStuffingNeeded(in.getChannel()))
+                .hasValueSatisfying(terminator -> assertThat(new String(terminator, StandardCharsets.US_ASCII)).isEqualTo("\r\n.\r\n"));
+            assertThat(in.getChannel().position()).isZero();
+        }
+    }
+
+    @Test
+    void terminatorIfNoStuffingNeededShouldReturnEmptyWhenADotStartsALine(@TempDir Path tempDir) throws Exception {
+        File file = Files.writeString(tempDir.resolve("message"), "a\r\n.b\r\n").toFile();
+
+        try (FileInputStream in = new FileInputStream(file)) {
+            assertThat(DotStuffingChunkedInput.terminatorIfNoStuffingNeeded(in.getChannel()))
+                .isEmpty();
+        }
+    }
+}
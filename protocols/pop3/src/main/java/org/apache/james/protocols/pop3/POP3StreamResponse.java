@@ -23,24 +23,35 @@ import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.SequenceInputStream;
 
+import org.apache.james.protocols.api.DotStuffedStreamResponse;
 import org.apache.james.protocols.api.Response;
 import org.apache.james.protocols.api.StreamResponse;
+import org.apache.james.protocols.pop3.core.CRLFTerminatedInputStream;
+import org.apache.james.protocols.pop3.core.ExtraDotInputStream;
 
 /**
- * {@link StreamResponse} implementation which allows to write back big-data to the client for POP3
+ * {@link StreamResponse} implementation which allows to write back big-data to the client for POP3.
+ *
+ * The given content is raw: it gets dot-stuffed, CRLF terminated and followed by the <code>.CRLF</code> multi-line
+ * terminator when written.
  */
-public class POP3StreamResponse extends POP3Response implements StreamResponse {
+public class POP3StreamResponse extends POP3Response implements DotStuffedStreamResponse {
 
-    private final InputStream stream;
+    private final InputStream content;
 
-    public POP3StreamResponse(String code, CharSequence description, InputStream stream) {
+    public POP3StreamResponse(String code, CharSequence description, InputStream content) {
         super(code, description);
-        this.stream = stream;
+        this.content = content;
+    }
+
+    @Override
+    public InputStream getRawStream() {
+        return content;
     }
 
     @Override
     public InputStream getStream() {
-        return new SequenceInputStream(stream, new ByteArrayInputStream(".\r\n".getBytes()));
+        return new SequenceInputStream(new CRLFTerminatedInputStream(new ExtraDotInputStream(content)), new ByteArrayInputStream(".\r\n".getBytes()));
     }
 
     @Override
@@ -52,8 +52,7 @@ public class RetrCmdHandler extends AbstractPOP3CommandHandler {
             @Override
             protected Response handleMessageExists(POP3Session session, MessageMetaData data, POP3MessageCommandArguments args) throws IOException {
                 InputStream content = getMessageContent(session, data);
-                InputStream in = new CRLFTerminatedInputStream(new ExtraDotInputStream(content));
-                return new POP3StreamResponse(POP3Response.OK_RESPONSE, "Message follows", in);
+                return new POP3StreamResponse(POP3Response.OK_RESPONSE, "Message follows", content);
             }
         };
     }
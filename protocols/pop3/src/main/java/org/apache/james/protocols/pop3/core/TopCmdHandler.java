@@ -61,7 +61,7 @@ public class TopCmdHandler extends AbstractPOP3CommandHandler implements CapaCap
                     return handleSyntaxError();
                 }
                 InputStream content = getMessageContent(session, data);
-                InputStream in = new CountingBodyInputStream(new CRLFTerminatedInputStream(new ExtraDotInputStream(content)), args.getLineCount().get());
+                InputStream in = new CountingBodyInputStream(content, args.getLineCount().get());
                 return new POP3StreamResponse(POP3Response.OK_RESPONSE, "Message follows", in);
             }
 
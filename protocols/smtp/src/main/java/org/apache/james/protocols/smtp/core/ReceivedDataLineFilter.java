@@ -170,14 +170,27 @@ public class ReceivedDataLineFilter extends SeparatingDataLineFilter {
      * @return response
      */
     private Response addHeaders(SMTPSession session, byte[] line, LineHandler<SMTPSession> next) {
-        Response response;
+        Response response = transferHeaders(session, next);
+        if (response != null) {
+            return response;
+        }
+        return next.onLine(session, line);
+    }
+
+    /**
+     * Write the headers to the given {@link LineHandler}, for messages which are not received line by line, like
+     * BDAT chunks. Headers are then always added in front of the message.
+     *
+     * @return response
+     */
+    public Response transferHeaders(SMTPSession session, LineHandler<SMTPSession> next) {
         for (Header header : headers(session)) {
-            response = header.transferTo(session, next);
+            Response response = header.transferTo(session, next);
             if (response != null) {
                 return response;
             }
         }
-        return next.onLine(session, line);
+        return null;
     }
 
     enum Location {
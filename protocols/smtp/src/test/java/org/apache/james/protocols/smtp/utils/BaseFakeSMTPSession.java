@@ -204,6 +204,11 @@ public class BaseFakeSMTPSession implements SMTPSession {
         throw new UnsupportedOperationException("Unimplemented Stub Method");
     }
 
+    @Override
+    public void readBinaryData(long length) {
+        throw new UnsupportedOperationException("Unimplemented Stub Method");
+    }
+
     @Override
     public long currentMessageSize() {
         return currentMessageSize;
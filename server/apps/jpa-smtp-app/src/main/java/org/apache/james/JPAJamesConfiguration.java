@@ -30,17 +30,22 @@ import org.apache.james.server.core.MissingArgumentException;
 import org.apache.james.server.core.configuration.Configuration;
 import org.apache.james.server.core.configuration.FileConfigurationProvider;
 import org.apache.james.server.core.filesystem.FileSystemImpl;
+import org.apache.james.utils.PropertiesProvider;
+
+import com.github.fge.lambdas.Throwing;
 
 public class JPAJamesConfiguration implements Configuration {
     public static class Builder {
         private Optional<String> rootDirectory;
         private Optional<ConfigurationPath> configurationPath;
         private Optional<UsersRepositoryModuleChooser.Implementation> usersRepositoryImplementation;
+        private Optional<MailQueueChoice> mailQueueChoice;
 
         private Builder() {
             rootDirectory = Optional.empty();
             configurationPath = Optional.empty();
             usersRepositoryImplementation = Optional.empty();
+            mailQueueChoice = Optional.empty();
         }
 
         public Builder workingDirectory(String path) {
@@ -76,6 +81,11 @@ public class JPAJamesConfiguration implements Configuration {
             return this;
         }
 
+        public Builder mailQueue(MailQueueChoice mailQueueChoice) {
+            this.mailQueueChoice = Optional.of(mailQueueChoice);
+            return this;
+        }
+
         public JPAJamesConfiguration build() {
             ConfigurationPath configurationPath = this.configurationPath.orElse(new ConfigurationPath(FileSystem.FILE_PROTOCOL_AND_CONF));
             JamesServerResourceLoader directories = new JamesServerResourceLoader(rootDirectory
@@ -89,11 +99,15 @@ public class JPAJamesConfiguration implements Configuration {
                 .build());
             UsersRepositoryModuleChooser.Implementation usersRepositoryChoice = usersRepositoryImplementation.orElseGet(
                 () -> UsersRepositoryModuleChooser.Implementation.parse(configurationProvider));
+            PropertiesProvider propertiesProvider = new PropertiesProvider(fileSystem, configurationPath);
+            MailQueueChoice mailQueueChoice = this.mailQueueChoice.orElseGet(Throwing.supplier(
+                () -> MailQueueChoice.parse(propertiesProvider)));
 
             return new JPAJamesConfiguration(
                 configurationPath,
                 directories,
-                usersRepositoryChoice);
+                usersRepositoryChoice,
+                mailQueueChoice);
         }
     }
 
@@ -104,11 +118,14 @@ public class JPAJamesConfiguration implements Configuration {
     private final ConfigurationPath configurationPath;
     private final JamesDirectoriesProvider directories;
     private final UsersRepositoryModuleChooser.Implementation usersRepositoryImplementation;
+    private final MailQueueChoice mailQueueChoice;
 
-    public JPAJamesConfiguration(ConfigurationPath configurationPath, JamesDirectoriesProvider directories, UsersRepositoryModuleChooser.Implementation usersRepositoryImplementation) {
+    public JPAJamesConfiguration(ConfigurationPath configurationPath, JamesDirectoriesProvider directories,
+                                 UsersRepositoryModuleChooser.Implementation usersRepositoryImplementation, MailQueueChoice mailQueueChoice) {
         this.configurationPath = configurationPath;
         this.directories = directories;
         this.usersRepositoryImplementation = usersRepositoryImplementation;
+        this.mailQueueChoice = mailQueueChoice;
     }
 
     @Override
@@ -124,4 +141,8 @@ public class JPAJamesConfiguration implements Configuration {
     public UsersRepositoryModuleChooser.Implementation getUsersRepositoryImplementation() {
         return usersRepositoryImplementation;
     }
+
+    public MailQueueChoice getMailQueueChoice() {
+        return mailQueueChoice;
+    }
 }
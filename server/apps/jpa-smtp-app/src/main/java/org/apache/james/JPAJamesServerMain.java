@@ -28,7 +28,6 @@ import org.apache.james.modules.data.JPAEntityManagerModule;
 import org.apache.james.modules.data.JPAUsersRepositoryModule;
 import org.apache.james.modules.protocols.ProtocolHandlerModule;
 import org.apache.james.modules.protocols.SMTPServerModule;
-import org.apache.james.modules.queue.activemq.ActiveMQQueueModule;
 import org.apache.james.modules.server.DKIMMailetModule;
 import org.apache.james.modules.server.DataRoutesModules;
 import org.apache.james.modules.server.DefaultProcessorsConfigurationProviderModule;
@@ -62,7 +61,6 @@ public class JPAJamesServerMain implements JamesServerMain {
         new MailetProcessingModule(),
         new JPAEntityManagerModule(),
         new JPADataModule(),
-        new ActiveMQQueueModule(),
         new RawPostDequeueDecoratorModule(),
         new JPAAuthorizatorModule());
 
@@ -83,6 +81,7 @@ public class JPAJamesServerMain implements JamesServerMain {
     public static GuiceJamesServer createServer(JPAJamesConfiguration configuration) {
         return GuiceJamesServer.forConfiguration(configuration)
             .combineWith(JPA_SERVER_MODULE, PROTOCOLS, new DKIMMailetModule())
+            .combineWith(MailQueueChoice.ModuleChooser.choose(configuration.getMailQueueChoice()))
             .combineWith(new UsersRepositoryModuleChooser(new JPAUsersRepositoryModule())
                 .chooseModules(configuration.getUsersRepositoryImplementation()));
     }
@@ -0,0 +1,75 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james;
+
+import java.io.FileNotFoundException;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import org.apache.commons.configuration2.Configuration;
+import org.apache.commons.configuration2.ex.ConfigurationException;
+import org.apache.commons.lang3.NotImplementedException;
+import org.apache.james.modules.queue.activemq.ActiveMQQueueModule;
+import org.apache.james.modules.queue.file.FileMailQueueModule;
+import org.apache.james.utils.PropertiesProvider;
+
+import com.google.inject.Module;
+
+/**
+ * Mail queue implementation, read from the <code>implementation</code> property of <code>queue.properties</code>.
+ */
+public enum MailQueueChoice {
+    ACTIVEMQ,
+    FILE;
+
+    public static final String QUEUE_CONFIGURATION_NAME = "queue";
+
+    public static class ModuleChooser {
+        public static Module choose(MailQueueChoice choice) {
+            switch (choice) {
+                case ACTIVEMQ:
+                    return new ActiveMQQueueModule();
+                case FILE:
+                    return new FileMailQueueModule();
+                default:
+                    throw new NotImplementedException();
+            }
+        }
+    }
+
+    public static MailQueueChoice parse(Configuration configuration) throws ConfigurationException {
+        String implementation = configuration.getString("implementation", ACTIVEMQ.name());
+        return Arrays.stream(values())
+            .filter(choice -> choice.name().equalsIgnoreCase(implementation))
+            .findAny()
+            .orElseThrow(() -> new ConfigurationException(String.format("'implementation' parameter in '%s.properties' should be one of %s",
+                QUEUE_CONFIGURATION_NAME,
+                Arrays.stream(values())
+                    .map(choice -> choice.name().toLowerCase())
+                    .collect(Collectors.joining(", ")))));
+    }
+
+    public static MailQueueChoice parse(PropertiesProvider propertiesProvider) throws ConfigurationException {
+        try {
+            return parse(propertiesProvider.getConfiguration(QUEUE_CONFIGURATION_NAME));
+        } catch (FileNotFoundException e) {
+            return ACTIVEMQ;
+        }
+    }
+}
@@ -23,6 +23,7 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.security.GeneralSecurityException;
 import java.util.Collection;
 import java.util.Optional;
@@ -46,6 +47,7 @@ import com.google.common.io.CountingOutputStream;
 import com.google.common.io.FileBackedOutputStream;
 import com.google.crypto.tink.subtle.AesGcmHkdfStreaming;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
@@ -107,6 +109,34 @@ public class AESBlobStoreDAO implements BlobStoreDAO {
             .map(Throwing.function(this::decrypt));
     }
 
+    @Override
+    public Publisher<ReactiveByteSource> readAsByteSource(BucketName bucketName, BlobId blobId) {
+        return Mono.from(underlying.readAsByteSource(bucketName, blobId))
+            .map(Throwing.function(this::decryptByteSource).sneakyThrow())
+            .onErrorMap(GeneralSecurityException.class, e -> new ObjectStoreIOException("Error reading blob " + blobId.asString(), e));
+    }
+
+    private ReactiveByteSource decryptByteSource(ReactiveByteSource ciphertext) throws GeneralSecurityException {
+        return new ReactiveByteSource(SegmentDecrypter.plaintextSize(streamingAead, ciphertext.getSize()),
+            decryptChunks(ciphertext));
+    }
+
+    private Flux<ByteBuffer> decryptChunks(ReactiveByteSource ciphertext) {
+        return Flux.defer(Throwing.supplier(() -> {
+                SegmentDecrypter decrypter = new SegmentDecrypter(streamingAead, ciphertext.getSize());
+                return Flux.from(ciphertext.getContent())
+                    .<ByteBuffer>handle((chunk, sink) -> {
+                        try {
+                            decrypter.decrypt(chunk).ifPresent(sink::next);
+                        } catch (GeneralSecurityException e) {
+                            sink.error(e);
+                        }
+                    })
+                    .concatWith(Mono.fromRunnable(Throwing.runnable(decrypter::complete).sneakyThrow()));
+            }).sneakyThrow())
+            .onErrorMap(GeneralSecurityException.class, e -> new ObjectStoreIOException("Error decrypting blob", e));
+    }
+
     @Override
     public Publisher<byte[]> readBytes(BucketName bucketName, BlobId blobId) {
         return Mono.from(underlying.readBytes(bucketName, blobId))
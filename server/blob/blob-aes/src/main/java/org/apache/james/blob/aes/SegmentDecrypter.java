@@ -0,0 +1,135 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.aes;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.util.Optional;
+
+import com.google.crypto.tink.subtle.AesGcmHkdfStreaming;
+import com.google.crypto.tink.subtle.StreamSegmentDecrypter;
+
+/**
+ * Decrypts a ciphertext produced by {@link AesGcmHkdfStreaming} chunk by chunk, as it is received.
+ *
+ * At most one ciphertext segment is buffered: the plaintext of each chunk is available as soon as the segments it
+ * completes are authenticated. The ciphertext size needs to be known upfront to identify the last segment.
+ */
+class SegmentDecrypter {
+    static long plaintextSize(AesGcmHkdfStreaming streamingAead, long ciphertextSize) throws GeneralSecurityException {
+        long segmentsSize = ciphertextSize - streamingAead.getHeaderLength();
+        long firstSegmentSize = streamingAead.getCiphertextSegmentSize() - streamingAead.getCiphertextOffset();
+        long segmentCount = 1;
+        if (segmentsSize > firstSegmentSize) {
+            segmentCount += Math.ceilDiv(segmentsSize - firstSegmentSize, streamingAead.getCiphertextSegmentSize());
+        }
+        long plaintextSize = segmentsSize - segmentCount * streamingAead.getCiphertextOverhead();
+        if (plaintextSize < 0) {
+            throw new GeneralSecurityException("Ciphertext of " + ciphertextSize + " bytes is too short");
+        }
+        return plaintextSize;
+    }
+
+    private final AesGcmHkdfStreaming streamingAead;
+    private final StreamSegmentDecrypter decrypter;
+    private final long ciphertextSize;
+    private final ByteBuffer header;
+    private final ByteBuffer segment;
+    private long consumed;
+    private int segmentNumber;
+    private boolean done;
+
+    SegmentDecrypter(AesGcmHkdfStreaming streamingAead, long ciphertextSize) throws GeneralSecurityException {
+        this.streamingAead = streamingAead;
+        this.decrypter = streamingAead.newStreamSegmentDecrypter();
+        this.ciphertextSize = ciphertextSize;
+        this.header = ByteBuffer.allocate(streamingAead.getHeaderLength());
+        this.segment = ByteBuffer.allocate(streamingAead.getCiphertextSegmentSize());
+        this.consumed = 0;
+        this.segmentNumber = 0;
+        this.done = false;
+    }
+
+    /**
+     * @return the plaintext of the segments completed by this chunk, if any
+     */
+    Optional<ByteBuffer> decrypt(ByteBuffer chunk) throws GeneralSecurityException {
+        if (consumed + chunk.remaining() > ciphertextSize) {
+            throw new GeneralSecurityException("Ciphertext is longer than the expected " + ciphertextSize + " bytes");
+        }
+        ByteBuffer plaintext = ByteBuffer.allocate(segment.position() + chunk.remaining());
+        while (chunk.hasRemaining()) {
+            if (header.hasRemaining()) {
+                consumed += transfer(chunk, header);
+                if (!header.hasRemaining()) {
+                    decrypter.init(header.flip(), PBKDF2StreamingAeadFactory.EMPTY_ASSOCIATED_DATA);
+                    segment.limit(nextSegmentSize());
+                }
+            } else {
+                consumed += transfer(chunk, segment);
+                if (!segment.hasRemaining()) {
+                    decryptSegment(plaintext);
+                }
+            }
+        }
+        if (plaintext.position() == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(plaintext.flip());
+    }
+
+    /**
+     * To be called once all the ciphertext was received.
+     */
+    void complete() throws GeneralSecurityException {
+        if (!done) {
+            throw new GeneralSecurityException("Ciphertext is shorter than the expected " + ciphertextSize + " bytes");
+        }
+    }
+
+    private int transfer(ByteBuffer source, ByteBuffer destination) {
+        int length = Math.min(source.remaining(), destination.remaining());
+        destination.put(destination.position(), source, source.position(), length);
+        destination.position(destination.position() + length);
+        source.position(source.position() + length);
+        return length;
+    }
+
+    private void decryptSegment(ByteBuffer plaintext) throws GeneralSecurityException {
+        boolean isLastSegment = consumed == ciphertextSize;
+        decrypter.decryptSegment(segment.flip(), segmentNumber, isLastSegment, plaintext);
+        segmentNumber++;
+        segment.clear();
+        if (isLastSegment) {
+            done = true;
+            segment.limit(0);
+        } else {
+            segment.limit(nextSegmentSize());
+        }
+    }
+
+    private int nextSegmentSize() {
+        int segmentSize = streamingAead.getCiphertextSegmentSize();
+        if (segmentNumber == 0) {
+            segmentSize -= streamingAead.getCiphertextOffset();
+        }
+        return (int) Math.min(segmentSize, ciphertextSize - consumed);
+    }
+}
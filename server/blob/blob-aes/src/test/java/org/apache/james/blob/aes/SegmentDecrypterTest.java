@@ -0,0 +1,115 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.aes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.google.crypto.tink.subtle.AesGcmHkdfStreaming;
+
+class SegmentDecrypterTest {
+    private static final AesGcmHkdfStreaming STREAMING_AEAD = PBKDF2StreamingAeadFactory.newAesGcmHkdfStreaming(CryptoConfig.builder()
+        .salt("c603a7327ee3dcbc031d8d34b1096c605feca5e1")
+        .password("testing".toCharArray())
+        .build());
+
+    static Stream<Arguments> sizes() {
+        int segment = STREAMING_AEAD.getPlaintextSegmentSize();
+        int firstSegment = segment - STREAMING_AEAD.getCiphertextOffset();
+        return IntStream.of(0, 1, firstSegment - 1, firstSegment, firstSegment + 1,
+                firstSegment + segment - 1, firstSegment + segment, firstSegment + segment + 1, 3 * segment + 17)
+            .boxed()
+            .flatMap(size -> IntStream.of(1, 7, 4096, 100_000)
+                .mapToObj(chunkSize -> Arguments.of(size, chunkSize)));
+    }
+
+    private static byte[] encrypt(byte[] plaintext) throws Exception {
+        ByteArrayOutputStream ciphertext = new ByteArrayOutputStream();
+        try (OutputStream outputStream = STREAMING_AEAD.newEncryptingStream(ciphertext, PBKDF2StreamingAeadFactory.EMPTY_ASSOCIATED_DATA)) {
+            outputStream.write(plaintext);
+        }
+        return ciphertext.toByteArray();
+    }
+
+    private static byte[] decrypt(byte[] ciphertext, int chunkSize) throws GeneralSecurityException {
+        SegmentDecrypter decrypter = new SegmentDecrypter(STREAMING_AEAD, ciphertext.length);
+        ByteArrayOutputStream plaintext = new ByteArrayOutputStream();
+        for (int offset = 0; offset < ciphertext.length; offset += chunkSize) {
+            ByteBuffer chunk = ByteBuffer.wrap(ciphertext, offset, Math.min(chunkSize, ciphertext.length - offset));
+            decrypter.decrypt(chunk).ifPresent(buffer -> {
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                plaintext.writeBytes(bytes);
+            });
+        }
+        decrypter.complete();
+        return plaintext.toByteArray();
+    }
+
+    @ParameterizedTest(name = "{0} bytes in chunks of {1}")
+    @MethodSource("sizes")
+    void decryptShouldRestoreThePlaintext(int size, int chunkSize) throws Exception {
+        byte[] plaintext = new byte[size];
+        new Random(size).nextBytes(plaintext);
+        byte[] ciphertext = encrypt(plaintext);
+
+        assertThat(SegmentDecrypter.plaintextSize(STREAMING_AEAD, ciphertext.length)).isEqualTo(size);
+        assertThat(decrypt(ciphertext, chunkSize)).isEqualTo(plaintext);
+    }
+
+    @Test
+    void decryptShouldRejectTamperedCiphertext() throws Exception {
+        byte[] ciphertext = encrypt(new byte[10_000]);
+        ciphertext[ciphertext.length - 1] ^= 1;
+
+        assertThatThrownBy(() -> decrypt(ciphertext, 4096))
+            .isInstanceOf(GeneralSecurityException.class);
+    }
+
+    @Test
+    void completeShouldRejectTruncatedCiphertext() throws Exception {
+        byte[] ciphertext = encrypt(new byte[10_000]);
+        SegmentDecrypter decrypter = new SegmentDecrypter(STREAMING_AEAD, ciphertext.length);
+        decrypter.decrypt(ByteBuffer.wrap(Arrays.copyOf(ciphertext, 5000)));
+
+        assertThatThrownBy(decrypter::complete)
+            .isInstanceOf(GeneralSecurityException.class);
+    }
+
+    @Test
+    void plaintextSizeShouldRejectTooShortCiphertexts() {
+        assertThatThrownBy(() -> SegmentDecrypter.plaintextSize(STREAMING_AEAD, STREAMING_AEAD.getHeaderLength()))
+            .isInstanceOf(GeneralSecurityException.class);
+    }
+}
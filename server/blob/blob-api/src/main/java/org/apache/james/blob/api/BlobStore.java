@@ -18,13 +18,17 @@
  ****************************************************************/
 package org.apache.james.blob.api;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 
 import org.reactivestreams.Publisher;
 
 import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Closeables;
 
+import reactor.core.publisher.Mono;
 import reactor.util.function.Tuple2;
 
 public interface BlobStore {
@@ -63,6 +67,22 @@ public interface BlobStore {
 
     Publisher<InputStream> readReactive(BucketName bucketName, BlobId blobId);
 
+    /**
+     * @see BlobStoreDAO#readRangeReactive(BucketName, BlobId, long, long)
+     */
+    default Publisher<InputStream> readRangeReactive(BucketName bucketName, BlobId blobId, long offset, long length) {
+        return Mono.from(readReactive(bucketName, blobId))
+            .handle((stream, sink) -> {
+                try {
+                    ByteStreams.skipFully(stream, offset);
+                    sink.next(ByteStreams.limit(stream, length));
+                } catch (IOException e) {
+                    Closeables.closeQuietly(stream);
+                    sink.error(new ObjectStoreIOException("Cannot read the requested range of " + blobId.asString(), e));
+                }
+            });
+    }
+
     default Publisher<byte[]> readBytes(BucketName bucketName, BlobId blobId, StoragePolicy storagePolicy) {
        return readBytes(bucketName, blobId);
     }
@@ -19,6 +19,7 @@
 
 package org.apache.james.blob.api;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
@@ -27,6 +28,8 @@ import java.util.Collection;
 import org.reactivestreams.Publisher;
 
 import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Closeables;
 
 import reactor.core.publisher.Mono;
 
@@ -65,6 +68,28 @@ public interface BlobStoreDAO {
 
     Publisher<InputStream> readReactive(BucketName bucketName, BlobId blobId);
 
+    /**
+     * Reads {@code length} bytes of a Blob, starting at {@code offset}.
+     *
+     * By default the bytes before the range are read and skipped: stores able to start reading at an offset should
+     * override this method.
+     *
+     * @return a Mono containing the range of the blob, or the errors of {@link #readReactive(BucketName, BlobId)} in
+     *  its error channel
+     */
+    default Publisher<InputStream> readRangeReactive(BucketName bucketName, BlobId blobId, long offset, long length) {
+        return Mono.from(readReactive(bucketName, blobId))
+            .handle((stream, sink) -> {
+                try {
+                    ByteStreams.skipFully(stream, offset);
+                    sink.next(ByteStreams.limit(stream, length));
+                } catch (IOException e) {
+                    Closeables.closeQuietly(stream);
+                    sink.error(new ObjectStoreIOException("Cannot read the requested range of " + blobId.asString(), e));
+                }
+            });
+    }
+
     /**
      * Reads a Blob based on its BucketName and its BlobId
      *
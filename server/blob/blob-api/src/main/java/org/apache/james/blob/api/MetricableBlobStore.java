@@ -96,6 +96,11 @@ public class MetricableBlobStore implements BlobStore {
         return metricFactory.decoratePublisherWithTimerMetric(READ_TIMER_NAME, blobStoreImpl.readReactive(bucketName, blobId));
     }
 
+    @Override
+    public Publisher<InputStream> readRangeReactive(BucketName bucketName, BlobId blobId, long offset, long length) {
+        return metricFactory.decoratePublisherWithTimerMetric(READ_TIMER_NAME, blobStoreImpl.readRangeReactive(bucketName, blobId, offset, length));
+    }
+
     @Override
     public Publisher<byte[]> readBytes(BucketName bucketName, BlobId blobId, StoragePolicy storagePolicy) {
         return metricFactory.decoratePublisherWithTimerMetric(READ_BYTES_TIMER_NAME, blobStoreImpl.readBytes(bucketName, blobId, storagePolicy));
@@ -31,6 +31,7 @@ import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -171,6 +172,35 @@ public interface ReadSaveBlobStoreDAOContract {
         assertThat(bytes).isEqualTo(TWELVE_MEGABYTES);
     }
 
+    @Test
+    default void readAsByteSourceShouldThrowWhenNotExisting() {
+        BlobStoreDAO store = testee();
+
+        assertThatThrownBy(() -> Mono.from(store.readAsByteSource(TEST_BUCKET_NAME, new TestBlobId("unknown"))).block())
+            .isExactlyInstanceOf(ObjectNotFoundException.class);
+    }
+
+    @ParameterizedTest(name = "[{index}] {0}")
+    @MethodSource("blobsIncludingEmpty")
+    default void readAsByteSourceShouldReturnSavedData(String description, byte[] bytes) {
+        BlobStoreDAO store = testee();
+        Mono.from(store.save(TEST_BUCKET_NAME, TEST_BLOB_ID, bytes)).block();
+
+        BlobStoreDAO.ReactiveByteSource byteSource = Mono.from(store.readAsByteSource(TEST_BUCKET_NAME, TEST_BLOB_ID)).block();
+        byte[] read = Flux.from(byteSource.getContent())
+            .reduce(new ByteArrayOutputStream(), (output, buffer) -> {
+                byte[] chunk = new byte[buffer.remaining()];
+                buffer.get(chunk);
+                output.writeBytes(chunk);
+                return output;
+            })
+            .map(ByteArrayOutputStream::toByteArray)
+            .block();
+
+        assertThat(byteSource.getSize()).isEqualTo(bytes.length);
+        assertThat(read).isEqualTo(bytes);
+    }
+
     @Test
     default void readStreamShouldThrowWhenNotExisting() {
         BlobStoreDAO store = testee();
@@ -179,6 +209,34 @@ public interface ReadSaveBlobStoreDAOContract {
             .isInstanceOf(ObjectNotFoundException.class);
     }
 
+    @Test
+    default void readRangeReactiveShouldReturnTheRequestedRange() throws Exception {
+        BlobStoreDAO store = testee();
+        Mono.from(store.save(TEST_BUCKET_NAME, TEST_BLOB_ID, ELEVEN_KILOBYTES)).block();
+
+        InputStream range = Mono.from(store.readRangeReactive(TEST_BUCKET_NAME, TEST_BLOB_ID, 1000, 2000)).block();
+
+        assertThat(range).hasBinaryContent(Arrays.copyOfRange(ELEVEN_KILOBYTES, 1000, 3000));
+    }
+
+    @Test
+    default void readRangeReactiveShouldStopAtTheEndOfTheBlob() throws Exception {
+        BlobStoreDAO store = testee();
+        Mono.from(store.save(TEST_BUCKET_NAME, TEST_BLOB_ID, ELEVEN_KILOBYTES)).block();
+
+        InputStream range = Mono.from(store.readRangeReactive(TEST_BUCKET_NAME, TEST_BLOB_ID, 10000, 5000)).block();
+
+        assertThat(range).hasBinaryContent(Arrays.copyOfRange(ELEVEN_KILOBYTES, 10000, ELEVEN_KILOBYTES.length));
+    }
+
+    @Test
+    default void readRangeReactiveShouldThrowWhenNotExisting() {
+        BlobStoreDAO store = testee();
+
+        assertThatThrownBy(() -> Mono.from(store.readRangeReactive(TEST_BUCKET_NAME, new TestBlobId("unknown"), 0, 10)).block())
+            .isInstanceOf(ObjectNotFoundException.class);
+    }
+
     @Test
     default void saveShouldCreateBucket() {
         BlobStoreDAO store = testee();
@@ -332,6 +390,10 @@ public interface ReadSaveBlobStoreDAOContract {
             .map(Arguments::of);
     }
 
+    static Stream<Arguments> blobsIncludingEmpty() {
+        return Stream.concat(Stream.of(Arguments.of("EMPTY", EMPTY_BYTEARRAY)), blobs());
+    }
+
     @ParameterizedTest(name = "[{index}] {0}")
     @MethodSource(value = "blobs")
     default void concurrentSaveBytesShouldReturnConsistentValues(String description, byte[] bytes) throws ExecutionException, InterruptedException {
@@ -25,17 +25,22 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 import java.nio.channels.OverlappingFileLockException;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.util.Collection;
 
 import jakarta.inject.Inject;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.james.blob.api.BlobId;
 import org.apache.james.blob.api.BlobStoreDAO;
 import org.apache.james.blob.api.BucketName;
@@ -47,6 +52,7 @@ import org.reactivestreams.Publisher;
 import com.github.fge.lambdas.Throwing;
 import com.google.common.base.Preconditions;
 import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -54,6 +60,7 @@ import reactor.core.scheduler.Schedulers;
 import reactor.util.retry.Retry;
 
 public class FileBlobStoreDAO implements BlobStoreDAO {
+    private static final int CHUNK_SIZE = 64 * 1024;
 
     private final File root;
     private final  BlobId.Factory blobIdFactory;
@@ -93,6 +100,30 @@ public class FileBlobStoreDAO implements BlobStoreDAO {
             .subscribeOn(Schedulers.boundedElastic());
     }
 
+    @Override
+    public Mono<InputStream> readRangeReactive(BucketName bucketName, BlobId blobId, long offset, long length) {
+        return Mono.fromCallable(() -> readRange(bucketName, blobId, offset, length))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private InputStream readRange(BucketName bucketName, BlobId blobId, long offset, long length) {
+        File blob = new File(getBucketRoot(bucketName), blobId.asString());
+        try {
+            FileChannel channel = FileChannel.open(blob.toPath(), StandardOpenOption.READ);
+            try {
+                channel.position(offset);
+            } catch (IOException e) {
+                IOUtils.closeQuietly(channel, e::addSuppressed);
+                throw e;
+            }
+            return ByteStreams.limit(Channels.newInputStream(channel), length);
+        } catch (NoSuchFileException e) {
+            throw new ObjectNotFoundException(String.format("Cannot locate %s within %s", blobId.asString(), bucketName.asString()), e);
+        } catch (IOException e) {
+            throw new ObjectStoreIOException("Cannot read the requested range of " + blobId.asString(), e);
+        }
+    }
+
     @Override
     public Mono<byte[]> readBytes(BucketName bucketName, BlobId blobId) {
         return Mono.fromCallable(() -> {
@@ -103,6 +134,37 @@ public class FileBlobStoreDAO implements BlobStoreDAO {
             .subscribeOn(Schedulers.boundedElastic());
     }
 
+    @Override
+    public Mono<ReactiveByteSource> readAsByteSource(BucketName bucketName, BlobId blobId) {
+        return Mono.fromCallable(() -> {
+                File bucketRoot = getBucketRoot(bucketName);
+                File blob = new File(bucketRoot, blobId.asString());
+                if (!blob.isFile()) {
+                    throw new ObjectNotFoundException(String.format("Cannot locate %s within %s", blobId.asString(), bucketName.asString()));
+                }
+                return new ReactiveByteSource(blob.length(), readChunks(blob.toPath()));
+            })
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Flux<ByteBuffer> readChunks(Path blob) {
+        return Flux.using(() -> FileChannel.open(blob, StandardOpenOption.READ),
+                channel -> Flux.<ByteBuffer>generate(sink -> {
+                    try {
+                        ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE);
+                        if (channel.read(chunk) < 0) {
+                            sink.complete();
+                        } else {
+                            sink.next(chunk.flip());
+                        }
+                    } catch (IOException e) {
+                        sink.error(new ObjectStoreIOException("Error reading blob " + blob, e));
+                    }
+                }),
+                Throwing.consumer(FileChannel::close).sneakyThrow())
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
     @Override
     public Mono<Void> save(BucketName bucketName, BlobId blobId, byte[] data) {
         Preconditions.checkNotNull(data);
@@ -29,6 +29,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
@@ -63,6 +64,7 @@ import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.model.Bucket;
 import software.amazon.awssdk.services.s3.model.BucketAlreadyOwnedByYouException;
 import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 import software.amazon.awssdk.services.s3.model.ListBucketsResponse;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
@@ -149,6 +151,21 @@ public class S3BlobStoreDAO implements BlobStoreDAO {
             .map(res -> ReactorUtils.toInputStream(res.flux));
     }
 
+    @Override
+    public Publisher<InputStream> readRangeReactive(BucketName bucketName, BlobId blobId, long offset, long length) {
+        if (length == 0) {
+            return Mono.just(InputStream.nullInputStream());
+        }
+        BucketName resolvedBucketName = bucketNameResolver.resolve(bucketName);
+        String range = "bytes=" + offset + "-" + (offset + length - 1);
+
+        return getObject(resolvedBucketName, blobId, builder -> builder.range(range))
+            .onErrorMap(NoSuchBucketException.class, e -> new ObjectNotFoundException("Bucket not found " + resolvedBucketName.asString(), e))
+            .onErrorMap(NoSuchKeyException.class, e -> new ObjectNotFoundException("Blob not found " + blobId.asString() + " in bucket " + resolvedBucketName.asString(), e))
+            .publishOn(ReactorUtils.BLOCKING_CALL_WRAPPER)
+            .map(res -> ReactorUtils.toInputStream(res.flux));
+    }
+
     @Override
     public Publisher<ReactiveByteSource> readAsByteSource(BucketName bucketName, BlobId blobId) {
         BucketName resolvedBucketName = bucketNameResolver.resolve(bucketName);
@@ -166,9 +183,13 @@ public class S3BlobStoreDAO implements BlobStoreDAO {
     }
 
     private Mono<FluxResponse> getObject(BucketName bucketName, BlobId blobId) {
+        return getObject(bucketName, blobId, builder -> { });
+    }
+
+    private Mono<FluxResponse> getObject(BucketName bucketName, BlobId blobId, Consumer<GetObjectRequest.Builder> requestCustomizer) {
         return Mono.fromFuture(() ->
             client.getObject(
-                builder -> builder.bucket(bucketName.asString()).key(blobId.asString()),
+                builder -> requestCustomizer.accept(builder.bucket(bucketName.asString()).key(blobId.asString())),
                 new AsyncResponseTransformer<GetObjectResponse, FluxResponse>() {
 
                     FluxResponse response;
@@ -46,7 +46,9 @@ public class BlobGCTask implements Task {
                 snapshot.getErrorCount(),
                 snapshot.getBloomFilterExpectedBlobCount(),
                 snapshot.getBloomFilterAssociatedProbability(),
-                Clock.systemUTC().instant(), deletionWindowSize);
+                Clock.systemUTC().instant(), deletionWindowSize,
+                snapshot.getPartitionCount(),
+                snapshot.getProcessedPartitionCount());
         }
 
         private final Instant timestamp;
@@ -57,6 +59,8 @@ public class BlobGCTask implements Task {
         private final long bloomFilterExpectedBlobCount;
         private final double bloomFilterAssociatedProbability;
         private final int deletionWindowSize;
+        private final int partitionCount;
+        private final int processedPartitionCount;
 
         AdditionalInformation(long referenceSourceCount,
                               long blobCount,
@@ -65,7 +69,9 @@ public class BlobGCTask implements Task {
                               long bloomFilterExpectedBlobCount,
                               double bloomFilterAssociatedProbability,
                               Instant timestamp,
-                              int deletionWindowSize) {
+                              int deletionWindowSize,
+                              int partitionCount,
+                              int processedPartitionCount) {
             this.referenceSourceCount = referenceSourceCount;
             this.blobCount = blobCount;
             this.gcedBlobCount = gcedBlobCount;
@@ -74,6 +80,8 @@ public class BlobGCTask implements Task {
             this.bloomFilterAssociatedProbability = bloomFilterAssociatedProbability;
             this.timestamp = timestamp;
             this.deletionWindowSize = deletionWindowSize;
+            this.partitionCount = partitionCount;
+            this.processedPartitionCount = processedPartitionCount;
         }
 
         @Override
@@ -112,11 +120,21 @@ public class BlobGCTask implements Task {
         public int getDeletionWindowSize() {
             return deletionWindowSize;
         }
+
+        public int getPartitionCount() {
+            return partitionCount;
+        }
+
+        public int getProcessedPartitionCount() {
+            return processedPartitionCount;
+        }
     }
 
     public static class Builder {
 
         public static final int DEFAULT_DELETION_WINDOW_SIZE = 1000;
+        public static final int DEFAULT_PARTITION_COUNT = BloomFilterGCAlgorithm.DEFAULT_PARTITION_COUNT;
+        public static final int DEFAULT_PARTITION_CONCURRENCY = BloomFilterGCAlgorithm.DEFAULT_PARTITION_CONCURRENCY;
 
         @FunctionalInterface
         public interface RequireAssociatedProbability {
@@ -167,6 +185,8 @@ public class BlobGCTask implements Task {
         private final int expectedBlobCount;
         private final double associatedProbability;
         private Optional<Integer> deletionWindowSize;
+        private Optional<Integer> partitionCount;
+        private Optional<Integer> partitionConcurrency;
 
         public Builder(BlobStoreDAO blobStoreDAO, GenerationAwareBlobId.Factory generationAwareBlobIdFactory,
                        GenerationAwareBlobId.Configuration generationAwareBlobIdConfiguration,
@@ -180,6 +200,8 @@ public class BlobGCTask implements Task {
             this.bucketName = bucketName;
             this.expectedBlobCount = expectedBlobCount;
             this.deletionWindowSize = Optional.empty();
+            this.partitionCount = Optional.empty();
+            this.partitionConcurrency = Optional.empty();
             this.associatedProbability = associatedProbability;
         }
 
@@ -193,6 +215,16 @@ public class BlobGCTask implements Task {
             return this;
         }
 
+        public Builder partitionCount(Optional<Integer> partitionCount) {
+            this.partitionCount = partitionCount;
+            return this;
+        }
+
+        public Builder partitionConcurrency(Optional<Integer> partitionConcurrency) {
+            this.partitionConcurrency = partitionConcurrency;
+            return this;
+        }
+
         public BlobGCTask build() {
             return new BlobGCTask(
                 blobStoreDAO,
@@ -203,7 +235,9 @@ public class BlobGCTask implements Task {
                 clock,
                 expectedBlobCount,
                 deletionWindowSize.orElse(DEFAULT_DELETION_WINDOW_SIZE),
-                associatedProbability);
+                associatedProbability,
+                partitionCount.orElse(DEFAULT_PARTITION_COUNT),
+                partitionConcurrency.orElse(DEFAULT_PARTITION_CONCURRENCY));
         }
     }
 
@@ -231,6 +265,8 @@ public class BlobGCTask implements Task {
     private final int expectedBlobCount;
     private final int deletionWindowSize;
     private final double associatedProbability;
+    private final int partitionCount;
+    private final int partitionConcurrency;
     private final Context context;
 
 
@@ -242,6 +278,19 @@ public class BlobGCTask implements Task {
                       Clock clock,
                       int expectedBlobCount,
                       int deletionWindowSize, double associatedProbability) {
+        this(blobStoreDAO, generationAwareBlobIdFactory, generationAwareBlobIdConfiguration, blobReferenceSources, bucketName, clock,
+            expectedBlobCount, deletionWindowSize, associatedProbability, Builder.DEFAULT_PARTITION_COUNT, Builder.DEFAULT_PARTITION_CONCURRENCY);
+    }
+
+    public BlobGCTask(BlobStoreDAO blobStoreDAO,
+                      GenerationAwareBlobId.Factory generationAwareBlobIdFactory,
+                      GenerationAwareBlobId.Configuration generationAwareBlobIdConfiguration,
+                      Set<BlobReferenceSource> blobReferenceSources,
+                      BucketName bucketName,
+                      Clock clock,
+                      int expectedBlobCount,
+                      int deletionWindowSize, double associatedProbability,
+                      int partitionCount, int partitionConcurrency) {
         this.blobStoreDAO = blobStoreDAO;
         this.generationAwareBlobIdFactory = generationAwareBlobIdFactory;
         this.generationAwareBlobIdConfiguration = generationAwareBlobIdConfiguration;
@@ -251,7 +300,9 @@ public class BlobGCTask implements Task {
         this.expectedBlobCount = expectedBlobCount;
         this.deletionWindowSize = deletionWindowSize;
         this.associatedProbability = associatedProbability;
-        this.context = new Context(expectedBlobCount, associatedProbability);
+        this.partitionCount = partitionCount;
+        this.partitionConcurrency = partitionConcurrency;
+        this.context = new Context(expectedBlobCount, associatedProbability, partitionCount);
     }
 
     @Override
@@ -263,7 +314,7 @@ public class BlobGCTask implements Task {
             generationAwareBlobIdConfiguration,
             clock);
 
-        return gcAlgorithm.gc(expectedBlobCount, deletionWindowSize, associatedProbability, bucketName, context)
+        return gcAlgorithm.gc(expectedBlobCount, deletionWindowSize, associatedProbability, partitionCount, partitionConcurrency, bucketName, context)
             .block();
     }
 
@@ -296,4 +347,12 @@ public class BlobGCTask implements Task {
     public int getDeletionWindowSize() {
         return deletionWindowSize;
     }
+
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    public int getPartitionConcurrency() {
+        return partitionConcurrency;
+    }
 }
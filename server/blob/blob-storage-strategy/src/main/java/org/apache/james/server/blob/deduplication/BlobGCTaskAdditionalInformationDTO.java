@@ -42,7 +42,9 @@ public class BlobGCTaskAdditionalInformationDTO implements AdditionalInformation
                     dto.bloomFilterExpectedBlobCount,
                     dto.bloomFilterAssociatedProbability,
                     dto.timestamp,
-                    dto.deletionWindowSize.orElse(BlobGCTask.Builder.DEFAULT_DELETION_WINDOW_SIZE)))
+                    dto.deletionWindowSize.orElse(BlobGCTask.Builder.DEFAULT_DELETION_WINDOW_SIZE),
+                    dto.partitionCount.orElse(BlobGCTask.Builder.DEFAULT_PARTITION_COUNT),
+                    dto.processedPartitionCount.orElse(0)))
             .toDTOConverter((domain, type) ->
                 new BlobGCTaskAdditionalInformationDTO(
                     type,
@@ -53,7 +55,9 @@ public class BlobGCTaskAdditionalInformationDTO implements AdditionalInformation
                     domain.getErrorCount(),
                     domain.getBloomFilterExpectedBlobCount(),
                     domain.getBloomFilterAssociatedProbability(),
-                    Optional.of(domain.getDeletionWindowSize())
+                    Optional.of(domain.getDeletionWindowSize()),
+                    Optional.of(domain.getPartitionCount()),
+                    Optional.of(domain.getProcessedPartitionCount())
                 ))
             .typeName(BlobGCTask.TASK_TYPE.asString())
             .withFactory(AdditionalInformationDTOModule::new);
@@ -67,6 +71,8 @@ public class BlobGCTaskAdditionalInformationDTO implements AdditionalInformation
     private final long bloomFilterExpectedBlobCount;
     private final double bloomFilterAssociatedProbability;
     private final Optional<Integer> deletionWindowSize;
+    private final Optional<Integer> partitionCount;
+    private final Optional<Integer> processedPartitionCount;
 
     public BlobGCTaskAdditionalInformationDTO(@JsonProperty("type") String type,
                                               @JsonProperty("timestamp") Instant timestamp,
@@ -76,7 +82,9 @@ public class BlobGCTaskAdditionalInformationDTO implements AdditionalInformation
                                               @JsonProperty("errorCount") long errorCount,
                                               @JsonProperty("bloomFilterExpectedBlobCount") long bloomFilterExpectedBlobCount,
                                               @JsonProperty("bloomFilterAssociatedProbability") double bloomFilterAssociatedProbability,
-                                              @JsonProperty("deletionWindowSize") Optional<Integer> deletionWindowSize) {
+                                              @JsonProperty("deletionWindowSize") Optional<Integer> deletionWindowSize,
+                                              @JsonProperty("partitionCount") Optional<Integer> partitionCount,
+                                              @JsonProperty("processedPartitionCount") Optional<Integer> processedPartitionCount) {
         this.type = type;
         this.timestamp = timestamp;
         this.referenceSourceCount = referenceSourceCount;
@@ -86,6 +94,8 @@ public class BlobGCTaskAdditionalInformationDTO implements AdditionalInformation
         this.bloomFilterExpectedBlobCount = bloomFilterExpectedBlobCount;
         this.bloomFilterAssociatedProbability = bloomFilterAssociatedProbability;
         this.deletionWindowSize = deletionWindowSize;
+        this.partitionCount = partitionCount;
+        this.processedPartitionCount = processedPartitionCount;
     }
 
 
@@ -126,4 +136,12 @@ public class BlobGCTaskAdditionalInformationDTO implements AdditionalInformation
     public Optional<Integer> getDeletionWindowSize() {
         return deletionWindowSize;
     }
+
+    public Optional<Integer> getPartitionCount() {
+        return partitionCount;
+    }
+
+    public Optional<Integer> getProcessedPartitionCount() {
+        return processedPartitionCount;
+    }
 }
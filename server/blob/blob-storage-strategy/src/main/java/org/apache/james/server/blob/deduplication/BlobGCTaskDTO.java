@@ -38,17 +38,23 @@ public class BlobGCTaskDTO implements TaskDTO {
     private final int expectedBlobCount;
     private final Optional<Integer> deletionWindowSize;
     private final double associatedProbability;
+    private final Optional<Integer> partitionCount;
+    private final Optional<Integer> partitionConcurrency;
     private final String type;
 
     public BlobGCTaskDTO(@JsonProperty("bucketName") String bucketName,
                          @JsonProperty("expectedBlobCount") int expectedBlobCount,
                          @JsonProperty("deletionWindowSize") Optional<Integer> deletionWindowSize,
                          @JsonProperty("associatedProbability") double associatedProbability,
+                         @JsonProperty("partitionCount") Optional<Integer> partitionCount,
+                         @JsonProperty("partitionConcurrency") Optional<Integer> partitionConcurrency,
                          @JsonProperty("type") String type) {
         this.bucketName = bucketName;
         this.expectedBlobCount = expectedBlobCount;
         this.deletionWindowSize = deletionWindowSize;
         this.associatedProbability = associatedProbability;
+        this.partitionCount = partitionCount;
+        this.partitionConcurrency = partitionConcurrency;
         this.type = type;
     }
 
@@ -70,6 +76,8 @@ public class BlobGCTaskDTO implements TaskDTO {
                     .expectedBlobCount(dto.expectedBlobCount)
                     .associatedProbability(dto.associatedProbability)
                     .deletionWindowSize(dto.deletionWindowSize)
+                    .partitionCount(dto.partitionCount)
+                    .partitionConcurrency(dto.partitionConcurrency)
                     .build())
             .toDTOConverter((domain, type) ->
                 new BlobGCTaskDTO(
@@ -77,6 +85,8 @@ public class BlobGCTaskDTO implements TaskDTO {
                     domain.getExpectedBlobCount(),
                     Optional.of(domain.getDeletionWindowSize()),
                     domain.getAssociatedProbability(),
+                    Optional.of(domain.getPartitionCount()),
+                    Optional.of(domain.getPartitionConcurrency()),
                     type))
             .typeName(BlobGCTask.TASK_TYPE.asString())
             .withFactory(TaskDTOModule::new);
@@ -102,4 +112,12 @@ public class BlobGCTaskDTO implements TaskDTO {
     public Optional<Integer> getDeletionWindowSize() {
         return deletionWindowSize;
     }
+
+    public Optional<Integer> getPartitionCount() {
+        return partitionCount;
+    }
+
+    public Optional<Integer> getPartitionConcurrency() {
+        return partitionConcurrency;
+    }
 }
@@ -21,6 +21,7 @@ package org.apache.james.server.blob.deduplication;
 
 import static org.apache.james.util.ReactorUtils.DEFAULT_CONCURRENCY;
 
+import java.math.RoundingMode;
 import java.nio.charset.StandardCharsets;
 import java.time.Clock;
 import java.time.Instant;
@@ -28,8 +29,10 @@ import java.util.Collection;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
+import org.apache.james.blob.api.BlobId;
 import org.apache.james.blob.api.BlobReferenceSource;
 import org.apache.james.blob.api.BlobStoreDAO;
 import org.apache.james.blob.api.BucketName;
@@ -39,9 +42,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
 import com.google.common.hash.BloomFilter;
 import com.google.common.hash.Funnel;
 import com.google.common.hash.Funnels;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.math.IntMath;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -51,6 +58,8 @@ public class BloomFilterGCAlgorithm {
     private static final Logger LOGGER = LoggerFactory.getLogger(BloomFilterGCAlgorithm.class);
     private static final Funnel<CharSequence> BLOOM_FILTER_FUNNEL = Funnels.stringFunnel(StandardCharsets.US_ASCII);
     private static final int DELETION_BATCH_SIZE = 1000;
+    public static final int DEFAULT_PARTITION_COUNT = 1;
+    public static final int DEFAULT_PARTITION_CONCURRENCY = 1;
 
     public static class Context {
 
@@ -67,6 +76,8 @@ public class BloomFilterGCAlgorithm {
                 private Optional<Long> errorCount;
                 private Optional<Long> bloomFilterExpectedBlobCount;
                 private Optional<Double> bloomFilterAssociatedProbability;
+                private Optional<Integer> partitionCount;
+                private Optional<Integer> processedPartitionCount;
 
                 Builder() {
                     referenceSourceCount = Optional.empty();
@@ -75,6 +86,8 @@ public class BloomFilterGCAlgorithm {
                     errorCount = Optional.empty();
                     bloomFilterExpectedBlobCount = Optional.empty();
                     bloomFilterAssociatedProbability = Optional.empty();
+                    partitionCount = Optional.empty();
+                    processedPartitionCount = Optional.empty();
                 }
 
                 public Snapshot build() {
@@ -84,7 +97,9 @@ public class BloomFilterGCAlgorithm {
                         gcedBlobCount.orElse(0L),
                         errorCount.orElse(0L),
                         bloomFilterExpectedBlobCount.orElse(0L),
-                        bloomFilterAssociatedProbability.orElse(0.0));
+                        bloomFilterAssociatedProbability.orElse(0.0),
+                        partitionCount.orElse(DEFAULT_PARTITION_COUNT),
+                        processedPartitionCount.orElse(0));
                 }
 
                 public Builder referenceSourceCount(long referenceSourceCount) {
@@ -116,6 +131,16 @@ public class BloomFilterGCAlgorithm {
                     this.bloomFilterAssociatedProbability = Optional.of(bloomFilterAssociatedProbability);
                     return this;
                 }
+
+                public Builder partitionCount(int partitionCount) {
+                    this.partitionCount = Optional.of(partitionCount);
+                    return this;
+                }
+
+                public Builder processedPartitionCount(int processedPartitionCount) {
+                    this.processedPartitionCount = Optional.of(processedPartitionCount);
+                    return this;
+                }
             }
 
             private final long referenceSourceCount;
@@ -124,19 +149,25 @@ public class BloomFilterGCAlgorithm {
             private final long errorCount;
             private final long bloomFilterExpectedBlobCount;
             private final double bloomFilterAssociatedProbability;
+            private final int partitionCount;
+            private final int processedPartitionCount;
 
             Snapshot(long referenceSourceCount,
                      long blobCount,
                      long gcedBlobCount,
                      long errorCount,
                      long bloomFilterExpectedBlobCount,
-                     double bloomFilterAssociatedProbability) {
+                     double bloomFilterAssociatedProbability,
+                     int partitionCount,
+                     int processedPartitionCount) {
                 this.referenceSourceCount = referenceSourceCount;
                 this.blobCount = blobCount;
                 this.gcedBlobCount = gcedBlobCount;
                 this.errorCount = errorCount;
                 this.bloomFilterExpectedBlobCount = bloomFilterExpectedBlobCount;
                 this.bloomFilterAssociatedProbability = bloomFilterAssociatedProbability;
+                this.partitionCount = partitionCount;
+                this.processedPartitionCount = processedPartitionCount;
             }
 
             public long getReferenceSourceCount() {
@@ -163,6 +194,14 @@ public class BloomFilterGCAlgorithm {
                 return bloomFilterAssociatedProbability;
             }
 
+            public int getPartitionCount() {
+                return partitionCount;
+            }
+
+            public int getProcessedPartitionCount() {
+                return processedPartitionCount;
+            }
+
             @Override
             public final boolean equals(Object o) {
                 if (o instanceof Snapshot) {
@@ -173,14 +212,17 @@ public class BloomFilterGCAlgorithm {
                         && Objects.equals(this.gcedBlobCount, that.gcedBlobCount)
                         && Objects.equals(this.errorCount, that.errorCount)
                         && Objects.equals(this.bloomFilterExpectedBlobCount, that.bloomFilterExpectedBlobCount)
-                        && Objects.equals(this.bloomFilterAssociatedProbability, that.bloomFilterAssociatedProbability);
+                        && Objects.equals(this.bloomFilterAssociatedProbability, that.bloomFilterAssociatedProbability)
+                        && Objects.equals(this.partitionCount, that.partitionCount)
+                        && Objects.equals(this.processedPartitionCount, that.processedPartitionCount);
                 }
                 return false;
             }
 
             @Override
             public final int hashCode() {
-                return Objects.hash(referenceSourceCount, blobCount, gcedBlobCount, errorCount, bloomFilterExpectedBlobCount, bloomFilterAssociatedProbability);
+                return Objects.hash(referenceSourceCount, blobCount, gcedBlobCount, errorCount, bloomFilterExpectedBlobCount, bloomFilterAssociatedProbability,
+                    partitionCount, processedPartitionCount);
             }
 
             @Override
@@ -192,6 +234,8 @@ public class BloomFilterGCAlgorithm {
                     .add("errorCount", errorCount)
                     .add("bloomFilterExpectedBlobCount", bloomFilterExpectedBlobCount)
                     .add("bloomFilterAssociatedProbability", bloomFilterAssociatedProbability)
+                    .add("partitionCount", partitionCount)
+                    .add("processedPartitionCount", processedPartitionCount)
                     .toString();
             }
         }
@@ -202,14 +246,22 @@ public class BloomFilterGCAlgorithm {
         private final AtomicLong errorCount;
         private final Long bloomFilterExpectedBlobCount;
         private final Double bloomFilterAssociatedProbability;
+        private final int partitionCount;
+        private final AtomicInteger processedPartitionCount;
 
         public Context(long bloomFilterExpectedBlobCount, double bloomFilterAssociatedProbability) {
+            this(bloomFilterExpectedBlobCount, bloomFilterAssociatedProbability, DEFAULT_PARTITION_COUNT);
+        }
+
+        public Context(long bloomFilterExpectedBlobCount, double bloomFilterAssociatedProbability, int partitionCount) {
             this.referenceSourceCount = new AtomicLong();
             this.blobCount = new AtomicLong();
             this.gcedBlobCount = new AtomicLong();
             this.errorCount = new AtomicLong();
             this.bloomFilterExpectedBlobCount = bloomFilterExpectedBlobCount;
             this.bloomFilterAssociatedProbability = bloomFilterAssociatedProbability;
+            this.partitionCount = partitionCount;
+            this.processedPartitionCount = new AtomicInteger();
         }
 
         public void incrementBlobCount() {
@@ -228,6 +280,10 @@ public class BloomFilterGCAlgorithm {
             errorCount.incrementAndGet();
         }
 
+        public void incrementProcessedPartitionCount() {
+            processedPartitionCount.incrementAndGet();
+        }
+
         public Snapshot snapshot() {
             return Snapshot.builder()
                 .referenceSourceCount(referenceSourceCount.get())
@@ -236,10 +292,32 @@ public class BloomFilterGCAlgorithm {
                 .errorCount(errorCount.get())
                 .bloomFilterExpectedBlobCount(bloomFilterExpectedBlobCount)
                 .bloomFilterAssociatedProbability(bloomFilterAssociatedProbability)
+                .partitionCount(partitionCount)
+                .processedPartitionCount(processedPartitionCount.get())
                 .build();
         }
     }
 
+    private static class Partition {
+        private static final HashFunction HASH_FUNCTION = Hashing.murmur3_32_fixed();
+
+        private final int index;
+        private final int partitionCount;
+
+        Partition(int index, int partitionCount) {
+            this.index = index;
+            this.partitionCount = partitionCount;
+        }
+
+        boolean contains(BlobId blobId) {
+            if (partitionCount == 1) {
+                return true;
+            }
+            int hash = HASH_FUNCTION.hashString(blobId.asString(), StandardCharsets.US_ASCII).asInt();
+            return Math.floorMod(hash, partitionCount) == index;
+        }
+    }
+
     private final BlobReferenceSource referenceSource;
     private final BlobStoreDAO blobStoreDAO;
     private final GenerationAwareBlobId.Factory generationAwareBlobIdFactory;
@@ -263,16 +341,41 @@ public class BloomFilterGCAlgorithm {
     }
 
     public Mono<Result> gc(int expectedBlobCount, int deletionWindowSize, double associatedProbability, BucketName bucketName, Context context) {
-        return populatedBloomFilter(expectedBlobCount, associatedProbability, context)
-            .flatMap(bloomFilter -> gc(bloomFilter, bucketName, context, deletionWindowSize))
+        return gc(expectedBlobCount, deletionWindowSize, associatedProbability, DEFAULT_PARTITION_COUNT, DEFAULT_PARTITION_CONCURRENCY, bucketName, context);
+    }
+
+    /**
+     * Blob ids are split into partitions by hash. Each partition gets its own bloom filter, sized for its share of
+     * the expected blob count, which is dropped once the blobs of that partition had been checked against it.
+     *
+     * Memory usage is thus bounded by partitionConcurrency bloom filters of expectedBlobCount / partitionCount blobs,
+     * at the cost of listing the references and the bucket once per partition.
+     */
+    public Mono<Result> gc(int expectedBlobCount, int deletionWindowSize, double associatedProbability, int partitionCount, int partitionConcurrency,
+                           BucketName bucketName, Context context) {
+        Preconditions.checkArgument(partitionCount > 0, "'partitionCount' needs to be strictly positive");
+        Preconditions.checkArgument(partitionConcurrency > 0, "'partitionConcurrency' needs to be strictly positive");
+        int partitionExpectedBlobCount = Math.max(1, IntMath.divide(expectedBlobCount, partitionCount, RoundingMode.CEILING));
+
+        return Flux.range(0, partitionCount)
+            .map(index -> new Partition(index, partitionCount))
+            .flatMap(partition -> gc(partition, partitionExpectedBlobCount, deletionWindowSize, associatedProbability, bucketName, context), partitionConcurrency)
+            .reduce(Task::combine)
             .onErrorResume(error -> {
                 LOGGER.error("Error when running blob deduplicate garbage collection", error);
                 return Mono.just(Result.PARTIAL);
             });
     }
 
-    private Mono<Result> gc(BloomFilter<CharSequence> bloomFilter, BucketName bucketName, Context context, int deletionWindowSize) {
+    private Mono<Result> gc(Partition partition, int expectedBlobCount, int deletionWindowSize, double associatedProbability, BucketName bucketName, Context context) {
+        return populatedBloomFilter(partition, expectedBlobCount, associatedProbability, context)
+            .flatMap(bloomFilter -> gc(partition, bloomFilter, bucketName, context, deletionWindowSize))
+            .doOnSuccess(any -> context.incrementProcessedPartitionCount());
+    }
+
+    private Mono<Result> gc(Partition partition, BloomFilter<CharSequence> bloomFilter, BucketName bucketName, Context context, int deletionWindowSize) {
         return Flux.from(blobStoreDAO.listBlobs(bucketName))
+            .filter(partition::contains)
             .doOnNext(blobId -> context.incrementBlobCount())
             .flatMap(blobId -> Mono.fromCallable(() -> generationAwareBlobIdFactory.parse(blobId.asString())))
             .filter(blobId -> !blobId.inActiveGeneration(generationAwareBlobIdConfiguration, now))
@@ -296,13 +399,14 @@ public class BloomFilterGCAlgorithm {
                 }));
     }
 
-    private Mono<BloomFilter<CharSequence>> populatedBloomFilter(int expectedBlobCount, double associatedProbability, Context context) {
+    private Mono<BloomFilter<CharSequence>> populatedBloomFilter(Partition partition, int expectedBlobCount, double associatedProbability, Context context) {
         return Mono.fromCallable(() -> BloomFilter.create(
                 BLOOM_FILTER_FUNNEL,
                 expectedBlobCount,
                 associatedProbability))
             .flatMap(bloomFilter ->
                 Flux.from(referenceSource.listReferencedBlobs())
+                    .filter(partition::contains)
                     .doOnNext(ref -> context.incrementReferenceSourceCount())
                     .map(ref -> bloomFilter.put(salt + ref.asString()))
                     .then()
@@ -156,6 +156,12 @@ class DeDuplicationBlobStore @Inject()(blobStoreDAO: BlobStoreDAO,
     blobStoreDAO.readReactive(bucketName, blobId)
   }
 
+  override def readRangeReactive(bucketName: BucketName, blobId: BlobId, offset: Long, length: Long): Publisher[InputStream] = {
+    Preconditions.checkNotNull(bucketName)
+
+    blobStoreDAO.readRangeReactive(bucketName, blobId, offset, length)
+  }
+
   override def getDefaultBucketName: BucketName = defaultBucketName
 
   override def deleteBucket(bucketName: BucketName): Publisher[Void] = {
@@ -42,11 +42,35 @@ class BlobGCTaskAdditionalInformationDTOTest {
                 5,
                 0.8,
                 Instant.parse("2007-12-03T10:15:30.00Z"),
-                100))
-            .json(ClassLoaderUtils.getSystemResourceAsString("json/blobGC.additionalInformation.json"))
+                100,
+                4,
+                2))
+            .json(ClassLoaderUtils.getSystemResourceAsString("json/blobGC-partitioned.additionalInformation.json"))
             .verify();
     }
 
+    @Test
+    void shouldDeserializeDataWithoutPartitions() throws Exception {
+        BlobGCTask.AdditionalInformation gcTask = JsonGenericSerializer
+            .forModules(BlobGCTaskAdditionalInformationDTO.SERIALIZATION_MODULE)
+            .withoutNestedType()
+            .deserialize(ClassLoaderUtils.getSystemResourceAsString("json/blobGC.additionalInformation.json"));
+
+        assertThat(gcTask)
+            .usingRecursiveComparison(recursiveComparisonConfiguration)
+            .isEqualTo(new BlobGCTask.AdditionalInformation(
+                1,
+                2,
+                3,
+                4,
+                5,
+                0.8,
+                Instant.parse("2007-12-03T10:15:30.00Z"),
+                100,
+                1,
+                0));
+    }
+
     @Test
     void shouldDeserializeLegacyData() throws Exception {
         BlobGCTask.AdditionalInformation gcTask = JsonGenericSerializer
@@ -64,6 +88,8 @@ class BlobGCTaskAdditionalInformationDTOTest {
                 5,
                 0.8,
                 Instant.parse("2007-12-03T10:15:30.00Z"),
-                1000));
+                1000,
+                1,
+                0));
     }
 }
@@ -73,12 +73,42 @@ class BlobGCTaskSerializationTest {
                 clock,
                 99,
                 100,
-                0.8
+                0.8,
+                4,
+                2
             ))
-            .json(ClassLoaderUtils.getSystemResourceAsString("json/blobGC.task.json"))
+            .json(ClassLoaderUtils.getSystemResourceAsString("json/blobGC-partitioned.task.json"))
             .verify();
     }
 
+    @Test
+    void shouldDeserializeDataWithoutPartitions() throws Exception {
+        BlobGCTask gcTask = JsonGenericSerializer
+            .forModules(BlobGCTaskDTO.module(
+                blobStoreDAO,
+                generationAwareBlobIdFactory,
+                generationAwareBlobIdConfiguration,
+                blobReferenceSources,
+                clock))
+            .withoutNestedType()
+            .deserialize(ClassLoaderUtils.getSystemResourceAsString("json/blobGC.task.json"));
+        assertThat(gcTask)
+            .usingRecursiveComparison(recursiveComparisonConfiguration)
+            .isEqualTo(new BlobGCTask(
+                blobStoreDAO,
+                generationAwareBlobIdFactory,
+                generationAwareBlobIdConfiguration,
+                blobReferenceSources,
+                BucketName.DEFAULT,
+                clock,
+                99,
+                100,
+                0.8,
+                1,
+                1
+            ));
+    }
+
     @Test
     void shouldDeserializeLegacyData() throws Exception {
         BlobGCTask gcTask = JsonGenericSerializer
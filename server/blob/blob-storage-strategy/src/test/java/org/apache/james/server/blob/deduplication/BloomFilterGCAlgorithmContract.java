@@ -115,6 +115,7 @@ public interface BloomFilterGCAlgorithmContract {
                 .errorCount(0)
                 .bloomFilterExpectedBlobCount(100)
                 .bloomFilterAssociatedProbability(ASSOCIATED_PROBABILITY)
+                .processedPartitionCount(1)
                 .build());
         assertThatThrownBy(() -> blobStore.read(DEFAULT_BUCKET, blobId))
             .isInstanceOf(ObjectNotFoundException.class);
@@ -139,6 +140,7 @@ public interface BloomFilterGCAlgorithmContract {
                 .errorCount(0)
                 .bloomFilterExpectedBlobCount(100)
                 .bloomFilterAssociatedProbability(ASSOCIATED_PROBABILITY)
+                .processedPartitionCount(1)
                 .build());
         assertThat(blobStore.read(DEFAULT_BUCKET, blobId))
             .isNotNull();
@@ -164,6 +166,7 @@ public interface BloomFilterGCAlgorithmContract {
                 .errorCount(0)
                 .bloomFilterExpectedBlobCount(100)
                 .bloomFilterAssociatedProbability(ASSOCIATED_PROBABILITY)
+                .processedPartitionCount(1)
                 .build());
         assertThat(blobStore.read(DEFAULT_BUCKET, blobId))
             .isNotNull();
@@ -231,6 +234,80 @@ public interface BloomFilterGCAlgorithmContract {
         });
     }
 
+    @Test
+    default void partitionedGcShouldRemoveOrphanBlobsAndKeepReferencedOnes() {
+        BlobStore blobStore = blobStore();
+        List<BlobId> referencedBlobIds = IntStream.range(0, 100)
+            .mapToObj(index -> Mono.from(blobStore.save(DEFAULT_BUCKET, UUID.randomUUID().toString(), BlobStore.StoragePolicy.HIGH_PERFORMANCE)).block())
+            .collect(Collectors.toList());
+        List<BlobId> orphanBlobIds = IntStream.range(0, 50)
+            .mapToObj(index -> Mono.from(blobStore.save(DEFAULT_BUCKET, UUID.randomUUID().toString(), BlobStore.StoragePolicy.HIGH_PERFORMANCE)).block())
+            .collect(Collectors.toList());
+
+        when(BLOB_REFERENCE_SOURCE.listReferencedBlobs()).thenReturn(Flux.fromIterable(referencedBlobIds));
+        CLOCK.setInstant(NOW.plusMonths(2).toInstant());
+
+        Context context = new Context(EXPECTED_BLOB_COUNT, ASSOCIATED_PROBABILITY, 4);
+        Task.Result result = Mono.from(bloomFilterGCAlgorithm().gc(EXPECTED_BLOB_COUNT, DELETION_WINDOW_SIZE, ASSOCIATED_PROBABILITY, 4, 2, DEFAULT_BUCKET, context)).block();
+
+        assertThat(result).isEqualTo(Task.Result.COMPLETED);
+        Context.Snapshot snapshot = context.snapshot();
+        assertThat(snapshot.getReferenceSourceCount())
+            .isEqualTo(referencedBlobIds.size());
+        assertThat(snapshot.getBlobCount())
+            .isEqualTo(referencedBlobIds.size() + orphanBlobIds.size());
+        assertThat(snapshot.getGcedBlobCount())
+            .isLessThanOrEqualTo(orphanBlobIds.size())
+            .isGreaterThan(0);
+        assertThat(snapshot.getPartitionCount())
+            .isEqualTo(4);
+        assertThat(snapshot.getProcessedPartitionCount())
+            .isEqualTo(4);
+        referencedBlobIds.forEach(blobId ->
+            assertThat(blobStore.read(DEFAULT_BUCKET, blobId))
+                .isNotNull());
+    }
+
+    @Test
+    default void partitionedGcShouldEventuallyRemoveAllOrphanBlobs() {
+        BlobStore blobStore = blobStore();
+        List<BlobId> referencedBlobIds = IntStream.range(0, 100)
+            .mapToObj(index -> Mono.from(blobStore.save(DEFAULT_BUCKET, UUID.randomUUID().toString(), BlobStore.StoragePolicy.HIGH_PERFORMANCE)).block())
+            .collect(Collectors.toList());
+        List<BlobId> orphanBlobIds = IntStream.range(0, 50)
+            .mapToObj(index -> Mono.from(blobStore.save(DEFAULT_BUCKET, UUID.randomUUID().toString(), BlobStore.StoragePolicy.HIGH_PERFORMANCE)).block())
+            .collect(Collectors.toList());
+
+        when(BLOB_REFERENCE_SOURCE.listReferencedBlobs()).thenReturn(Flux.fromIterable(referencedBlobIds));
+        CLOCK.setInstant(NOW.plusMonths(2).toInstant());
+
+        CALMLY_AWAIT.untilAsserted(() -> {
+            Mono.from(bloomFilterGCAlgorithm().gc(
+                    EXPECTED_BLOB_COUNT,
+                    DELETION_WINDOW_SIZE,
+                    ASSOCIATED_PROBABILITY,
+                    3,
+                    3,
+                    DEFAULT_BUCKET,
+                    new Context(EXPECTED_BLOB_COUNT, ASSOCIATED_PROBABILITY, 3)))
+                .block();
+
+            orphanBlobIds.forEach(blobId ->
+                assertThatThrownBy(() -> blobStore.read(DEFAULT_BUCKET, blobId))
+                    .isInstanceOf(ObjectNotFoundException.class));
+        });
+        referencedBlobIds.forEach(blobId ->
+            assertThat(blobStore.read(DEFAULT_BUCKET, blobId))
+                .isNotNull());
+    }
+
+    @Test
+    default void gcShouldRejectNonPositivePartitionCount() {
+        assertThatThrownBy(() -> bloomFilterGCAlgorithm().gc(EXPECTED_BLOB_COUNT, DELETION_WINDOW_SIZE, ASSOCIATED_PROBABILITY, 0, 1,
+                DEFAULT_BUCKET, new Context(EXPECTED_BLOB_COUNT, ASSOCIATED_PROBABILITY)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     default void gcShouldHandlerErrorWhenException() {
         when(BLOB_REFERENCE_SOURCE.listReferencedBlobs()).thenReturn(Flux.empty());
@@ -259,6 +336,7 @@ public interface BloomFilterGCAlgorithmContract {
                 .errorCount(1)
                 .bloomFilterExpectedBlobCount(100)
                 .bloomFilterAssociatedProbability(ASSOCIATED_PROBABILITY)
+                .processedPartitionCount(1)
                 .build());
     }
 }
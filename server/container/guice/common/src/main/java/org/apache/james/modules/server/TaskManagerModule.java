@@ -19,11 +19,18 @@
 
 package org.apache.james.modules.server;
 
+import java.io.FileNotFoundException;
+
+import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.james.task.MemoryTaskManager;
+import org.apache.james.task.TaskConcurrencyConfiguration;
 import org.apache.james.task.TaskManager;
+import org.apache.james.utils.PropertiesProvider;
 
 import com.google.inject.AbstractModule;
+import com.google.inject.Provides;
 import com.google.inject.Scopes;
+import com.google.inject.Singleton;
 
 public class TaskManagerModule extends AbstractModule {
     @Override
@@ -34,4 +41,14 @@ public class TaskManagerModule extends AbstractModule {
         bind(MemoryTaskManager.class).in(Scopes.SINGLETON);
         bind(TaskManager.class).to(MemoryTaskManager.class);
     }
+
+    @Provides
+    @Singleton
+    TaskConcurrencyConfiguration taskConcurrencyConfiguration(PropertiesProvider propertiesProvider) throws ConfigurationException {
+        try {
+            return TaskConcurrencyConfiguration.from(propertiesProvider.getConfiguration("webadmin"));
+        } catch (FileNotFoundException e) {
+            return TaskConcurrencyConfiguration.DEFAULT;
+        }
+    }
 }
@@ -19,36 +19,95 @@
 
 package org.apache.james.utils;
 
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.apache.james.metrics.api.GaugeRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.github.fge.lambdas.Throwing;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
 import com.google.inject.Inject;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Runs the {@link InitializationOperation}s, each of them after the operations initializing the classes it
+ * {@link InitializationOperation#requires()}.
+ *
+ * By default operations are run one after the other. Setting the <code>james.initialization.parallelism</code> system
+ * property to more than 1 runs independent operations concurrently. Dependencies are then only enforced through
+ * {@link InitializationOperation#requires()}: an operation relying on another one without requiring its class, for
+ * instance through a class that does not need to be initialized, might start too early.
+ *
+ * The time taken by each operation is logged and exposed as a <code>initialization.[class].duration</code> gauge, in
+ * milliseconds.
+ */
 public class InitializationOperations {
+    private static final Logger LOGGER = LoggerFactory.getLogger(InitializationOperations.class);
+    private static final int DEFAULT_PARALLELISM = 1;
+    private static final int PARALLELISM = Integer.getInteger("james.initialization.parallelism", DEFAULT_PARALLELISM);
 
     private final Set<InitializationOperation> initializationOperations;
     private final Startables startables;
+    private final GaugeRegistry gaugeRegistry;
+    private final int parallelism;
+    private final Map<InitializationOperation, Duration> durations;
 
     @Inject
-    public InitializationOperations(Set<InitializationOperation> initializationOperations, Startables startables) {
+    public InitializationOperations(Set<InitializationOperation> initializationOperations, Startables startables, GaugeRegistry gaugeRegistry) {
+        this(initializationOperations, startables, gaugeRegistry, PARALLELISM);
+    }
+
+    @VisibleForTesting
+    public InitializationOperations(Set<InitializationOperation> initializationOperations, Startables startables, GaugeRegistry gaugeRegistry, int parallelism) {
         this.initializationOperations = initializationOperations;
         this.startables = startables;
+        this.gaugeRegistry = gaugeRegistry;
+        this.parallelism = parallelism;
+        this.durations = new ConcurrentHashMap<>();
     }
 
     public void initModules() {
-        Set<InitializationOperation> processed = processStartables();
-        
-        processOthers(processed);
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        List<InitializationOperation> operations = ordered();
+
+        if (parallelism > 1) {
+            initConcurrently(operations);
+        } else {
+            operations.forEach(this::initModule);
+        }
+
+        report(operations, stopwatch.elapsed());
     }
 
-    private Set<InitializationOperation> processStartables() {
-        return startables.get().stream()
+    /**
+     * Operations for startables come first, in the order startables were provisioned, then the other ones.
+     */
+    private List<InitializationOperation> ordered() {
+        List<InitializationOperation> startablesOperations = startables.get().stream()
             .flatMap(this::configurationPerformerFor)
             .distinct()
-            .peek(Throwing.consumer(InitializationOperation::initModule).sneakyThrow())
-            .collect(Collectors.toSet());
+            .collect(ImmutableList.toImmutableList());
+
+        return Stream.concat(startablesOperations.stream(),
+                initializationOperations.stream()
+                    .filter(x -> !startablesOperations.contains(x)))
+            .collect(ImmutableList.toImmutableList());
     }
 
     /**
@@ -63,9 +122,56 @@ public class InitializationOperations {
                 .flatMap(x -> Stream.concat(x.requires().stream().flatMap(this::configurationPerformerFor), Stream.of(x)));
     }
 
-    private void processOthers(Set<InitializationOperation> processed) {
-        initializationOperations.stream()
-            .filter(x -> !processed.contains(x))
-            .forEach(Throwing.consumer(InitializationOperation::initModule).sneakyThrow());
+    /**
+     * Each operation waits for the operations it requires. Only requirements ordered before an operation are
+     * considered, which keeps the graph acyclic and consistent with the sequential order.
+     */
+    private void initConcurrently(List<InitializationOperation> operations) {
+        Scheduler scheduler = Schedulers.newBoundedElastic(parallelism, Integer.MAX_VALUE, "initialization");
+        try {
+            Map<InitializationOperation, Mono<Void>> initializations = new LinkedHashMap<>();
+            for (InitializationOperation operation : operations) {
+                List<Mono<Void>> requirements = dependencies(operation, initializations.keySet()).stream()
+                    .map(initializations::get)
+                    .collect(ImmutableList.toImmutableList());
+                Mono<Void> initialization = Mono.when(requirements)
+                    .then(Mono.<Void>fromRunnable(() -> initModule(operation))
+                        .subscribeOn(scheduler))
+                    .cache();
+                initializations.put(operation, initialization);
+            }
+
+            Flux.fromIterable(initializations.values())
+                .flatMap(Function.identity(), Integer.MAX_VALUE)
+                .then()
+                .block();
+        } finally {
+            scheduler.dispose();
+        }
+    }
+
+    private List<InitializationOperation> dependencies(InitializationOperation operation, Set<InitializationOperation> candidates) {
+        return candidates.stream()
+            .filter(candidate -> operation.requires().stream()
+                .anyMatch(required -> required.isAssignableFrom(candidate.forClass())))
+            .collect(ImmutableList.toImmutableList());
+    }
+
+    private void initModule(InitializationOperation operation) {
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        Throwing.runnable(operation::initModule).sneakyThrow().run();
+        durations.put(operation, stopwatch.elapsed());
+    }
+
+    private void report(List<InitializationOperation> operations, Duration total) {
+        Map<String, Long> durationsPerClass = operations.stream()
+            .collect(Collectors.groupingBy(operation -> operation.forClass().getSimpleName(),
+                Collectors.summingLong(operation -> durations.getOrDefault(operation, Duration.ZERO).toMillis())));
+
+        durationsPerClass.forEach((name, millis) -> gaugeRegistry.register("initialization." + name + ".duration", () -> millis));
+        durationsPerClass.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+            .forEach(entry -> LOGGER.info("Initialization of {} took {} ms", entry.getKey(), entry.getValue()));
+        LOGGER.info("{} initialization operations ran in {} ms with a parallelism of {}", operations.size(), total.toMillis(), parallelism);
     }
 }
@@ -20,6 +20,13 @@
 package org.apache.james.modules;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import jakarta.inject.Inject;
 
@@ -27,11 +34,17 @@ import org.apache.commons.configuration2.HierarchicalConfiguration;
 import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.commons.configuration2.tree.ImmutableNode;
 import org.apache.james.lifecycle.api.Configurable;
+import org.apache.james.metrics.api.Gauge;
+import org.apache.james.metrics.api.GaugeRegistry;
+import org.apache.james.metrics.api.NoopGaugeRegistry;
 import org.apache.james.utils.InitializationOperation;
 import org.apache.james.utils.InitializationOperations;
 import org.apache.james.utils.InitilizationOperationBuilder;
+import org.apache.james.utils.Startables;
 import org.junit.jupiter.api.Test;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
 import com.google.inject.Scopes;
@@ -49,10 +62,90 @@ class InitializationOperationsTest {
         assertThat(injector.getInstance(B.class).isConfigured()).isTrue();
     }
 
+    @Test
+    void initModulesShouldRunIndependentOperationsConcurrently() {
+        CountDownLatch latch = new CountDownLatch(2);
+        InitializationOperation first = InitilizationOperationBuilder
+            .forClass(A.class)
+            .init(() -> awaitOther(latch))
+            .requires(ImmutableList.of());
+        InitializationOperation second = InitilizationOperationBuilder
+            .forClass(B.class)
+            .init(() -> awaitOther(latch))
+            .requires(ImmutableList.of());
+
+        new InitializationOperations(ImmutableSet.of(first, second), new Startables(), new NoopGaugeRegistry(), 2)
+            .initModules();
+
+        assertThat(latch.getCount()).isZero();
+    }
+
+    @Test
+    void initModulesShouldRunRequiredOperationsFirstWhenConcurrent() {
+        AtomicBoolean aInitialized = new AtomicBoolean(false);
+        AtomicBoolean aInitializedBeforeB = new AtomicBoolean(false);
+        InitializationOperation initA = InitilizationOperationBuilder
+            .forClass(A.class)
+            .init(() -> {
+                Thread.sleep(100);
+                aInitialized.set(true);
+            });
+        InitializationOperation initB = InitilizationOperationBuilder
+            .forClass(B.class)
+            .init(() -> aInitializedBeforeB.set(aInitialized.get()));
+
+        new InitializationOperations(ImmutableSet.of(initA, initB), new Startables(), new NoopGaugeRegistry(), 2)
+            .initModules();
+
+        assertThat(aInitializedBeforeB).isTrue();
+    }
+
+    @Test
+    void initModulesShouldPropagateFailuresWhenConcurrent() {
+        InitializationOperation failing = InitilizationOperationBuilder
+            .forClass(A.class)
+            .init(() -> {
+                throw new IllegalStateException("failure");
+            });
+
+        assertThatThrownBy(() -> new InitializationOperations(ImmutableSet.of(failing), new Startables(), new NoopGaugeRegistry(), 2)
+                .initModules())
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void initModulesShouldExposeOperationDurations() {
+        Map<String, Gauge<?>> gauges = new ConcurrentHashMap<>();
+        GaugeRegistry gaugeRegistry = new NoopGaugeRegistry() {
+            @Override
+            public <T> GaugeRegistry register(String name, Gauge<T> gauge) {
+                gauges.put(name, gauge);
+                return this;
+            }
+        };
+        InitializationOperation initA = InitilizationOperationBuilder
+            .forClass(A.class)
+            .init(() -> Thread.sleep(50));
+
+        new InitializationOperations(ImmutableSet.of(initA), new Startables(), gaugeRegistry, 1)
+            .initModules();
+
+        assertThat(gauges).containsOnlyKeys("initialization.A.duration");
+        assertThat((Long) gauges.get("initialization.A.duration").get()).isGreaterThanOrEqualTo(50L);
+    }
+
+    private static void awaitOther(CountDownLatch latch) throws InterruptedException {
+        latch.countDown();
+        if (!latch.await(10, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Operations did not run concurrently");
+        }
+    }
+
     private static class UnorderedBindingsModule extends StartablesModule {
 
         @Override
         protected void configure() {
+            bind(GaugeRegistry.class).to(NoopGaugeRegistry.class);
             bind(B.class).in(Scopes.SINGLETON);
             bind(A.class).in(Scopes.SINGLETON);
             bind(C.class).in(Scopes.SINGLETON);
@@ -39,6 +39,7 @@ import org.apache.james.events.RabbitMQMailboxEventBusDeadLetterQueueHealthCheck
 import org.apache.james.events.RegistrationKey;
 import org.apache.james.events.RetryBackoffConfiguration;
 import org.apache.james.events.RoutingKeyConverter;
+import org.apache.james.mailbox.events.MailboxHierarchyRegistrationKey;
 import org.apache.james.mailbox.events.MailboxIdRegistrationKey;
 import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.utils.InitializationOperation;
@@ -58,8 +59,9 @@ public class RabbitMQEventBusModule extends AbstractModule {
     protected void configure() {
         bind(NamingStrategy.class).toInstance(MAILBOX_EVENT_NAMING_STRATEGY);
 
-        Multibinder.newSetBinder(binder(), RegistrationKey.Factory.class)
-            .addBinding().to(MailboxIdRegistrationKey.Factory.class);
+        Multibinder<RegistrationKey.Factory> registrationKeyFactories = Multibinder.newSetBinder(binder(), RegistrationKey.Factory.class);
+        registrationKeyFactories.addBinding().to(MailboxIdRegistrationKey.Factory.class);
+        registrationKeyFactories.addBinding().to(MailboxHierarchyRegistrationKey.Factory.class);
 
         bind(RetryBackoffConfiguration.class).toInstance(RetryBackoffConfiguration.DEFAULT);
         bind(EventBusId.class).toInstance(EventBusId.random());
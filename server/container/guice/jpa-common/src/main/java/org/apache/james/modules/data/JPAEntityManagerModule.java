@@ -97,6 +97,7 @@ public class JPAEntityManagerModule extends AbstractModule {
                 .setCustomOpenjpaProperties(openjpaProperties)
                 .setCustomDatasourceProperties(datasourceProperties)
                 .attachmentStorage(dataSource.getBoolean(JPAConfiguration.ATTACHMENT_STORAGE, false))
+                .contentDeduplication(dataSource.getBoolean(JPAConfiguration.CONTENT_DEDUPLICATION, false))
                 .build();
     }
 
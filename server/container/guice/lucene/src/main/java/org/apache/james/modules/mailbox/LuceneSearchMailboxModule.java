@@ -19,13 +19,18 @@
 
 package org.apache.james.modules.mailbox;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
 
+import org.apache.commons.configuration2.Configuration;
+import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.james.events.EventListener;
 import org.apache.james.filesystem.api.FileSystem;
 import org.apache.james.mailbox.lucene.search.LuceneMessageSearchIndex;
+import org.apache.james.mailbox.lucene.search.LuceneSearchIndexConfiguration;
 import org.apache.james.mailbox.store.search.ListeningMessageSearchIndex;
 import org.apache.james.mailbox.store.search.MessageSearchIndex;
+import org.apache.james.utils.PropertiesProvider;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
 
@@ -53,4 +58,15 @@ public class LuceneSearchMailboxModule extends AbstractModule {
     Directory provideDirectory(FileSystem fileSystem) throws IOException {
         return FSDirectory.open(fileSystem.getBasedir().toPath());
     }
+
+    @Provides
+    @Singleton
+    LuceneSearchIndexConfiguration provideConfiguration(PropertiesProvider propertiesProvider) throws ConfigurationException {
+        try {
+            Configuration configuration = propertiesProvider.getConfiguration("lucene");
+            return LuceneSearchIndexConfiguration.fromProperties(configuration);
+        } catch (FileNotFoundException e) {
+            return LuceneSearchIndexConfiguration.DEFAULT;
+        }
+    }
 }
\ No newline at end of file
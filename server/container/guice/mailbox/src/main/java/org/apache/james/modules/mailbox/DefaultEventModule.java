@@ -19,18 +19,24 @@
 
 package org.apache.james.modules.mailbox;
 
+import java.util.Optional;
+
+import org.apache.commons.configuration2.HierarchicalConfiguration;
 import org.apache.commons.configuration2.ex.ConfigurationException;
+import org.apache.commons.configuration2.tree.ImmutableNode;
 import org.apache.james.event.json.MailboxEventSerializer;
 import org.apache.james.events.EventBus;
 import org.apache.james.events.EventListener;
 import org.apache.james.events.EventSerializer;
 import org.apache.james.events.EventSerializersAggregator;
 import org.apache.james.events.InVMEventBus;
+import org.apache.james.events.InVMEventBusConfiguration;
 import org.apache.james.events.RetryBackoffConfiguration;
 import org.apache.james.events.delivery.EventDelivery;
 import org.apache.james.events.delivery.InVmEventDelivery;
 import org.apache.james.modules.EventDeadLettersProbe;
 import org.apache.james.server.core.configuration.ConfigurationProvider;
+import org.apache.james.util.DurationParser;
 import org.apache.james.utils.GuiceProbe;
 import org.apache.james.utils.InitializationOperation;
 import org.apache.james.utils.InitilizationOperationBuilder;
@@ -75,6 +81,21 @@ public class DefaultEventModule extends AbstractModule {
         return ListenersConfiguration.from(configurationProvider.getConfiguration("listeners"));
     }
 
+    @Provides
+    @Singleton
+    InVMEventBusConfiguration providesInVMEventBusConfiguration(ConfigurationProvider configurationProvider) throws ConfigurationException {
+        HierarchicalConfiguration<ImmutableNode> configuration = configurationProvider.getConfiguration("listeners");
+        return InVMEventBusConfiguration.builder()
+            .asynchronousGroupDelivery(Optional.ofNullable(configuration.getBoolean("asynchronousGroupDelivery", null)))
+            .groupDeliveryLanes(Optional.ofNullable(configuration.getInteger("groupDeliveryLanes", null)))
+            .groupDeliveryLaneCapacity(Optional.ofNullable(configuration.getInteger("groupDeliveryLaneCapacity", null)))
+            .groupDeliveryEnqueueTimeout(Optional.ofNullable(configuration.getString("groupDeliveryEnqueueTimeout", null))
+                .map(DurationParser::parse))
+            .groupDeliveryDrainTimeout(Optional.ofNullable(configuration.getString("groupDeliveryDrainTimeout", null))
+                .map(DurationParser::parse))
+            .build();
+    }
+
     @ProvidesIntoSet
     InitializationOperation registerListeners(MailboxListenersLoaderImpl listeners, ListenersConfiguration configuration) {
         return InitilizationOperationBuilder
@@ -0,0 +1,58 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.modules.mailbox;
+
+import java.io.FileNotFoundException;
+import java.util.Optional;
+
+import jakarta.inject.Singleton;
+
+import org.apache.commons.configuration2.Configuration;
+import org.apache.commons.configuration2.ex.ConfigurationException;
+import org.apache.james.mailbox.store.MailboxHierarchyCache;
+import org.apache.james.util.DurationParser;
+import org.apache.james.utils.PropertiesProvider;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Provides;
+
+/**
+ * Reads the {@link MailboxHierarchyCache} settings from mailbox.properties, shared by all the mailbox implementations.
+ */
+public class MailboxHierarchyCacheModule extends AbstractModule {
+    private static final String MAILBOX_FILE_NAME = "mailbox";
+
+    @Provides
+    @Singleton
+    MailboxHierarchyCache.Configuration provideMailboxHierarchyCacheConfiguration(PropertiesProvider propertiesProvider) throws ConfigurationException {
+        try {
+            Configuration configuration = propertiesProvider.getConfiguration(MAILBOX_FILE_NAME);
+            MailboxHierarchyCache.Configuration.Builder builder = MailboxHierarchyCache.Configuration.builder()
+                .enabled(configuration.getBoolean("hierarchy.cache.enabled", false))
+                .maximumOwnerCount(configuration.getLong("hierarchy.cache.max.users", MailboxHierarchyCache.Configuration.DEFAULT_MAXIMUM_OWNER_COUNT));
+            Optional.ofNullable(configuration.getString("hierarchy.cache.expire.after.access", null))
+                .map(DurationParser::parse)
+                .ifPresent(builder::expireAfterAccess);
+            return builder.build();
+        } catch (FileNotFoundException e) {
+            return MailboxHierarchyCache.Configuration.DISABLED;
+        }
+    }
+}
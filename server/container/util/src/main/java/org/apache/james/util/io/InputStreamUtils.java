@@ -19,11 +19,13 @@
 
 package org.apache.james.util.io;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.SequenceInputStream;
 import java.util.Collections;
 
 import com.google.common.collect.Lists;
+import com.google.common.io.ByteStreams;
 
 public class InputStreamUtils {
     public static InputStream concat(InputStream inputStream, InputStream... additionalInputStreams) {
@@ -31,4 +33,19 @@ public class InputStreamUtils {
             Collections.enumeration(
                 Lists.asList(inputStream, additionalInputStreams)));
     }
+
+    /**
+     * Restricts the given stream to {@code length} bytes starting at {@code offset}, by skipping the bytes before.
+     *
+     * Meant as a fallback for sources that can not start reading at an offset. The stream is closed upon failure.
+     */
+    public static InputStream range(InputStream inputStream, long offset, long length) throws IOException {
+        try {
+            ByteStreams.skipFully(inputStream, offset);
+            return ByteStreams.limit(inputStream, length);
+        } catch (IOException e) {
+            inputStream.close();
+            throw e;
+        }
+    }
 }
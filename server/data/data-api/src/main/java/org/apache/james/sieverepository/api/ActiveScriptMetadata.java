@@ -0,0 +1,83 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+
+package org.apache.james.sieverepository.api;
+
+import java.time.ZonedDateTime;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Objects;
+
+/**
+ * Describes the active script of a user without its content.
+ *
+ * The version changes whenever the content of the script changes, thus data derived from the content can be cached
+ * against it.
+ */
+public class ActiveScriptMetadata {
+
+    private final ScriptName name;
+    private final ZonedDateTime activationDate;
+    private final String version;
+
+    public ActiveScriptMetadata(ScriptName name, ZonedDateTime activationDate, String version) {
+        this.name = name;
+        this.activationDate = activationDate;
+        this.version = version;
+    }
+
+    public ScriptName getName() {
+        return name;
+    }
+
+    public ZonedDateTime getActivationDate() {
+        return activationDate;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof ActiveScriptMetadata) {
+            ActiveScriptMetadata that = (ActiveScriptMetadata) o;
+
+            return Objects.equal(this.name, that.name)
+                && Objects.equal(this.activationDate, that.activationDate)
+                && Objects.equal(this.version, that.version);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hashCode(name, activationDate, version);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("name", name)
+            .add("activationDate", activationDate)
+            .add("version", version)
+            .toString();
+    }
+}
@@ -57,6 +57,11 @@ public interface SieveRepository extends SieveQuotaRepository {
 
     ZonedDateTime getActivationDateForActiveScript(Username username) throws StorageException, ScriptNotFoundException;
 
+    /**
+     * Reads the name, activation date and version of the active script, without reading its content.
+     */
+    ActiveScriptMetadata getActiveScriptMetadata(Username username) throws StorageException, ScriptNotFoundException;
+
     InputStream getActive(Username username) throws ScriptNotFoundException, StorageException;
     
     void setActive(Username username, ScriptName name) throws ScriptNotFoundException, StorageException;
@@ -49,11 +49,13 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public class CassandraSieveDAO {
+    private static final String CONTENT_WRITE_TIME = "content_write_time";
 
     private final CassandraAsyncExecutor cassandraAsyncExecutor;
     private final PreparedStatement insertScriptStatement;
     private final PreparedStatement selectScriptsStatement;
     private final PreparedStatement selectScriptStatement;
+    private final PreparedStatement selectScriptVersionStatement;
     private final PreparedStatement updateScriptActivationStatement;
     private final PreparedStatement deleteScriptStatement;
 
@@ -75,6 +77,13 @@ public class CassandraSieveDAO {
             .whereColumn(SCRIPT_NAME).isEqualTo(bindMarker(SCRIPT_NAME))
             .build());
 
+        selectScriptVersionStatement = session.prepare(selectFrom(TABLE_NAME)
+            .writeTime(SCRIPT_CONTENT).as(CONTENT_WRITE_TIME)
+            .column(SIZE)
+            .whereColumn(USER_NAME).isEqualTo(bindMarker(USER_NAME))
+            .whereColumn(SCRIPT_NAME).isEqualTo(bindMarker(SCRIPT_NAME))
+            .build());
+
         updateScriptActivationStatement = session.prepare(
             update(TABLE_NAME)
                 .setColumn(IS_ACTIVE, bindMarker(IS_ACTIVE))
@@ -133,6 +142,18 @@ public class CassandraSieveDAO {
             .build());
     }
 
+    /**
+     * The version is derived from the write time of the script content, so that it changes on every put without
+     * reading the content.
+     */
+    public Mono<String> getScriptVersion(Username username, ScriptName name) {
+        return cassandraAsyncExecutor.executeSingleRow(
+                selectScriptVersionStatement.bind()
+                    .setString(USER_NAME, username.asString())
+                    .setString(SCRIPT_NAME, name.getValue()))
+            .map(row -> row.getLong(CONTENT_WRITE_TIME) + "-" + row.getLong(SIZE));
+    }
+
     public Mono<Boolean> deleteScriptInCassandra(Username username, ScriptName name) {
         return cassandraAsyncExecutor.executeReturnApplied(
             deleteScriptStatement.bind()
@@ -34,6 +34,7 @@ import org.apache.james.core.quota.QuotaSizeLimit;
 import org.apache.james.sieve.cassandra.model.ActiveScriptInfo;
 import org.apache.james.sieve.cassandra.model.Script;
 import org.apache.james.sieve.cassandra.model.SieveQuota;
+import org.apache.james.sieverepository.api.ActiveScriptMetadata;
 import org.apache.james.sieverepository.api.ScriptContent;
 import org.apache.james.sieverepository.api.ScriptName;
 import org.apache.james.sieverepository.api.ScriptSummary;
@@ -71,6 +72,15 @@ public class CassandraSieveRepository implements SieveRepository {
             .getActivationDate();
     }
 
+    @Override
+    public ActiveScriptMetadata getActiveScriptMetadata(Username username) throws ScriptNotFoundException {
+        return cassandraActiveScriptDAO.getActiveScriptInfo(username)
+            .flatMap(activeScriptInfo -> cassandraSieveDAO.getScriptVersion(username, activeScriptInfo.getName())
+                .map(version -> new ActiveScriptMetadata(activeScriptInfo.getName(), activeScriptInfo.getActivationDate(), version)))
+            .blockOptional()
+            .orElseThrow(ScriptNotFoundException::new);
+    }
+
     @Override
     public void haveSpace(Username username, ScriptName name, long newSize) throws QuotaExceededException {
         reThrowQuotaExceededException(() ->
@@ -47,6 +47,7 @@ import org.apache.commons.io.FileUtils;
 import org.apache.james.core.Username;
 import org.apache.james.core.quota.QuotaSizeLimit;
 import org.apache.james.filesystem.api.FileSystem;
+import org.apache.james.sieverepository.api.ActiveScriptMetadata;
 import org.apache.james.sieverepository.api.ScriptContent;
 import org.apache.james.sieverepository.api.ScriptName;
 import org.apache.james.sieverepository.api.ScriptSummary;
@@ -282,6 +283,18 @@ public class SieveFileRepository implements SieveRepository {
         return ZonedDateTime.ofInstant(Instant.ofEpochMilli(getActiveFile(username).lastModified()), ZoneOffset.UTC);
     }
 
+    @Override
+    public ActiveScriptMetadata getActiveScriptMetadata(Username username) throws StorageException, ScriptNotFoundException {
+        File activeFile = getActiveFile(username);
+        long lastModified = activeFile.lastModified();
+        if (lastModified == 0L) {
+            throw new ScriptNotFoundException("There is no active script for user " + username.asString());
+        }
+        return new ActiveScriptMetadata(new ScriptName(activeFile.getName()),
+            ZonedDateTime.ofInstant(Instant.ofEpochMilli(lastModified), ZoneOffset.UTC),
+            lastModified + "-" + activeFile.length());
+    }
+
     @Override
     public void setActive(Username username, ScriptName scriptName) throws ScriptNotFoundException, StorageException {
         synchronized (lock) {
@@ -22,6 +22,7 @@ package org.apache.james.jmap.api.projections;
 import java.io.IOException;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Predicate;
 
 import jakarta.inject.Inject;
@@ -30,6 +31,8 @@ import org.apache.james.jmap.api.model.Preview;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.model.MessageAttachmentMetadata;
 import org.apache.james.mailbox.model.MessageResult;
+import org.apache.james.mailbox.model.ParsedMessage;
+import org.apache.james.mime4j.dom.Message;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
@@ -89,6 +92,20 @@ public class MessageFastViewPrecomputedProperties {
                 .build();
         }
 
+        /**
+         * Computes the preview from the message parsed upon append, when still available.
+         */
+        public MessageFastViewPrecomputedProperties from(MessageResult messageResult, ParsedMessage parsedMessage) throws MailboxException, IOException {
+            Optional<Message> message = parsedMessage.getMessage();
+            if (message.isEmpty()) {
+                return from(messageResult);
+            }
+            return builder()
+                .preview(previewFactory.fromMime4JMessage(message.get()))
+                .hasAttachment(hasAttachment(messageResult.getLoadedAttachments()))
+                .build();
+        }
+
         private boolean hasAttachment(List<MessageAttachmentMetadata> attachments) {
             return attachments.stream()
                 .anyMatch(Predicate.not(MessageAttachmentMetadata::isInlinedWithCid));
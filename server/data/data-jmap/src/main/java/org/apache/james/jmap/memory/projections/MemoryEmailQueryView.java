@@ -19,8 +19,15 @@
 
 package org.apache.james.jmap.memory.projections;
 
+import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.Comparator;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
 
 import jakarta.inject.Inject;
 
@@ -30,27 +37,70 @@ import org.apache.james.mailbox.model.MessageId;
 import org.apache.james.util.streams.Limit;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.HashBasedTable;
-import com.google.common.collect.Table;
-import com.google.common.collect.Tables;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+/**
+ * Keeps, for each mailbox, its entries sorted by descending sentAt and by descending receivedAt, so that queries
+ * are served by a range scan stopping once the limit is reached rather than by sorting the whole mailbox.
+ */
 public class MemoryEmailQueryView implements EmailQueryView {
-    private final Table<MailboxId, MessageId, Entry> entries;
+    private record SortKey(Instant date, String messageId) {
+        static final Comparator<SortKey> MOST_RECENT_FIRST = Comparator.comparing(SortKey::date).reversed()
+            .thenComparing(SortKey::messageId);
+
+        /**
+         * Sorts before every entry dated at the given instant.
+         */
+        static SortKey lowerBound(ZonedDateTime date) {
+            return new SortKey(date.toInstant(), "");
+        }
+
+        static SortKey of(ZonedDateTime date, MessageId messageId) {
+            return new SortKey(date.toInstant(), messageId.serialize());
+        }
+    }
+
+    private static class MailboxEntries {
+        private final ConcurrentMap<MessageId, Entry> byMessageId = new ConcurrentHashMap<>();
+        private final NavigableMap<SortKey, Entry> bySentAt = new ConcurrentSkipListMap<>(SortKey.MOST_RECENT_FIRST);
+        private final NavigableMap<SortKey, Entry> byReceivedAt = new ConcurrentSkipListMap<>(SortKey.MOST_RECENT_FIRST);
+
+        void save(Entry entry) {
+            remove(entry.getMessageId());
+            byMessageId.put(entry.getMessageId(), entry);
+            bySentAt.put(SortKey.of(entry.getSentAt(), entry.getMessageId()), entry);
+            byReceivedAt.put(SortKey.of(entry.getReceivedAt(), entry.getMessageId()), entry);
+        }
+
+        void remove(MessageId messageId) {
+            Optional.ofNullable(byMessageId.remove(messageId))
+                .ifPresent(entry -> {
+                    bySentAt.remove(SortKey.of(entry.getSentAt(), messageId));
+                    byReceivedAt.remove(SortKey.of(entry.getReceivedAt(), messageId));
+                });
+        }
+
+        boolean isEmpty() {
+            return byMessageId.isEmpty();
+        }
+    }
+
+    // Updates of a mailbox happen within ConcurrentHashMap::compute, hence are serialized, while reads rely on the
+    // weakly consistent iterators of the sorted maps and never block.
+    private final ConcurrentMap<MailboxId, MailboxEntries> entries;
 
     @Inject
     public MemoryEmailQueryView() {
-        entries = Tables.synchronizedTable(HashBasedTable.create());
+        entries = new ConcurrentHashMap<>();
     }
 
     @Override
     public Flux<MessageId> listMailboxContentSortedBySentAt(MailboxId mailboxId, Limit limit) {
         Preconditions.checkArgument(!limit.isUnlimited(), "Limit should be defined");
 
-        return Flux.fromIterable(entries.row(mailboxId).values())
-            .sort(Comparator.comparing(Entry::getSentAt).reversed())
+        return scan(mailboxId, mailbox -> mailbox.bySentAt)
             .map(Entry::getMessageId)
             .take(limit.getLimit().get());
     }
@@ -59,9 +109,8 @@ public class MemoryEmailQueryView implements EmailQueryView {
     public Flux<MessageId> listMailboxContentSinceSentAt(MailboxId mailboxId, ZonedDateTime since, Limit limit) {
         Preconditions.checkArgument(!limit.isUnlimited(), "Limit should be defined");
 
-        return Flux.fromIterable(entries.row(mailboxId).values())
-            .filter(e -> e.getSentAt().isAfter(since) || e.getSentAt().isEqual(since))
-            .sort(Comparator.comparing(Entry::getSentAt).reversed())
+        return scan(mailboxId, mailbox -> mailbox.bySentAt)
+            .takeWhile(e -> e.getSentAt().isAfter(since) || e.getSentAt().isEqual(since))
             .map(Entry::getMessageId)
             .take(limit.getLimit().get());
     }
@@ -70,51 +119,61 @@ public class MemoryEmailQueryView implements EmailQueryView {
     public Flux<MessageId> listMailboxContentSinceAfterSortedBySentAt(MailboxId mailboxId, ZonedDateTime since, Limit limit) {
         Preconditions.checkArgument(!limit.isUnlimited(), "Limit should be defined");
 
-        return Flux.fromIterable(entries.row(mailboxId).values())
+        return scan(mailboxId, mailbox -> mailbox.bySentAt)
             .filter(e -> e.getReceivedAt().isAfter(since) || e.getReceivedAt().isEqual(since))
-            .sort(Comparator.comparing(Entry::getSentAt).reversed())
             .map(Entry::getMessageId)
             .take(limit.getLimit().get());
     }
 
     @Override
     public Flux<MessageId> listMailboxContentSortedByReceivedAt(MailboxId mailboxId, Limit limit) {
-        return Flux.fromIterable(entries.row(mailboxId).values())
-            .sort(Comparator.comparing(Entry::getReceivedAt).reversed())
+        return scan(mailboxId, mailbox -> mailbox.byReceivedAt)
             .map(Entry::getMessageId)
             .take(limit.getLimit().get());
     }
 
     @Override
     public Flux<MessageId> listMailboxContentSinceAfterSortedByReceivedAt(MailboxId mailboxId, ZonedDateTime since, Limit limit) {
-        return Flux.fromIterable(entries.row(mailboxId).values())
-            .filter(e -> e.getReceivedAt().isAfter(since) || e.getReceivedAt().isEqual(since))
-            .sort(Comparator.comparing(Entry::getReceivedAt).reversed())
+        return scan(mailboxId, mailbox -> mailbox.byReceivedAt)
+            .takeWhile(e -> e.getReceivedAt().isAfter(since) || e.getReceivedAt().isEqual(since))
             .map(Entry::getMessageId)
             .take(limit.getLimit().get());
     }
 
     @Override
     public Flux<MessageId> listMailboxContentBeforeSortedByReceivedAt(MailboxId mailboxId, ZonedDateTime before, Limit limit) {
-        return Flux.fromIterable(entries.row(mailboxId).values())
-            .filter(e -> e.getReceivedAt().isBefore(before) || e.getReceivedAt().isEqual(before))
-            .sort(Comparator.comparing(Entry::getReceivedAt).reversed())
+        return scan(mailboxId, mailbox -> mailbox.byReceivedAt.tailMap(SortKey.lowerBound(before), true))
             .map(Entry::getMessageId)
             .take(limit.getLimit().get());
     }
 
+    private Flux<Entry> scan(MailboxId mailboxId, Function<MailboxEntries, NavigableMap<SortKey, Entry>> index) {
+        return Mono.justOrEmpty(entries.get(mailboxId))
+            .flatMapIterable(mailbox -> index.apply(mailbox).values());
+    }
+
     @Override
     public Mono<Void> delete(MailboxId mailboxId, MessageId messageId) {
-        return Mono.fromRunnable(() -> entries.remove(mailboxId, messageId));
+        return Mono.fromRunnable(() -> entries.computeIfPresent(mailboxId, (id, mailbox) -> {
+            mailbox.remove(messageId);
+            if (mailbox.isEmpty()) {
+                return null;
+            }
+            return mailbox;
+        }));
     }
 
     @Override
     public Mono<Void> delete(MailboxId mailboxId) {
-        return Mono.fromRunnable(() -> entries.row(mailboxId).clear());
+        return Mono.fromRunnable(() -> entries.remove(mailboxId));
     }
 
     @Override
     public Mono<Void> save(MailboxId mailboxId, ZonedDateTime sentAt, ZonedDateTime receivedAt, MessageId messageId) {
-        return Mono.fromRunnable(() -> entries.put(mailboxId, messageId, new Entry(mailboxId, messageId, sentAt, receivedAt)));
+        return Mono.fromRunnable(() -> entries.compute(mailboxId, (id, mailbox) -> {
+            MailboxEntries mailboxEntries = Optional.ofNullable(mailbox).orElseGet(MailboxEntries::new);
+            mailboxEntries.save(new Entry(mailboxId, messageId, sentAt, receivedAt));
+            return mailboxEntries;
+        }));
     }
 }
@@ -19,13 +19,20 @@
 
 package org.apache.james.jmap.memory.projections;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
 import org.apache.james.jmap.api.projections.EmailQueryView;
 import org.apache.james.jmap.api.projections.EmailQueryViewContract;
 import org.apache.james.mailbox.model.MailboxId;
 import org.apache.james.mailbox.model.MessageId;
 import org.apache.james.mailbox.model.TestId;
 import org.apache.james.mailbox.model.TestMessageId;
+import org.apache.james.util.streams.Limit;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 
 public class MemoryEmailQueryViewTest implements EmailQueryViewContract {
     private MemoryEmailQueryView testee;
@@ -64,4 +71,36 @@ public class MemoryEmailQueryViewTest implements EmailQueryViewContract {
     public MessageId messageId4() {
         return TestMessageId.of(4);
     }
+
+    @Test
+    void saveShouldReplaceThePreviousEntryOfTheMessage() {
+        testee.save(mailboxId1(), DATE_1, DATE_2, messageId1()).block();
+        testee.save(mailboxId1(), DATE_3, DATE_4, messageId2()).block();
+        testee.save(mailboxId1(), DATE_5, DATE_6, messageId1()).block();
+
+        assertThat(testee.listMailboxContentSortedByReceivedAt(mailboxId1(), Limit.limit(12)).collectList().block())
+            .containsExactly(messageId1(), messageId2());
+        assertThat(testee.listMailboxContentSortedBySentAt(mailboxId1(), Limit.limit(12)).collectList().block())
+            .containsExactly(messageId1(), messageId2());
+    }
+
+    @Test
+    void listingShouldReturnMessagesSharingTheSameDate() {
+        testee.save(mailboxId1(), DATE_1, DATE_2, messageId1()).block();
+        testee.save(mailboxId1(), DATE_1, DATE_2, messageId2()).block();
+        testee.save(mailboxId1(), DATE_1, DATE_2, messageId3()).block();
+
+        assertThat(testee.listMailboxContentSortedByReceivedAt(mailboxId1(), Limit.limit(12)).collectList().block())
+            .containsExactlyInAnyOrder(messageId1(), messageId2(), messageId3());
+    }
+
+    @Test
+    void beforeShouldIncludeMessagesReceivedAtTheBoundaryInAnotherTimeZone() {
+        testee.save(mailboxId1(), DATE_1, DATE_2, messageId1()).block();
+        testee.save(mailboxId1(), DATE_3, DATE_4, messageId2()).block();
+
+        ZonedDateTime boundary = DATE_2.withZoneSameInstant(ZoneId.of("Europe/Paris"));
+        assertThat(testee.listMailboxContentBeforeSortedByReceivedAt(mailboxId1(), boundary, Limit.limit(12)).collectList().block())
+            .containsExactly(messageId1());
+    }
 }
@@ -21,6 +21,7 @@ package org.apache.james.sieve.jpa;
 
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -41,6 +42,7 @@ import org.apache.james.core.quota.QuotaSizeLimit;
 import org.apache.james.core.quota.QuotaSizeUsage;
 import org.apache.james.sieve.jpa.model.JPASieveQuota;
 import org.apache.james.sieve.jpa.model.JPASieveScript;
+import org.apache.james.sieverepository.api.ActiveScriptMetadata;
 import org.apache.james.sieverepository.api.ScriptContent;
 import org.apache.james.sieverepository.api.ScriptName;
 import org.apache.james.sieverepository.api.ScriptSummary;
@@ -143,6 +145,27 @@ public class JPASieveRepository implements SieveRepository {
         return activeSieveScript.getActivationDateTime().toZonedDateTime();
     }
 
+    /**
+     * The content of a script row is never updated: putting a script persists a new row. The row id is thus used as
+     * the version of the script.
+     */
+    @Override
+    public ActiveScriptMetadata getActiveScriptMetadata(Username username) throws StorageException, ScriptNotFoundException {
+        Optional<Object[]> metadata = transactionRunner.runAndRetrieveResult(entityManager -> {
+            try {
+                return Optional.of(entityManager.createNamedQuery("findActiveMetadataByUsername", Object[].class)
+                    .setParameter("username", username.asString())
+                    .getSingleResult());
+            } catch (NoResultException e) {
+                return Optional.empty();
+            }
+        }, throwStorageException("Unable to find active script for user " + username.asString()));
+        Object[] activeScript = metadata.orElseThrow(() -> new ScriptNotFoundException("Unable to find active script for user " + username.asString()));
+        return new ActiveScriptMetadata(new ScriptName((String) activeScript[1]),
+            ((OffsetDateTime) activeScript[2]).toZonedDateTime(),
+            (String) activeScript[0]);
+    }
+
     @Override
     public InputStream getActive(Username username) throws ScriptNotFoundException, StorageException {
         Optional<JPASieveScript> script = findActiveSieveScript(username);
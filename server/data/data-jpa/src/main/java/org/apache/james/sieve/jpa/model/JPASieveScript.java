@@ -41,6 +41,7 @@ import com.google.common.base.Preconditions;
 @Table(name = "JAMES_SIEVE_SCRIPT")
 @NamedQuery(name = "findAllByUsername", query = "SELECT sieveScript FROM JamesSieveScript sieveScript WHERE sieveScript.username=:username")
 @NamedQuery(name = "findActiveByUsername", query = "SELECT sieveScript FROM JamesSieveScript sieveScript WHERE sieveScript.username=:username AND sieveScript.isActive=true")
+@NamedQuery(name = "findActiveMetadataByUsername", query = "SELECT sieveScript.uuid, sieveScript.scriptName, sieveScript.activationDateTime FROM JamesSieveScript sieveScript WHERE sieveScript.username=:username AND sieveScript.isActive=true")
 @NamedQuery(name = "findSieveScript", query = "SELECT sieveScript FROM JamesSieveScript sieveScript WHERE sieveScript.username=:username AND sieveScript.scriptName=:scriptName")
 public class JPASieveScript {
 
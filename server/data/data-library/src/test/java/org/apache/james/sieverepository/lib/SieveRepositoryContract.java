@@ -31,6 +31,7 @@ import java.time.ZonedDateTime;
 import org.apache.commons.io.IOUtils;
 import org.apache.james.core.Username;
 import org.apache.james.core.quota.QuotaSizeLimit;
+import org.apache.james.sieverepository.api.ActiveScriptMetadata;
 import org.apache.james.sieverepository.api.ScriptContent;
 import org.apache.james.sieverepository.api.ScriptName;
 import org.apache.james.sieverepository.api.ScriptSummary;
@@ -82,6 +83,34 @@ public interface SieveRepositoryContract {
             .isInstanceOf(ScriptNotFoundException.class);
     }
 
+    @Test
+    default void getActiveScriptMetadataShouldReturnTheActiveScript() throws Exception {
+        sieveRepository().putScript(USERNAME, SCRIPT_NAME, SCRIPT_CONTENT);
+        sieveRepository().setActive(USERNAME, SCRIPT_NAME);
+
+        ActiveScriptMetadata metadata = sieveRepository().getActiveScriptMetadata(USERNAME);
+
+        assertThat(metadata.getName()).isEqualTo(SCRIPT_NAME);
+        assertThat(metadata.getActivationDate()).isEqualTo(sieveRepository().getActivationDateForActiveScript(USERNAME));
+        assertThat(metadata.getVersion()).isNotNull();
+    }
+
+    @Test
+    default void getActiveScriptMetadataShouldReturnTheSameVersionWhenUnchanged() throws Exception {
+        sieveRepository().putScript(USERNAME, SCRIPT_NAME, SCRIPT_CONTENT);
+        sieveRepository().setActive(USERNAME, SCRIPT_NAME);
+
+        assertThat(sieveRepository().getActiveScriptMetadata(USERNAME).getVersion())
+            .isEqualTo(sieveRepository().getActiveScriptMetadata(USERNAME).getVersion());
+    }
+
+    @Test
+    default void getActiveScriptMetadataShouldThrowOnMissingActiveScript() throws Exception {
+        sieveRepository().putScript(USERNAME, SCRIPT_NAME, SCRIPT_CONTENT);
+        assertThatThrownBy(() -> sieveRepository().getActiveScriptMetadata(USERNAME))
+            .isInstanceOf(ScriptNotFoundException.class);
+    }
+
     @Test
     default void haveSpaceShouldNotThrowWhenUserDoesNotHaveQuota() throws Exception {
         sieveRepository().haveSpace(USERNAME, SCRIPT_NAME, DEFAULT_QUOTA.asLong() + 1L);
@@ -88,6 +88,19 @@ import com.google.common.collect.ImmutableMap;
  * Default is 0.
  * <li><b>timeout</b> (optional) - an Integer for the Socket I/O timeout in milliseconds. Default is 180000</li>
  * <li><b>connectionTimeout</b> (optional) - an Integer for the Socket connection timeout in milliseconds. Default is 60000</li>
+ * <li><b>maxMessagesPerConnection</b> (optional) - an Integer for the number of messages sent over an SMTP connection before closing it.
+ * Connections to a host are kept open between deliveries, and reset with RSET, until this number is reached. Default is 1, which
+ * closes connections after each delivery.</li>
+ * <li><b>maxConnectionsPerDestination</b> (optional) - an Integer for the maximum number of connections simultaneously opened to a
+ * given host. Deliveries to this host then wait, up to <code>connectionTimeout</code>, for a connection to be released. Default is unlimited.</li>
+ * <li><b>connectionIdleTimeout</b> (optional) - a Duration after which an idle connection is closed. Default is 30 seconds.</li>
+ * <li><b>dnsCacheTtl</b> (optional) - a Duration for which the resolved MX hosts of a recipient domain are reused by later deliveries
+ * and retries. Default is 0, meaning that MX hosts are resolved upon each delivery attempt. Not used together with a gateway.</li>
+ * <li><b>dnsCacheNegativeTtl</b> (optional) - a Duration for which a domain without any reachable MX host is remembered. Default is 1 minute.</li>
+ * <li><b>dnsCacheStaleTtl</b> (optional) - a Duration, after dnsCacheTtl, during which the previous MX hosts are still used while being
+ * resolved again in the background, including when DNS is temporarily failing. Default is 10 minutes.</li>
+ * <li><b>dnsCachePrefetchedDomains</b> (optional) - an Integer for the number of most used recipient domains whose MX hosts are resolved
+ * again before they expire. Default is 100.</li>
  * <li><b>bounceProcessor</b> (optional) - a String containing the name of the mailet processor to pass messages that cannot
  * be delivered to for DSN bounce processing. Default is to send a traditional message containing the bounce details.</li>
  * <li><b>onSuccess</b> (optional) - if specified, this processor is called for each email successfully sent to remote third parties.</li>
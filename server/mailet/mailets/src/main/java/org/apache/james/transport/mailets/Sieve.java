@@ -19,36 +19,57 @@
 
 package org.apache.james.transport.mailets;
 
+import java.util.Optional;
+
 import jakarta.inject.Inject;
 import jakarta.mail.MessagingException;
 
 import org.apache.james.core.MailAddress;
 import org.apache.james.mailbox.model.MailboxConstants;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.NoopMetricFactory;
 import org.apache.james.sieverepository.api.SieveRepository;
 import org.apache.james.transport.mailets.jsieve.ResourceLocator;
 import org.apache.james.transport.mailets.jsieve.delivery.SieveExecutor;
 import org.apache.james.transport.mailets.jsieve.delivery.SievePoster;
+import org.apache.james.transport.mailets.jsieve.delivery.SieveScriptCache;
 import org.apache.james.user.api.UsersRepository;
 import org.apache.mailet.Mail;
 import org.apache.mailet.base.GenericMailet;
+import org.apache.mailet.base.MailetUtil;
 
 /**
  * Execute Sieve scripts for incoming emails, and set the result of the execution as attributes of the mail
+ *
+ * Parsed scripts are cached. The optional <b>scriptCacheSize</b> parameter bounds the count of cached scripts
+ * (defaults to 1000, 0 disables the cache).
+ *
+ * <pre><code>
+ * &lt;mailet match="RecipientIsLocal" class="Sieve"&gt;
+ *     &lt;scriptCacheSize&gt;1000&lt;/scriptCacheSize&gt;
+ * &lt;/mailet&gt;
+ * </code></pre>
  */
 public class Sieve extends GenericMailet {
 
     private final UsersRepository usersRepository;
     private final ResourceLocator resourceLocator;
+    private final MetricFactory metricFactory;
     private SieveExecutor sieveExecutor;
 
     @Inject
-    public Sieve(UsersRepository usersRepository, SieveRepository sieveRepository) {
-        this(usersRepository, new ResourceLocator(sieveRepository, usersRepository));
+    public Sieve(UsersRepository usersRepository, SieveRepository sieveRepository, MetricFactory metricFactory) {
+        this(usersRepository, new ResourceLocator(sieveRepository, usersRepository), metricFactory);
     }
 
     public Sieve(UsersRepository usersRepository, ResourceLocator resourceLocator) {
+        this(usersRepository, resourceLocator, new NoopMetricFactory());
+    }
+
+    public Sieve(UsersRepository usersRepository, ResourceLocator resourceLocator, MetricFactory metricFactory) {
         this.usersRepository = usersRepository;
         this.resourceLocator = resourceLocator;
+        this.metricFactory = metricFactory;
     }
 
     @Override
@@ -62,6 +83,8 @@ public class Sieve extends GenericMailet {
             .resourceLocator(resourceLocator)
             .mailetContext(getMailetContext())
             .sievePoster(new SievePoster(usersRepository, MailboxConstants.INBOX))
+            .metricFactory(metricFactory)
+            .scriptCacheSize(MailetUtil.getInitParameterAsInteger(getInitParameter("scriptCacheSize"), Optional.of(SieveScriptCache.DEFAULT_SIZE)))
             .build();
     }
 
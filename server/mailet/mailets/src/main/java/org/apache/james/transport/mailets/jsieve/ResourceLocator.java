@@ -18,25 +18,47 @@
  ****************************************************************/
 package org.apache.james.transport.mailets.jsieve;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.time.ZonedDateTime;
+import java.util.Optional;
 
 import org.apache.james.core.MailAddress;
 import org.apache.james.core.Username;
+import org.apache.james.sieverepository.api.ActiveScriptMetadata;
 import org.apache.james.sieverepository.api.SieveRepository;
+import org.apache.james.sieverepository.api.exception.SieveRepositoryException;
 import org.apache.james.user.api.UsersRepository;
 import org.apache.james.user.api.UsersRepositoryException;
 
 public class ResourceLocator {
 
+    @FunctionalInterface
+    public interface ScriptContentLoader {
+        InputStream load() throws IOException, SieveRepositoryException;
+    }
+
     public static class UserSieveInformation {
-        private ZonedDateTime scriptActivationDate;
-        private ZonedDateTime scriptInterpretationDate;
-        private InputStream scriptContent;
+        private final ZonedDateTime scriptActivationDate;
+        private final ZonedDateTime scriptInterpretationDate;
+        private final Optional<ActiveScriptMetadata> scriptMetadata;
+        private final ScriptContentLoader scriptContent;
 
         public UserSieveInformation(ZonedDateTime scriptActivationDate, ZonedDateTime scriptInterpretationDate, InputStream scriptContent) {
             this.scriptActivationDate = scriptActivationDate;
             this.scriptInterpretationDate = scriptInterpretationDate;
+            this.scriptMetadata = Optional.empty();
+            this.scriptContent = () -> scriptContent;
+        }
+
+        /**
+         * The script content is only read when requested, so that callers holding data derived from it for this
+         * script version do not read it again.
+         */
+        public UserSieveInformation(ActiveScriptMetadata scriptMetadata, ZonedDateTime scriptInterpretationDate, ScriptContentLoader scriptContent) {
+            this.scriptActivationDate = scriptMetadata.getActivationDate();
+            this.scriptInterpretationDate = scriptInterpretationDate;
+            this.scriptMetadata = Optional.of(scriptMetadata);
             this.scriptContent = scriptContent;
         }
 
@@ -48,8 +70,12 @@ public class ResourceLocator {
             return scriptInterpretationDate;
         }
 
-        public InputStream getScriptContent() {
-            return scriptContent;
+        public Optional<ActiveScriptMetadata> getScriptMetadata() {
+            return scriptMetadata;
+        }
+
+        public InputStream getScriptContent() throws IOException, SieveRepositoryException {
+            return scriptContent.load();
         }
     }
 
@@ -63,7 +89,7 @@ public class ResourceLocator {
 
     public UserSieveInformation get(MailAddress mailAddress) throws Exception {
         Username username = retrieveUsername(mailAddress);
-        return new UserSieveInformation(sieveRepository.getActivationDateForActiveScript(username), ZonedDateTime.now(), sieveRepository.getActive(username));
+        return new UserSieveInformation(sieveRepository.getActiveScriptMetadata(username), ZonedDateTime.now(), () -> sieveRepository.getActive(username));
     }
 
     private Username retrieveUsername(MailAddress mailAddress) {
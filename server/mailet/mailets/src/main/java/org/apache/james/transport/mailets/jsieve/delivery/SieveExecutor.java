@@ -20,11 +20,17 @@
 
 package org.apache.james.transport.mailets.jsieve.delivery;
 
+import java.io.IOException;
+import java.util.Optional;
+
 import jakarta.mail.MessagingException;
 
 import org.apache.james.core.MailAddress;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.NoopMetricFactory;
 import org.apache.james.server.core.MailImpl;
 import org.apache.james.sieverepository.api.exception.ScriptNotFoundException;
+import org.apache.james.sieverepository.api.exception.SieveRepositoryException;
 import org.apache.james.transport.mailets.jsieve.ActionDispatcher;
 import org.apache.james.transport.mailets.jsieve.ResourceLocator;
 import org.apache.james.transport.mailets.jsieve.SieveMailAdapter;
@@ -58,6 +64,8 @@ public class SieveExecutor {
         private MailetContext mailetContext;
         private SievePoster sievePoster;
         private ResourceLocator resourceLocator;
+        private Optional<MetricFactory> metricFactory = Optional.empty();
+        private Optional<Integer> scriptCacheSize = Optional.empty();
 
         public Builder sievePoster(SievePoster sievePoster) {
             this.sievePoster = sievePoster;
@@ -74,11 +82,23 @@ public class SieveExecutor {
             return this;
         }
 
+        public Builder metricFactory(MetricFactory metricFactory) {
+            this.metricFactory = Optional.of(metricFactory);
+            return this;
+        }
+
+        public Builder scriptCacheSize(int scriptCacheSize) {
+            this.scriptCacheSize = Optional.of(scriptCacheSize);
+            return this;
+        }
+
         public SieveExecutor build() throws MessagingException {
             Preconditions.checkNotNull(mailetContext);
             Preconditions.checkNotNull(resourceLocator);
             Preconditions.checkNotNull(sievePoster);
-            return new SieveExecutor(mailetContext, sievePoster, resourceLocator);
+            return new SieveExecutor(mailetContext, sievePoster, resourceLocator,
+                new SieveScriptCache(scriptCacheSize.orElse(SieveScriptCache.DEFAULT_SIZE),
+                    metricFactory.orElseGet(NoopMetricFactory::new)));
         }
     }
 
@@ -87,14 +107,21 @@ public class SieveExecutor {
     private final ResourceLocator resourceLocator;
     private final SieveFactory factory;
     private final ActionDispatcher actionDispatcher;
+    private final SieveScriptCache scriptCache;
 
     public SieveExecutor(MailetContext mailetContext, SievePoster sievePoster,
                          ResourceLocator resourceLocator) throws MessagingException {
+        this(mailetContext, sievePoster, resourceLocator, new SieveScriptCache(SieveScriptCache.DEFAULT_SIZE, new NoopMetricFactory()));
+    }
+
+    public SieveExecutor(MailetContext mailetContext, SievePoster sievePoster,
+                         ResourceLocator resourceLocator, SieveScriptCache scriptCache) throws MessagingException {
         this.mailetContext = mailetContext;
         this.sievePoster = sievePoster;
         this.resourceLocator = resourceLocator;
         this.factory = createFactory();
         this.actionDispatcher = new ActionDispatcher();
+        this.scriptCache = scriptCache;
     }
 
     private SieveFactory createFactory() throws MessagingException {
@@ -126,7 +153,7 @@ public class SieveExecutor {
         }
     }
 
-    private void sieveMessageEvaluate(MailAddress recipient, Mail aMail, ResourceLocator.UserSieveInformation userSieveInformation) throws MessagingException {
+    private void sieveMessageEvaluate(MailAddress recipient, Mail aMail, ResourceLocator.UserSieveInformation userSieveInformation) throws MessagingException, SieveRepositoryException {
         try {
             SieveMailAdapter aMailAdapter = new SieveMailAdapter(aMail,
                 mailetContext, actionDispatcher, sievePoster, userSieveInformation.getScriptActivationDate(),
@@ -135,7 +162,9 @@ public class SieveExecutor {
                 // This logging operation is potentially costly
                 LOGGER.debug("Evaluating {} against \"{}\"", aMailAdapter.toString(), recipient.asPrettyString());
             }
-            factory.evaluate(aMailAdapter, factory.parse(userSieveInformation.getScriptContent()));
+            factory.evaluate(aMailAdapter, scriptCache.get(recipient, userSieveInformation, factory::parse));
+        } catch (IOException ex) {
+            throw new MessagingException("Failed to read the Sieve script of " + recipient.asPrettyString(), ex);
         } catch (SieveException | ParseException ex) {
             handleFailure(recipient, aMail, ex);
         } catch (TokenMgrError ex) {
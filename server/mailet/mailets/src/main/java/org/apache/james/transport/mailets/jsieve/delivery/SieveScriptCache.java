@@ -0,0 +1,101 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+
+package org.apache.james.transport.mailets.jsieve.delivery;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+import org.apache.james.core.MailAddress;
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.sieverepository.api.ActiveScriptMetadata;
+import org.apache.james.sieverepository.api.ScriptName;
+import org.apache.james.sieverepository.api.exception.SieveRepositoryException;
+import org.apache.james.transport.mailets.jsieve.ResourceLocator;
+import org.apache.jsieve.parser.generated.Node;
+import org.apache.jsieve.parser.generated.ParseException;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Keeps the parsed form of the Sieve scripts of recently delivered users so that they are not parsed again for
+ * every mail.
+ *
+ * Entries are keyed by recipient, script name and script version as reported by the Sieve repository, so that a
+ * hit does not read the script content. Editing or switching the active script, from this James node or another
+ * one, yields a new key, and the outdated entry is eventually evicted. Scripts without metadata are never cached.
+ */
+public class SieveScriptCache {
+    @FunctionalInterface
+    public interface Parser {
+        Node parse(InputStream script) throws ParseException;
+    }
+
+    private record Key(MailAddress recipient, ScriptName name, String version) {
+
+    }
+
+    public static final int DEFAULT_SIZE = 1000;
+    public static final String HIT_METRIC_NAME = "sieve.script.cache.hit";
+    public static final String MISS_METRIC_NAME = "sieve.script.cache.miss";
+
+    private final Cache<Key, Node> cache;
+    private final Metric hits;
+    private final Metric misses;
+
+    public SieveScriptCache(int size, MetricFactory metricFactory) {
+        Preconditions.checkArgument(size >= 0, "Sieve script cache size can not be negative");
+
+        this.cache = CacheBuilder.newBuilder()
+            .maximumSize(size)
+            .build();
+        this.hits = metricFactory.generate(HIT_METRIC_NAME);
+        this.misses = metricFactory.generate(MISS_METRIC_NAME);
+    }
+
+    public Node get(MailAddress recipient, ResourceLocator.UserSieveInformation userSieveInformation, Parser parser) throws IOException, ParseException, SieveRepositoryException {
+        Optional<Key> key = userSieveInformation.getScriptMetadata()
+            .map(metadata -> key(recipient, metadata));
+
+        Optional<Node> cachedScript = key.map(cache::getIfPresent);
+        if (cachedScript.isPresent()) {
+            hits.increment();
+            return cachedScript.get();
+        }
+        misses.increment();
+        Node parsedScript = parse(userSieveInformation, parser);
+        key.ifPresent(k -> cache.put(k, parsedScript));
+        return parsedScript;
+    }
+
+    private Key key(MailAddress recipient, ActiveScriptMetadata metadata) {
+        return new Key(recipient, metadata.getName(), metadata.getVersion());
+    }
+
+    private Node parse(ResourceLocator.UserSieveInformation userSieveInformation, Parser parser) throws IOException, ParseException, SieveRepositoryException {
+        try (InputStream scriptContent = userSieveInformation.getScriptContent()) {
+            return parser.parse(scriptContent);
+        }
+    }
+}
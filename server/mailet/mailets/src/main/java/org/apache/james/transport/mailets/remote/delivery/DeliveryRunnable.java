@@ -83,7 +83,7 @@ public class DeliveryRunnable implements Disposable {
     public DeliveryRunnable(MailQueue queue, RemoteDeliveryConfiguration configuration, DNSService dnsServer, MetricFactory metricFactory,
                             MailetContext mailetContext, Bouncer bouncer) {
         this(queue, configuration, metricFactory, bouncer,
-            new MailDelivrer(configuration, new MailDelivrerToHost(configuration, mailetContext), dnsServer, bouncer, mailetContext),
+            new MailDelivrer(configuration, new MailDelivrerToHost(configuration, mailetContext, metricFactory), dnsServer, bouncer, mailetContext),
             CURRENT_DATE_SUPPLIER, mailetContext);
     }
 
@@ -264,6 +264,7 @@ public class DeliveryRunnable implements Disposable {
     @Override
     public void dispose() {
         disposable.dispose();
+        mailDelivrer.dispose();
         remoteDeliveryDequeueScheduler.dispose();
         remoteDeliveryProcessScheduler.disposeGracefully()
             .timeout(Duration.ofSeconds(2))
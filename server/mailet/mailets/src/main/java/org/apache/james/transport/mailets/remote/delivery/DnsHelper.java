@@ -23,26 +23,43 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 
 import org.apache.james.dnsservice.api.DNSService;
 import org.apache.james.dnsservice.api.TemporaryResolutionException;
 import org.apache.james.dnsservice.library.MXHostAddressIterator;
 import org.apache.mailet.HostAddress;
 
+import com.google.common.collect.ImmutableList;
+
 @SuppressWarnings("deprecation")
 public class DnsHelper {
 
     public static final boolean USE_SEVERAL_IP = false;
     private final DNSService dnsServer;
     private final RemoteDeliveryConfiguration configuration;
+    private final Optional<MxRouteCache> mxRouteCache;
 
     public DnsHelper(DNSService dnsServer, RemoteDeliveryConfiguration configuration) {
         this.dnsServer = dnsServer;
         this.configuration = configuration;
+        this.mxRouteCache = createMxRouteCache();
+    }
+
+    private Optional<MxRouteCache> createMxRouteCache() {
+        if (!configuration.isDnsCacheEnabled() || !configuration.getGatewayServer().isEmpty()) {
+            return Optional.empty();
+        }
+        MxRouteCache cache = MxRouteCache.create(configuration, this::resolveMxRoute);
+        cache.start();
+        return Optional.of(cache);
     }
 
     public Iterator<HostAddress> retrieveHostAddressIterator(String host, boolean smtps) throws TemporaryResolutionException {
         if (configuration.getGatewayServer().isEmpty()) {
+            if (mxRouteCache.isPresent()) {
+                return mxRouteCache.get().get(host, smtps).iterator();
+            }
             return new MXHostAddressIterator(dnsServer.findMXRecords(host).iterator(), dnsServer, USE_SEVERAL_IP, smtps);
         } else if (configuration.isLoadBalancing()) {
             List<String> gatewayList = new ArrayList<>(configuration.getGatewayServer());
@@ -53,4 +70,12 @@ public class DnsHelper {
         }
     }
 
+    private List<HostAddress> resolveMxRoute(String host, boolean smtps) throws TemporaryResolutionException {
+        return ImmutableList.copyOf(new MXHostAddressIterator(dnsServer.findMXRecords(host).iterator(), dnsServer, USE_SEVERAL_IP, smtps));
+    }
+
+    public void dispose() {
+        mxRouteCache.ifPresent(MxRouteCache::dispose);
+    }
+
 }
@@ -74,6 +74,11 @@ public class MailDelivrer {
         this.mailetContext = mailetContext;
     }
 
+    public void dispose() {
+        mailDelivrerToHost.dispose();
+        dnsHelper.dispose();
+    }
+
     /**
      * We can assume that the recipients of this message are all going to the same mail server. We will now rely on the
      * DNS server to do DNS MX record lookup and try to deliver to the multiple mail servers. If it fails, it should
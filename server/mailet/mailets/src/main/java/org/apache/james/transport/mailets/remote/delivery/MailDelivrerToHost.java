@@ -46,6 +46,7 @@ import org.apache.commons.pool2.impl.DefaultPooledObject;
 import org.apache.commons.pool2.impl.GenericObjectPool;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.apache.james.core.MailAddress;
+import org.apache.james.metrics.api.MetricFactory;
 import org.apache.mailet.Attribute;
 import org.apache.mailet.AttributeName;
 import org.apache.mailet.DsnParameters;
@@ -70,8 +71,9 @@ public class MailDelivrerToHost {
     private final Converter7Bit converter7Bit;
     private final ObjectPool<Session> smtpSessionPool;
     private final ObjectPool<Session> smtpsSessionPool;
+    private final SmtpConnectionPool connectionPool;
 
-    public MailDelivrerToHost(RemoteDeliveryConfiguration remoteDeliveryConfiguration, MailetContext mailetContext) {
+    public MailDelivrerToHost(RemoteDeliveryConfiguration remoteDeliveryConfiguration, MailetContext mailetContext, MetricFactory metricFactory) {
         this.configuration = remoteDeliveryConfiguration;
         this.converter7Bit = new Converter7Bit(mailetContext);
         if (configuration.isSSLEnable()) {
@@ -81,6 +83,7 @@ public class MailDelivrerToHost {
             this.smtpSessionPool = createSessionPool(configuration.createFinalJavaxProperties());
             this.smtpsSessionPool = smtpSessionPool;
         }
+        this.connectionPool = new SmtpConnectionPool(configuration, metricFactory, this::openConnection, this::closeConnection);
     }
 
     private ObjectPool<Session> createSessionPool(Properties defaultConfiguration) {
@@ -107,7 +110,9 @@ public class MailDelivrerToHost {
     }
 
     public ExecutionResult tryDeliveryToHost(Mail mail, Collection<InternetAddress> addr, HostAddress outgoingMailServer) throws MessagingException {
-        Session session = selectSession(outgoingMailServer);
+        SmtpConnectionPool.Connection connection = connectionPool.borrow(outgoingMailServer);
+        Session session = connection.getSession();
+        SMTPTransport transport = connection.getTransport();
         Properties props = getPropertiesForMail(mail, session);
         LOGGER.debug("Attempting delivery of {} with messageId {} to host {} at {} from {}",
             mail.getName(), getMessageId(mail), outgoingMailServer.getHostName(),
@@ -119,11 +124,8 @@ public class MailDelivrerToHost {
         // "mail.smtp.dsn.ret"        //default to nothing... appended as RET= after MAIL FROM line.
         // "mail.smtp.dsn.notify"     //default to nothing... appended as NOTIFY= after RCPT TO line.
 
-        SMTPTransport transport = null;
+        boolean sent = false;
         try {
-            transport = (SMTPTransport) session.getTransport(outgoingMailServer);
-            transport.setLocalHost(props.getProperty(inContext(session, "mail.smtp.localhost"), configuration.getHeloNameProvider().getHeloName()));
-            connect(outgoingMailServer, transport);
             if (mail.dsnParameters().isPresent()) {
                 sendDSNAwareEmail(mail, transport, addr);
             } else if (transport.supportsExtension("MT-PRIORITY")) {
@@ -134,13 +136,39 @@ public class MailDelivrerToHost {
             LOGGER.info("Mail ({}) with messageId {} sent successfully to {} at {} from {} for {}",
                 mail.getName(), getMessageId(mail), outgoingMailServer.getHostName(),
                 outgoingMailServer.getHost(), props.get(inContext(session, "mail.smtp.from")), mail.getRecipients());
+            sent = true;
         } finally {
-            closeTransport(mail, outgoingMailServer, transport);
-            releaseSession(outgoingMailServer, session);
+            if (sent) {
+                connectionPool.release(connection);
+            } else {
+                connectionPool.invalidate(connection);
+            }
         }
         return ExecutionResult.success();
     }
 
+    private SmtpConnectionPool.Connection openConnection(HostAddress outgoingMailServer) throws MessagingException {
+        Session session = selectSession(outgoingMailServer);
+        try {
+            SMTPTransport transport = (SMTPTransport) session.getTransport(outgoingMailServer);
+            transport.setLocalHost(session.getProperties().getProperty(inContext(session, "mail.smtp.localhost"), configuration.getHeloNameProvider().getHeloName()));
+            connect(outgoingMailServer, transport);
+            return new SmtpConnectionPool.Connection(session, transport, outgoingMailServer);
+        } catch (MessagingException | RuntimeException e) {
+            releaseSession(outgoingMailServer, session);
+            throw e;
+        }
+    }
+
+    private void closeConnection(SmtpConnectionPool.Connection connection) {
+        closeTransport(connection.getOutgoingMailServer(), connection.getTransport());
+        releaseSession(connection.getOutgoingMailServer(), connection.getSession());
+    }
+
+    public void dispose() {
+        connectionPool.close();
+    }
+
     private String getMessageId(Mail mail) {
         try {
             return mail.getMessage().getMessageID();
@@ -309,20 +337,17 @@ public class MailDelivrerToHost {
         // to 7bit. Javamail api doesn't perform that conversion, but it is required to be a rfc-compliant smtp server.
     }
 
-    private void closeTransport(Mail mail, HostAddress outgoingMailServer, SMTPTransport transport) {
-        if (transport != null) {
-            try {
-                // James-899: transport.close() sends QUIT to the server; if that fails
-                // (e.g. because the server has already closed the connection) the message
-                // should be considered to be delivered because the error happened outside
-                // of the mail transaction (MAIL, RCPT, DATA).
-                transport.close();
-            } catch (MessagingException e) {
-                LOGGER.error("Warning: could not close the SMTP transport after sending mail ({}) to {} at {} for {}; " +
-                        "probably the server has already closed the connection. Message is considered to be delivered. Exception: {}",
-                    mail.getName(), outgoingMailServer.getHostName(), outgoingMailServer.getHost(), mail.getRecipients(), e.getMessage());
-            }
-            transport = null;
+    private void closeTransport(HostAddress outgoingMailServer, SMTPTransport transport) {
+        try {
+            // James-899: transport.close() sends QUIT to the server; if that fails
+            // (e.g. because the server has already closed the connection) the messages
+            // sent over this connection should be considered to be delivered because the
+            // error happened outside of the mail transaction (MAIL, RCPT, DATA).
+            transport.close();
+        } catch (MessagingException e) {
+            LOGGER.error("Warning: could not close the SMTP transport to {} at {}; " +
+                    "probably the server has already closed the connection. Sent messages are considered to be delivered. Exception: {}",
+                outgoingMailServer.getHostName(), outgoingMailServer.getHost(), e.getMessage());
         }
     }
 
@@ -0,0 +1,237 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.transport.mailets.remote.delivery;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.james.dnsservice.api.TemporaryResolutionException;
+import org.apache.mailet.HostAddress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Resolved delivery routes (MX hosts and their addresses) of the recipient domains, so that delivery attempts and
+ * retries do not resolve them again.
+ *
+ * <ul>
+ *     <li>Routes are fresh for {@link RemoteDeliveryConfiguration#getDnsCacheTtl()}, routes without any server for
+ *     {@link RemoteDeliveryConfiguration#getDnsCacheNegativeTtl()}.</li>
+ *     <li>For {@link RemoteDeliveryConfiguration#getDnsCacheStaleTtl()} afterward, a route with servers is still served
+ *     while being resolved again in the background. A route failing to be refreshed because of a temporary DNS issue is
+ *     kept until then.</li>
+ *     <li>The {@link RemoteDeliveryConfiguration#getDnsCachePrefetchedDomains()} most used destinations are periodically
+ *     resolved again before they expire, so that deliveries to them never wait for DNS.</li>
+ * </ul>
+ *
+ * As the DNS service does not expose record TTLs, the configured TTL acts as an upper bound on top of the DNS service
+ * own cache. As a result, the order of MX hosts sharing the same priority, randomized upon resolution, is kept for the
+ * lifetime of a route.
+ */
+public class MxRouteCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MxRouteCache.class);
+
+    @FunctionalInterface
+    interface Resolver {
+        List<HostAddress> resolve(String domain, boolean smtps) throws TemporaryResolutionException;
+    }
+
+    private static class Destination {
+        private final String domain;
+        private final boolean smtps;
+
+        Destination(String domain, boolean smtps) {
+            this.domain = domain.toLowerCase(Locale.US);
+            this.smtps = smtps;
+        }
+
+        @Override
+        public final boolean equals(Object o) {
+            if (o instanceof Destination) {
+                Destination that = (Destination) o;
+
+                return Objects.equals(this.smtps, that.smtps)
+                    && Objects.equals(this.domain, that.domain);
+            }
+            return false;
+        }
+
+        @Override
+        public final int hashCode() {
+            return Objects.hash(domain, smtps);
+        }
+    }
+
+    private static class Route {
+        private final List<HostAddress> hostAddresses;
+        private final Instant resolvedAt;
+        private final AtomicLong hits;
+        private final AtomicBoolean refreshing;
+
+        Route(List<HostAddress> hostAddresses, Instant resolvedAt, long hits) {
+            this.hostAddresses = hostAddresses;
+            this.resolvedAt = resolvedAt;
+            this.hits = new AtomicLong(hits);
+            this.refreshing = new AtomicBoolean(false);
+        }
+    }
+
+    private final Resolver resolver;
+    private final Clock clock;
+    private final Scheduler scheduler;
+    private final Duration ttl;
+    private final Duration negativeTtl;
+    private final Duration staleTtl;
+    private final int prefetchedDomains;
+    private final ConcurrentHashMap<Destination, Route> routes;
+    private Disposable prefetching;
+
+    MxRouteCache(RemoteDeliveryConfiguration configuration, Resolver resolver, Clock clock, Scheduler scheduler) {
+        this.resolver = resolver;
+        this.clock = clock;
+        this.scheduler = scheduler;
+        this.ttl = configuration.getDnsCacheTtl();
+        this.negativeTtl = configuration.getDnsCacheNegativeTtl();
+        this.staleTtl = configuration.getDnsCacheStaleTtl();
+        this.prefetchedDomains = configuration.getDnsCachePrefetchedDomains();
+        this.routes = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Periodically refreshes the most used routes, and evicts the expired ones.
+     */
+    public void start() {
+        Duration period = ttl.dividedBy(2);
+        prefetching = Flux.interval(period, period, scheduler)
+            .doOnNext(any -> prefetch())
+            .onErrorContinue((e, any) -> LOGGER.error("Error while prefetching MX routes", e))
+            .subscribe();
+    }
+
+    public List<HostAddress> get(String domain, boolean smtps) throws TemporaryResolutionException {
+        Destination destination = new Destination(domain, smtps);
+        Route route = routes.get(destination);
+        Instant now = clock.instant();
+        if (route == null || isExpired(route, now)) {
+            return resolve(destination, route).hostAddresses;
+        }
+        route.hits.incrementAndGet();
+        if (!isFresh(route, now)) {
+            refreshInBackground(destination, route);
+        }
+        return route.hostAddresses;
+    }
+
+    private Route resolve(Destination destination, Route previous) throws TemporaryResolutionException {
+        long hits = previous == null ? 1 : previous.hits.get() + 1;
+        Route route = new Route(resolver.resolve(destination.domain, destination.smtps), clock.instant(), hits);
+        routes.put(destination, route);
+        return route;
+    }
+
+    private void refreshInBackground(Destination destination, Route route) {
+        if (!route.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        Mono.fromCallable(() -> new Route(resolver.resolve(destination.domain, destination.smtps), clock.instant(), route.hits.get()))
+            .doOnNext(refreshed -> routes.replace(destination, route, refreshed))
+            .onErrorResume(e -> {
+                LOGGER.info("Could not refresh the MX route of {}, keeping the previous one", destination.domain, e);
+                return Mono.empty();
+            })
+            .doFinally(any -> route.refreshing.set(false))
+            .subscribeOn(scheduler)
+            .subscribe();
+    }
+
+    @VisibleForTesting
+    void prefetch() {
+        Instant now = clock.instant();
+        Instant nextRun = now.plus(ttl.dividedBy(2));
+        routes.entrySet().removeIf(entry -> isExpired(entry.getValue(), now));
+
+        ImmutableList<Map.Entry<Destination, Route>> mostUsed = routes.entrySet().stream()
+            .filter(entry -> !isNegative(entry.getValue()))
+            .sorted(Comparator.comparingLong((Map.Entry<Destination, Route> entry) -> entry.getValue().hits.get()).reversed())
+            .limit(prefetchedDomains)
+            .collect(ImmutableList.toImmutableList());
+        // Decay the hit counts so that the prefetched domains follow the current traffic
+        routes.values().forEach(route -> route.hits.updateAndGet(hits -> hits / 2));
+
+        mostUsed.stream()
+            .filter(entry -> !isFresh(entry.getValue(), nextRun))
+            .forEach(entry -> refreshInBackground(entry.getKey(), entry.getValue()));
+    }
+
+    private boolean isFresh(Route route, Instant instant) {
+        return instant.isBefore(route.resolvedAt.plus(ttlOf(route)));
+    }
+
+    private boolean isExpired(Route route, Instant instant) {
+        if (isNegative(route)) {
+            return !isFresh(route, instant);
+        }
+        return !instant.isBefore(route.resolvedAt.plus(ttl).plus(staleTtl));
+    }
+
+    private Duration ttlOf(Route route) {
+        if (isNegative(route)) {
+            return negativeTtl;
+        }
+        return ttl;
+    }
+
+    private boolean isNegative(Route route) {
+        return route.hostAddresses.isEmpty();
+    }
+
+    @VisibleForTesting
+    int size() {
+        return routes.size();
+    }
+
+    public void dispose() {
+        if (prefetching != null) {
+            prefetching.dispose();
+        }
+    }
+
+    static MxRouteCache create(RemoteDeliveryConfiguration configuration, Resolver resolver) {
+        return new MxRouteCache(configuration, resolver, Clock.systemUTC(), Schedulers.boundedElastic());
+    }
+}
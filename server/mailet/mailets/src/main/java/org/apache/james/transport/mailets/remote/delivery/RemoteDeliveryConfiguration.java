@@ -20,6 +20,7 @@
 package org.apache.james.transport.mailets.remote.delivery;
 
 import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -28,6 +29,7 @@ import java.util.Properties;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.james.domainlist.api.DomainList;
 import org.apache.james.queue.api.MailQueueName;
+import org.apache.james.util.DurationParser;
 import org.apache.mailet.MailetConfig;
 import org.apache.mailet.ProcessingState;
 import org.apache.mailet.base.MailetUtil;
@@ -66,11 +68,24 @@ public class RemoteDeliveryConfiguration {
     public static final String DEBUG = "debug";
     public static final String ON_SUCCESS = "onSuccess";
     public static final String LOAD_BALANCING = "loadBalancing";
+    public static final String MAX_MESSAGES_PER_CONNECTION = "maxMessagesPerConnection";
+    public static final String MAX_CONNECTIONS_PER_DESTINATION = "maxConnectionsPerDestination";
+    public static final String CONNECTION_IDLE_TIMEOUT = "connectionIdleTimeout";
+    public static final String DNS_CACHE_TTL = "dnsCacheTtl";
+    public static final String DNS_CACHE_NEGATIVE_TTL = "dnsCacheNegativeTtl";
+    public static final String DNS_CACHE_STALE_TTL = "dnsCacheStaleTtl";
+    public static final String DNS_CACHE_PREFETCHED_DOMAINS = "dnsCachePrefetchedDomains";
     public static final int DEFAULT_SMTP_TIMEOUT = 180000;
     public static final MailQueueName DEFAULT_OUTGOING_QUEUE_NAME = MailQueueName.of("outgoing");
     public static final int DEFAULT_CONNECTION_TIMEOUT = 60000;
     public static final int DEFAULT_DNS_RETRY_PROBLEM = 0;
     public static final int DEFAULT_MAX_RETRY = 5;
+    public static final int DEFAULT_MAX_MESSAGES_PER_CONNECTION = 1;
+    public static final Duration DEFAULT_CONNECTION_IDLE_TIMEOUT = Duration.ofSeconds(30);
+    public static final Duration DEFAULT_DNS_CACHE_TTL = Duration.ZERO;
+    public static final Duration DEFAULT_DNS_CACHE_NEGATIVE_TTL = Duration.ofMinutes(1);
+    public static final Duration DEFAULT_DNS_CACHE_STALE_TTL = Duration.ofMinutes(10);
+    public static final int DEFAULT_DNS_CACHE_PREFETCHED_DOMAINS = 100;
     public static final String ADDRESS_PORT_SEPARATOR = ":";
 
     private final boolean isDebug;
@@ -85,6 +100,13 @@ public class RemoteDeliveryConfiguration {
     private final long smtpTimeout;
     private final int dnsProblemRetry;
     private final int connectionTimeout;
+    private final int maxMessagesPerConnection;
+    private final Optional<Integer> maxConnectionsPerDestination;
+    private final Duration connectionIdleTimeout;
+    private final Duration dnsCacheTtl;
+    private final Duration dnsCacheNegativeTtl;
+    private final Duration dnsCacheStaleTtl;
+    private final int dnsCachePrefetchedDomains;
     private final List<Duration> delayTimes;
     private final HeloNameProvider heloNameProvider;
     private final MailQueueName outGoingQueueName;
@@ -116,6 +138,13 @@ public class RemoteDeliveryConfiguration {
         delayTimes = delaysAndMaxRetry.getExpandedDelays();
         smtpTimeout = computeSmtpTimeout(mailetConfig);
         connectionTimeout = computeConnectionTimeout(mailetConfig);
+        maxMessagesPerConnection = computeMaxMessagesPerConnection(mailetConfig);
+        maxConnectionsPerDestination = computeMaxConnectionsPerDestination(mailetConfig);
+        connectionIdleTimeout = computeDuration(mailetConfig, CONNECTION_IDLE_TIMEOUT, DEFAULT_CONNECTION_IDLE_TIMEOUT);
+        dnsCacheTtl = computeDuration(mailetConfig, DNS_CACHE_TTL, DEFAULT_DNS_CACHE_TTL);
+        dnsCacheNegativeTtl = computeDuration(mailetConfig, DNS_CACHE_NEGATIVE_TTL, DEFAULT_DNS_CACHE_NEGATIVE_TTL);
+        dnsCacheStaleTtl = computeDuration(mailetConfig, DNS_CACHE_STALE_TTL, DEFAULT_DNS_CACHE_STALE_TTL);
+        dnsCachePrefetchedDomains = computeDnsCachePrefetchedDomains(mailetConfig);
         dnsProblemRetry = computeDnsProblemRetry(mailetConfig);
         heloNameProvider = new HeloNameProvider(mailetConfig.getInitParameter(HELO_NAME), domainList);
 
@@ -167,6 +196,52 @@ public class RemoteDeliveryConfiguration {
         }
     }
 
+    private int computeMaxMessagesPerConnection(MailetConfig mailetConfig) {
+        try {
+            return Optional.ofNullable(mailetConfig.getInitParameter(MAX_MESSAGES_PER_CONNECTION))
+                .map(Integer::parseInt)
+                .filter(value -> value > 0)
+                .orElse(DEFAULT_MAX_MESSAGES_PER_CONNECTION);
+        } catch (Exception e) {
+            LOGGER.warn("Invalid maxMessagesPerConnection setting: {}", mailetConfig.getInitParameter(MAX_MESSAGES_PER_CONNECTION));
+            return DEFAULT_MAX_MESSAGES_PER_CONNECTION;
+        }
+    }
+
+    private Optional<Integer> computeMaxConnectionsPerDestination(MailetConfig mailetConfig) {
+        try {
+            return Optional.ofNullable(mailetConfig.getInitParameter(MAX_CONNECTIONS_PER_DESTINATION))
+                .map(Integer::parseInt)
+                .filter(value -> value > 0);
+        } catch (Exception e) {
+            LOGGER.warn("Invalid maxConnectionsPerDestination setting: {}", mailetConfig.getInitParameter(MAX_CONNECTIONS_PER_DESTINATION));
+            return Optional.empty();
+        }
+    }
+
+    private Duration computeDuration(MailetConfig mailetConfig, String parameter, Duration defaultValue) {
+        try {
+            return Optional.ofNullable(mailetConfig.getInitParameter(parameter))
+                .map(value -> DurationParser.parse(value, ChronoUnit.SECONDS))
+                .orElse(defaultValue);
+        } catch (Exception e) {
+            LOGGER.warn("Invalid {} setting: {}", parameter, mailetConfig.getInitParameter(parameter));
+            return defaultValue;
+        }
+    }
+
+    private int computeDnsCachePrefetchedDomains(MailetConfig mailetConfig) {
+        try {
+            return Optional.ofNullable(mailetConfig.getInitParameter(DNS_CACHE_PREFETCHED_DOMAINS))
+                .map(Integer::parseInt)
+                .filter(value -> value >= 0)
+                .orElse(DEFAULT_DNS_CACHE_PREFETCHED_DOMAINS);
+        } catch (Exception e) {
+            LOGGER.warn("Invalid dnsCachePrefetchedDomains setting: {}", mailetConfig.getInitParameter(DNS_CACHE_PREFETCHED_DOMAINS));
+            return DEFAULT_DNS_CACHE_PREFETCHED_DOMAINS;
+        }
+    }
+
     private long computeSmtpTimeout(MailetConfig mailetConfig) {
         try {
             if (mailetConfig.getInitParameter(TIMEOUT) != null) {
@@ -280,6 +355,48 @@ public class RemoteDeliveryConfiguration {
         return connectionTimeout;
     }
 
+    /**
+     * @return the number of messages sent over an SMTP connection before closing it, 1 meaning that connections are
+     * not reused
+     */
+    public int getMaxMessagesPerConnection() {
+        return maxMessagesPerConnection;
+    }
+
+    /**
+     * @return the maximum number of connections simultaneously opened to a given host, empty when unlimited
+     */
+    public Optional<Integer> getMaxConnectionsPerDestination() {
+        return maxConnectionsPerDestination;
+    }
+
+    public Duration getConnectionIdleTimeout() {
+        return connectionIdleTimeout;
+    }
+
+    /**
+     * @return how long resolved MX routes are cached, {@link Duration#ZERO} meaning that they are not
+     */
+    public Duration getDnsCacheTtl() {
+        return dnsCacheTtl;
+    }
+
+    public boolean isDnsCacheEnabled() {
+        return !dnsCacheTtl.isZero() && !dnsCacheTtl.isNegative();
+    }
+
+    public Duration getDnsCacheNegativeTtl() {
+        return dnsCacheNegativeTtl;
+    }
+
+    public Duration getDnsCacheStaleTtl() {
+        return dnsCacheStaleTtl;
+    }
+
+    public int getDnsCachePrefetchedDomains() {
+        return dnsCachePrefetchedDomains;
+    }
+
     public Collection<String> getGatewayServer() {
         return gatewayServer;
     }
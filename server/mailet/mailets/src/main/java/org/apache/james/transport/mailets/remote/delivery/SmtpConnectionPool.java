@@ -0,0 +1,262 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.transport.mailets.remote.delivery;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+
+import org.apache.commons.pool2.BaseKeyedPooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericKeyedObjectPool;
+import org.apache.commons.pool2.impl.GenericKeyedObjectPoolConfig;
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.TimeMetric;
+import org.apache.mailet.HostAddress;
+import org.eclipse.angus.mail.smtp.SMTPTransport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * Live SMTP connections, kept open between deliveries to the same destination.
+ *
+ * Connections are keyed by destination: protocol, thus TLS mode, and host. A released connection is reused, after a
+ * successful RSET, until it has sent {@link RemoteDeliveryConfiguration#getMaxMessagesPerConnection()} messages or
+ * stayed idle for {@link RemoteDeliveryConfiguration#getConnectionIdleTimeout()}. At most
+ * {@link RemoteDeliveryConfiguration#getMaxConnectionsPerDestination()} connections are opened to a destination:
+ * deliveries then wait, up to the connection timeout, for one of them to be released.
+ */
+public class SmtpConnectionPool {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SmtpConnectionPool.class);
+
+    public static final String CONNECTIONS_CREATED = "RemoteDeliveryConnectionsCreated";
+    public static final String CONNECTIONS_REUSED = "RemoteDeliveryConnectionsReused";
+    public static final String HANDSHAKE = "RemoteDeliveryHandshake";
+    private static final int RSET_OK = 250;
+    private static final int UNLIMITED = -1;
+
+    @FunctionalInterface
+    interface Connector {
+        Connection connect(HostAddress outgoingMailServer) throws MessagingException;
+    }
+
+    @FunctionalInterface
+    interface Disconnector {
+        void disconnect(Connection connection);
+    }
+
+    public static class Connection {
+        private final Session session;
+        private final SMTPTransport transport;
+        private final HostAddress outgoingMailServer;
+        private int sentMessages;
+
+        public Connection(Session session, SMTPTransport transport, HostAddress outgoingMailServer) {
+            this.session = session;
+            this.transport = transport;
+            this.outgoingMailServer = outgoingMailServer;
+            this.sentMessages = 0;
+        }
+
+        public Session getSession() {
+            return session;
+        }
+
+        public SMTPTransport getTransport() {
+            return transport;
+        }
+
+        public HostAddress getOutgoingMailServer() {
+            return outgoingMailServer;
+        }
+
+        boolean isReused() {
+            return sentMessages > 0;
+        }
+    }
+
+    @VisibleForTesting
+    static class Destination {
+        private final HostAddress hostAddress;
+        private final String protocol;
+        private final String hostName;
+        private final String host;
+        private final int port;
+
+        Destination(HostAddress hostAddress) {
+            this.hostAddress = hostAddress;
+            this.protocol = hostAddress.getProtocol().toLowerCase(Locale.US);
+            this.hostName = hostAddress.getHostName().toLowerCase(Locale.US);
+            this.host = hostAddress.getHost();
+            this.port = hostAddress.getPort();
+        }
+
+        @Override
+        public final boolean equals(Object o) {
+            if (o instanceof Destination) {
+                Destination that = (Destination) o;
+
+                return Objects.equals(this.port, that.port)
+                    && Objects.equals(this.protocol, that.protocol)
+                    && Objects.equals(this.hostName, that.hostName)
+                    && Objects.equals(this.host, that.host);
+            }
+            return false;
+        }
+
+        @Override
+        public final int hashCode() {
+            return Objects.hash(protocol, hostName, host, port);
+        }
+    }
+
+    private class ConnectionFactory extends BaseKeyedPooledObjectFactory<Destination, Connection> {
+        @Override
+        public Connection create(Destination destination) throws MessagingException {
+            TimeMetric timeMetric = metricFactory.timer(HANDSHAKE);
+            Connection connection = connector.connect(destination.hostAddress);
+            timeMetric.stopAndPublish();
+            connectionsCreated.increment();
+            return connection;
+        }
+
+        @Override
+        public PooledObject<Connection> wrap(Connection connection) {
+            return new DefaultPooledObject<>(connection);
+        }
+
+        @Override
+        public boolean validateObject(Destination destination, PooledObject<Connection> pooledObject) {
+            Connection connection = pooledObject.getObject();
+            if (!connection.isReused()) {
+                return true;
+            }
+            try {
+                return connection.transport.simpleCommand("RSET") == RSET_OK;
+            } catch (MessagingException e) {
+                LOGGER.debug("Discarding SMTP connection to {} failing RSET", destination.hostName, e);
+                return false;
+            }
+        }
+
+        @Override
+        public void destroyObject(Destination destination, PooledObject<Connection> pooledObject) {
+            disconnector.disconnect(pooledObject.getObject());
+        }
+    }
+
+    private final int maxMessagesPerConnection;
+    private final Connector connector;
+    private final Disconnector disconnector;
+    private final MetricFactory metricFactory;
+    private final Metric connectionsCreated;
+    private final Metric connectionsReused;
+    private final GenericKeyedObjectPool<Destination, Connection> pool;
+
+    SmtpConnectionPool(RemoteDeliveryConfiguration configuration, MetricFactory metricFactory, Connector connector, Disconnector disconnector) {
+        this.maxMessagesPerConnection = configuration.getMaxMessagesPerConnection();
+        this.connector = connector;
+        this.disconnector = disconnector;
+        this.metricFactory = metricFactory;
+        this.connectionsCreated = metricFactory.generate(CONNECTIONS_CREATED);
+        this.connectionsReused = metricFactory.generate(CONNECTIONS_REUSED);
+        this.pool = new GenericKeyedObjectPool<>(new ConnectionFactory(), poolConfig(configuration));
+    }
+
+    private GenericKeyedObjectPoolConfig<Connection> poolConfig(RemoteDeliveryConfiguration configuration) {
+        GenericKeyedObjectPoolConfig<Connection> poolConfig = new GenericKeyedObjectPoolConfig<>();
+        poolConfig.setMaxTotal(UNLIMITED);
+        poolConfig.setMaxTotalPerKey(configuration.getMaxConnectionsPerDestination().orElse(UNLIMITED));
+        poolConfig.setMaxIdlePerKey(UNLIMITED);
+        poolConfig.setMaxWait(Duration.ofMillis(configuration.getConnectionTimeout()));
+        poolConfig.setTestOnBorrow(true);
+        poolConfig.setJmxEnabled(false);
+        if (maxMessagesPerConnection > 1) {
+            poolConfig.setMinEvictableIdleDuration(configuration.getConnectionIdleTimeout());
+            poolConfig.setTimeBetweenEvictionRuns(configuration.getConnectionIdleTimeout());
+            poolConfig.setNumTestsPerEvictionRun(UNLIMITED);
+        }
+        return poolConfig;
+    }
+
+    public Connection borrow(HostAddress outgoingMailServer) throws MessagingException {
+        Connection connection = borrowConnection(new Destination(outgoingMailServer));
+        if (connection.isReused()) {
+            connectionsReused.increment();
+        }
+        return connection;
+    }
+
+    private Connection borrowConnection(Destination destination) throws MessagingException {
+        try {
+            return pool.borrowObject(destination);
+        } catch (MessagingException e) {
+            throw e;
+        } catch (NoSuchElementException e) {
+            throw new MessagingException("No SMTP connection to " + destination.hostName + " available", e);
+        } catch (Exception e) {
+            throw new MessagingException("Could not connect to " + destination.hostName, e);
+        }
+    }
+
+    /**
+     * Releases a connection that successfully sent a message, for it to be reused.
+     */
+    public void release(Connection connection) {
+        connection.sentMessages++;
+        if (connection.sentMessages >= maxMessagesPerConnection) {
+            invalidate(connection);
+            return;
+        }
+        try {
+            pool.returnObject(new Destination(connection.outgoingMailServer), connection);
+        } catch (Exception e) {
+            LOGGER.warn("Failed to release SMTP connection to {}", connection.outgoingMailServer.getHostName(), e);
+        }
+    }
+
+    /**
+     * Closes a connection that can not be reused, for instance after a failed delivery.
+     */
+    public void invalidate(Connection connection) {
+        try {
+            pool.invalidateObject(new Destination(connection.outgoingMailServer), connection);
+        } catch (Exception e) {
+            LOGGER.warn("Failed to close SMTP connection to {}", connection.outgoingMailServer.getHostName(), e);
+        }
+    }
+
+    @VisibleForTesting
+    int idleConnectionCount() {
+        return pool.getNumIdle();
+    }
+
+    public void close() {
+        pool.close();
+    }
+}
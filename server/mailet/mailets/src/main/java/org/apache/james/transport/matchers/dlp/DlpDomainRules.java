@@ -22,9 +22,16 @@ package org.apache.james.transport.matchers.dlp;
 import static org.apache.james.javax.AddressHelper.asStringStream;
 
 import java.io.IOException;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import jakarta.mail.BodyPart;
@@ -43,10 +50,11 @@ import org.apache.mailet.Mail;
 import com.github.fge.lambdas.Throwing;
 import com.github.fge.lambdas.predicates.ThrowingPredicate;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.CharMatcher;
 import com.google.common.base.Preconditions;
-import com.google.common.collect.ImmutableCollection;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableListMultimap;
 
 public class DlpDomainRules {
 
@@ -66,128 +74,120 @@ public class DlpDomainRules {
         return new DlpDomainRulesBuilder();
     }
 
-    static class Rule {
-
-        interface MatcherFunction extends ThrowingPredicate<Mail> { }
-
-        private static class ContentMatcher implements Rule.MatcherFunction {
-
-            private final Pattern pattern;
+    record RuleDefinition(DLPConfigurationItem.Id id, Pattern pattern) {
+    }
 
-            private ContentMatcher(Pattern pattern) {
-                this.pattern = pattern;
-            }
+    interface RuleSet {
+        Optional<DLPConfigurationItem.Id> match(MailTexts mailTexts);
+    }
 
-            @Override
-            public boolean doTest(Mail mail) throws MessagingException, IOException {
-                return Stream
-                    .concat(getMessageSubjects(mail), getMessageBodies(mail.getMessage()))
-                    .anyMatch(pattern.asPredicate());
-            }
+    /**
+     * Texts of a mail targeted by DLP rules. Each target is extracted at most once, whatever the count of rules
+     * evaluated against it.
+     */
+    static class MailTexts {
+        private final Mail mail;
+        private final Map<Targets.Type, List<String>> texts;
+
+        MailTexts(Mail mail) {
+            this.mail = mail;
+            this.texts = new EnumMap<>(Targets.Type.class);
+        }
 
-            private Stream<String> getMessageSubjects(Mail mail) throws MessagingException {
-                MimeMessage message = mail.getMessage();
-                if (message != null) {
-                    String subject = message.getSubject();
-                    if (subject != null) {
-                        return Stream.of(subject);
-                    }
-                }
-                return Stream.of();
-            }
+        Mail mail() {
+            return mail;
+        }
 
-            private Stream<String> getMessageBodies(Message message) throws MessagingException, IOException {
-                if (message != null) {
-                    return getMessageBodiesFromContent(message.getContent());
-                }
-                return Stream.of();
-            }
+        List<String> get(Targets.Type type) {
+            return texts.computeIfAbsent(type, Throwing.<Targets.Type, List<String>>function(this::extract).sneakyThrow());
+        }
 
-            private Stream<String> getMessageBodiesFromContent(Object content) throws IOException, MessagingException {
-                if (content instanceof String) {
-                    return Stream.of((String) content);
-                }
+        private List<String> extract(Targets.Type type) throws MessagingException, IOException {
+            Stream<String> texts = switch (type) {
+                case Sender -> listSenders();
+                case Recipient -> listRecipients();
+                case Content -> Stream.concat(getMessageSubjects(), getMessageBodies(mail.getMessage()));
+            };
+            return texts.collect(ImmutableList.toImmutableList());
+        }
 
-                return extractContentsComplexType(content)
-                    .flatMap(Throwing.function(this::getMessageBodiesFromContent).sneakyThrow());
-            }
+        private Stream<String> listSenders() throws MessagingException {
+            return Stream.concat(listEnvelopSender(), listFromHeaders());
+        }
 
-            private Stream<Object> extractContentsComplexType(Object content) throws IOException, MessagingException {
-                if (content instanceof Message) {
-                    Message message = (Message) content;
-                    return Stream.of(message.getContent());
-                }
-                if (content instanceof Multipart) {
-                    return MultipartUtil.retrieveBodyParts((Multipart) content)
-                        .stream()
-                        .map(Throwing.function(BodyPart::getContent).sneakyThrow());
-                }
+        private Stream<String> listEnvelopSender() {
+            return mail.getMaybeSender().asStream()
+                .map(MailAddress::asString);
+        }
 
-                return Stream.of();
+        private Stream<String> listFromHeaders() throws MessagingException {
+            MimeMessage message = mail.getMessage();
+            if (message != null) {
+                return asStringStream(message.getFrom());
             }
+            return Stream.of();
         }
 
-        private static class RecipientsMatcher implements Rule.MatcherFunction {
-
-            private final Pattern pattern;
+        private Stream<String> listRecipients() throws MessagingException {
+            return Stream.concat(listEnvelopRecipients(), listHeaderRecipients());
+        }
 
-            private RecipientsMatcher(Pattern pattern) {
-                this.pattern = pattern;
-            }
+        private Stream<String> listEnvelopRecipients() {
+            return mail.getRecipients().stream().map(MailAddress::asString);
+        }
 
-            @Override
-            public boolean doTest(Mail mail) throws MessagingException, IOException {
-                return listRecipientsAsString(mail).anyMatch(pattern.asPredicate());
-            }
+        private Stream<String> listHeaderRecipients() throws MessagingException {
+            return Optional.ofNullable(mail.getMessage())
+                .flatMap(Throwing.function(m -> Optional.ofNullable(m.getAllRecipients())))
+                .map(AddressHelper::asStringStream)
+                .orElse(Stream.of());
+        }
 
-            private Stream<String> listRecipientsAsString(Mail mail) throws MessagingException {
-                return Stream.concat(listEnvelopRecipients(mail), listHeaderRecipients(mail));
+        private Stream<String> getMessageSubjects() throws MessagingException {
+            MimeMessage message = mail.getMessage();
+            if (message != null) {
+                String subject = message.getSubject();
+                if (subject != null) {
+                    return Stream.of(subject);
+                }
             }
+            return Stream.of();
+        }
 
-            private Stream<String> listEnvelopRecipients(Mail mail) {
-                return mail.getRecipients().stream().map(MailAddress::asString);
+        private Stream<String> getMessageBodies(Message message) throws MessagingException, IOException {
+            if (message != null) {
+                return getMessageBodiesFromContent(message.getContent());
             }
+            return Stream.of();
+        }
 
-            private Stream<String> listHeaderRecipients(Mail mail) throws MessagingException {
-                return Optional.ofNullable(mail.getMessage())
-                    .flatMap(Throwing.function(m -> Optional.ofNullable(m.getAllRecipients())))
-                    .map(AddressHelper::asStringStream)
-                    .orElse(Stream.of());
+        private Stream<String> getMessageBodiesFromContent(Object content) throws IOException, MessagingException {
+            if (content instanceof String) {
+                return Stream.of((String) content);
             }
 
+            return extractContentsComplexType(content)
+                .flatMap(Throwing.function(this::getMessageBodiesFromContent).sneakyThrow());
         }
 
-        private static class SenderMatcher implements Rule.MatcherFunction {
-
-            private final Pattern pattern;
-
-            private SenderMatcher(Pattern pattern) {
-                this.pattern = pattern;
+        private Stream<Object> extractContentsComplexType(Object content) throws IOException, MessagingException {
+            if (content instanceof Message) {
+                Message message = (Message) content;
+                return Stream.of(message.getContent());
             }
-
-            @Override
-            public boolean doTest(Mail mail) throws MessagingException {
-                return listSenders(mail).anyMatch(pattern.asPredicate());
-            }
-
-            private Stream<String> listSenders(Mail mail) throws MessagingException {
-                return Stream.concat(listEnvelopSender(mail), listFromHeaders(mail));
+            if (content instanceof Multipart) {
+                return MultipartUtil.retrieveBodyParts((Multipart) content)
+                    .stream()
+                    .map(Throwing.function(BodyPart::getContent).sneakyThrow());
             }
 
-            private Stream<String> listEnvelopSender(Mail mail) {
-                return mail.getMaybeSender().asStream()
-                    .map(MailAddress::asString);
-            }
+            return Stream.of();
+        }
+    }
 
-            private Stream<String> listFromHeaders(Mail mail) throws MessagingException {
-                MimeMessage message = mail.getMessage();
-                if (message != null) {
-                    return asStringStream(message.getFrom());
-                }
-                return Stream.of();
-            }
+    static class Rule implements RuleSet {
 
-        }
+        interface MatcherFunction extends ThrowingPredicate<Mail> { }
 
         private final DLPConfigurationItem.Id id;
         private final MatcherFunction matcher;
@@ -205,6 +205,14 @@ public class DlpDomainRules {
             return matcher.test(mail);
         }
 
+        @Override
+        public Optional<DLPConfigurationItem.Id> match(MailTexts mailTexts) {
+            if (match(mailTexts.mail())) {
+                return Optional.of(id);
+            }
+            return Optional.empty();
+        }
+
         @Override
         public boolean equals(Object o) {
             if (o instanceof Rule) {
@@ -222,12 +230,128 @@ public class DlpDomainRules {
 
     }
 
+    /**
+     * The rules of a domain targeting the same part of the mail.
+     *
+     * Rules whose expression is a plain literal are compiled into a single {@link MultiLiteralMatcher}, and the
+     * other rules into a single alternation, so that a mail matching none of them - the common case - is scanned
+     * twice rather than once per rule. Rules are still reported in their definition order: the first matching rule
+     * wins.
+     */
+    static class TargetRules implements RuleSet {
+        private enum Kind {
+            LITERAL,
+            COMBINED_REGEX,
+            REGEX
+        }
+
+        private record CompiledRule(DLPConfigurationItem.Id id, Pattern pattern, Kind kind) {
+            boolean matches(List<String> texts) {
+                return texts.stream().anyMatch(pattern.asPredicate());
+            }
+        }
+
+        private static final CharMatcher REGEX_META_CHARACTERS = CharMatcher.anyOf("\\^$.|?*+()[]{}");
+        private static final Pattern BACK_REFERENCE = Pattern.compile("\\\\(\\d|k<)");
+
+        static boolean isLiteral(Pattern pattern) {
+            return pattern.flags() == 0
+                && !pattern.pattern().isEmpty()
+                && REGEX_META_CHARACTERS.matchesNoneOf(pattern.pattern());
+        }
+
+        /**
+         * Whether the expression can be part of an alternation without changing its meaning: no flags to carry
+         * over, no group numbering to rely on, and no quoting, inline flag or comment that could leak outside of
+         * its enclosing group.
+         */
+        static boolean isCombinable(Pattern pattern) {
+            String regex = pattern.pattern();
+            return pattern.flags() == 0
+                && !BACK_REFERENCE.matcher(regex).find()
+                && !regex.contains("\\Q")
+                && !regex.contains("(?");
+        }
+
+        static TargetRules of(Targets.Type type, List<RuleDefinition> definitions) {
+            ImmutableList<CompiledRule> rules = definitions.stream()
+                .map(definition -> new CompiledRule(definition.id(), definition.pattern(), kind(definition.pattern())))
+                .collect(ImmutableList.toImmutableList());
+
+            MultiLiteralMatcher.Builder literals = MultiLiteralMatcher.builder();
+            IntStream.range(0, rules.size())
+                .filter(index -> rules.get(index).kind() == Kind.LITERAL)
+                .forEach(index -> literals.add(rules.get(index).pattern().pattern(), index));
+
+            return new TargetRules(type, rules, literals.build(), combine(rules));
+        }
+
+        private static Kind kind(Pattern pattern) {
+            if (isLiteral(pattern)) {
+                return Kind.LITERAL;
+            }
+            if (isCombinable(pattern)) {
+                return Kind.COMBINED_REGEX;
+            }
+            return Kind.REGEX;
+        }
+
+        private static Optional<Pattern> combine(List<CompiledRule> rules) {
+            List<String> combinableRegexes = rules.stream()
+                .filter(rule -> rule.kind() == Kind.COMBINED_REGEX)
+                .map(rule -> "(?:" + rule.pattern().pattern() + ")")
+                .collect(ImmutableList.toImmutableList());
+            if (combinableRegexes.size() < 2) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(Pattern.compile(String.join("|", combinableRegexes)));
+            } catch (PatternSyntaxException e) {
+                return Optional.empty();
+            }
+        }
+
+        private final Targets.Type type;
+        private final ImmutableList<CompiledRule> rules;
+        private final MultiLiteralMatcher literals;
+        private final Optional<Pattern> combinedRegexes;
+
+        private TargetRules(Targets.Type type, ImmutableList<CompiledRule> rules, MultiLiteralMatcher literals, Optional<Pattern> combinedRegexes) {
+            this.type = type;
+            this.rules = rules;
+            this.literals = literals;
+            this.combinedRegexes = combinedRegexes;
+        }
+
+        @Override
+        public Optional<DLPConfigurationItem.Id> match(MailTexts mailTexts) {
+            List<String> texts = mailTexts.get(type);
+            Supplier<BitSet> literalMatches = Suppliers.memoize(() -> literals.matches(texts));
+            Supplier<Boolean> combinedRegexesMatch = Suppliers.memoize(() -> combinedRegexes
+                .map(pattern -> texts.stream().anyMatch(pattern.asPredicate()))
+                .orElse(true));
+
+            for (int index = 0; index < rules.size(); index++) {
+                CompiledRule rule = rules.get(index);
+                boolean matches = switch (rule.kind()) {
+                    case LITERAL -> literalMatches.get().get(index);
+                    case COMBINED_REGEX -> combinedRegexesMatch.get() && rule.matches(texts);
+                    case REGEX -> rule.matches(texts);
+                };
+                if (matches) {
+                    return Optional.of(rule.id());
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
     public static class DlpDomainRulesBuilder {
 
-        private final ImmutableMultimap.Builder<Targets.Type, Rule> rules;
+        private final ImmutableListMultimap.Builder<Targets.Type, RuleDefinition> rules;
 
         private DlpDomainRulesBuilder() {
-            rules = ImmutableMultimap.builder();
+            rules = ImmutableListMultimap.builder();
         }
 
         public DlpDomainRulesBuilder recipientRule(DLPConfigurationItem.Id id, Pattern pattern) {
@@ -243,39 +367,29 @@ public class DlpDomainRules {
         }
 
         public DlpDomainRulesBuilder rule(Targets.Type type, DLPConfigurationItem.Id id, Pattern regexp) {
-            rules.put(type, toRule(type, id, regexp));
+            rules.put(type, new RuleDefinition(id, regexp));
             return this;
         }
 
-        private Rule toRule(Targets.Type type, DLPConfigurationItem.Id id, Pattern pattern) {
-            switch (type) {
-                case Sender:
-                    return new Rule(id, new Rule.SenderMatcher(pattern));
-                case Content:
-                    return new Rule(id, new Rule.ContentMatcher(pattern));
-                case Recipient:
-                    return new Rule(id, new Rule.RecipientsMatcher(pattern));
-                default:
-                    throw new IllegalArgumentException("unexpected value");
-            }
-        }
-
         public DlpDomainRules build() {
-            ImmutableMultimap<Targets.Type, Rule> rules = this.rules.build();
+            ImmutableListMultimap<Targets.Type, RuleDefinition> rules = this.rules.build();
             Preconditions.checkState(!containsDuplicateIds(rules), "Rules should not contain duplicated `id`");
-            return new DlpDomainRules(rules.values());
+            return new DlpDomainRules(rules.keySet()
+                .stream()
+                .map(type -> TargetRules.of(type, rules.get(type)))
+                .collect(ImmutableList.toImmutableList()));
         }
 
-        private boolean containsDuplicateIds(ImmutableMultimap<Targets.Type, Rule> rules) {
+        private boolean containsDuplicateIds(ImmutableListMultimap<Targets.Type, RuleDefinition> rules) {
             return
                 Stream.of(Targets.Type.values())
                     .map(rules::get)
                     .anyMatch(this::containsDuplicateIds);
         }
 
-        private boolean containsDuplicateIds(ImmutableCollection<Rule> rules) {
+        private boolean containsDuplicateIds(List<RuleDefinition> rules) {
             long distinctIdCount = rules.stream()
-                .map(Rule::id)
+                .map(RuleDefinition::id)
                 .distinct()
                 .count();
             return distinctIdCount != rules.size();
@@ -283,16 +397,17 @@ public class DlpDomainRules {
 
     }
 
-    private final ImmutableCollection<Rule> rules;
+    private final ImmutableList<RuleSet> ruleSets;
 
-    private DlpDomainRules(ImmutableCollection<Rule> rules) {
-        this.rules = rules;
+    private DlpDomainRules(ImmutableList<RuleSet> ruleSets) {
+        this.ruleSets = ruleSets;
     }
 
     public Optional<DLPConfigurationItem.Id> match(Mail mail) {
-        return rules.stream()
-            .filter(rule -> rule.match(mail))
-            .map(Rule::id)
+        MailTexts mailTexts = new MailTexts(mail);
+        return ruleSets.stream()
+            .map(ruleSet -> ruleSet.match(mailTexts))
+            .flatMap(Optional::stream)
             .findFirst();
     }
 
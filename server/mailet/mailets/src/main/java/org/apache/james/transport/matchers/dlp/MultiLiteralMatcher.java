@@ -0,0 +1,126 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.transport.matchers.dlp;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Finds which of a set of literals occur in some texts, in a single pass over each text whatever the count of
+ * literals (Aho-Corasick automaton).
+ */
+class MultiLiteralMatcher {
+    static class Builder {
+        private final Node root = new Node();
+        private int literalCount = 0;
+
+        Builder add(String literal, int index) {
+            Preconditions.checkArgument(!literal.isEmpty(), "Literal should not be empty");
+            Preconditions.checkArgument(index >= 0, "Index should be positive");
+
+            Node node = root;
+            for (int i = 0; i < literal.length(); i++) {
+                node = node.children.computeIfAbsent(literal.charAt(i), any -> new Node());
+            }
+            node.outputs.set(index);
+            literalCount++;
+            return this;
+        }
+
+        MultiLiteralMatcher build() {
+            computeFailureLinks();
+            return new MultiLiteralMatcher(root, literalCount);
+        }
+
+        private void computeFailureLinks() {
+            Queue<Node> queue = new ArrayDeque<>();
+            root.children.values().forEach(child -> {
+                child.failure = root;
+                queue.add(child);
+            });
+            while (!queue.isEmpty()) {
+                Node node = queue.remove();
+                node.children.forEach((character, child) -> {
+                    Node failure = node.failure;
+                    while (failure != root && !failure.children.containsKey(character)) {
+                        failure = failure.failure;
+                    }
+                    child.failure = failure.children.getOrDefault(character, root);
+                    child.outputs.or(child.failure.outputs);
+                    queue.add(child);
+                });
+            }
+        }
+    }
+
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final BitSet outputs = new BitSet();
+        private Node failure;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    private final Node root;
+    private final int literalCount;
+
+    private MultiLiteralMatcher(Node root, int literalCount) {
+        this.root = root;
+        this.literalCount = literalCount;
+    }
+
+    /**
+     * @return the indexes of the literals found in at least one of the texts
+     */
+    BitSet matches(List<String> texts) {
+        BitSet result = new BitSet();
+        if (literalCount == 0) {
+            return result;
+        }
+        for (String text : texts) {
+            scan(text, result);
+        }
+        return result;
+    }
+
+    private void scan(String text, BitSet result) {
+        Node node = root;
+        for (int i = 0; i < text.length(); i++) {
+            char character = text.charAt(i);
+            Node next = node.children.get(character);
+            while (next == null && node != root) {
+                node = node.failure;
+                next = node.children.get(character);
+            }
+            node = next == null ? root : next;
+            if (!node.outputs.isEmpty()) {
+                result.or(node.outputs);
+            }
+        }
+    }
+}
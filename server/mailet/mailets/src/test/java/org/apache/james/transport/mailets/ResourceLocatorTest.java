@@ -26,9 +26,12 @@ import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.time.ZonedDateTime;
 
 import org.apache.james.core.MailAddress;
 import org.apache.james.core.Username;
+import org.apache.james.sieverepository.api.ActiveScriptMetadata;
+import org.apache.james.sieverepository.api.ScriptName;
 import org.apache.james.sieverepository.api.SieveRepository;
 import org.apache.james.sieverepository.api.exception.ScriptNotFoundException;
 import org.apache.james.transport.mailets.jsieve.ResourceLocator;
@@ -54,7 +57,7 @@ class ResourceLocatorTest {
 
     @Test
     void resourceLocatorImplShouldPropagateScriptNotFound() throws Exception {
-        when(sieveRepository.getActive(USERNAME)).thenThrow(new ScriptNotFoundException());
+        when(sieveRepository.getActiveScriptMetadata(USERNAME)).thenThrow(new ScriptNotFoundException());
         when(usersRepository.getUsername(mailAddress)).thenReturn(Username.of(RECEIVER_LOCALHOST));
 
         assertThatThrownBy(() -> resourceLocator.get(mailAddress))
@@ -64,6 +67,8 @@ class ResourceLocatorTest {
     @Test
     void resourceLocatorImplShouldWork() throws Exception {
         InputStream inputStream = new ByteArrayInputStream(new byte[0]);
+        when(sieveRepository.getActiveScriptMetadata(USERNAME))
+            .thenReturn(new ActiveScriptMetadata(new ScriptName("script"), ZonedDateTime.now(), "version"));
         when(sieveRepository.getActive(USERNAME)).thenReturn(inputStream);
         when(usersRepository.getUsername(mailAddress)).thenReturn(Username.of(RECEIVER_LOCALHOST));
 
@@ -0,0 +1,149 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.transport.mailets.jsieve.delivery;
+
+import static org.apache.james.transport.mailets.jsieve.delivery.SieveScriptCache.HIT_METRIC_NAME;
+import static org.apache.james.transport.mailets.jsieve.delivery.SieveScriptCache.MISS_METRIC_NAME;
+import static org.apache.mailet.base.MailAddressFixture.RECIPIENT1;
+import static org.apache.mailet.base.MailAddressFixture.RECIPIENT2;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.apache.james.sieverepository.api.ActiveScriptMetadata;
+import org.apache.james.sieverepository.api.ScriptName;
+import org.apache.james.transport.mailets.jsieve.ResourceLocator;
+import org.apache.jsieve.ConfigurationManager;
+import org.apache.jsieve.SieveFactory;
+import org.apache.jsieve.parser.generated.Node;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SieveScriptCacheTest {
+    private static final ZonedDateTime ACTIVATION_DATE = ZonedDateTime.parse("2024-01-01T10:00:00Z");
+    private static final ScriptName SCRIPT_NAME = new ScriptName("script");
+    private static final ScriptName OTHER_SCRIPT_NAME = new ScriptName("other");
+    private static final String VERSION = "1";
+    private static final String OTHER_VERSION = "2";
+    private static final String SCRIPT = "require \"fileinto\";\r\nfileinto \"INBOX.any\";\r\n";
+    private static final String OTHER_SCRIPT = "require \"fileinto\";\r\nfileinto \"INBOX.other\";\r\n";
+
+    private SieveFactory sieveFactory;
+    private RecordingMetricFactory metricFactory;
+    private AtomicInteger parseCount;
+    private AtomicInteger contentReadCount;
+    private SieveScriptCache.Parser parser;
+    private SieveScriptCache testee;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        sieveFactory = new ConfigurationManager().build();
+        metricFactory = new RecordingMetricFactory();
+        parseCount = new AtomicInteger();
+        contentReadCount = new AtomicInteger();
+        parser = script -> {
+            parseCount.incrementAndGet();
+            return sieveFactory.parse(script);
+        };
+        testee = new SieveScriptCache(SieveScriptCache.DEFAULT_SIZE, metricFactory);
+    }
+
+    private ResourceLocator.UserSieveInformation userSieveInformation(ScriptName name, String version, String script) {
+        return new ResourceLocator.UserSieveInformation(new ActiveScriptMetadata(name, ACTIVATION_DATE, version), ZonedDateTime.now(),
+            () -> {
+                contentReadCount.incrementAndGet();
+                return new ByteArrayInputStream(script.getBytes(StandardCharsets.UTF_8));
+            });
+    }
+
+    @Test
+    void getShouldParseTheScriptOnFirstCall() throws Exception {
+        testee.get(RECIPIENT1, userSieveInformation(SCRIPT_NAME, VERSION, SCRIPT), parser);
+
+        assertThat(parseCount.get()).isEqualTo(1);
+        assertThat(metricFactory.countFor(MISS_METRIC_NAME)).isEqualTo(1);
+    }
+
+    @Test
+    void getShouldReuseTheParsedScript() throws Exception {
+        Node first = testee.get(RECIPIENT1, userSieveInformation(SCRIPT_NAME, VERSION, SCRIPT), parser);
+        Node second = testee.get(RECIPIENT1, userSieveInformation(SCRIPT_NAME, VERSION, SCRIPT), parser);
+
+        assertThat(second).isSameAs(first);
+        assertThat(parseCount.get()).isEqualTo(1);
+        assertThat(metricFactory.countFor(HIT_METRIC_NAME)).isEqualTo(1);
+    }
+
+    @Test
+    void getShouldNotReadTheScriptContentOnHit() throws Exception {
+        testee.get(RECIPIENT1, userSieveInformation(SCRIPT_NAME, VERSION, SCRIPT), parser);
+        testee.get(RECIPIENT1, userSieveInformation(SCRIPT_NAME, VERSION, SCRIPT), parser);
+
+        assertThat(contentReadCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    void getShouldParseAgainWhenTheScriptVersionChanged() throws Exception {
+        testee.get(RECIPIENT1, userSieveInformation(SCRIPT_NAME, VERSION, SCRIPT), parser);
+        testee.get(RECIPIENT1, userSieveInformation(SCRIPT_NAME, OTHER_VERSION, OTHER_SCRIPT), parser);
+
+        assertThat(parseCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    void getShouldParseAgainWhenAnotherScriptWasActivated() throws Exception {
+        testee.get(RECIPIENT1, userSieveInformation(SCRIPT_NAME, VERSION, SCRIPT), parser);
+        testee.get(RECIPIENT1, userSieveInformation(OTHER_SCRIPT_NAME, VERSION, SCRIPT), parser);
+
+        assertThat(parseCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    void getShouldAlwaysParseScriptsWithoutMetadata() throws Exception {
+        testee.get(RECIPIENT1, new ResourceLocator.UserSieveInformation(ACTIVATION_DATE, ZonedDateTime.now(),
+            new ByteArrayInputStream(SCRIPT.getBytes(StandardCharsets.UTF_8))), parser);
+        testee.get(RECIPIENT1, new ResourceLocator.UserSieveInformation(ACTIVATION_DATE, ZonedDateTime.now(),
+            new ByteArrayInputStream(SCRIPT.getBytes(StandardCharsets.UTF_8))), parser);
+
+        assertThat(parseCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    void getShouldNotShareScriptsAcrossRecipients() throws Exception {
+        testee.get(RECIPIENT1, userSieveInformation(SCRIPT_NAME, VERSION, SCRIPT), parser);
+        testee.get(RECIPIENT2, userSieveInformation(SCRIPT_NAME, VERSION, SCRIPT), parser);
+
+        assertThat(parseCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    void getShouldAlwaysParseWhenCacheIsDisabled() throws Exception {
+        testee = new SieveScriptCache(0, metricFactory);
+
+        testee.get(RECIPIENT1, userSieveInformation(SCRIPT_NAME, VERSION, SCRIPT), parser);
+        testee.get(RECIPIENT1, userSieveInformation(SCRIPT_NAME, VERSION, SCRIPT), parser);
+
+        assertThat(parseCount.get()).isEqualTo(2);
+    }
+}
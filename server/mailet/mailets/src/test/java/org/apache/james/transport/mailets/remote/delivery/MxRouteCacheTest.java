@@ -0,0 +1,198 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.transport.mailets.remote.delivery;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.apache.james.dnsservice.api.TemporaryResolutionException;
+import org.apache.james.domainlist.api.DomainList;
+import org.apache.james.utils.UpdatableTickingClock;
+import org.apache.mailet.HostAddress;
+import org.apache.mailet.base.test.FakeMailetConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.scheduler.Schedulers;
+
+class MxRouteCacheTest {
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+    private static final String DOMAIN = "domain.tld";
+    private static final String OTHER_DOMAIN = "other.tld";
+    private static final List<HostAddress> ROUTE = ImmutableList.of(new HostAddress("mx1.domain.tld", "smtp://1.2.3.4:25"));
+    private static final List<HostAddress> OTHER_ROUTE = ImmutableList.of(new HostAddress("mx2.domain.tld", "smtp://1.2.3.5:25"));
+
+    private MxRouteCache.Resolver resolver;
+    private UpdatableTickingClock clock;
+    private MxRouteCache testee;
+
+    @BeforeEach
+    void setUp() {
+        resolver = mock(MxRouteCache.Resolver.class);
+        clock = new UpdatableTickingClock(NOW);
+        testee = cache("1");
+    }
+
+    private MxRouteCache cache(String prefetchedDomains) {
+        RemoteDeliveryConfiguration configuration = new RemoteDeliveryConfiguration(FakeMailetConfig.builder()
+            .setProperty(RemoteDeliveryConfiguration.DNS_CACHE_TTL, "10m")
+            .setProperty(RemoteDeliveryConfiguration.DNS_CACHE_NEGATIVE_TTL, "1m")
+            .setProperty(RemoteDeliveryConfiguration.DNS_CACHE_STALE_TTL, "1h")
+            .setProperty(RemoteDeliveryConfiguration.DNS_CACHE_PREFETCHED_DOMAINS, prefetchedDomains)
+            .build(), mock(DomainList.class));
+        return new MxRouteCache(configuration, resolver, clock, Schedulers.immediate());
+    }
+
+    private void elapse(Duration duration) {
+        clock.setInstant(clock.instant().plus(duration));
+    }
+
+    @Test
+    void getShouldResolveUnknownDomains() throws Exception {
+        when(resolver.resolve(DOMAIN, false)).thenReturn(ROUTE);
+
+        assertThat(testee.get(DOMAIN, false)).isEqualTo(ROUTE);
+    }
+
+    @Test
+    void getShouldNotResolveFreshRoutesAgain() throws Exception {
+        when(resolver.resolve(DOMAIN, false)).thenReturn(ROUTE);
+
+        testee.get(DOMAIN, false);
+        elapse(Duration.ofMinutes(9));
+
+        assertThat(testee.get(DOMAIN.toUpperCase(), false)).isEqualTo(ROUTE);
+        verify(resolver, times(1)).resolve(anyString(), anyBoolean());
+    }
+
+    @Test
+    void getShouldDistinguishSmtpsRoutes() throws Exception {
+        when(resolver.resolve(DOMAIN, false)).thenReturn(ROUTE);
+        when(resolver.resolve(DOMAIN, true)).thenReturn(OTHER_ROUTE);
+
+        testee.get(DOMAIN, false);
+
+        assertThat(testee.get(DOMAIN, true)).isEqualTo(OTHER_ROUTE);
+    }
+
+    @Test
+    void getShouldServeStaleRoutesWhileRefreshingThem() throws Exception {
+        when(resolver.resolve(DOMAIN, false)).thenReturn(ROUTE, OTHER_ROUTE);
+
+        testee.get(DOMAIN, false);
+        elapse(Duration.ofMinutes(11));
+
+        assertThat(testee.get(DOMAIN, false)).isEqualTo(ROUTE);
+        assertThat(testee.get(DOMAIN, false)).isEqualTo(OTHER_ROUTE);
+    }
+
+    @Test
+    void getShouldKeepStaleRoutesWhenRefreshFails() throws Exception {
+        when(resolver.resolve(DOMAIN, false))
+            .thenReturn(ROUTE)
+            .thenThrow(new TemporaryResolutionException());
+
+        testee.get(DOMAIN, false);
+        elapse(Duration.ofMinutes(11));
+        testee.get(DOMAIN, false);
+
+        assertThat(testee.get(DOMAIN, false)).isEqualTo(ROUTE);
+    }
+
+    @Test
+    void getShouldResolveAgainRoutesExpiredPastTheStaleWindow() throws Exception {
+        when(resolver.resolve(DOMAIN, false)).thenReturn(ROUTE, OTHER_ROUTE);
+
+        testee.get(DOMAIN, false);
+        elapse(Duration.ofMinutes(71));
+
+        assertThat(testee.get(DOMAIN, false)).isEqualTo(OTHER_ROUTE);
+    }
+
+    @Test
+    void getShouldPropagateResolutionFailuresOfUnknownDomains() throws Exception {
+        when(resolver.resolve(DOMAIN, false)).thenThrow(new TemporaryResolutionException());
+
+        assertThatThrownBy(() -> testee.get(DOMAIN, false)).isInstanceOf(TemporaryResolutionException.class);
+        assertThat(testee.size()).isZero();
+    }
+
+    @Test
+    void getShouldCacheDomainsWithoutServersForTheNegativeTtl() throws Exception {
+        when(resolver.resolve(DOMAIN, false)).thenReturn(ImmutableList.of(), ROUTE);
+
+        testee.get(DOMAIN, false);
+        elapse(Duration.ofSeconds(30));
+        assertThat(testee.get(DOMAIN, false)).isEmpty();
+
+        elapse(Duration.ofSeconds(31));
+        assertThat(testee.get(DOMAIN, false)).isEqualTo(ROUTE);
+    }
+
+    @Test
+    void prefetchShouldRefreshMostUsedRoutesBeforeTheyExpire() throws Exception {
+        when(resolver.resolve(DOMAIN, false)).thenReturn(ROUTE, OTHER_ROUTE);
+        when(resolver.resolve(OTHER_DOMAIN, false)).thenReturn(ROUTE, OTHER_ROUTE);
+
+        testee.get(DOMAIN, false);
+        testee.get(DOMAIN, false);
+        testee.get(OTHER_DOMAIN, false);
+        elapse(Duration.ofMinutes(6));
+        testee.prefetch();
+
+        assertThat(testee.get(DOMAIN, false)).isEqualTo(OTHER_ROUTE);
+        assertThat(testee.get(OTHER_DOMAIN, false)).isEqualTo(ROUTE);
+    }
+
+    @Test
+    void prefetchShouldNotRefreshRoutesStayingFreshUntilNextRun() throws Exception {
+        when(resolver.resolve(DOMAIN, false)).thenReturn(ROUTE, OTHER_ROUTE);
+
+        testee.get(DOMAIN, false);
+        elapse(Duration.ofMinutes(4));
+        testee.prefetch();
+
+        verify(resolver, times(1)).resolve(anyString(), anyBoolean());
+    }
+
+    @Test
+    void prefetchShouldEvictExpiredRoutes() throws Exception {
+        when(resolver.resolve(anyString(), anyBoolean())).thenReturn(ROUTE);
+        testee = cache("0");
+
+        testee.get(DOMAIN, false);
+        testee.get(OTHER_DOMAIN, false);
+        elapse(Duration.ofMinutes(71));
+        testee.prefetch();
+
+        assertThat(testee.size()).isZero();
+    }
+}
@@ -914,4 +914,84 @@ class RemoteDeliveryConfigurationTest {
                 MapEntry.entry("mail.debug", "false"),
                 MapEntry.entry("mail.smtps.starttls.enable", "false"));
     }
+
+    @Test
+    void connectionsShouldNotBeReusedByDefault() {
+        FakeMailetConfig mailetConfig = FakeMailetConfig.builder()
+            .build();
+
+        RemoteDeliveryConfiguration configuration = new RemoteDeliveryConfiguration(mailetConfig, mock(DomainList.class));
+
+        assertThat(configuration.getMaxMessagesPerConnection()).isEqualTo(1);
+        assertThat(configuration.getMaxConnectionsPerDestination()).isEmpty();
+        assertThat(configuration.getConnectionIdleTimeout()).isEqualTo(RemoteDeliveryConfiguration.DEFAULT_CONNECTION_IDLE_TIMEOUT);
+    }
+
+    @Test
+    void connectionPoolSettingsShouldBeParsed() {
+        FakeMailetConfig mailetConfig = FakeMailetConfig.builder()
+            .setProperty(RemoteDeliveryConfiguration.MAX_MESSAGES_PER_CONNECTION, "100")
+            .setProperty(RemoteDeliveryConfiguration.MAX_CONNECTIONS_PER_DESTINATION, "5")
+            .setProperty(RemoteDeliveryConfiguration.CONNECTION_IDLE_TIMEOUT, "2m")
+            .build();
+
+        RemoteDeliveryConfiguration configuration = new RemoteDeliveryConfiguration(mailetConfig, mock(DomainList.class));
+
+        assertThat(configuration.getMaxMessagesPerConnection()).isEqualTo(100);
+        assertThat(configuration.getMaxConnectionsPerDestination()).contains(5);
+        assertThat(configuration.getConnectionIdleTimeout()).isEqualTo(Duration.ofMinutes(2));
+    }
+
+    @Test
+    void invalidConnectionPoolSettingsShouldFallBackToDefaults() {
+        FakeMailetConfig mailetConfig = FakeMailetConfig.builder()
+            .setProperty(RemoteDeliveryConfiguration.MAX_MESSAGES_PER_CONNECTION, "invalid")
+            .setProperty(RemoteDeliveryConfiguration.MAX_CONNECTIONS_PER_DESTINATION, "-1")
+            .setProperty(RemoteDeliveryConfiguration.CONNECTION_IDLE_TIMEOUT, "invalid")
+            .build();
+
+        RemoteDeliveryConfiguration configuration = new RemoteDeliveryConfiguration(mailetConfig, mock(DomainList.class));
+
+        assertThat(configuration.getMaxMessagesPerConnection()).isEqualTo(1);
+        assertThat(configuration.getMaxConnectionsPerDestination()).isEmpty();
+        assertThat(configuration.getConnectionIdleTimeout()).isEqualTo(RemoteDeliveryConfiguration.DEFAULT_CONNECTION_IDLE_TIMEOUT);
+    }
+
+    @Test
+    void dnsCacheShouldBeDisabledByDefault() {
+        RemoteDeliveryConfiguration configuration = new RemoteDeliveryConfiguration(FakeMailetConfig.builder().build(), mock(DomainList.class));
+
+        assertThat(configuration.isDnsCacheEnabled()).isFalse();
+    }
+
+    @Test
+    void dnsCacheSettingsShouldBeParsed() {
+        FakeMailetConfig mailetConfig = FakeMailetConfig.builder()
+            .setProperty(RemoteDeliveryConfiguration.DNS_CACHE_TTL, "5m")
+            .setProperty(RemoteDeliveryConfiguration.DNS_CACHE_NEGATIVE_TTL, "30s")
+            .setProperty(RemoteDeliveryConfiguration.DNS_CACHE_STALE_TTL, "1h")
+            .setProperty(RemoteDeliveryConfiguration.DNS_CACHE_PREFETCHED_DOMAINS, "20")
+            .build();
+
+        RemoteDeliveryConfiguration configuration = new RemoteDeliveryConfiguration(mailetConfig, mock(DomainList.class));
+
+        assertThat(configuration.isDnsCacheEnabled()).isTrue();
+        assertThat(configuration.getDnsCacheTtl()).isEqualTo(Duration.ofMinutes(5));
+        assertThat(configuration.getDnsCacheNegativeTtl()).isEqualTo(Duration.ofSeconds(30));
+        assertThat(configuration.getDnsCacheStaleTtl()).isEqualTo(Duration.ofHours(1));
+        assertThat(configuration.getDnsCachePrefetchedDomains()).isEqualTo(20);
+    }
+
+    @Test
+    void invalidDnsCacheSettingsShouldFallBackToDefaults() {
+        FakeMailetConfig mailetConfig = FakeMailetConfig.builder()
+            .setProperty(RemoteDeliveryConfiguration.DNS_CACHE_TTL, "invalid")
+            .setProperty(RemoteDeliveryConfiguration.DNS_CACHE_PREFETCHED_DOMAINS, "-1")
+            .build();
+
+        RemoteDeliveryConfiguration configuration = new RemoteDeliveryConfiguration(mailetConfig, mock(DomainList.class));
+
+        assertThat(configuration.isDnsCacheEnabled()).isFalse();
+        assertThat(configuration.getDnsCachePrefetchedDomains()).isEqualTo(RemoteDeliveryConfiguration.DEFAULT_DNS_CACHE_PREFETCHED_DOMAINS);
+    }
 }
@@ -0,0 +1,216 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.transport.mailets.remote.delivery;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+
+import org.apache.james.domainlist.api.DomainList;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.apache.mailet.HostAddress;
+import org.apache.mailet.base.test.FakeMailetConfig;
+import org.eclipse.angus.mail.smtp.SMTPTransport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SmtpConnectionPoolTest {
+    private static final HostAddress MX1 = new HostAddress("mx1.domain.org", "smtp://192.0.2.1:25");
+    private static final HostAddress MX2 = new HostAddress("mx2.domain.org", "smtp://192.0.2.2:25");
+    private static final HostAddress MX1_SMTPS = new HostAddress("mx1.domain.org", "smtps://192.0.2.1:465");
+
+    private RecordingMetricFactory metricFactory;
+    private List<SmtpConnectionPool.Connection> opened;
+    private List<SmtpConnectionPool.Connection> closed;
+    private SmtpConnectionPool testee;
+
+    @BeforeEach
+    void setUp() {
+        metricFactory = new RecordingMetricFactory();
+        opened = new ArrayList<>();
+        closed = new ArrayList<>();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (testee != null) {
+            testee.close();
+        }
+    }
+
+    private SmtpConnectionPool pool(FakeMailetConfig.Builder mailetConfig) {
+        testee = new SmtpConnectionPool(new RemoteDeliveryConfiguration(mailetConfig.build(), mock(DomainList.class)), metricFactory,
+            this::connect, closed::add);
+        return testee;
+    }
+
+    private SmtpConnectionPool.Connection connect(HostAddress hostAddress) throws MessagingException {
+        SMTPTransport transport = mock(SMTPTransport.class);
+        when(transport.simpleCommand("RSET")).thenReturn(250);
+        SmtpConnectionPool.Connection connection = new SmtpConnectionPool.Connection(mock(Session.class), transport, hostAddress);
+        opened.add(connection);
+        return connection;
+    }
+
+    private FakeMailetConfig.Builder reusingConnections() {
+        return FakeMailetConfig.builder()
+            .setProperty(RemoteDeliveryConfiguration.MAX_MESSAGES_PER_CONNECTION, "3");
+    }
+
+    @Test
+    void connectionsShouldNotBeReusedByDefault() throws Exception {
+        SmtpConnectionPool pool = pool(FakeMailetConfig.builder());
+
+        pool.release(pool.borrow(MX1));
+        pool.release(pool.borrow(MX1));
+
+        assertThat(opened).hasSize(2);
+        assertThat(closed).containsExactlyElementsOf(opened);
+    }
+
+    @Test
+    void releasedConnectionsShouldBeReused() throws Exception {
+        SmtpConnectionPool pool = pool(reusingConnections());
+
+        SmtpConnectionPool.Connection first = pool.borrow(MX1);
+        pool.release(first);
+        SmtpConnectionPool.Connection second = pool.borrow(MX1);
+
+        assertThat(second).isSameAs(first);
+        assertThat(closed).isEmpty();
+        verify(first.getTransport()).simpleCommand("RSET");
+    }
+
+    @Test
+    void connectionsShouldBeClosedOnceTheySentTheMaximumNumberOfMessages() throws Exception {
+        SmtpConnectionPool pool = pool(reusingConnections());
+
+        for (int i = 0; i < 3; i++) {
+            pool.release(pool.borrow(MX1));
+        }
+
+        assertThat(opened).hasSize(1);
+        assertThat(closed).containsExactlyElementsOf(opened);
+        assertThat(pool.idleConnectionCount()).isZero();
+    }
+
+    @Test
+    void connectionsFailingRsetShouldBeReplaced() throws Exception {
+        SmtpConnectionPool pool = pool(reusingConnections());
+
+        SmtpConnectionPool.Connection first = pool.borrow(MX1);
+        pool.release(first);
+        when(first.getTransport().simpleCommand("RSET")).thenThrow(new MessagingException("connection reset"));
+        SmtpConnectionPool.Connection second = pool.borrow(MX1);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(closed).containsExactly(first);
+    }
+
+    @Test
+    void invalidatedConnectionsShouldBeClosed() throws Exception {
+        SmtpConnectionPool pool = pool(reusingConnections());
+
+        SmtpConnectionPool.Connection connection = pool.borrow(MX1);
+        pool.invalidate(connection);
+
+        assertThat(closed).containsExactly(connection);
+        assertThat(pool.idleConnectionCount()).isZero();
+    }
+
+    @Test
+    void connectionsShouldNotBeSharedBetweenDestinations() throws Exception {
+        SmtpConnectionPool pool = pool(reusingConnections());
+
+        pool.release(pool.borrow(MX1));
+        pool.borrow(MX2);
+        pool.borrow(MX1_SMTPS);
+
+        assertThat(opened).hasSize(3);
+    }
+
+    @Test
+    void newConnectionsShouldNotBeReset() throws Exception {
+        SmtpConnectionPool pool = pool(reusingConnections());
+
+        SmtpConnectionPool.Connection connection = pool.borrow(MX1);
+
+        verify(connection.getTransport(), never()).simpleCommand(any(String.class));
+    }
+
+    @Test
+    void borrowShouldFailWhenTheDestinationHasTooManyConnections() throws Exception {
+        SmtpConnectionPool pool = pool(reusingConnections()
+            .setProperty(RemoteDeliveryConfiguration.MAX_CONNECTIONS_PER_DESTINATION, "1")
+            .setProperty(RemoteDeliveryConfiguration.CONNECTIONTIMEOUT, "10"));
+
+        pool.borrow(MX1);
+
+        assertThatThrownBy(() -> pool.borrow(MX1))
+            .isInstanceOf(MessagingException.class);
+    }
+
+    @Test
+    void connectionLimitShouldBePerDestination() throws Exception {
+        SmtpConnectionPool pool = pool(reusingConnections()
+            .setProperty(RemoteDeliveryConfiguration.MAX_CONNECTIONS_PER_DESTINATION, "1"));
+
+        pool.borrow(MX1);
+        pool.borrow(MX2);
+
+        assertThat(opened).hasSize(2);
+    }
+
+    @Test
+    void borrowShouldPropagateConnectionFailures() {
+        MessagingException failure = new MessagingException("connection refused");
+        testee = new SmtpConnectionPool(new RemoteDeliveryConfiguration(FakeMailetConfig.builder().build(), mock(DomainList.class)), metricFactory,
+            hostAddress -> {
+                throw failure;
+            }, closed::add);
+
+        assertThatThrownBy(() -> testee.borrow(MX1))
+            .isSameAs(failure);
+    }
+
+    @Test
+    void metricsShouldRecordCreatedAndReusedConnections() throws Exception {
+        SmtpConnectionPool pool = pool(reusingConnections());
+
+        pool.release(pool.borrow(MX1));
+        pool.release(pool.borrow(MX1));
+        pool.release(pool.borrow(MX2));
+
+        assertThat(metricFactory.countFor(SmtpConnectionPool.CONNECTIONS_CREATED)).isEqualTo(2);
+        assertThat(metricFactory.countFor(SmtpConnectionPool.CONNECTIONS_REUSED)).isEqualTo(1);
+        assertThat(metricFactory.executionTimesFor(SmtpConnectionPool.HANDSHAKE)).hasSize(2);
+    }
+}
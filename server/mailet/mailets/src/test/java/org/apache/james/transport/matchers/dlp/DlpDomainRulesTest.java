@@ -19,12 +19,17 @@
 
 package org.apache.james.transport.matchers.dlp;
 
+import static org.apache.mailet.base.MailAddressFixture.RECIPIENT1;
+import static org.apache.mailet.base.MailAddressFixture.SENDER;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.util.regex.Pattern;
 
+import org.apache.james.core.builder.MimeMessageBuilder;
 import org.apache.james.dlp.api.DLPConfigurationItem.Id;
+import org.apache.mailet.base.test.FakeMail;
 import org.junit.jupiter.api.Test;
 
 class DlpDomainRulesTest {
@@ -57,4 +62,111 @@ class DlpDomainRulesTest {
             .doesNotThrowAnyException();
     }
 
+    @Test
+    void matchShouldReturnEmptyWhenNoRule() throws Exception {
+        assertThat(DlpDomainRules.builder().build().match(mailWithBody("any content")))
+            .isEmpty();
+    }
+
+    @Test
+    void matchShouldSupportLiteralRules() throws Exception {
+        DlpDomainRules rules = DlpDomainRules.builder()
+            .contentRule(Id.of("1"), Pattern.compile("secret"))
+            .contentRule(Id.of("2"), Pattern.compile("confidential"))
+            .build();
+
+        assertThat(rules.match(mailWithBody("This is confidential")))
+            .contains(Id.of("2"));
+    }
+
+    @Test
+    void matchShouldSupportRegexRules() throws Exception {
+        DlpDomainRules rules = DlpDomainRules.builder()
+            .contentRule(Id.of("1"), Pattern.compile("[0-9]{4}-[0-9]{4}"))
+            .contentRule(Id.of("2"), Pattern.compile("conf.dential"))
+            .build();
+
+        assertThat(rules.match(mailWithBody("This is confidential")))
+            .contains(Id.of("2"));
+    }
+
+    @Test
+    void matchShouldReturnEmptyWhenNoLiteralNorRegexMatches() throws Exception {
+        DlpDomainRules rules = DlpDomainRules.builder()
+            .contentRule(Id.of("1"), Pattern.compile("secret"))
+            .contentRule(Id.of("2"), Pattern.compile("[0-9]{4}-[0-9]{4}"))
+            .contentRule(Id.of("3"), Pattern.compile("conf.dential"))
+            .build();
+
+        assertThat(rules.match(mailWithBody("Nothing to see here")))
+            .isEmpty();
+    }
+
+    @Test
+    void matchShouldReturnTheFirstDefinedRuleWhenSeveralMatch() throws Exception {
+        DlpDomainRules rules = DlpDomainRules.builder()
+            .contentRule(Id.of("1"), Pattern.compile("[0-9]{4}-[0-9]{4}"))
+            .contentRule(Id.of("2"), Pattern.compile("code"))
+            .contentRule(Id.of("3"), Pattern.compile("secret"))
+            .build();
+
+        assertThat(rules.match(mailWithBody("The secret code is 1234-5678")))
+            .contains(Id.of("1"));
+    }
+
+    @Test
+    void matchShouldReturnTheFirstDefinedLiteralRuleWhenSeveralMatch() throws Exception {
+        DlpDomainRules rules = DlpDomainRules.builder()
+            .contentRule(Id.of("1"), Pattern.compile("secret code"))
+            .contentRule(Id.of("2"), Pattern.compile("secret"))
+            .build();
+
+        assertThat(rules.match(mailWithBody("The secret code is 1234-5678")))
+            .contains(Id.of("1"));
+    }
+
+    @Test
+    void matchShouldHonorPatternFlags() throws Exception {
+        DlpDomainRules rules = DlpDomainRules.builder()
+            .contentRule(Id.of("1"), Pattern.compile("secret", Pattern.CASE_INSENSITIVE))
+            .build();
+
+        assertThat(rules.match(mailWithBody("This is SECRET")))
+            .contains(Id.of("1"));
+    }
+
+    @Test
+    void matchShouldSupportBackReferences() throws Exception {
+        DlpDomainRules rules = DlpDomainRules.builder()
+            .contentRule(Id.of("1"), Pattern.compile("(a)b"))
+            .contentRule(Id.of("2"), Pattern.compile("([0-9])\\1\\1"))
+            .build();
+
+        assertThat(rules.match(mailWithBody("Account 1777")))
+            .contains(Id.of("2"));
+    }
+
+    @Test
+    void matchShouldSupportRulesOnSeveralTargets() throws Exception {
+        DlpDomainRules rules = DlpDomainRules.builder()
+            .contentRule(Id.of("1"), Pattern.compile("secret"))
+            .senderRule(Id.of("2"), Pattern.compile(SENDER.asString()))
+            .build();
+
+        assertThat(rules.match(mailWithBody("Nothing to see here")))
+            .contains(Id.of("2"));
+    }
+
+    private FakeMail mailWithBody(String body) throws Exception {
+        return FakeMail.builder()
+            .name("name")
+            .sender(SENDER)
+            .recipient(RECIPIENT1)
+            .mimeMessage(MimeMessageBuilder.mimeMessageBuilder()
+                .addFrom(SENDER.asString())
+                .setSubject("subject")
+                .setText(body))
+            .build();
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,123 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.transport.matchers.dlp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.BitSet;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+class MultiLiteralMatcherTest {
+
+    private static BitSet bits(int... indexes) {
+        BitSet result = new BitSet();
+        for (int index : indexes) {
+            result.set(index);
+        }
+        return result;
+    }
+
+    @Test
+    void matchesShouldReturnEmptyWhenNoLiteral() {
+        MultiLiteralMatcher testee = MultiLiteralMatcher.builder().build();
+
+        assertThat(testee.matches(ImmutableList.of("any text"))).isEqualTo(bits());
+    }
+
+    @Test
+    void matchesShouldReturnEmptyWhenNoText() {
+        MultiLiteralMatcher testee = MultiLiteralMatcher.builder()
+            .add("abc", 0)
+            .build();
+
+        assertThat(testee.matches(ImmutableList.of())).isEqualTo(bits());
+    }
+
+    @Test
+    void matchesShouldReturnMatchingLiterals() {
+        MultiLiteralMatcher testee = MultiLiteralMatcher.builder()
+            .add("secret", 0)
+            .add("absent", 1)
+            .add("code", 2)
+            .build();
+
+        assertThat(testee.matches(ImmutableList.of("the secret code"))).isEqualTo(bits(0, 2));
+    }
+
+    @Test
+    void matchesShouldFindOverlappingLiterals() {
+        MultiLiteralMatcher testee = MultiLiteralMatcher.builder()
+            .add("he", 0)
+            .add("she", 1)
+            .add("his", 2)
+            .add("hers", 3)
+            .build();
+
+        assertThat(testee.matches(ImmutableList.of("ushers"))).isEqualTo(bits(0, 1, 3));
+    }
+
+    @Test
+    void matchesShouldFindLiteralsSharingAPrefixWithAFailedMatch() {
+        MultiLiteralMatcher testee = MultiLiteralMatcher.builder()
+            .add("abcd", 0)
+            .add("bce", 1)
+            .build();
+
+        assertThat(testee.matches(ImmutableList.of("abce"))).isEqualTo(bits(1));
+    }
+
+    @Test
+    void matchesShouldLookIntoAllTexts() {
+        MultiLiteralMatcher testee = MultiLiteralMatcher.builder()
+            .add("subject", 0)
+            .add("body", 1)
+            .build();
+
+        assertThat(testee.matches(ImmutableList.of("the subject", "the body"))).isEqualTo(bits(0, 1));
+    }
+
+    @Test
+    void matchesShouldNotMatchAcrossTexts() {
+        MultiLiteralMatcher testee = MultiLiteralMatcher.builder()
+            .add("ab", 0)
+            .build();
+
+        assertThat(testee.matches(ImmutableList.of("a", "b"))).isEqualTo(bits());
+    }
+
+    @Test
+    void matchesShouldBeCaseSensitive() {
+        MultiLiteralMatcher testee = MultiLiteralMatcher.builder()
+            .add("secret", 0)
+            .build();
+
+        assertThat(testee.matches(ImmutableList.of("SECRET"))).isEqualTo(bits());
+    }
+
+    @Test
+    void addShouldThrowOnEmptyLiteral() {
+        assertThatThrownBy(() -> MultiLiteralMatcher.builder().add("", 0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
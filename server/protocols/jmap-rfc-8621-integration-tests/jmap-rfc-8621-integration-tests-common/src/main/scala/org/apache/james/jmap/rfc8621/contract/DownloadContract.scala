@@ -25,7 +25,7 @@ import java.nio.charset.StandardCharsets
 import io.netty.handler.codec.http.HttpHeaderNames.ACCEPT
 import io.restassured.RestAssured.{`given`, requestSpecification}
 import org.apache.commons.io.IOUtils
-import org.apache.http.HttpStatus.{SC_FORBIDDEN, SC_NOT_FOUND, SC_OK, SC_UNAUTHORIZED}
+import org.apache.http.HttpStatus.{SC_FORBIDDEN, SC_NOT_FOUND, SC_NOT_MODIFIED, SC_OK, SC_PARTIAL_CONTENT, SC_REQUESTED_RANGE_NOT_SATISFIABLE, SC_UNAUTHORIZED}
 import org.apache.james.GuiceJamesServer
 import org.apache.james.jmap.http.UserCredential
 import org.apache.james.jmap.rfc8621.contract.DownloadContract.accountId
@@ -650,4 +650,170 @@ trait DownloadContract {
       .statusCode(404)
       .body(Matchers.containsString("The resource could not be found"))
   }
+
+  @Test
+  def downloadShouldReturnAnEntityTag(server: GuiceJamesServer): Unit = {
+    val messageId = appendSimpleMessage(server)
+
+    `given`
+      .basePath("")
+      .header(ACCEPT.toString, ACCEPT_RFC8621_VERSION_HEADER)
+    .when
+      .get(s"/download/$accountId/$messageId")
+    .`then`
+      .statusCode(SC_OK)
+      .header("ETag", "\"" + messageId + "\"")
+      .header("Accept-Ranges", "bytes")
+  }
+
+  @Test
+  def downloadShouldReturnNotModifiedWhenEntityTagMatches(server: GuiceJamesServer): Unit = {
+    val messageId = appendSimpleMessage(server)
+
+    `given`
+      .basePath("")
+      .header(ACCEPT.toString, ACCEPT_RFC8621_VERSION_HEADER)
+      .header("If-None-Match", "\"other\", \"" + messageId + "\"")
+    .when
+      .get(s"/download/$accountId/$messageId")
+    .`then`
+      .statusCode(SC_NOT_MODIFIED)
+      .header("ETag", "\"" + messageId + "\"")
+  }
+
+  @Test
+  def downloadShouldReturnContentWhenEntityTagDoesNotMatch(server: GuiceJamesServer): Unit = {
+    val messageId = appendSimpleMessage(server)
+
+    `given`
+      .basePath("")
+      .header(ACCEPT.toString, ACCEPT_RFC8621_VERSION_HEADER)
+      .header("If-None-Match", "\"other\"")
+    .when
+      .get(s"/download/$accountId/$messageId")
+    .`then`
+      .statusCode(SC_OK)
+  }
+
+  @Test
+  def downloadShouldReturnTheRequestedRange(server: GuiceJamesServer): Unit = {
+    val messageId = appendSimpleMessage(server)
+    val content = downloadContent(messageId)
+
+    `given`
+      .basePath("")
+      .header(ACCEPT.toString, ACCEPT_RFC8621_VERSION_HEADER)
+      .header("Range", "bytes=5-14")
+    .when
+      .get(s"/download/$accountId/$messageId")
+    .`then`
+      .statusCode(SC_PARTIAL_CONTENT)
+      .contentType("message/rfc822")
+      .header("Content-Range", s"bytes 5-14/${content.length}")
+      .header("Content-Length", "10")
+      .body(equalTo(content.substring(5, 15)))
+  }
+
+  @Test
+  def downloadShouldReturnTheRequestedSuffixRange(server: GuiceJamesServer): Unit = {
+    val messageId = appendSimpleMessage(server)
+    val content = downloadContent(messageId)
+
+    `given`
+      .basePath("")
+      .header(ACCEPT.toString, ACCEPT_RFC8621_VERSION_HEADER)
+      .header("Range", "bytes=-8")
+    .when
+      .get(s"/download/$accountId/$messageId")
+    .`then`
+      .statusCode(SC_PARTIAL_CONTENT)
+      .header("Content-Range", s"bytes ${content.length - 8}-${content.length - 1}/${content.length}")
+      .body(equalTo(content.substring(content.length - 8)))
+  }
+
+  @Test
+  def downloadShouldReturnSeveralRangesAsMultipart(server: GuiceJamesServer): Unit = {
+    val messageId = appendSimpleMessage(server)
+    val content = downloadContent(messageId)
+
+    val response = `given`
+      .basePath("")
+      .header(ACCEPT.toString, ACCEPT_RFC8621_VERSION_HEADER)
+      .header("Range", "bytes=10-14,0-4")
+    .when
+      .get(s"/download/$accountId/$messageId")
+    .`then`
+      .statusCode(SC_PARTIAL_CONTENT)
+      .contentType(containsString("multipart/byteranges; boundary="))
+      .extract
+      .response
+
+    val boundary = response.contentType.substring(response.contentType.indexOf("boundary=") + "boundary=".length)
+    assertThat(response.body.asString).isEqualTo(
+      s"\r\n--$boundary\r\nContent-Type: message/rfc822\r\nContent-Range: bytes 0-4/${content.length}\r\n\r\n" +
+        content.substring(0, 5) +
+        s"\r\n--$boundary\r\nContent-Type: message/rfc822\r\nContent-Range: bytes 10-14/${content.length}\r\n\r\n" +
+        content.substring(10, 15) +
+        s"\r\n--$boundary--\r\n")
+  }
+
+  @Test
+  def downloadShouldRejectUnsatisfiableRanges(server: GuiceJamesServer): Unit = {
+    val messageId = appendSimpleMessage(server)
+    val content = downloadContent(messageId)
+
+    `given`
+      .basePath("")
+      .header(ACCEPT.toString, ACCEPT_RFC8621_VERSION_HEADER)
+      .header("Range", s"bytes=${content.length}-")
+    .when
+      .get(s"/download/$accountId/$messageId")
+    .`then`
+      .statusCode(SC_REQUESTED_RANGE_NOT_SATISFIABLE)
+      .header("Content-Range", s"bytes */${content.length}")
+  }
+
+  @Test
+  def downloadShouldIgnoreRangeWhenIfRangeDoesNotMatch(server: GuiceJamesServer): Unit = {
+    val messageId = appendSimpleMessage(server)
+    val content = downloadContent(messageId)
+
+    `given`
+      .basePath("")
+      .header(ACCEPT.toString, ACCEPT_RFC8621_VERSION_HEADER)
+      .header("Range", "bytes=0-4")
+      .header("If-Range", "\"other\"")
+    .when
+      .get(s"/download/$accountId/$messageId")
+    .`then`
+      .statusCode(SC_OK)
+      .body(equalTo(content))
+  }
+
+  private def appendSimpleMessage(server: GuiceJamesServer): String = {
+    val message: Message = Message.Builder
+      .of
+      .setSubject("test")
+      .setBody("testmail", StandardCharsets.UTF_8)
+      .build
+
+    val path = MailboxPath.inbox(BOB)
+    server.getProbe(classOf[MailboxProbeImpl]).createMailbox(path)
+
+    server.getProbe(classOf[MailboxProbeImpl])
+      .appendMessage(BOB.asString(), path, AppendCommand.from(message))
+      .getMessageId.serialize()
+  }
+
+  private def downloadContent(blobId: String): String =
+    `given`
+      .basePath("")
+      .header(ACCEPT.toString, ACCEPT_RFC8621_VERSION_HEADER)
+    .when
+      .get(s"/download/$accountId/$blobId")
+    .`then`
+      .statusCode(SC_OK)
+      .extract
+      .body
+      .asString
 }
@@ -41,6 +41,7 @@ import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.model.FetchGroup;
 import org.apache.james.mailbox.model.MessageId;
 import org.apache.james.mailbox.model.MessageResult;
+import org.apache.james.mailbox.model.ParsedMessage;
 
 import com.github.fge.lambdas.Throwing;
 import com.google.common.annotations.VisibleForTesting;
@@ -104,15 +105,22 @@ public class ComputeMessageFastViewProjectionListener implements EventListener.R
         return Flux.from(messageIdManager.getMessagesReactive(addedEvent.getMessageIds(), FetchGroup.FULL_CONTENT, session))
             .flatMap(Throwing.function(messageResult -> Mono.fromCallable(
                 () -> Pair.of(messageResult.getMessageId(),
-                    computeFastViewPrecomputedProperties(messageResult)))
+                    computeFastViewPrecomputedProperties(messageResult, parsedMessage(addedEvent, messageResult))))
                 .subscribeOn(Schedulers.parallel())), DEFAULT_CONCURRENCY)
             .flatMap(message -> messageFastViewProjection.store(message.getKey(), message.getValue()), DEFAULT_CONCURRENCY)
             .then();
     }
 
+    private ParsedMessage parsedMessage(Added addedEvent, MessageResult messageResult) {
+        if (messageResult.getMailboxId().equals(addedEvent.getMailboxId())) {
+            return addedEvent.getParsedMessage(messageResult.getUid());
+        }
+        return ParsedMessage.NONE;
+    }
+
     @VisibleForTesting
-    MessageFastViewPrecomputedProperties computeFastViewPrecomputedProperties(MessageResult messageResult) throws MailboxException, IOException {
-        return messageFastViewPrecomputedPropertiesFactory.from(messageResult);
+    MessageFastViewPrecomputedProperties computeFastViewPrecomputedProperties(MessageResult messageResult, ParsedMessage parsedMessage) throws MailboxException, IOException {
+        return messageFastViewPrecomputedPropertiesFactory.from(messageResult, parsedMessage);
     }
 
     private Mono<Void> handleExpungedEvent(Expunged expunged, MailboxSession session) {
@@ -0,0 +1,104 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *  http://www.apache.org/licenses/LICENSE-2.0                  *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.jmap.routes
+
+import java.nio.charset.StandardCharsets
+
+object ByteRange {
+  val MAX_RANGES: Int = 16
+
+  private val BYTES_UNIT: String = "bytes="
+  private val FIRST_LAST = """(\d+)-(\d*)""".r
+  private val SUFFIX = """-(\d+)""".r
+
+  /**
+   * Parses the value of a Range header (RFC 9110 section 14.2) against a representation of the given size.
+   *
+   * Invalid headers, other units than bytes and requests for more than MAX_RANGES ranges are ignored: the whole
+   * content is then served. Overlapping and adjacent ranges are coalesced and sorted, so that the content can be read
+   * sequentially once.
+   */
+  def parse(header: String, size: Long): RangeRequest =
+    if (!header.regionMatches(true, 0, BYTES_UNIT, 0, BYTES_UNIT.length)) {
+      WholeContent
+    } else {
+      val specs: List[Option[Option[ByteRange]]] = header.substring(BYTES_UNIT.length)
+        .split(',')
+        .map(spec => parseSpec(spec.trim, size))
+        .toList
+      if (specs.size > MAX_RANGES || specs.contains(None)) {
+        WholeContent
+      } else {
+        specs.flatten.flatten match {
+          case Nil => UnsatisfiableRange(size)
+          case ranges => SatisfiableRanges(coalesce(ranges), size)
+        }
+      }
+    }
+
+  // None when the spec is invalid, Some(None) when it is valid but does not overlap the content
+  private def parseSpec(spec: String, size: Long): Option[Option[ByteRange]] = spec match {
+    case FIRST_LAST(first, last) => for {
+      start <- first.toLongOption
+      end <- if (last.isEmpty) Some(Long.MaxValue) else last.toLongOption
+      if end >= start
+    } yield Option.when(start < size)(ByteRange(start, math.min(end, size - 1)))
+    case SUFFIX(suffixLength) => suffixLength.toLongOption
+      .map(length => Option.when(length > 0 && size > 0)(ByteRange(math.max(0L, size - length), size - 1)))
+    case _ => None
+  }
+
+  private def coalesce(ranges: List[ByteRange]): List[ByteRange] =
+    ranges.sortBy(_.start)
+      .foldLeft(List[ByteRange]()) {
+        case (previous :: others, range) if range.start <= previous.end + 1 =>
+          ByteRange(previous.start, math.max(previous.end, range.end)) :: others
+        case (coalesced, range) => range :: coalesced
+      }
+      .reverse
+}
+
+case class ByteRange(start: Long, end: Long) {
+  def length: Long = end - start + 1
+
+  def contentRange(size: Long): String = s"bytes $start-$end/$size"
+}
+
+sealed trait RangeRequest
+case object WholeContent extends RangeRequest
+case class UnsatisfiableRange(size: Long) extends RangeRequest {
+  def contentRange: String = s"bytes */$size"
+}
+case class SatisfiableRanges(ranges: List[ByteRange], size: Long) extends RangeRequest
+
+/**
+ * multipart/byteranges framing (RFC 9110 section 14.6) of several ranges of the same content.
+ */
+case class MultipartByteRanges(ranges: List[ByteRange], size: Long, contentType: String, boundary: String) {
+  val closingDelimiter: Array[Byte] = s"\r\n--$boundary--\r\n".getBytes(StandardCharsets.US_ASCII)
+
+  def partHeader(range: ByteRange): Array[Byte] =
+    s"\r\n--$boundary\r\nContent-Type: $contentType\r\nContent-Range: ${range.contentRange(size)}\r\n\r\n"
+      .getBytes(StandardCharsets.US_ASCII)
+
+  def contentLength: Long = ranges.map(range => partHeader(range).length + range.length).sum + closingDelimiter.length
+
+  def multipartContentType: String = s"multipart/byteranges; boundary=$boundary"
+}
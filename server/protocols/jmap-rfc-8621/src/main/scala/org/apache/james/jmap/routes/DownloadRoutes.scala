@@ -20,16 +20,16 @@ package org.apache.james.jmap.routes
 
 import java.io.InputStream
 import java.nio.charset.StandardCharsets
-import java.util.concurrent.Callable
-import java.util.function.Consumer
+import java.util.UUID
 import java.util.stream
 import java.util.stream.Stream
 
 import com.google.common.base.CharMatcher
+import com.google.common.io.ByteStreams
 import eu.timepit.refined.numeric.NonNegative
 import eu.timepit.refined.refineV
-import io.netty.buffer.Unpooled
-import io.netty.handler.codec.http.HttpHeaderNames.{CONTENT_LENGTH, CONTENT_TYPE}
+import io.netty.buffer.{ByteBuf, Unpooled}
+import io.netty.handler.codec.http.HttpHeaderNames.{ACCEPT_RANGES, CONTENT_LENGTH, CONTENT_RANGE, CONTENT_TYPE, ETAG, IF_NONE_MATCH, IF_RANGE, RANGE}
 import io.netty.handler.codec.http.HttpResponseStatus._
 import io.netty.handler.codec.http.{HttpHeaderValidationUtil, HttpMethod, QueryStringDecoder}
 import jakarta.inject.{Inject, Named}
@@ -57,10 +57,11 @@ import org.apache.james.mime4j.codec.EncoderUtil.Usage
 import org.apache.james.mime4j.dom.SingleBody
 import org.apache.james.mime4j.message.DefaultMessageWriter
 import org.apache.james.util.ReactorUtils
+import org.apache.james.util.io.InputStreamUtils
 import org.slf4j.{Logger, LoggerFactory}
 import play.api.libs.json.Json
 import reactor.core.publisher.Mono
-import reactor.core.scala.publisher.SMono
+import reactor.core.scala.publisher.{SFlux, SMono}
 import reactor.core.scheduler.Schedulers
 import reactor.netty.http.server.{HttpServerRequest, HttpServerResponse}
 
@@ -71,6 +72,9 @@ object DownloadRoutes {
   val LOGGER: Logger = LoggerFactory.getLogger(classOf[DownloadRoutes])
 
   val BUFFER_SIZE: Int = 16 * 1024
+
+  // Blob ids designate immutable content, and are thus strong validators
+  def entityTag(blobId: BlobId): String = "\"" + blobId.value.value + "\""
 }
 
 sealed trait BlobResolutionResult {
@@ -92,6 +96,11 @@ trait Blob {
   def contentType: ContentType
   def size: Try[Size]
   def content: InputStream
+
+  // Blobs whose storage can start reading at an offset override this: the bytes before the range are otherwise read
+  // and skipped
+  def rangeContent(range: ByteRange): SMono[InputStream] =
+    SMono.fromCallable(() => InputStreamUtils.range(content, range.start, range.length))
 }
 
 case class BlobNotFoundException(blobId: BlobId) extends RuntimeException
@@ -116,12 +125,15 @@ case class UploadedBlob(blobId: BlobId, upload: Upload) extends Blob {
   override def content: InputStream = upload.content()
 }
 
-case class AttachmentBlob(attachmentMetadata: AttachmentMetadata, fileContent: InputStream) extends Blob {
+case class AttachmentBlob(attachmentMetadata: AttachmentMetadata, attachmentManager: AttachmentManager, mailboxSession: MailboxSession) extends Blob {
   override def size: Try[Size] = Success(sanitizeSize(attachmentMetadata.getSize))
 
   override def contentType: ContentType = attachmentMetadata.getType
 
-  override def content: InputStream = fileContent
+  override def content: InputStream = attachmentManager.load(attachmentMetadata, mailboxSession)
+
+  override def rangeContent(range: ByteRange): SMono[InputStream] =
+    SMono(attachmentManager.loadAttachmentContentReactive(attachmentMetadata.getAttachmentId, mailboxSession, range.start, range.length))
 
   override def blobId: BlobId = BlobId.of(attachmentMetadata.getAttachmentId.getId).get
 }
@@ -181,8 +193,7 @@ class AttachmentBlobResolver @Inject()(val attachmentManager: AttachmentManager,
       case attachmentId: StringBackedAttachmentId =>
         Try(attachmentManager.getAttachment(attachmentId, mailboxSession)) match {
           case Success(attachmentMetadata) =>
-            Applicable(SMono(attachmentManager.loadReactive(attachmentMetadata, mailboxSession))
-              .map(content => AttachmentBlob(attachmentMetadata, content)))
+            Applicable(SMono.just(AttachmentBlob(attachmentMetadata, attachmentManager, mailboxSession)))
           case Failure(_) => NonApplicable
         }
       case _ => NonApplicable
@@ -292,6 +303,7 @@ class DownloadRoutes @Inject()(@Named(InjectionKeys.RFC_8621) val authenticator:
         blobResolvers.resolve(_, mailboxSession)
           .doOnSubscribe(_ => pendingDownloadMetric.increment()))
       .flatMap(blob => downloadBlob(
+        request = request,
         optionalName = queryParam(request, nameParam),
         response = response,
         blobContentType = queryParam(request, contentTypeParam)
@@ -308,28 +320,101 @@ class DownloadRoutes @Inject()(@Named(InjectionKeys.RFC_8621) val authenticator:
       case Left(throwable: Throwable) => SMono.error(throwable)
     }
 
-  private def downloadBlob(optionalName: Option[String],
+  private def downloadBlob(request: HttpServerRequest,
+                           optionalName: Option[String],
                            response: HttpServerResponse,
                            blobContentType: ContentType,
                            blob: Blob): SMono[Unit] = {
-    val resourceSupplier: Callable[InputStream] = () => blob.content
-    val sourceSupplier: java.util.function.Function[InputStream, Mono[Void]] = stream => SMono(addContentDispositionHeader(optionalName)
-      .compose(addContentLengthHeader(blob.size))
-      .apply(response)
-      .header(CONTENT_TYPE, sanitizeHeaderValue(blobContentType.asString))
-      .status(OK)
-      .send(ReactorUtils.toChunks(stream, BUFFER_SIZE)
-        .map(Unpooled.wrappedBuffer(_))
+    val entityTag: String = DownloadRoutes.entityTag(blob.blobId)
+    val contentType: String = sanitizeHeaderValue(blobContentType.asString)
+    val headers: HttpServerResponse => HttpServerResponse = addContentDispositionHeader(optionalName)
+      .andThen(_.header(ETAG, entityTag))
+      .andThen(addAcceptRangesHeader(blob.size))
+
+    if (isNotModified(request, entityTag)) {
+      SMono.fromPublisher(headers(response).status(NOT_MODIFIED).send()).`then`
+    } else {
+      rangeRequest(request, entityTag, blob.size) match {
+        case WholeContent => sendContent(wholeContent(blob), headers.andThen(addContentLengthHeader(blob.size))
+            .apply(response)
+            .header(CONTENT_TYPE, contentType)
+            .status(OK),
+          stream => toByteBufs(stream))
+        case unsatisfiable: UnsatisfiableRange =>
+          SMono.fromPublisher(headers(response)
+            .header(CONTENT_RANGE, unsatisfiable.contentRange)
+            .status(REQUESTED_RANGE_NOT_SATISFIABLE)
+            .send()).`then`
+        case SatisfiableRanges(List(range), size) => sendContent(blob.rangeContent(range).subscribeOn(Schedulers.boundedElastic()), headers(response)
+            .header(CONTENT_TYPE, contentType)
+            .header(CONTENT_RANGE, range.contentRange(size))
+            .header(CONTENT_LENGTH, range.length.toString)
+            .status(PARTIAL_CONTENT),
+          stream => toByteBufs(stream))
+        case SatisfiableRanges(ranges, size) =>
+          val multipart = MultipartByteRanges(ranges, size, contentType, UUID.randomUUID().toString)
+          sendContent(wholeContent(blob), headers(response)
+            .header(CONTENT_TYPE, multipart.multipartContentType)
+            .header(CONTENT_LENGTH, multipart.contentLength.toString)
+            .status(PARTIAL_CONTENT),
+          stream => multipartContent(stream, multipart))
+      }
+    }
+  }
+
+  private def wholeContent(blob: Blob): SMono[InputStream] =
+    SMono.fromCallable(() => blob.content)
+      .subscribeOn(Schedulers.boundedElastic())
+
+  private def sendContent(content: SMono[InputStream], response: HttpServerResponse, body: InputStream => SFlux[ByteBuf]): SMono[Unit] = {
+    val sourceSupplier: java.util.function.Function[InputStream, Mono[Void]] = stream => SMono(response
+      .send(body(stream)
         .subscribeOn(Schedulers.boundedElastic()))).asJava()
-    val resourceRelease: Consumer[InputStream] = (stream: InputStream) => stream.close()
+    val resourceRelease: java.util.function.Function[InputStream, Mono[Void]] = stream => Mono.fromRunnable(() => stream.close())
 
-    SMono.fromPublisher(Mono.using(
-        resourceSupplier,
+    SMono.fromPublisher(Mono.usingWhen(
+        content.asJava(),
         sourceSupplier,
         resourceRelease))
       .`then`
   }
 
+  private def toByteBufs(stream: InputStream): SFlux[ByteBuf] =
+    SFlux.fromPublisher(ReactorUtils.toChunks(stream, BUFFER_SIZE)
+      .map(Unpooled.wrappedBuffer(_)))
+
+  // The ranges of a multipart response are read from a single stream of the whole content, in order
+  private def rangeContent(stream: InputStream, skip: Long, range: ByteRange): SFlux[ByteBuf] =
+    SFlux.defer {
+      ByteStreams.skipFully(stream, skip)
+      toByteBufs(ByteStreams.limit(stream, range.length))
+    }
+
+  private def multipartContent(stream: InputStream, multipart: MultipartByteRanges): SFlux[ByteBuf] = {
+    val positions: List[Long] = 0L :: multipart.ranges.map(_.end + 1)
+    SFlux.fromIterable(multipart.ranges.zip(positions))
+      .concatMap {
+        case (range, position) => SFlux.just[ByteBuf](Unpooled.wrappedBuffer(multipart.partHeader(range)))
+          .concatWith(rangeContent(stream, range.start - position, range))
+      }
+      .concatWith(SFlux.just[ByteBuf](Unpooled.wrappedBuffer(multipart.closingDelimiter)))
+  }
+
+  private def isNotModified(request: HttpServerRequest, entityTag: String): Boolean =
+    Option(request.requestHeaders().get(IF_NONE_MATCH))
+      .exists(header => header.trim == "*" || header.split(',').map(_.trim.stripPrefix("W/")).contains(entityTag))
+
+  private def rangeRequest(request: HttpServerRequest, entityTag: String, sizeTry: Try[Size]): RangeRequest =
+    sizeTry.toOption
+      .filter(_ => Option(request.requestHeaders().get(IF_RANGE)).forall(_.trim == entityTag))
+      .flatMap(size => Option(request.requestHeaders().get(RANGE)).map(ByteRange.parse(_, size.value)))
+      .getOrElse(WholeContent)
+
+  private def addAcceptRangesHeader(sizeTry: Try[Size]): HttpServerResponse => HttpServerResponse =
+    resp => sizeTry
+      .map(_ => resp.header(ACCEPT_RANGES, "bytes"))
+      .getOrElse(resp)
+
   private def addContentDispositionHeader(optionalName: Option[String]): HttpServerResponse => HttpServerResponse =
     resp => optionalName.map(addContentDispositionHeaderRegardingEncoding(_, resp))
       .getOrElse(resp)
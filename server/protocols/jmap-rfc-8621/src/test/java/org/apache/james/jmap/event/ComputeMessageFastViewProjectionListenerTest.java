@@ -282,7 +282,7 @@ class ComputeMessageFastViewProjectionListenerTest {
     void shouldStoreEventInDeadLettersWhenComputeFastViewPrecomputedPropertiesException() throws Exception {
         doThrow(new IOException())
             .when(listener)
-            .computeFastViewPrecomputedProperties(any());
+            .computeFastViewPrecomputedProperties(any(), any());
 
         inboxMessageManager.appendMessage(
             MessageManager.AppendCommand.builder()
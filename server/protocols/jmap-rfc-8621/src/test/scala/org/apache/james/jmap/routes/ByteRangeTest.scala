@@ -0,0 +1,119 @@
+/** **************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ * *
+ * http://www.apache.org/licenses/LICENSE-2.0                 *
+ * *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ * ***************************************************************/
+
+package org.apache.james.jmap.routes
+
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class ByteRangeTest extends AnyWordSpec with Matchers {
+  "parse" should {
+    "return the requested range" in {
+      ByteRange.parse("bytes=0-99", 1000) should equal(SatisfiableRanges(List(ByteRange(0, 99)), 1000))
+    }
+
+    "accept a case insensitive unit" in {
+      ByteRange.parse("Bytes=0-99", 1000) should equal(SatisfiableRanges(List(ByteRange(0, 99)), 1000))
+    }
+
+    "support open ended ranges" in {
+      ByteRange.parse("bytes=900-", 1000) should equal(SatisfiableRanges(List(ByteRange(900, 999)), 1000))
+    }
+
+    "support suffix ranges" in {
+      ByteRange.parse("bytes=-100", 1000) should equal(SatisfiableRanges(List(ByteRange(900, 999)), 1000))
+    }
+
+    "truncate suffix ranges longer than the content" in {
+      ByteRange.parse("bytes=-2000", 1000) should equal(SatisfiableRanges(List(ByteRange(0, 999)), 1000))
+    }
+
+    "truncate ranges ending after the content" in {
+      ByteRange.parse("bytes=500-5000", 1000) should equal(SatisfiableRanges(List(ByteRange(500, 999)), 1000))
+    }
+
+    "return several ranges sorted" in {
+      ByteRange.parse("bytes=500-599, 0-99", 1000) should equal(SatisfiableRanges(List(ByteRange(0, 99), ByteRange(500, 599)), 1000))
+    }
+
+    "coalesce overlapping and adjacent ranges" in {
+      ByteRange.parse("bytes=0-99,50-149,150-199,-100", 1000) should equal(SatisfiableRanges(List(ByteRange(0, 199), ByteRange(900, 999)), 1000))
+    }
+
+    "ignore ranges starting after the content when others are satisfiable" in {
+      ByteRange.parse("bytes=0-99,2000-3000", 1000) should equal(SatisfiableRanges(List(ByteRange(0, 99)), 1000))
+    }
+
+    "return unsatisfiable when no range overlaps the content" in {
+      ByteRange.parse("bytes=1000-1999", 1000) should equal(UnsatisfiableRange(1000))
+    }
+
+    "return unsatisfiable for suffix ranges of empty content" in {
+      ByteRange.parse("bytes=-10", 0) should equal(UnsatisfiableRange(0))
+    }
+
+    "return unsatisfiable for empty suffix ranges" in {
+      ByteRange.parse("bytes=-0", 1000) should equal(UnsatisfiableRange(1000))
+    }
+
+    "ignore other units" in {
+      ByteRange.parse("items=0-10", 1000) should equal(WholeContent)
+    }
+
+    "ignore invalid ranges" in {
+      ByteRange.parse("bytes=10-5", 1000) should equal(WholeContent)
+    }
+
+    "ignore headers with an invalid range among valid ones" in {
+      ByteRange.parse("bytes=0-5,abc", 1000) should equal(WholeContent)
+    }
+
+    "ignore empty range sets" in {
+      ByteRange.parse("bytes=", 1000) should equal(WholeContent)
+    }
+
+    "ignore overflowing positions" in {
+      ByteRange.parse("bytes=0-99999999999999999999", 1000) should equal(WholeContent)
+    }
+
+    "ignore too many ranges" in {
+      val header = "bytes=" + (0 to ByteRange.MAX_RANGES).map(i => s"${i * 10}-${i * 10 + 1}").mkString(",")
+
+      ByteRange.parse(header, 1000) should equal(WholeContent)
+    }
+  }
+
+  "MultipartByteRanges" should {
+    "compute the length of the framed content" in {
+      val multipart = MultipartByteRanges(List(ByteRange(0, 9), ByteRange(20, 29)), 100, "text/plain", "boundary")
+
+      multipart.contentLength should equal(
+        multipart.partHeader(ByteRange(0, 9)).length + 10 +
+          multipart.partHeader(ByteRange(20, 29)).length + 10 +
+          multipart.closingDelimiter.length)
+    }
+
+    "frame parts with their content range" in {
+      val multipart = MultipartByteRanges(List(ByteRange(0, 9)), 100, "text/plain", "boundary")
+
+      new String(multipart.partHeader(ByteRange(0, 9))) should equal(
+        "\r\n--boundary\r\nContent-Type: text/plain\r\nContent-Range: bytes 0-9/100\r\n\r\n")
+    }
+  }
+}
@@ -54,11 +54,11 @@ public class LineHandlerStats extends StandardMBean implements HandlerStatsMBean
     }
 
     /**
-     * Increment the stats
+     * Increment the stats. The response is null when it is deferred, as for BDAT chunks.
      */
     public void increment(Response response) {
         all.incrementAndGet();
-        if (response.isEndSession()) {
+        if (response != null && response.isEndSession()) {
             disconnect.incrementAndGet();
         }
     }
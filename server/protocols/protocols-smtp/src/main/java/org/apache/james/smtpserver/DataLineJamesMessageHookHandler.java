@@ -98,36 +98,11 @@ public class DataLineJamesMessageHookHandler implements DataLineFilter, Extensib
             // 46 is "."
             // Stream terminated
             if (line.length == 3 && line[0] == 46) {
-                String mailName = mmiss.getSourceId();
-                try (Closeable closeable = SMTPMDCContextFactory.forSession(session).addToContext("mail", mailName).build()) {
-                    out.flush();
-                    out.close();
-
-                    MailImpl mail = createMail(session, mailName);
-
-                    // store mail in the session so we can be sure it get disposed later
-                    session.setAttachment(SMTPConstants.MAIL, mail, State.Transaction);
-
-                    try {
-                        mail.setMessageContent(mmiss);
-
-                        Response response = processExtensions(session, mail, mmiss);
-
-                        session.popLineHandler();
-                        return response;
-
-                    } catch (MessagingException e) {
-                        // TODO probably return a temporary problem
-                        LOGGER.info("Unexpected error handling DATA stream", e);
-                        return new SMTPResponse(SMTPRetCode.LOCAL_ERROR, "Unexpected error handling DATA stream.");
-                    } finally {
-                        LifecycleUtil.dispose(mmiss);
-                        LifecycleUtil.dispose(mail);
-                    }
-                }
-
-                // DotStuffing.
+                Response response = onMessageReceived(session, mmiss);
+                session.popLineHandler();
+                return response;
             } else if (line[0] == 46 && line[1] == 46) {
+                // DotStuffing.
                 out.write(line, 1, line.length - 1);
                 // Standard write
             } else {
@@ -155,6 +130,36 @@ public class DataLineJamesMessageHookHandler implements DataLineFilter, Extensib
         return null;
     }
 
+    /**
+     * Builds the mail out of the fully received message content and runs the message hooks against it.
+     */
+    public Response onMessageReceived(SMTPSession session, MimeMessageInputStreamSource mmiss) throws IOException {
+        String mailName = mmiss.getSourceId();
+        try (Closeable closeable = SMTPMDCContextFactory.forSession(session).addToContext("mail", mailName).build()) {
+            OutputStream out = mmiss.getWritableOutputStream();
+            out.flush();
+            out.close();
+
+            MailImpl mail = createMail(session, mailName);
+
+            // store mail in the session so we can be sure it get disposed later
+            session.setAttachment(SMTPConstants.MAIL, mail, State.Transaction);
+
+            try {
+                mail.setMessageContent(mmiss);
+
+                return processExtensions(session, mail, mmiss);
+            } catch (MessagingException e) {
+                // TODO probably return a temporary problem
+                LOGGER.info("Unexpected error handling DATA stream", e);
+                return new SMTPResponse(SMTPRetCode.LOCAL_ERROR, "Unexpected error handling DATA stream.");
+            } finally {
+                LifecycleUtil.dispose(mmiss);
+                LifecycleUtil.dispose(mail);
+            }
+        }
+    }
+
     private static MailImpl createMail(SMTPSession session, String mailName) {
         List<MailAddress> recipientCollection = session.getAttachment(SMTPSession.RCPT_LIST, State.Transaction).orElse(ImmutableList.of());
         MaybeSender sender = session.getAttachment(SMTPSession.SENDER, State.Transaction).orElse(MaybeSender.nullSender());
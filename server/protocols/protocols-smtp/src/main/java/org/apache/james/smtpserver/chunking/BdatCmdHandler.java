@@ -0,0 +1,259 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.smtpserver.chunking;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import jakarta.inject.Inject;
+
+import org.apache.james.lifecycle.api.LifecycleUtil;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.TimeMetric;
+import org.apache.james.protocols.api.ProtocolSession;
+import org.apache.james.protocols.api.ProtocolSession.State;
+import org.apache.james.protocols.api.Request;
+import org.apache.james.protocols.api.Response;
+import org.apache.james.protocols.api.handler.CommandHandler;
+import org.apache.james.protocols.api.handler.ExtensibleHandler;
+import org.apache.james.protocols.api.handler.LineHandler;
+import org.apache.james.protocols.api.handler.WiringException;
+import org.apache.james.protocols.smtp.SMTPResponse;
+import org.apache.james.protocols.smtp.SMTPRetCode;
+import org.apache.james.protocols.smtp.SMTPSession;
+import org.apache.james.protocols.smtp.core.ReceivedDataLineFilter;
+import org.apache.james.protocols.smtp.dsn.DSNStatus;
+import org.apache.james.server.core.MailImpl;
+import org.apache.james.server.core.MimeMessageInputStreamSource;
+import org.apache.james.smtpserver.DataLineJamesMessageHookHandler;
+import org.apache.james.smtpserver.ExtendedSMTPSession;
+import org.apache.james.util.MDCBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Handles the BDAT command of the CHUNKING extension (RFC 3030).
+ *
+ * Chunks are not split into lines: they are appended as they are received to the message content, which is then
+ * handed over to the same message hooks than messages received with DATA. Hence no dot-stuffing nor line length
+ * limitation applies, which allows to receive BINARYMIME messages.
+ *
+ * This handler also answers DATA commands that are not allowed within a BDAT transaction, and lets the other ones be
+ * handled by the regular DATA handler. It thus needs to be declared before the core handlers.
+ */
+public class BdatCmdHandler implements CommandHandler<SMTPSession>, ExtensibleHandler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BdatCmdHandler.class);
+
+    private static final String BDAT = "BDAT";
+    private static final String DATA = "DATA";
+    private static final Collection<String> COMMANDS = ImmutableSet.of(BDAT, DATA);
+    private static final Pattern ARGUMENTS = Pattern.compile("^(\\d{1,18})( +LAST)?$", Pattern.CASE_INSENSITIVE);
+    private static final ProtocolSession.AttachmentKey<Long> RECEIVED_SIZE = ProtocolSession.AttachmentKey.of("BDAT_RECEIVED_SIZE", Long.class);
+
+    private static final Response NO_RECIPIENT = new SMTPResponse(SMTPRetCode.BAD_SEQUENCE, DSNStatus.getStatus(DSNStatus.PERMANENT, DSNStatus.DELIVERY_OTHER) + " No recipients specified").immutable();
+    private static final Response NO_SENDER = new SMTPResponse(SMTPRetCode.BAD_SEQUENCE, DSNStatus.getStatus(DSNStatus.PERMANENT, DSNStatus.DELIVERY_OTHER) + " No sender specified").immutable();
+    private static final Response DATA_AFTER_BDAT = new SMTPResponse(SMTPRetCode.BAD_SEQUENCE, DSNStatus.getStatus(DSNStatus.PERMANENT, DSNStatus.DELIVERY_INVALID_CMD) + " DATA can not be used within a BDAT transaction").immutable();
+    private static final Response BINARYMIME_REQUIRES_BDAT = new SMTPResponse(SMTPRetCode.BAD_SEQUENCE, DSNStatus.getStatus(DSNStatus.PERMANENT, DSNStatus.DELIVERY_INVALID_CMD) + " BINARYMIME messages must be transmitted with BDAT").immutable();
+    private static final Response QUOTA_EXCEEDED = new SMTPResponse(SMTPRetCode.QUOTA_EXCEEDED, DSNStatus.getStatus(DSNStatus.PERMANENT, DSNStatus.SYSTEM_MSG_TOO_BIG) + " Message size exceeds fixed maximum message size").immutable();
+
+    /**
+     * Consumes the data of a single chunk, and answers the BDAT command once it was fully received.
+     */
+    private class ChunkLineHandler implements LineHandler<SMTPSession> {
+        private final boolean last;
+        private long remainingBytes;
+        private Optional<Response> failure;
+
+        ChunkLineHandler(long size, boolean last, Optional<Response> failure) {
+            this.remainingBytes = size;
+            this.last = last;
+            this.failure = failure;
+        }
+
+        @Override
+        public Response onLine(SMTPSession session, byte[] data) {
+            remainingBytes -= data.length;
+            if (failure.isEmpty()) {
+                try {
+                    ((ExtendedSMTPSession) session).getMimeMessageWriter().getWritableOutputStream().write(data);
+                } catch (IOException e) {
+                    LOGGER.error("Unknown error occurred while processing BDAT.", e);
+                    failure = Optional.of(localError(e));
+                }
+            }
+            if (remainingBytes > 0) {
+                return null;
+            }
+            session.popLineHandler();
+            return onChunkReceived(session);
+        }
+
+        Response onChunkReceived(SMTPSession session) {
+            if (failure.isPresent()) {
+                // The whole transaction fails once a chunk is rejected
+                session.resetState();
+                return failure.get();
+            }
+            if (last) {
+                try {
+                    return messageHookHandler.onMessageReceived(session, ((ExtendedSMTPSession) session).getMimeMessageWriter());
+                } catch (IOException e) {
+                    LOGGER.error("Unknown error occurred while processing BDAT.", e);
+                    session.resetState();
+                    return localError(e);
+                }
+            }
+            return new SMTPResponse(SMTPRetCode.MAIL_OK, DSNStatus.getStatus(DSNStatus.SUCCESS, DSNStatus.UNDEFINED_STATUS)
+                + " " + session.getAttachment(RECEIVED_SIZE, State.Transaction).orElse(0L) + " octets received");
+        }
+    }
+
+    private final MetricFactory metricFactory;
+    private final ReceivedDataLineFilter receivedDataLineFilter;
+    private final DataLineJamesMessageHookHandler messageHookHandler;
+
+    @Inject
+    public BdatCmdHandler(MetricFactory metricFactory) {
+        this.metricFactory = metricFactory;
+        this.receivedDataLineFilter = new ReceivedDataLineFilter();
+        this.messageHookHandler = new DataLineJamesMessageHookHandler();
+    }
+
+    @Override
+    public Response onCommand(SMTPSession session, Request request) {
+        if (request.getCommand().equals(DATA)) {
+            return doDATAFilter(session);
+        }
+        TimeMetric timeMetric = metricFactory.timer("SMTP-" + request.getCommand());
+        try (Closeable closeable =
+                 MDCBuilder.create()
+                     .addToContext(MDCBuilder.ACTION, request.getCommand())
+                     .build()) {
+            return doBDAT(session, request.getArgument());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            timeMetric.stopAndPublish();
+        }
+    }
+
+    private Response doDATAFilter(SMTPSession session) {
+        if (session.getAttachment(RECEIVED_SIZE, State.Transaction).isPresent()) {
+            return DATA_AFTER_BDAT;
+        }
+        if (session.getAttachment(BodyMailParameterHook.BINARYMIME_BODY, State.Transaction).isPresent()) {
+            return BINARYMIME_REQUIRES_BDAT;
+        }
+        // Let the regular DATA handler proceed
+        return null;
+    }
+
+    private Response doBDAT(SMTPSession session, String argument) {
+        Matcher matcher = ARGUMENTS.matcher(Optional.ofNullable(argument).orElse("").trim());
+        if (!matcher.matches()) {
+            // The chunk size is unknown hence its data can not be told apart from the next commands
+            SMTPResponse response = new SMTPResponse(SMTPRetCode.SYNTAX_ERROR_ARGUMENTS, DSNStatus.getStatus(DSNStatus.PERMANENT, DSNStatus.DELIVERY_INVALID_ARG) + " Invalid BDAT arguments");
+            response.setEndSession(true);
+            return response;
+        }
+        long size = Long.parseLong(matcher.group(1));
+        boolean last = matcher.group(2) != null;
+
+        ChunkLineHandler chunkLineHandler = new ChunkLineHandler(size, last, beforeChunk(session, size));
+        if (size == 0) {
+            return chunkLineHandler.onChunkReceived(session);
+        }
+        session.pushLineHandler(chunkLineHandler);
+        session.readBinaryData(size);
+        return null;
+    }
+
+    /**
+     * Prepares the transaction for receiving the chunk.
+     *
+     * @return the failure to report once the chunk data, which is sent anyway, is consumed
+     */
+    private Optional<Response> beforeChunk(SMTPSession session, long size) {
+        if (!session.getAttachment(SMTPSession.SENDER, State.Transaction).isPresent()) {
+            return Optional.of(NO_SENDER);
+        }
+        if (!session.getAttachment(SMTPSession.RCPT_LIST, State.Transaction).isPresent()) {
+            return Optional.of(NO_RECIPIENT);
+        }
+        Optional<Long> receivedSize = session.getAttachment(RECEIVED_SIZE, State.Transaction);
+        long totalSize = receivedSize.orElse(0L) + size;
+        long maxMessageSize = session.getConfiguration().getMaxMessageSize();
+        if (maxMessageSize > 0 && totalSize > maxMessageSize) {
+            LOGGER.info("Rejected message of size {} exceeding system maximum message size of {}", totalSize, maxMessageSize);
+            return Optional.of(QUOTA_EXCEEDED);
+        }
+        session.setAttachment(RECEIVED_SIZE, totalSize, State.Transaction);
+
+        if (receivedSize.isEmpty()) {
+            return startMessage((ExtendedSMTPSession) session);
+        }
+        return Optional.empty();
+    }
+
+    private Optional<Response> startMessage(ExtendedSMTPSession session) {
+        try {
+            MimeMessageInputStreamSource mmiss = MimeMessageInputStreamSource.create(MailImpl.getId());
+            session.setMimeMessageInputStreamSource(mmiss);
+        } catch (Exception e) {
+            LOGGER.warn("Error creating mimemessagesource for incoming data", e);
+            return Optional.of(new SMTPResponse(SMTPRetCode.LOCAL_ERROR, "Unexpected error preparing to receive BDAT."));
+        }
+        return Optional.ofNullable(receivedDataLineFilter.transferHeaders(session, (smtpSession, line) -> {
+            try {
+                session.getMimeMessageWriter().getWritableOutputStream().write(line);
+                return null;
+            } catch (IOException e) {
+                LifecycleUtil.dispose(session.getMimeMessageWriter());
+                return localError(e);
+            }
+        }));
+    }
+
+    private static SMTPResponse localError(IOException e) {
+        return new SMTPResponse(SMTPRetCode.LOCAL_ERROR, DSNStatus.getStatus(DSNStatus.TRANSIENT, DSNStatus.UNDEFINED_STATUS) + " Error processing message: " + e.getMessage());
+    }
+
+    @Override
+    public Collection<String> getImplCommands() {
+        return COMMANDS;
+    }
+
+    @Override
+    public List<Class<?>> getMarkerInterfaces() {
+        return messageHookHandler.getMarkerInterfaces();
+    }
+
+    @Override
+    public void wireExtensions(Class<?> interfaceName, List<?> extension) throws WiringException {
+        messageHookHandler.wireExtensions(interfaceName, extension);
+    }
+}
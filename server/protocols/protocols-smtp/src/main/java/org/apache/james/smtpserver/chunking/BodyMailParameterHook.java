@@ -0,0 +1,69 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.smtpserver.chunking;
+
+import static org.apache.james.protocols.api.ProtocolSession.State.Transaction;
+
+import java.util.Locale;
+import java.util.Set;
+
+import org.apache.james.protocols.api.ProtocolSession;
+import org.apache.james.protocols.smtp.SMTPRetCode;
+import org.apache.james.protocols.smtp.SMTPSession;
+import org.apache.james.protocols.smtp.dsn.DSNStatus;
+import org.apache.james.protocols.smtp.hook.HookResult;
+import org.apache.james.protocols.smtp.hook.HookReturnCode;
+import org.apache.james.protocols.smtp.hook.MailParametersHook;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Handles the BODY parameter of the MAIL command, and records transactions announcing a BINARYMIME body, which
+ * then needs to be transmitted with BDAT.
+ */
+public class BodyMailParameterHook implements MailParametersHook {
+    public static final String BODY_PARAMETER = "BODY";
+    public static final String BINARYMIME = "BINARYMIME";
+    public static final ProtocolSession.AttachmentKey<Boolean> BINARYMIME_BODY = ProtocolSession.AttachmentKey.of("BINARYMIME_BODY", Boolean.class);
+
+    private static final Set<String> BODY_TYPES = ImmutableSet.of("7BIT", "8BITMIME", BINARYMIME);
+    private static final HookResult SYNTAX_ERROR = HookResult.builder()
+        .hookReturnCode(HookReturnCode.deny())
+        .smtpReturnCode(SMTPRetCode.SYNTAX_ERROR_ARGUMENTS)
+        .smtpDescription(DSNStatus.getStatus(DSNStatus.PERMANENT, DSNStatus.DELIVERY_INVALID_ARG) + " Unsupported BODY parameter value")
+        .build();
+
+    @Override
+    public HookResult doMailParameter(SMTPSession session, String paramName, String paramValue) {
+        String bodyType = paramValue.toUpperCase(Locale.US);
+        if (!BODY_TYPES.contains(bodyType)) {
+            return SYNTAX_ERROR;
+        }
+        if (bodyType.equals(BINARYMIME)) {
+            session.setAttachment(BINARYMIME_BODY, true, Transaction);
+        }
+        return HookResult.DECLINED;
+    }
+
+    @Override
+    public String[] getMailParamNames() {
+        return new String[] {BODY_PARAMETER};
+    }
+}
@@ -0,0 +1,273 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.smtpserver;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.james.smtpserver.SMTPServerTestSystem.BOB;
+import static org.apache.james.smtpserver.SMTPServerTestSystem.PASSWORD;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import org.apache.james.server.core.configuration.FileConfigurationProvider;
+import org.apache.mailet.Mail;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.primitives.Bytes;
+
+class ChunkingTest {
+    private static final byte[] MESSAGE = "Subject: test mail\r\n\r\nTest body\r\n.\r\n..\r\nlast line\r\n".getBytes(US_ASCII);
+
+    private final SMTPServerTestSystem testSystem = new SMTPServerTestSystem();
+    private Socket client;
+    private OutputStream out;
+    private BufferedReader in;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        testSystem.preSetUp();
+        testSystem.smtpServer.configure(FileConfigurationProvider.getConfig(
+            ClassLoader.getSystemResourceAsStream("smtpserver-chunking.xml")));
+        testSystem.smtpServer.init();
+
+        InetSocketAddress bindedAddress = testSystem.getBindedAddress();
+        client = new Socket(bindedAddress.getAddress().getHostAddress(), bindedAddress.getPort());
+        out = client.getOutputStream();
+        in = new BufferedReader(new InputStreamReader(client.getInputStream(), US_ASCII));
+        readReply();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        client.close();
+        testSystem.smtpServer.destroy();
+    }
+
+    @Test
+    void ehloShouldAdvertiseChunkingAndBinaryMime() throws Exception {
+        List<String> reply = command("EHLO localhost");
+
+        assertThat(reply)
+            .anyMatch(line -> line.substring(4).equals("CHUNKING"))
+            .anyMatch(line -> line.substring(4).equals("BINARYMIME"));
+    }
+
+    @Test
+    void bdatShouldDeliverTheMessage() throws Exception {
+        startTransaction("");
+
+        assertThat(lastCode(chunk("BDAT " + MESSAGE.length + " LAST", MESSAGE))).isEqualTo(250);
+        assertThat(lastMailContent()).endsWith(MESSAGE);
+    }
+
+    @Test
+    void bdatShouldNotApplyDotStuffing() throws Exception {
+        startTransaction("");
+
+        chunk("BDAT " + MESSAGE.length + " LAST", MESSAGE);
+
+        assertThat(new String(lastMailContent(), US_ASCII)).contains("\r\n.\r\n..\r\nlast line\r\n");
+    }
+
+    @Test
+    void bdatShouldPrependReceivedHeader() throws Exception {
+        startTransaction("");
+
+        chunk("BDAT " + MESSAGE.length + " LAST", MESSAGE);
+
+        assertThat(new String(lastMailContent(), US_ASCII)).startsWith("Received: ");
+    }
+
+    @Test
+    void bdatShouldConcatenateChunks() throws Exception {
+        startTransaction("");
+
+        assertThat(lastCode(chunk("BDAT 10", "Subject: t".getBytes(US_ASCII)))).isEqualTo(250);
+        assertThat(lastCode(chunk("BDAT 8", "est\r\n\r\nb".getBytes(US_ASCII)))).isEqualTo(250);
+        assertThat(lastCode(chunk("BDAT 6 LAST", "ody\r\n!".getBytes(US_ASCII)))).isEqualTo(250);
+
+        assertThat(new String(lastMailContent(), US_ASCII)).endsWith("\r\nSubject: test\r\n\r\nbody\r\n!");
+    }
+
+    @Test
+    void emptyLastChunkShouldCompleteTheMessage() throws Exception {
+        startTransaction("");
+
+        chunk("BDAT " + MESSAGE.length, MESSAGE);
+        assertThat(lastCode(command("BDAT 0 LAST"))).isEqualTo(250);
+
+        assertThat(lastMailContent()).endsWith(MESSAGE);
+    }
+
+    @Test
+    void pipelinedChunksShouldBeAccepted() throws Exception {
+        startTransaction("");
+
+        out.write(Bytes.concat("BDAT 10\r\n".getBytes(US_ASCII), "Subject: t".getBytes(US_ASCII),
+            ("BDAT " + MESSAGE.length + " LAST\r\n").getBytes(US_ASCII), MESSAGE));
+        out.write("NOOP\r\n".getBytes(US_ASCII));
+        out.flush();
+
+        assertThat(lastCode(readReply())).isEqualTo(250);
+        assertThat(lastCode(readReply())).isEqualTo(250);
+        assertThat(lastCode(readReply())).isEqualTo(250);
+        assertThat(lastMailContent()).endsWith(MESSAGE);
+    }
+
+    @Test
+    void bdatShouldAcceptBinaryMimeContent() throws Exception {
+        byte[] binaryMessage = Bytes.concat("Subject: binary\r\n\r\n".getBytes(US_ASCII), new byte[] {0, 1, '\n', '.', '\n', (byte) 0xFF, '\r'});
+        startTransaction(" BODY=BINARYMIME");
+
+        assertThat(lastCode(chunk("BDAT " + binaryMessage.length + " LAST", binaryMessage))).isEqualTo(250);
+        assertThat(lastMailContent()).endsWith(binaryMessage);
+    }
+
+    @Test
+    void dataShouldBeRejectedWithinBdatTransaction() throws Exception {
+        startTransaction("");
+        chunk("BDAT 10", "Subject: t".getBytes(US_ASCII));
+
+        assertThat(lastCode(command("DATA"))).isEqualTo(503);
+    }
+
+    @Test
+    void dataShouldBeRejectedForBinaryMimeBody() throws Exception {
+        startTransaction(" BODY=BINARYMIME");
+
+        assertThat(lastCode(command("DATA"))).isEqualTo(503);
+    }
+
+    @Test
+    void dataShouldStillBeAcceptedOutsideBdatTransactions() throws Exception {
+        startTransaction(" BODY=8BITMIME");
+
+        assertThat(lastCode(command("DATA"))).isEqualTo(354);
+    }
+
+    @Test
+    void invalidBodyShouldBeRejected() throws Exception {
+        command("EHLO localhost");
+        authenticate();
+
+        assertThat(lastCode(command("MAIL FROM:<bob@localhost> BODY=INVALID"))).isEqualTo(501);
+    }
+
+    @Test
+    void rsetShouldAbortBdatTransaction() throws Exception {
+        startTransaction("");
+        chunk("BDAT 10", "Subject: t".getBytes(US_ASCII));
+
+        command("RSET");
+        command("MAIL FROM:<bob@localhost>");
+        command("RCPT TO:<rcpt@localhost>");
+
+        assertThat(lastCode(command("DATA"))).isEqualTo(354);
+    }
+
+    @Test
+    void bdatWithoutRecipientShouldBeRejectedOnceTheChunkIsConsumed() throws Exception {
+        command("EHLO localhost");
+        authenticate();
+        command("MAIL FROM:<bob@localhost>");
+
+        assertThat(lastCode(chunk("BDAT " + MESSAGE.length + " LAST", MESSAGE))).isEqualTo(503);
+        assertThat(lastCode(command("NOOP"))).isEqualTo(250);
+        assertThat(testSystem.queue.getLastMail()).isNull();
+    }
+
+    @Test
+    void bdatExceedingMaximumMessageSizeShouldBeRejected() throws Exception {
+        byte[] bigChunk = new byte[1000];
+        startTransaction("");
+
+        assertThat(lastCode(chunk("BDAT 1000", bigChunk))).isEqualTo(250);
+        assertThat(lastCode(chunk("BDAT 1000 LAST", bigChunk))).isEqualTo(552);
+        assertThat(lastCode(command("NOOP"))).isEqualTo(250);
+        assertThat(testSystem.queue.getLastMail()).isNull();
+    }
+
+    @Test
+    void invalidBdatArgumentsShouldCloseTheConnection() throws Exception {
+        startTransaction("");
+
+        assertThat(lastCode(command("BDAT ten LAST"))).isEqualTo(501);
+        assertThat(in.readLine()).isNull();
+    }
+
+    private void startTransaction(String mailParameters) throws IOException {
+        command("EHLO localhost");
+        authenticate();
+        assertThat(lastCode(command("MAIL FROM:<bob@localhost>" + mailParameters))).isEqualTo(250);
+        assertThat(lastCode(command("RCPT TO:<rcpt@localhost>"))).isEqualTo(250);
+    }
+
+    private void authenticate() throws IOException {
+        String credentials = Base64.getEncoder().encodeToString(("\0" + BOB.asString() + "\0" + PASSWORD + "\0").getBytes(UTF_8));
+        assertThat(lastCode(command("AUTH PLAIN " + credentials)))
+            .as("authenticated")
+            .isEqualTo(235);
+    }
+
+    private List<String> command(String command) throws IOException {
+        return chunk(command, new byte[0]);
+    }
+
+    private List<String> chunk(String command, byte[] data) throws IOException {
+        out.write((command + "\r\n").getBytes(US_ASCII));
+        out.write(data);
+        out.flush();
+        return readReply();
+    }
+
+    private List<String> readReply() throws IOException {
+        List<String> lines = new ArrayList<>();
+        String line;
+        do {
+            line = in.readLine();
+            lines.add(line);
+        } while (line.charAt(3) == '-');
+        return lines;
+    }
+
+    private int lastCode(List<String> reply) {
+        return Integer.parseInt(reply.getLast().substring(0, 3));
+    }
+
+    private byte[] lastMailContent() throws Exception {
+        Mail lastMail = testSystem.queue.getLastMail();
+        assertThat(lastMail).isNotNull();
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        lastMail.getMessage().writeTo(content);
+        return content.toByteArray();
+    }
+}
@@ -97,6 +97,8 @@ public class BlobRoutes implements Routes {
         int expectedBlobCount = getExpectedBlobCount(request).orElse(EXPECTED_BLOB_COUNT_DEFAULT);
         Optional<Integer> deletionWindowSize = getDeletionWindowSize(request);
         double associatedProbability = getAssociatedProbability(request).orElse(ASSOCIATED_PROBABILITY_DEFAULT);
+        Optional<Integer> partitionCount = getStrictlyPositiveInteger(request, "partitionCount");
+        Optional<Integer> partitionConcurrency = getStrictlyPositiveInteger(request, "partitionConcurrency");
 
         return BlobGCTask.builder()
             .blobStoreDAO(blobStoreDAO)
@@ -108,6 +110,8 @@ public class BlobRoutes implements Routes {
             .expectedBlobCount(expectedBlobCount)
             .associatedProbability(associatedProbability)
             .deletionWindowSize(deletionWindowSize)
+            .partitionCount(partitionCount)
+            .partitionConcurrency(partitionConcurrency)
             .build();
     }
 
@@ -139,6 +143,20 @@ public class BlobRoutes implements Routes {
         }
     }
 
+    private static Optional<Integer> getStrictlyPositiveInteger(Request req, String parameterName) {
+        try {
+            return Optional.ofNullable(req.queryParams(parameterName))
+                .map(Integer::parseInt)
+                .map(value -> {
+                    Preconditions.checkArgument(value > 0,
+                        "'" + parameterName + "' must be strictly positive");
+                    return value;
+                });
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("'" + parameterName + "' must be numeric");
+        }
+    }
+
     private static Optional<Double> getAssociatedProbability(Request req) {
         try {
             return Optional.ofNullable(req.queryParams("associatedProbability"))
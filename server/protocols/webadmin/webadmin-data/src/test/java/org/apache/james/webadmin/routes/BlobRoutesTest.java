@@ -190,6 +190,8 @@ class BlobRoutesTest {
             .body("additionalInformation.gcedBlobCount", is(0))
             .body("additionalInformation.errorCount", is(0))
             .body("additionalInformation.deletionWindowSize", is(1000))
+            .body("additionalInformation.partitionCount", is(1))
+            .body("additionalInformation.processedPartitionCount", is(1))
             .body("additionalInformation.bloomFilterExpectedBlobCount", is(1_000_000))
             .body("additionalInformation.bloomFilterAssociatedProbability", is(0.01F));
     }
@@ -228,6 +230,56 @@ class BlobRoutesTest {
             .body("additionalInformation.deletionWindowSize", is(99));
     }
 
+    @Test
+    void deleteUnReferencedShouldAcceptPartitionParams() {
+        String taskId = given()
+            .queryParam("scope", "unreferenced")
+            .queryParam("partitionCount", 4)
+            .queryParam("partitionConcurrency", 2)
+            .delete()
+            .jsonPath()
+            .get("taskId");
+
+        given()
+            .basePath(TasksRoutes.BASE)
+        .when()
+            .get(taskId + "/await")
+        .then()
+            .body("status", is("completed"))
+            .body("additionalInformation.partitionCount", is(4))
+            .body("additionalInformation.processedPartitionCount", is(4));
+    }
+
+    @ParameterizedTest
+    @MethodSource("expectedBlobCountParameters")
+    void deleteUnReferencedShouldReturnErrorWhenPartitionCountInvalid(Object partitionCount) {
+        given()
+            .queryParam("scope", "unreferenced")
+            .queryParam("partitionCount", partitionCount)
+            .delete()
+        .then()
+            .statusCode(BAD_REQUEST_400)
+            .contentType(JSON)
+            .body("statusCode", is(BAD_REQUEST_400))
+            .body("type", is("InvalidArgument"))
+            .body("details", containsString("partitionCount"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("expectedBlobCountParameters")
+    void deleteUnReferencedShouldReturnErrorWhenPartitionConcurrencyInvalid(Object partitionConcurrency) {
+        given()
+            .queryParam("scope", "unreferenced")
+            .queryParam("partitionConcurrency", partitionConcurrency)
+            .delete()
+        .then()
+            .statusCode(BAD_REQUEST_400)
+            .contentType(JSON)
+            .body("statusCode", is(BAD_REQUEST_400))
+            .body("type", is("InvalidArgument"))
+            .body("details", containsString("partitionConcurrency"));
+    }
+
     @ParameterizedTest
     @MethodSource("expectedBlobCountParameters")
     void deleteUnReferencedShouldReturnErrorWhenExpectedBlobCountInvalid(Object expectedBlobCount) {
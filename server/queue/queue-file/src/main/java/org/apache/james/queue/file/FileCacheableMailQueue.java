@@ -0,0 +1,418 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.file;
+
+import static org.apache.james.util.ReactorUtils.DEFAULT_CONCURRENCY;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import jakarta.mail.MessagingException;
+
+import org.apache.commons.lang3.NotImplementedException;
+import org.apache.james.core.MailAddress;
+import org.apache.james.core.MaybeSender;
+import org.apache.james.queue.api.MailQueueItemDecoratorFactory;
+import org.apache.james.queue.api.MailQueueName;
+import org.apache.james.queue.api.ManageableMailQueue;
+import org.apache.james.server.core.MailImpl;
+import org.apache.mailet.Mail;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.fge.lambdas.Throwing;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * {@link ManageableMailQueue} persisted in a {@link MailQueueJournal}.
+ *
+ * Only the envelope of the queued mails (name, sender and recipients) is kept on the heap, for scheduling and management
+ * operations. Mails are read back from the memory-mapped journal upon dequeue and browse. A mail is removed from the
+ * journal once its processing completes: mails being processed when James stops are delivered again upon restart.
+ */
+public class FileCacheableMailQueue implements ManageableMailQueue {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileCacheableMailQueue.class);
+
+    private static class QueuedMail implements Delayed {
+        private final MailQueueJournal.Entry entry;
+        private final String name;
+        private final MaybeSender sender;
+        private final ImmutableList<MailAddress> recipients;
+        private final Clock clock;
+
+        private QueuedMail(MailQueueJournal.Entry entry, Mail envelope, Clock clock) {
+            this.entry = entry;
+            this.name = envelope.getName();
+            this.sender = envelope.getMaybeSender();
+            this.recipients = ImmutableList.copyOf(envelope.getRecipients());
+            this.clock = clock;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            long delayInMillis = entry.getNextDelivery().toEpochMilli() - clock.millis();
+            return unit.convert(delayInMillis, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            QueuedMail other = (QueuedMail) o;
+            return Comparator.comparing((QueuedMail queuedMail) -> queuedMail.entry.getNextDelivery())
+                .thenComparingLong(queuedMail -> queuedMail.entry.getId())
+                .compare(this, other);
+        }
+    }
+
+    private class FileMailQueueItem implements MailQueueItem {
+        private final QueuedMail queuedMail;
+        private final Mail mail;
+
+        private FileMailQueueItem(QueuedMail queuedMail, Mail mail) {
+            this.queuedMail = queuedMail;
+            this.mail = mail;
+        }
+
+        @Override
+        public Mail getMail() {
+            return mail;
+        }
+
+        @Override
+        public void done(CompletionStatus success) throws MailQueueException {
+            if (success == CompletionStatus.RETRY) {
+                enQueue(mail);
+            }
+            inProcessingMailItems.remove(queuedMail);
+            removeFromJournal(queuedMail);
+        }
+    }
+
+    private final AtomicInteger references = new AtomicInteger(0);
+    private final MailQueueName name;
+    private final MailQueueJournal journal;
+    private final MailSerializer serializer;
+    private final DelayQueue<QueuedMail> mailItems;
+    private final Set<QueuedMail> inProcessingMailItems;
+    private final AtomicLong nextId;
+    private final Clock clock;
+    private final Scheduler scheduler;
+    private final Flux<MailQueueItem> flux;
+    private final Runnable onClose;
+
+    public FileCacheableMailQueue(MailQueueName name, Path directory, FileMailQueueConfiguration configuration,
+                                  MailQueueItemDecoratorFactory mailQueueItemDecoratorFactory, Clock clock) throws IOException {
+        this(name, directory, configuration, mailQueueItemDecoratorFactory, clock, () -> { });
+    }
+
+    FileCacheableMailQueue(MailQueueName name, Path directory, FileMailQueueConfiguration configuration,
+                           MailQueueItemDecoratorFactory mailQueueItemDecoratorFactory, Clock clock, Runnable onClose) throws IOException {
+        this(name, directory, configuration, mailQueueItemDecoratorFactory, clock, onClose, new MailSerializer());
+    }
+
+    @VisibleForTesting
+    FileCacheableMailQueue(MailQueueName name, Path directory, FileMailQueueConfiguration configuration,
+                           MailQueueItemDecoratorFactory mailQueueItemDecoratorFactory, Clock clock, Runnable onClose,
+                           MailSerializer serializer) throws IOException {
+        this.name = name;
+        this.clock = clock;
+        this.onClose = onClose;
+        this.serializer = serializer;
+        this.mailItems = new DelayQueue<>();
+        this.inProcessingMailItems = ConcurrentHashMap.newKeySet();
+        this.journal = MailQueueJournal.open(directory, configuration);
+        this.nextId = new AtomicLong(load());
+        this.scheduler = Schedulers.newSingle("file-mail-queue");
+
+        this.flux = Mono.<QueuedMail>create(sink -> {
+                try {
+                    sink.success(mailItems.poll(10, TimeUnit.MILLISECONDS));
+                } catch (InterruptedException e) {
+                    sink.success();
+                }
+            })
+            .subscribeOn(Schedulers.boundedElastic())
+            .repeat()
+            .subscribeOn(scheduler)
+            .flatMap(this::readItem, DEFAULT_CONCURRENCY)
+            .map(item -> mailQueueItemDecoratorFactory.decorate(item, name));
+    }
+
+    /**
+     * @return the next available id
+     */
+    private long load() throws IOException {
+        long lastId = 0;
+        for (MailQueueJournal.Entry entry : journal.entries()) {
+            mailItems.add(new QueuedMail(entry, serializer.deserializeEnvelope(journal.read(entry)), clock));
+            lastId = entry.getId();
+        }
+        return lastId + 1;
+    }
+
+    private MailQueueItem toItem(QueuedMail queuedMail) throws IOException, MessagingException {
+        inProcessingMailItems.add(queuedMail);
+        return new FileMailQueueItem(queuedMail, readMail(queuedMail));
+    }
+
+    /**
+     * Mails that cannot be read are moved aside, so that dequeuing goes on with the next ones.
+     */
+    private Mono<MailQueueItem> readItem(QueuedMail queuedMail) {
+        try {
+            return Mono.just(toItem(queuedMail));
+        } catch (Exception e) {
+            return moveAside(queuedMail, e);
+        }
+    }
+
+    private Mono<MailQueueItem> moveAside(QueuedMail queuedMail, Exception cause) {
+        inProcessingMailItems.remove(queuedMail);
+        try {
+            Path location = journal.moveAside(queuedMail.entry);
+            LOGGER.error("Failed to read mail {} of mail queue {}, moved it to {}", queuedMail.name, name.asString(), location, cause);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+            LOGGER.error("Failed to read mail {} of mail queue {}, and to move it aside. It will be retried upon restart",
+                queuedMail.name, name.asString(), cause);
+        }
+        return Mono.empty();
+    }
+
+    private MailImpl readMail(QueuedMail queuedMail) throws IOException, MessagingException {
+        return serializer.deserialize(journal.read(queuedMail.entry), name.asString() + "-" + queuedMail.entry.getId());
+    }
+
+    public void reference() {
+        references.incrementAndGet();
+    }
+
+    @Override
+    public void close() {
+        if (references.decrementAndGet() <= 0) {
+            release();
+        }
+    }
+
+    void release() {
+        scheduler.dispose();
+        mailItems.clear();
+        inProcessingMailItems.clear();
+        try {
+            journal.close();
+        } catch (IOException e) {
+            LOGGER.error("Failed to close the journal of mail queue {}", name.asString(), e);
+        }
+        onClose.run();
+    }
+
+    @Override
+    public MailQueueName getName() {
+        return name;
+    }
+
+    @Override
+    public void enQueue(Mail mail, Duration delay) throws MailQueueException {
+        Instant nextDelivery = calculateNextDelivery(delay);
+        try {
+            byte[] serializedMail = serializer.serialize(mail);
+            MailQueueJournal.Entry entry = journal.append(nextId.getAndIncrement(), nextDelivery, serializedMail);
+            mailItems.put(new QueuedMail(entry, mail, clock));
+        } catch (MessagingException | IOException e) {
+            throw new MailQueueException("Error while enqueueing mail " + mail.getName(), e);
+        }
+    }
+
+    @Override
+    public void enQueue(Mail mail) throws MailQueueException {
+        enQueue(mail, Duration.ZERO);
+    }
+
+    @Override
+    public Publisher<Void> enqueueReactive(Mail mail) {
+        return Mono.fromRunnable(Throwing.runnable(() -> enQueue(mail)).sneakyThrow());
+    }
+
+    private Instant calculateNextDelivery(Duration delay) {
+        Instant now = clock.instant();
+        if (!delay.isNegative()) {
+            try {
+                Instant nextDelivery = now.plus(delay);
+                if (nextDelivery.isAfter(Instant.ofEpochMilli(Long.MAX_VALUE))) {
+                    return Instant.ofEpochMilli(Long.MAX_VALUE);
+                }
+                return nextDelivery;
+            } catch (DateTimeException | ArithmeticException e) {
+                return Instant.ofEpochMilli(Long.MAX_VALUE);
+            }
+        }
+        return now;
+    }
+
+    @Override
+    public Flux<MailQueueItem> deQueue() {
+        return flux;
+    }
+
+    @Override
+    public long getSize() {
+        return mailItems.size() + inProcessingMailItems.size();
+    }
+
+    @Override
+    public long flush() throws MailQueueException {
+        Instant now = clock.instant();
+        int count = 0;
+        for (QueuedMail queuedMail : mailItems) {
+            if (queuedMail.entry.getNextDelivery().isAfter(now) && mailItems.remove(queuedMail)) {
+                try {
+                    journal.reschedule(queuedMail.entry, now);
+                } catch (IOException e) {
+                    throw new MailQueueException("Error while flushing mail " + queuedMail.name, e);
+                } finally {
+                    mailItems.put(queuedMail);
+                }
+                count += 1;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public long clear() throws MailQueueException {
+        return removeMatching(any -> true);
+    }
+
+    @Override
+    public long remove(Type type, String value) throws MailQueueException {
+        return removeMatching(queuedMail -> shouldRemove(queuedMail, type, value));
+    }
+
+    private long removeMatching(Predicate<QueuedMail> predicate) throws MailQueueException {
+        ImmutableList<QueuedMail> toBeRemoved = mailItems.stream()
+            .filter(predicate)
+            .collect(ImmutableList.toImmutableList());
+        long count = 0;
+        for (QueuedMail queuedMail : toBeRemoved) {
+            if (mailItems.remove(queuedMail)) {
+                removeFromJournal(queuedMail);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean shouldRemove(QueuedMail queuedMail, Type type, String value) {
+        switch (type) {
+            case Name:
+                return queuedMail.name.equals(value);
+            case Recipient:
+                return queuedMail.recipients.stream()
+                    .map(MailAddress::asString)
+                    .anyMatch(value::equals);
+            case Sender:
+                return queuedMail.sender.asString().equals(value);
+            default:
+                throw new NotImplementedException("Unknown type " + type);
+        }
+    }
+
+    private void removeFromJournal(QueuedMail queuedMail) throws MailQueueException {
+        try {
+            journal.remove(queuedMail.entry);
+        } catch (IOException e) {
+            throw new MailQueueException("Error while removing mail " + queuedMail.name + " from the journal", e);
+        }
+    }
+
+    @Override
+    public MailQueueIterator browse() throws MailQueueException {
+        ImmutableList<QueuedMail> queuedMails = mailItems.stream()
+            .sorted(Comparator.comparingLong(queuedMail -> queuedMail.entry.getId()))
+            .collect(ImmutableList.toImmutableList());
+        Iterator<QueuedMail> underlying = queuedMails.iterator();
+
+        return new MailQueueIterator() {
+            @Override
+            public void close() {
+
+            }
+
+            @Override
+            public boolean hasNext() {
+                return underlying.hasNext();
+            }
+
+            @Override
+            public MailQueueItemView next() {
+                QueuedMail queuedMail = underlying.next();
+                try {
+                    return new DefaultMailQueueItemView(readMail(queuedMail),
+                        queuedMail.entry.getNextDelivery().atZone(ZoneOffset.UTC));
+                } catch (IOException | MessagingException e) {
+                    throw new RuntimeException("Error while reading mail " + queuedMail.name, e);
+                }
+            }
+        };
+    }
+
+    @VisibleForTesting
+    int segmentCount() {
+        return journal.segmentCount();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        FileCacheableMailQueue that = (FileCacheableMailQueue) o;
+
+        return Objects.equal(this.name, that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(name);
+    }
+}
@@ -0,0 +1,166 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.file;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import org.apache.commons.configuration2.Configuration;
+import org.apache.james.util.Size;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+public class FileMailQueueConfiguration {
+    public static class Builder {
+        private Optional<Long> segmentSize;
+        private Optional<Double> compactionThreshold;
+        private Optional<Boolean> syncOnWrite;
+
+        Builder() {
+            segmentSize = Optional.empty();
+            compactionThreshold = Optional.empty();
+            syncOnWrite = Optional.empty();
+        }
+
+        public Builder segmentSize(Optional<Long> segmentSize) {
+            this.segmentSize = segmentSize;
+            return this;
+        }
+
+        public Builder segmentSize(long segmentSize) {
+            return segmentSize(Optional.of(segmentSize));
+        }
+
+        public Builder compactionThreshold(Optional<Double> compactionThreshold) {
+            this.compactionThreshold = compactionThreshold;
+            return this;
+        }
+
+        public Builder compactionThreshold(double compactionThreshold) {
+            return compactionThreshold(Optional.of(compactionThreshold));
+        }
+
+        public Builder syncOnWrite(Optional<Boolean> syncOnWrite) {
+            this.syncOnWrite = syncOnWrite;
+            return this;
+        }
+
+        public Builder syncOnWrite(boolean syncOnWrite) {
+            return syncOnWrite(Optional.of(syncOnWrite));
+        }
+
+        public FileMailQueueConfiguration build() {
+            segmentSize.ifPresent(size -> Preconditions.checkArgument(size >= MIN_SEGMENT_SIZE && size <= MAX_SEGMENT_SIZE,
+                "'%s' needs to be between %s and %s bytes", SEGMENT_SIZE, MIN_SEGMENT_SIZE, MAX_SEGMENT_SIZE));
+            compactionThreshold.ifPresent(threshold -> Preconditions.checkArgument(threshold >= 0 && threshold < 1,
+                "'%s' needs to be between 0 (included) and 1 (excluded)", COMPACTION_THRESHOLD));
+
+            return new FileMailQueueConfiguration(
+                Math.toIntExact(segmentSize.orElse(DEFAULT_SEGMENT_SIZE)),
+                compactionThreshold.orElse(DEFAULT_COMPACTION_THRESHOLD),
+                syncOnWrite.orElse(DEFAULT_SYNC_ON_WRITE));
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    static final String SEGMENT_SIZE = "segment.size";
+    static final String COMPACTION_THRESHOLD = "compaction.threshold";
+    static final String SYNC_ON_WRITE = "sync.on.write";
+    static final long MIN_SEGMENT_SIZE = 4096;
+    static final long MAX_SEGMENT_SIZE = Integer.MAX_VALUE;
+    static final long DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    static final double DEFAULT_COMPACTION_THRESHOLD = 0.25;
+    static final boolean DEFAULT_SYNC_ON_WRITE = false;
+
+    public static final FileMailQueueConfiguration DEFAULT = builder().build();
+
+    public static FileMailQueueConfiguration fromProperties(Configuration configuration) {
+        return builder()
+            .segmentSize(Optional.ofNullable(configuration.getString(SEGMENT_SIZE, null))
+                .map(value -> Size.parse(value).asBytes()))
+            .compactionThreshold(Optional.ofNullable(configuration.getDouble(COMPACTION_THRESHOLD, null)))
+            .syncOnWrite(Optional.ofNullable(configuration.getBoolean(SYNC_ON_WRITE, null)))
+            .build();
+    }
+
+    private final int segmentSize;
+    private final double compactionThreshold;
+    private final boolean syncOnWrite;
+
+    private FileMailQueueConfiguration(int segmentSize, double compactionThreshold, boolean syncOnWrite) {
+        this.segmentSize = segmentSize;
+        this.compactionThreshold = compactionThreshold;
+        this.syncOnWrite = syncOnWrite;
+    }
+
+    /**
+     * Size of the journal segment files. A mail bigger than a segment gets a segment of its own.
+     */
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Ratio of live data under which the oldest journal segment gets compacted: its remaining mails are copied at the
+     * end of the journal so that it can be deleted. 0 disables compaction, segments then only get deleted once all their
+     * mails are dequeued.
+     */
+    public double getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    /**
+     * When true, each journal write is flushed to the storage device before completing. Otherwise writes are left to the
+     * operating system page cache: they survive a crash of the James process, but not of the host.
+     */
+    public boolean isSyncOnWrite() {
+        return syncOnWrite;
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof FileMailQueueConfiguration) {
+            FileMailQueueConfiguration that = (FileMailQueueConfiguration) o;
+
+            return Objects.equals(this.segmentSize, that.segmentSize)
+                && Objects.equals(this.compactionThreshold, that.compactionThreshold)
+                && Objects.equals(this.syncOnWrite, that.syncOnWrite);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(segmentSize, compactionThreshold, syncOnWrite);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("segmentSize", segmentSize)
+            .add("compactionThreshold", compactionThreshold)
+            .add("syncOnWrite", syncOnWrite)
+            .toString();
+    }
+}
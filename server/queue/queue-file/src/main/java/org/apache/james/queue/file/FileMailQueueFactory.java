@@ -0,0 +1,130 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.file;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+
+import org.apache.james.filesystem.api.FileSystem;
+import org.apache.james.queue.api.MailQueueFactory;
+import org.apache.james.queue.api.MailQueueItemDecoratorFactory;
+import org.apache.james.queue.api.MailQueueName;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * {@link MailQueueFactory} storing each {@link FileCacheableMailQueue} in its own directory, so that queues created
+ * before a restart are listed and reloaded.
+ */
+public class FileMailQueueFactory implements MailQueueFactory<FileCacheableMailQueue> {
+    private static final String QUEUE_DIRECTORY = "file://var/store/queue-file";
+
+    private final ConcurrentHashMap<MailQueueName, FileCacheableMailQueue> mailQueues;
+    private final Path root;
+    private final FileMailQueueConfiguration configuration;
+    private final MailQueueItemDecoratorFactory mailQueueItemDecoratorFactory;
+    private final Clock clock;
+
+    @Inject
+    public FileMailQueueFactory(FileSystem fileSystem, FileMailQueueConfiguration configuration,
+                                MailQueueItemDecoratorFactory mailQueueItemDecoratorFactory, Clock clock) throws FileNotFoundException {
+        this(fileSystem.getFile(QUEUE_DIRECTORY).toPath(), configuration, mailQueueItemDecoratorFactory, clock);
+    }
+
+    public FileMailQueueFactory(Path root, FileMailQueueConfiguration configuration,
+                                MailQueueItemDecoratorFactory mailQueueItemDecoratorFactory, Clock clock) {
+        this.mailQueues = new ConcurrentHashMap<>();
+        this.root = root;
+        this.configuration = configuration;
+        this.mailQueueItemDecoratorFactory = mailQueueItemDecoratorFactory;
+        this.clock = clock;
+    }
+
+    @PreDestroy
+    public void clean() {
+        ImmutableList.copyOf(mailQueues.values())
+            .forEach(FileCacheableMailQueue::release);
+        mailQueues.clear();
+    }
+
+    @Override
+    public Set<MailQueueName> listCreatedMailQueues() {
+        return Stream.concat(mailQueues.keySet().stream(), storedMailQueues())
+            .collect(ImmutableSet.toImmutableSet());
+    }
+
+    private Stream<MailQueueName> storedMailQueues() {
+        if (!Files.isDirectory(root)) {
+            return Stream.empty();
+        }
+        try (Stream<Path> directories = Files.list(root)) {
+            return directories
+                .filter(Files::isDirectory)
+                .map(directory -> MailQueueName.of(URLDecoder.decode(directory.getFileName().toString(), StandardCharsets.UTF_8)))
+                .collect(ImmutableList.toImmutableList())
+                .stream();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Optional<FileCacheableMailQueue> getQueue(MailQueueName name, PrefetchCount count) {
+        if (!mailQueues.containsKey(name) && !Files.isDirectory(directory(name))) {
+            return Optional.empty();
+        }
+        return Optional.of(createQueue(name, count));
+    }
+
+    @Override
+    public FileCacheableMailQueue createQueue(MailQueueName name, PrefetchCount prefetchCount) {
+        FileCacheableMailQueue queue = mailQueues.computeIfAbsent(name, this::openQueue);
+        queue.reference();
+        return queue;
+    }
+
+    private FileCacheableMailQueue openQueue(MailQueueName name) {
+        try {
+            return new FileCacheableMailQueue(name, directory(name), configuration, mailQueueItemDecoratorFactory, clock,
+                () -> mailQueues.remove(name));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open mail queue " + name.asString(), e);
+        }
+    }
+
+    private Path directory(MailQueueName name) {
+        return root.resolve(URLEncoder.encode(name.asString(), StandardCharsets.UTF_8));
+    }
+}
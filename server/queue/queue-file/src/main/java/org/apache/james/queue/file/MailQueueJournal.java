@@ -0,0 +1,493 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.file;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Append-only journal of the mails of a {@link FileCacheableMailQueue}, split into memory-mapped segment files.
+ *
+ * Each record is made of its length, a CRC32C checksum and a body:
+ * <ul>
+ *     <li>ENQUEUED: id, next delivery, serialized mail</li>
+ *     <li>RESCHEDULED: id, next delivery</li>
+ *     <li>REMOVED: id</li>
+ * </ul>
+ *
+ * The live entries are rebuilt by replaying the segments in order when the journal is opened. Replay stops at the first
+ * invalid record of a segment, which discards a record torn by a crash.
+ *
+ * Segments are only ever deleted starting from the oldest one, once all the mails it holds are removed: REMOVED records
+ * of a segment then only refer to mails of this segment or of already deleted ones. The oldest segment is compacted once
+ * its ratio of live data drops under the configured threshold: its remaining mails are appended again at the end of the
+ * journal, under the same id, so that it can be deleted.
+ *
+ * Compaction runs on a dedicated background thread, triggered by removals and segment rotations. It relocates mails one
+ * at a time, so that enqueues and acknowledgements only ever wait for a single mail to be copied.
+ *
+ * Mails are read straight from the mapped segments. Segments are never explicitly unmapped, hence a mail read before
+ * its segment got deleted remains readable.
+ *
+ * Mails that cannot be deserialized are moved aside: they are copied to the corrupted directory, then removed.
+ */
+class MailQueueJournal implements Closeable {
+    static class Location {
+        private final Segment segment;
+        private final int offset;
+        private final int length;
+
+        private Location(Segment segment, int offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        private int recordSize() {
+            return RECORD_HEADER_SIZE + ENQUEUED_HEADER_SIZE + length;
+        }
+    }
+
+    static class Entry {
+        private final long id;
+        private volatile Instant nextDelivery;
+        private volatile Location location;
+
+        private Entry(long id, Instant nextDelivery, Location location) {
+            this.id = id;
+            this.nextDelivery = nextDelivery;
+            this.location = location;
+        }
+
+        long getId() {
+            return id;
+        }
+
+        Instant getNextDelivery() {
+            return nextDelivery;
+        }
+    }
+
+    private static class Segment {
+        private final long sequence;
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int position;
+        private int liveCount;
+        private long liveBytes;
+
+        private Segment(long sequence, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.sequence = sequence;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        private int remaining() {
+            return buffer.capacity() - position;
+        }
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MailQueueJournal.class);
+    private static final String SEGMENT_SUFFIX = ".segment";
+    private static final String CORRUPTED_DIRECTORY = "corrupted";
+    private static final String CORRUPTED_SUFFIX = ".mail";
+    private static final byte ENQUEUED = 1;
+    private static final byte RESCHEDULED = 2;
+    private static final byte REMOVED = 3;
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES + Integer.BYTES;
+    private static final int ENQUEUED_HEADER_SIZE = Byte.BYTES + Long.BYTES + Long.BYTES;
+    private static final int RESCHEDULED_SIZE = Byte.BYTES + Long.BYTES + Long.BYTES;
+    private static final int REMOVED_SIZE = Byte.BYTES + Long.BYTES;
+
+    static MailQueueJournal open(Path directory, FileMailQueueConfiguration configuration) throws IOException {
+        Files.createDirectories(directory);
+        MailQueueJournal journal = new MailQueueJournal(directory, configuration);
+        journal.replay();
+        journal.compact();
+        return journal;
+    }
+
+
+    private final Path directory;
+    private final FileMailQueueConfiguration configuration;
+    private final Deque<Segment> segments;
+    private final Map<Long, Entry> entries;
+    private final Scheduler compactionScheduler;
+    private final AtomicBoolean compactionRequested;
+    private boolean closed;
+
+    private MailQueueJournal(Path directory, FileMailQueueConfiguration configuration) {
+        this.directory = directory;
+        this.configuration = configuration;
+        this.segments = new ArrayDeque<>();
+        this.entries = new HashMap<>();
+        this.compactionScheduler = Schedulers.newSingle("file-mail-queue-compaction", true);
+        this.compactionRequested = new AtomicBoolean(false);
+        this.closed = false;
+    }
+
+    /**
+     * @return the live entries, in id order
+     */
+    synchronized List<Entry> entries() {
+        return entries.values().stream()
+            .sorted(Comparator.comparingLong(Entry::getId))
+            .collect(ImmutableList.toImmutableList());
+    }
+
+    synchronized Entry append(long id, Instant nextDelivery, byte[] mail) throws IOException {
+        Location location = writeEnqueued(id, nextDelivery, ByteBuffer.wrap(mail));
+        Entry entry = new Entry(id, nextDelivery, location);
+        entries.put(id, entry);
+        markLive(location);
+        return entry;
+    }
+
+    synchronized void reschedule(Entry entry, Instant nextDelivery) throws IOException {
+        if (entries.get(entry.id) != entry) {
+            return;
+        }
+        ByteBuffer body = ByteBuffer.allocate(RESCHEDULED_SIZE)
+            .put(RESCHEDULED)
+            .putLong(entry.id)
+            .putLong(nextDelivery.toEpochMilli())
+            .flip();
+        writeRecord(body);
+        entry.nextDelivery = nextDelivery;
+    }
+
+    synchronized void remove(Entry entry) throws IOException {
+        if (entries.get(entry.id) != entry) {
+            return;
+        }
+        ByteBuffer body = ByteBuffer.allocate(REMOVED_SIZE)
+            .put(REMOVED)
+            .putLong(entry.id)
+            .flip();
+        writeRecord(body);
+        entries.remove(entry.id);
+        markDead(entry.location);
+        if (segments.size() > 1 && needsCompaction(segments.getFirst())) {
+            requestCompaction();
+        }
+    }
+
+    /**
+     * Copies the serialized mail of this entry to the corrupted directory, then removes it.
+     *
+     * @return the path of the copy
+     */
+    synchronized Path moveAside(Entry entry) throws IOException {
+        Path corruptedDirectory = Files.createDirectories(directory.resolve(CORRUPTED_DIRECTORY));
+        Path target = Files.createTempFile(corruptedDirectory, entry.id + "-", CORRUPTED_SUFFIX);
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.WRITE)) {
+            ByteBuffer mail = read(entry);
+            while (mail.hasRemaining()) {
+                channel.write(mail);
+            }
+        }
+        remove(entry);
+        return target;
+    }
+
+    /**
+     * @return a read-only view of the serialized mail of this entry
+     */
+    ByteBuffer read(Entry entry) {
+        Location location = entry.location;
+        return location.segment.buffer.duplicate()
+            .position(location.offset)
+            .limit(location.offset + location.length)
+            .slice()
+            .asReadOnlyBuffer();
+    }
+
+    private void requestCompaction() {
+        if (compactionRequested.compareAndSet(false, true)) {
+            compactionScheduler.schedule(() -> {
+                compactionRequested.set(false);
+                try {
+                    compact();
+                } catch (Exception e) {
+                    LOGGER.error("Failed to compact mail queue journal {}", directory, e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Deletes the oldest segments holding no live mail, and relocates the live mails of the oldest segment when it got
+     * sparse enough.
+     *
+     * The journal lock is only held while relocating a single mail, so that concurrent appends and removals are not
+     * blocked for the whole compaction.
+     */
+    @VisibleForTesting
+    void compact() throws IOException {
+        while (true) {
+            Segment oldest;
+            List<Entry> toRelocate;
+            synchronized (this) {
+                if (closed || segments.size() <= 1 || !needsCompaction(segments.getFirst())) {
+                    return;
+                }
+                oldest = segments.getFirst();
+                toRelocate = entriesOf(oldest);
+            }
+            for (Entry entry : toRelocate) {
+                relocate(entry, oldest);
+            }
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (segments.getFirst() == oldest && oldest.liveCount == 0) {
+                    delete(segments.removeFirst());
+                }
+            }
+        }
+    }
+
+    private boolean needsCompaction(Segment segment) {
+        return segment.liveCount == 0 || segment.liveBytes < configuration.getCompactionThreshold() * segment.buffer.capacity();
+    }
+
+    @VisibleForTesting
+    synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        compactionScheduler.dispose();
+        for (Segment segment : segments) {
+            segment.buffer.force();
+            segment.channel.close();
+        }
+        segments.clear();
+        entries.clear();
+    }
+
+    private List<Entry> entriesOf(Segment segment) {
+        return entries.values().stream()
+            .filter(entry -> entry.location.segment == segment)
+            .sorted(Comparator.comparingLong(Entry::getId))
+            .collect(ImmutableList.toImmutableList());
+    }
+
+    /**
+     * Relocates a mail still living in the given segment. Mails removed meanwhile are skipped.
+     */
+    private synchronized void relocate(Entry entry, Segment segment) throws IOException {
+        if (closed || entries.get(entry.id) != entry || entry.location.segment != segment) {
+            return;
+        }
+        Location newLocation = writeEnqueued(entry.id, entry.nextDelivery, read(entry));
+        markDead(entry.location);
+        markLive(newLocation);
+        entry.location = newLocation;
+    }
+
+    private Location writeEnqueued(long id, Instant nextDelivery, ByteBuffer mail) throws IOException {
+        int length = mail.remaining();
+        ByteBuffer body = ByteBuffer.allocate(ENQUEUED_HEADER_SIZE + length)
+            .put(ENQUEUED)
+            .putLong(id)
+            .putLong(nextDelivery.toEpochMilli())
+            .put(mail)
+            .flip();
+        Segment segment = writeRecord(body);
+        return new Location(segment, segment.position - length, length);
+    }
+
+    private Segment writeRecord(ByteBuffer body) throws IOException {
+        int recordSize = RECORD_HEADER_SIZE + body.remaining();
+        if (segments.isEmpty() || segments.getLast().remaining() < recordSize) {
+            rotate(recordSize);
+        }
+        Segment segment = segments.getLast();
+
+        CRC32C crc = new CRC32C();
+        crc.update(body.duplicate());
+        int start = segment.position;
+        int bodySize = body.remaining();
+        segment.buffer.put(start + RECORD_HEADER_SIZE, body, body.position(), bodySize);
+        segment.buffer.putInt(start + Integer.BYTES, (int) crc.getValue());
+        segment.buffer.putInt(start, bodySize);
+        segment.position += recordSize;
+
+        if (configuration.isSyncOnWrite()) {
+            segment.buffer.force(start, recordSize);
+        }
+        return segment;
+    }
+
+    private void rotate(int recordSize) throws IOException {
+        if (!segments.isEmpty()) {
+            segments.getLast().buffer.force();
+        }
+        long sequence = segments.isEmpty() ? 0 : segments.getLast().sequence + 1;
+        segments.addLast(createSegment(sequence, Math.max(configuration.getSegmentSize(), recordSize)));
+        requestCompaction();
+    }
+
+    private Segment createSegment(long sequence, int size) throws IOException {
+        Path path = directory.resolve(String.format("%020d%s", sequence, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new Segment(sequence, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+    }
+
+    private Segment openSegment(Path path) throws IOException {
+        String fileName = path.getFileName().toString();
+        long sequence = Long.parseLong(fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length()));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new Segment(sequence, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+    }
+
+    private void delete(Segment segment) {
+        try {
+            segment.channel.close();
+            Files.delete(segment.path);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to delete mail queue journal segment {}", segment.path, e);
+        }
+    }
+
+    private void replay() throws IOException {
+        List<Path> paths;
+        try (Stream<Path> files = Files.list(directory)) {
+            paths = files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                .sorted()
+                .collect(ImmutableList.toImmutableList());
+        }
+        for (Path path : paths) {
+            Segment segment = openSegment(path);
+            segments.addLast(segment);
+            replay(segment);
+        }
+    }
+
+    private void replay(Segment segment) {
+        ByteBuffer buffer = segment.buffer;
+        while (segment.remaining() >= RECORD_HEADER_SIZE) {
+            int start = segment.position;
+            int bodySize = buffer.getInt(start);
+            if (bodySize <= 0 || bodySize > segment.remaining() - RECORD_HEADER_SIZE) {
+                break;
+            }
+            ByteBuffer body = buffer.duplicate()
+                .position(start + RECORD_HEADER_SIZE)
+                .limit(start + RECORD_HEADER_SIZE + bodySize)
+                .slice();
+            CRC32C crc = new CRC32C();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != buffer.getInt(start + Integer.BYTES)) {
+                LOGGER.warn("Ignoring the torn end of mail queue journal segment {} at offset {}", segment.path, start);
+                break;
+            }
+            segment.position += RECORD_HEADER_SIZE + bodySize;
+            apply(segment, start + RECORD_HEADER_SIZE, body);
+        }
+        clearAfterPosition(segment);
+    }
+
+    private void apply(Segment segment, int bodyOffset, ByteBuffer body) {
+        byte type = body.get();
+        long id = body.getLong();
+        switch (type) {
+            case ENQUEUED: {
+                Instant nextDelivery = Instant.ofEpochMilli(body.getLong());
+                int length = body.remaining();
+                Location location = new Location(segment, bodyOffset + ENQUEUED_HEADER_SIZE, length);
+                Entry previous = entries.put(id, new Entry(id, nextDelivery, location));
+                if (previous != null) {
+                    markDead(previous.location);
+                }
+                markLive(location);
+                break;
+            }
+            case RESCHEDULED: {
+                Entry entry = entries.get(id);
+                if (entry != null) {
+                    entry.nextDelivery = Instant.ofEpochMilli(body.getLong());
+                }
+                break;
+            }
+            case REMOVED: {
+                Entry entry = entries.remove(id);
+                if (entry != null) {
+                    markDead(entry.location);
+                }
+                break;
+            }
+            default:
+                LOGGER.warn("Ignoring unknown record type {} in mail queue journal segment {}", type, segment.path);
+        }
+    }
+
+    /**
+     * Leftovers of a torn record could otherwise be mistaken for records following the ones appended after a restart.
+     */
+    private void clearAfterPosition(Segment segment) {
+        if (segment.remaining() >= Integer.BYTES && segment.buffer.getInt(segment.position) != 0) {
+            for (int i = segment.position; i < segment.buffer.capacity(); i++) {
+                segment.buffer.put(i, (byte) 0);
+            }
+        }
+    }
+
+    private void markLive(Location location) {
+        location.segment.liveCount++;
+        location.segment.liveBytes += location.recordSize();
+    }
+
+    private void markDead(Location location) {
+        location.segment.liveCount--;
+        location.segment.liveBytes -= location.recordSize();
+    }
+}
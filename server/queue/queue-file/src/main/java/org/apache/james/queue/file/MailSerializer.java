@@ -0,0 +1,171 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.file;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+
+import org.apache.james.server.core.MailImpl;
+import org.apache.james.server.core.MimeMessageSource;
+import org.apache.james.server.core.MimeMessageWrapper;
+import org.apache.mailet.Mail;
+
+/**
+ * Serializes mails stored in the journal as:
+ * <ul>
+ *     <li>the length of the envelope</li>
+ *     <li>the envelope: the {@link MailImpl} Java serialization, which carries everything but the message</li>
+ *     <li>whether the mail has a message</li>
+ *     <li>the message bytes</li>
+ * </ul>
+ *
+ * The envelope can be read alone, and the message of a deserialized mail is read lazily from the journal.
+ */
+class MailSerializer {
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            return buffer.get() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int read = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, read);
+            return read;
+        }
+
+        @Override
+        public long skip(long count) {
+            int skipped = (int) Math.min(Math.max(count, 0), buffer.remaining());
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
+    private static class JournalMimeMessageSource implements MimeMessageSource {
+        private final String sourceId;
+        private final ByteBuffer content;
+
+        private JournalMimeMessageSource(String sourceId, ByteBuffer content) {
+            this.sourceId = sourceId;
+            this.content = content;
+        }
+
+        @Override
+        public String getSourceId() {
+            return sourceId;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteBufferInputStream(content.duplicate());
+        }
+
+        @Override
+        public long getMessageSize() {
+            return content.remaining();
+        }
+    }
+
+    byte[] serialize(Mail mail) throws MessagingException, IOException {
+        ByteArrayOutputStream envelope = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(envelope)) {
+            objectOutputStream.writeObject(asMailImpl(mail));
+        }
+
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(result);
+        output.writeInt(envelope.size());
+        envelope.writeTo(output);
+        Optional<MimeMessage> message = Optional.ofNullable(mail.getMessage());
+        output.writeBoolean(message.isPresent());
+        if (message.isPresent()) {
+            message.get().writeTo(output);
+        }
+        output.flush();
+        return result.toByteArray();
+    }
+
+    /**
+     * @return the mail without its message
+     */
+    MailImpl deserializeEnvelope(ByteBuffer serialized) throws IOException {
+        ByteBuffer buffer = serialized.duplicate();
+        int envelopeLength = buffer.getInt();
+        ByteBuffer envelope = buffer.slice(buffer.position(), envelopeLength);
+        try (ObjectInputStream input = new ObjectInputStream(new ByteBufferInputStream(envelope))) {
+            return (MailImpl) input.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Failed to deserialize mail envelope", e);
+        }
+    }
+
+    MailImpl deserialize(ByteBuffer serialized, String sourceId) throws IOException, MessagingException {
+        MailImpl mail = deserializeEnvelope(serialized);
+        ByteBuffer buffer = serialized.duplicate();
+        int envelopeLength = buffer.getInt();
+        buffer.position(buffer.position() + envelopeLength);
+        boolean hasMessage = buffer.get() != 0;
+        if (hasMessage) {
+            mail.setMessage(new MimeMessageWrapper(new JournalMimeMessageSource(sourceId, buffer.slice())));
+        }
+        return mail;
+    }
+
+    private MailImpl asMailImpl(Mail mail) throws MessagingException {
+        if (mail instanceof MailImpl) {
+            return (MailImpl) mail;
+        }
+        MailImpl mailImpl = MailImpl.duplicateWithoutMessage(mail).build();
+        mailImpl.setName(mail.getName());
+        mailImpl.setState(mail.getState());
+        return mailImpl;
+    }
+}
@@ -0,0 +1,298 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.file;
+
+import static org.apache.james.queue.api.Mails.defaultMail;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import jakarta.mail.MessagingException;
+
+import org.apache.james.queue.api.DelayedManageableMailQueueContract;
+import org.apache.james.queue.api.MailQueue;
+import org.apache.james.queue.api.MailQueueName;
+import org.apache.james.queue.api.ManageableMailQueue;
+import org.apache.james.queue.api.RawMailQueueItemDecoratorFactory;
+import org.apache.james.server.core.MailImpl;
+import org.apache.james.util.MimeMessageUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.google.common.base.Strings;
+
+import reactor.core.publisher.Flux;
+
+class FileCacheableMailQueueTest implements DelayedManageableMailQueueContract {
+    private static final MailQueueName NAME = MailQueueName.of("test");
+
+    @TempDir
+    Path directory;
+
+    private FileCacheableMailQueue mailQueue;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        mailQueue = open(FileMailQueueConfiguration.DEFAULT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mailQueue.close();
+    }
+
+    private FileCacheableMailQueue open(FileMailQueueConfiguration configuration) throws IOException {
+        FileCacheableMailQueue queue = new FileCacheableMailQueue(NAME, directory, configuration,
+            new RawMailQueueItemDecoratorFactory(), Clock.systemUTC());
+        queue.reference();
+        return queue;
+    }
+
+    private void reopen(FileMailQueueConfiguration configuration) throws IOException {
+        mailQueue.close();
+        mailQueue = open(configuration);
+    }
+
+    private void reopen() throws IOException {
+        reopen(FileMailQueueConfiguration.DEFAULT);
+    }
+
+    @Override
+    public MailQueue getMailQueue() {
+        return mailQueue;
+    }
+
+    @Override
+    public ManageableMailQueue getManageableMailQueue() {
+        return mailQueue;
+    }
+
+    @Test
+    void enqueuedMailsShouldSurviveARestart() throws Exception {
+        mailQueue.enQueue(defaultMail()
+            .name("name1")
+            .mimeMessage(MimeMessageUtil.mimeMessageFromString("Subject: test\r\n\r\nbody"))
+            .build());
+
+        reopen();
+
+        MailQueue.MailQueueItem item = Flux.from(mailQueue.deQueue()).blockFirst();
+        assertThat(item.getMail().getName()).isEqualTo("name1");
+        assertThat(item.getMail().getMessage().getSubject()).isEqualTo("test");
+    }
+
+    @Test
+    void acknowledgedMailsShouldNotBeReloadedAfterARestart() throws Exception {
+        mailQueue.enQueue(defaultMail().name("name1").build());
+        mailQueue.enQueue(defaultMail().name("name2").build());
+        Flux.from(mailQueue.deQueue()).blockFirst().done(MailQueue.MailQueueItem.CompletionStatus.SUCCESS);
+
+        reopen();
+
+        assertThat(mailQueue.getSize()).isEqualTo(1);
+        assertThat(Flux.from(mailQueue.deQueue()).blockFirst().getMail().getName()).isEqualTo("name2");
+    }
+
+    @Test
+    void mailsBeingProcessedShouldBeDeliveredAgainAfterARestart() throws Exception {
+        mailQueue.enQueue(defaultMail().name("name1").build());
+        Flux.from(mailQueue.deQueue()).blockFirst();
+
+        reopen();
+
+        assertThat(Flux.from(mailQueue.deQueue()).blockFirst().getMail().getName()).isEqualTo("name1");
+    }
+
+    @Test
+    void removedMailsShouldNotBeReloadedAfterARestart() throws Exception {
+        mailQueue.enQueue(defaultMail().name("name1").build());
+        mailQueue.enQueue(defaultMail().name("name2").build());
+        mailQueue.remove(ManageableMailQueue.Type.Name, "name1");
+
+        reopen();
+
+        assertThat(mailQueue.browse()).toIterable()
+            .extracting(view -> view.getMail().getName())
+            .containsExactly("name2");
+    }
+
+    @Test
+    void delaysShouldBePreservedAcrossRestarts() throws Exception {
+        mailQueue.enQueue(defaultMail().name("name1").build(), Duration.ofHours(1));
+
+        reopen();
+
+        assertThat(mailQueue.browse()).toIterable()
+            .allSatisfy(view -> assertThat(view.getNextDelivery()).isPresent());
+        assertThat(Flux.from(mailQueue.deQueue()).take(Duration.ofMillis(500)).collectList().block()).isEmpty();
+    }
+
+    @Test
+    void flushShouldBePreservedAcrossRestarts() throws Exception {
+        mailQueue.enQueue(defaultMail().name("name1").build(), Duration.ofHours(1));
+        mailQueue.flush();
+
+        reopen();
+
+        assertThat(Flux.from(mailQueue.deQueue()).blockFirst().getMail().getName()).isEqualTo("name1");
+    }
+
+    @Test
+    void fullyAcknowledgedSegmentsShouldBeDeleted() throws Exception {
+        reopen(FileMailQueueConfiguration.builder().segmentSize(4096).build());
+        String body = Strings.repeat("0123456789", 100);
+        for (int i = 0; i < 20; i++) {
+            mailQueue.enQueue(defaultMail()
+                .name("name" + i)
+                .mimeMessage(MimeMessageUtil.mimeMessageFromString("Subject: test\r\n\r\n" + body))
+                .build());
+        }
+        int segmentsBeforeAcknowledgement = mailQueue.segmentCount();
+
+        Flux.from(mailQueue.deQueue())
+            .take(20)
+            .doOnNext(item -> {
+                try {
+                    item.done(MailQueue.MailQueueItem.CompletionStatus.SUCCESS);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            })
+            .blockLast();
+
+        assertThat(segmentsBeforeAcknowledgement).isGreaterThan(1);
+        await().atMost(Duration.ofSeconds(10))
+            .untilAsserted(() -> assertThat(mailQueue.segmentCount()).isEqualTo(1));
+        assertThat(mailQueue.getSize()).isZero();
+    }
+
+    @Test
+    void sparseSegmentsShouldBeCompactedInTheBackground() throws Exception {
+        FileMailQueueConfiguration configuration = FileMailQueueConfiguration.builder().segmentSize(16384).build();
+        reopen(configuration);
+        String body = Strings.repeat("0123456789", 10);
+        for (int i = 0; i < 40; i++) {
+            mailQueue.enQueue(defaultMail()
+                .name("name" + i)
+                .mimeMessage(MimeMessageUtil.mimeMessageFromString("Subject: test\r\n\r\n" + body))
+                .build());
+        }
+
+        int segmentsBeforeAcknowledgement = mailQueue.segmentCount();
+        Flux.from(mailQueue.deQueue())
+            .take(40)
+            .doOnNext(item -> {
+                try {
+                    if (!item.getMail().getName().equals("name0")) {
+                        item.done(MailQueue.MailQueueItem.CompletionStatus.SUCCESS);
+                    }
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            })
+            .blockLast();
+
+        assertThat(segmentsBeforeAcknowledgement).isGreaterThan(1);
+        await().atMost(Duration.ofSeconds(10))
+            .untilAsserted(() -> assertThat(mailQueue.segmentCount()).isEqualTo(1));
+        reopen(configuration);
+        MailQueue.MailQueueItem item = Flux.from(mailQueue.deQueue()).blockFirst();
+        assertThat(item.getMail().getName()).isEqualTo("name0");
+        assertThat(MimeMessageUtil.asString(item.getMail().getMessage())).endsWith(body);
+    }
+
+    @Test
+    void unreadableMailsShouldBeMovedAsideWithoutStoppingDequeue() throws Exception {
+        mailQueue.close();
+        mailQueue = new FileCacheableMailQueue(NAME, directory, FileMailQueueConfiguration.DEFAULT,
+            new RawMailQueueItemDecoratorFactory(), Clock.systemUTC(), () -> { }, new MailSerializer() {
+                @Override
+                MailImpl deserialize(ByteBuffer serialized, String sourceId) throws IOException, MessagingException {
+                    MailImpl mail = super.deserialize(serialized, sourceId);
+                    if (mail.getName().equals("unreadable")) {
+                        throw new IOException("unreadable");
+                    }
+                    return mail;
+                }
+            });
+        mailQueue.reference();
+        mailQueue.enQueue(defaultMail().name("unreadable").build());
+        mailQueue.enQueue(defaultMail().name("name2").build());
+
+        assertThat(Flux.from(mailQueue.deQueue()).blockFirst(Duration.ofSeconds(10)).getMail().getName()).isEqualTo("name2");
+        try (Stream<Path> files = Files.list(directory.resolve("corrupted"))) {
+            assertThat(files).hasSize(1);
+        }
+
+        reopen();
+        assertThat(mailQueue.browse()).toIterable()
+            .extracting(view -> view.getMail().getName())
+            .containsExactly("name2");
+    }
+
+    @Test
+    void tornWritesShouldBeIgnoredUponRestart() throws Exception {
+        mailQueue.enQueue(defaultMail().name("name1").build());
+        mailQueue.enQueue(defaultMail().name("name2").build());
+        mailQueue.close();
+
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().get();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE, StandardOpenOption.READ)) {
+            long lastRecordStart = lastRecordStart(channel);
+            channel.write(ByteBuffer.wrap(new byte[] {1, 2, 3, 4}), lastRecordStart + 12);
+        }
+
+        mailQueue = open(FileMailQueueConfiguration.DEFAULT);
+
+        assertThat(mailQueue.browse()).toIterable()
+            .extracting(view -> view.getMail().getName())
+            .containsExactly("name1");
+    }
+
+    private long lastRecordStart(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(4);
+        long position = 0;
+        long lastRecordStart = 0;
+        while (true) {
+            header.clear();
+            channel.read(header, position);
+            int length = header.flip().getInt();
+            if (length <= 0) {
+                return lastRecordStart;
+            }
+            lastRecordStart = position;
+            position += 8 + length;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.apache.commons.configuration2.PropertiesConfiguration;
+import org.junit.jupiter.api.Test;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+
+class FileMailQueueConfigurationTest {
+    @Test
+    void shouldMatchBeanContract() {
+        EqualsVerifier.forClass(FileMailQueueConfiguration.class)
+            .verify();
+    }
+
+    @Test
+    void fromPropertiesShouldReturnDefaultForEmptyConfiguration() {
+        assertThat(FileMailQueueConfiguration.fromProperties(new PropertiesConfiguration()))
+            .isEqualTo(FileMailQueueConfiguration.DEFAULT);
+    }
+
+    @Test
+    void fromPropertiesShouldReadAllProperties() {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+        configuration.addProperty("segment.size", "1M");
+        configuration.addProperty("compaction.threshold", "0.5");
+        configuration.addProperty("sync.on.write", "true");
+
+        assertThat(FileMailQueueConfiguration.fromProperties(configuration))
+            .isEqualTo(FileMailQueueConfiguration.builder()
+                .segmentSize(1024 * 1024)
+                .compactionThreshold(0.5)
+                .syncOnWrite(true)
+                .build());
+    }
+
+    @Test
+    void builderShouldRejectTooSmallSegments() {
+        assertThatThrownBy(() -> FileMailQueueConfiguration.builder().segmentSize(1024).build())
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void builderShouldRejectCompactionThresholdOfOne() {
+        assertThatThrownBy(() -> FileMailQueueConfiguration.builder().compactionThreshold(1).build())
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -36,6 +36,7 @@ import org.apache.james.backends.rabbitmq.RabbitMQConfiguration;
 import org.apache.james.backends.rabbitmq.ReceiverProvider;
 import org.apache.james.server.task.json.JsonTaskSerializer;
 import org.apache.james.task.Task;
+import org.apache.james.task.TaskDispatcher;
 import org.apache.james.task.TaskId;
 import org.apache.james.task.TaskManagerWorker;
 import org.apache.james.task.TaskWithId;
@@ -86,6 +87,7 @@ public class RabbitMQWorkQueue implements WorkQueue {
     private final Sender sender;
     private final ReceiverProvider receiverProvider;
     private final CancelRequestQueueName cancelRequestQueueName;
+    private final TaskDispatcher dispatcher;
     private Sinks.Many<TaskId> sendCancelRequestsQueue;
     private Disposable sendCancelRequestsQueueHandle;
     private Disposable receiverHandle;
@@ -102,6 +104,7 @@ public class RabbitMQWorkQueue implements WorkQueue {
         this.taskSerializer = taskSerializer;
         this.configuration = configuration;
         this.rabbitMQConfiguration = rabbitMQConfiguration;
+        this.dispatcher = new TaskDispatcher(configuration.concurrency(), this::executeOnWorker);
     }
 
     @Override
@@ -151,29 +154,48 @@ public class RabbitMQWorkQueue implements WorkQueue {
     private void consumeWorkqueue() {
         receiverHandle = Flux.using(
                 receiverProvider::createReceiver,
-                receiver -> receiver.consumeManualAck(QUEUE_NAME, new ConsumeOptions()),
+                receiver -> receiver.consumeManualAck(QUEUE_NAME, new ConsumeOptions().qos(configuration.concurrency().getMaxConcurrentTasks())),
                 Receiver::close)
             .subscribeOn(ReactorUtils.BLOCKING_CALL_WRAPPER)
-            .concatMap(this::executeTask)
+            .concatMap(this::admitTask, 1)
             .subscribe();
     }
 
-    private Mono<Task.Result> executeTask(AcknowledgableDelivery delivery) {
+    /**
+     * Tasks are acknowledged when the {@link TaskDispatcher} starts them, so that RabbitMQ redelivers the waiting ones
+     * if this node goes down. The prefetch only covers waiting tasks, up to task.concurrency.max, which lets concurrency
+     * limits and priorities choose among them while remaining tasks stay in RabbitMQ.
+     *
+     * The next task is only taken once the dispatcher admits it, so that a type reaching its concurrency limit does not
+     * fill the waiting tasks. As tasks are consumed in order, a task held back by its type limit still delays the tasks
+     * queued behind it.
+     */
+    private Mono<Void> admitTask(AcknowledgableDelivery delivery) {
         return Mono.fromCallable(() -> delivery.getProperties().getHeaders())
             .map(headers -> headers.get(TASK_ID))
             .map(taskIdValue -> TaskId.fromString(taskIdValue.toString()))
             .flatMap(taskId -> Mono.fromCallable(() -> new String(delivery.getBody(), StandardCharsets.UTF_8))
                 .flatMap(bodyValue -> deserialize(bodyValue, taskId))
-                .doOnNext(task -> delivery.ack())
-                .flatMap(task -> executeOnWorker(taskId, task)))
+                .switchIfEmpty(Mono.<Task>fromRunnable(() -> delivery.nack(!REQUEUE)))
+                .doOnNext(task -> dispatch(delivery, new TaskWithId(taskId, task))))
+            .then()
             .onErrorResume(error -> {
-                Optional<Object> taskId = Optional.ofNullable(delivery.getProperties())
-                    .flatMap(props -> Optional.ofNullable(props.getHeaders()))
-                    .flatMap(headers -> Optional.ofNullable(headers.get(TASK_ID)));
-                LOGGER.error("Unable to process {} {}", TASK_ID, taskId, error);
+                LOGGER.error("Unable to process {} {}", TASK_ID, taskId(delivery), error);
                 delivery.nack(!REQUEUE);
                 return Mono.empty();
-            });
+            })
+            .then(dispatcher.awaitAdmission());
+    }
+
+    private void dispatch(AcknowledgableDelivery delivery, TaskWithId taskWithId) {
+        dispatcher.dispatch(taskWithId, delivery::ack)
+            .subscribe(null, error -> LOGGER.error("Unable to start {} {}", TASK_ID, taskWithId.getId().asString(), error));
+    }
+
+    private Optional<Object> taskId(AcknowledgableDelivery delivery) {
+        return Optional.ofNullable(delivery.getProperties())
+            .flatMap(props -> Optional.ofNullable(props.getHeaders()))
+            .flatMap(headers -> Optional.ofNullable(headers.get(TASK_ID)));
     }
 
     private Mono<Task> deserialize(String json, TaskId taskId) {
@@ -186,8 +208,10 @@ public class RabbitMQWorkQueue implements WorkQueue {
             });
     }
 
-    private Mono<Task.Result> executeOnWorker(TaskId taskId, Task task) {
-        return worker.executeTask(new TaskWithId(taskId, task))
+    private Mono<Task.Result> executeOnWorker(TaskWithId taskWithId) {
+        TaskId taskId = taskWithId.getId();
+        Task task = taskWithId.getTask();
+        return worker.executeTask(taskWithId)
             .timeout(rabbitMQConfiguration.getTaskQueueConsumerTimeout())
             .onErrorResume(error -> {
                 String errorMessage = String.format("Unable to run submitted Task %s", taskId.asString());
@@ -223,7 +247,10 @@ public class RabbitMQWorkQueue implements WorkQueue {
                 Receiver::close)
             .subscribeOn(Schedulers.boundedElastic())
             .map(this::readCancelRequestMessage)
-            .doOnNext(worker::cancelTask)
+            .doOnNext(taskId -> {
+                worker.cancelTask(taskId);
+                dispatcher.expedite(taskId);
+            })
             .subscribe();
     }
 
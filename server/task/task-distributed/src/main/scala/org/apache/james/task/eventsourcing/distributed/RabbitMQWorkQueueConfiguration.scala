@@ -20,12 +20,14 @@
 package org.apache.james.task.eventsourcing.distributed
 
 import org.apache.commons.configuration2.Configuration
+import org.apache.james.task.TaskConcurrencyConfiguration
 
 object RabbitMQWorkQueueConfiguration {
   def enabled(): RabbitMQWorkQueueConfiguration = RabbitMQWorkQueueConfiguration(true)
   def disabled(): RabbitMQWorkQueueConfiguration = RabbitMQWorkQueueConfiguration(false)
   def from(configuration: Configuration): RabbitMQWorkQueueConfiguration =
-    RabbitMQWorkQueueConfiguration(configuration.getBoolean("task.consumption.enabled", true))
+    RabbitMQWorkQueueConfiguration(configuration.getBoolean("task.consumption.enabled", true),
+      TaskConcurrencyConfiguration.from(configuration))
 }
 
-case class RabbitMQWorkQueueConfiguration(enabled: Boolean)
\ No newline at end of file
+case class RabbitMQWorkQueueConfiguration(enabled: Boolean, concurrency: TaskConcurrencyConfiguration = TaskConcurrencyConfiguration.DEFAULT)
\ No newline at end of file
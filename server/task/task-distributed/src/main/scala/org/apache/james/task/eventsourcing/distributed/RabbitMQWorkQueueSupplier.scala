@@ -44,7 +44,7 @@ class RabbitMQWorkQueueSupplier @Inject()(private val sender: Sender,
   @VisibleForTesting
   def apply(eventSourcingSystem: EventSourcingSystem, additionalInformationPollingInterval: Duration): RabbitMQWorkQueue = {
     val listener = WorkerStatusListener(eventSourcingSystem)
-    val worker = new SerialTaskManagerWorker(listener, additionalInformationPollingInterval)
+    val worker = new SerialTaskManagerWorker(listener, additionalInformationPollingInterval, configuration.concurrency.getMaxConcurrentTasks)
     val rabbitMQWorkQueue = new RabbitMQWorkQueue(worker, sender, receiverProvider, jsonTaskSerializer, configuration, cancelRequestName, rabbitMQConfiguration)
     rabbitMQWorkQueue
   }
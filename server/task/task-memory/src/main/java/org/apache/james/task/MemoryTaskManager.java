@@ -98,12 +98,16 @@ public class MemoryTaskManager implements TaskManager {
     private final WorkQueue workQueue;
     private final ConcurrentHashMap<TaskId, TaskExecutionDetails> idToExecutionDetails;
 
-    @Inject
     public MemoryTaskManager(Hostname hostname) {
+        this(hostname, TaskConcurrencyConfiguration.DEFAULT);
+    }
+
+    @Inject
+    public MemoryTaskManager(Hostname hostname, TaskConcurrencyConfiguration concurrencyConfiguration) {
         this.hostname = hostname;
         this.idToExecutionDetails = new ConcurrentHashMap<>();
-        TaskManagerWorker worker = new SerialTaskManagerWorker(updater(), UPDATE_INFORMATION_POLLING_DURATION);
-        workQueue = new MemoryWorkQueue(worker);
+        TaskManagerWorker worker = new SerialTaskManagerWorker(updater(), UPDATE_INFORMATION_POLLING_DURATION, concurrencyConfiguration.getMaxConcurrentTasks());
+        workQueue = new MemoryWorkQueue(worker, concurrencyConfiguration);
     }
 
     public TaskId submit(Task task) {
@@ -172,10 +176,6 @@ public class MemoryTaskManager implements TaskManager {
     }
 
     private Consumer<TaskExecutionDetailsUpdater> updateDetails(TaskId taskId) {
-        return updater -> {
-            TaskExecutionDetails currentDetails = idToExecutionDetails.get(taskId);
-            TaskExecutionDetails newDetails = updater.update(currentDetails);
-            idToExecutionDetails.replace(taskId, newDetails);
-        };
+        return updater -> idToExecutionDetails.computeIfPresent(taskId, (id, currentDetails) -> updater.update(currentDetails));
     }
 }
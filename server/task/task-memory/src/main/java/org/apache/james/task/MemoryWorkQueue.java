@@ -30,21 +30,26 @@ import reactor.core.scheduler.Schedulers;
 
 public class MemoryWorkQueue implements WorkQueue {
     private final TaskManagerWorker worker;
+    private final TaskDispatcher dispatcher;
     private final Disposable subscription;
     private final Sinks.Many<TaskWithId> tasks;
 
     public MemoryWorkQueue(TaskManagerWorker worker) {
+        this(worker, TaskConcurrencyConfiguration.DEFAULT);
+    }
+
+    public MemoryWorkQueue(TaskManagerWorker worker, TaskConcurrencyConfiguration configuration) {
         this.worker = worker;
+        this.dispatcher = new TaskDispatcher(configuration, worker::executeTask);
         this.tasks = Sinks.many().unicast().onBackpressureBuffer();
         this.subscription = tasks.asFlux()
             .subscribeOn(Schedulers.boundedElastic())
-            .limitRate(1)
-            .concatMap(this::dispatchTaskToWorker)
+            .flatMap(this::dispatchTaskToWorker, Integer.MAX_VALUE)
             .subscribe();
     }
 
     private Mono<?> dispatchTaskToWorker(TaskWithId taskWithId) {
-        return worker.executeTask(taskWithId);
+        return dispatcher.dispatch(taskWithId);
     }
 
     public void submit(TaskWithId taskWithId) {
@@ -53,6 +58,7 @@ public class MemoryWorkQueue implements WorkQueue {
 
     public void cancel(TaskId taskId) {
         worker.cancelTask(taskId);
+        dispatcher.expedite(taskId);
     }
 
     @Override
@@ -63,9 +63,17 @@ public class SerialTaskManagerWorker implements TaskManagerWorker {
     private final Duration pollingInterval;
 
     public SerialTaskManagerWorker(Listener listener, Duration pollingInterval) {
+        this(listener, pollingInterval, TaskConcurrencyConfiguration.DEFAULT_MAX_CONCURRENT_TASKS);
+    }
+
+    /**
+     * @param maxConcurrentTasks size of the thread pool running tasks. The {@link WorkQueue} is in charge of not
+     *                           submitting more tasks at once, see {@link TaskDispatcher}.
+     */
+    public SerialTaskManagerWorker(Listener listener, Duration pollingInterval, int maxConcurrentTasks) {
         this.pollingInterval = pollingInterval;
         this.taskExecutor = Schedulers.fromExecutor(
-            Executors.newSingleThreadExecutor(NamedThreadFactory.withName("task executor")));
+            Executors.newFixedThreadPool(maxConcurrentTasks, NamedThreadFactory.withName("task executor")));
         this.asyncTaskExecutor = Schedulers.fromExecutor(
             Executors.newCachedThreadPool(NamedThreadFactory.withName("async task executor")));
         this.listener = listener;
@@ -0,0 +1,163 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.task;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.apache.commons.configuration2.Configuration;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * How many tasks a node runs at once. Defaults to one task at a time.
+ *
+ * <ul>
+ *     <li><code>task.concurrency.max</code>: maximum count of tasks running concurrently.</li>
+ *     <li><code>task.concurrency.limit.[taskType]</code>: maximum count of tasks of a given type running concurrently,
+ *     defaults to <code>task.concurrency.max</code>.</li>
+ *     <li><code>task.priority.[taskType]</code>: waiting tasks with a higher priority start first, defaults to 0.
+ *     Tasks of the same priority start in submission order.</li>
+ * </ul>
+ */
+public class TaskConcurrencyConfiguration {
+    public static final String MAX_CONCURRENT_TASKS_PROPERTY = "task.concurrency.max";
+    public static final String CONCURRENCY_LIMIT_PREFIX = "task.concurrency.limit";
+    public static final String PRIORITY_PREFIX = "task.priority";
+    public static final int DEFAULT_MAX_CONCURRENT_TASKS = 1;
+    public static final int DEFAULT_PRIORITY = 0;
+    public static final TaskConcurrencyConfiguration DEFAULT = builder().build();
+
+    public static class Builder {
+        private Optional<Integer> maxConcurrentTasks;
+        private final ImmutableMap.Builder<TaskType, Integer> concurrencyLimits;
+        private final ImmutableMap.Builder<TaskType, Integer> priorities;
+
+        private Builder() {
+            maxConcurrentTasks = Optional.empty();
+            concurrencyLimits = ImmutableMap.builder();
+            priorities = ImmutableMap.builder();
+        }
+
+        public Builder maxConcurrentTasks(int maxConcurrentTasks) {
+            Preconditions.checkArgument(maxConcurrentTasks > 0, "'maxConcurrentTasks' needs to be strictly positive");
+            this.maxConcurrentTasks = Optional.of(maxConcurrentTasks);
+            return this;
+        }
+
+        public Builder concurrencyLimit(TaskType taskType, int limit) {
+            Preconditions.checkArgument(limit > 0, "Concurrency limit of %s needs to be strictly positive", taskType.asString());
+            concurrencyLimits.put(taskType, limit);
+            return this;
+        }
+
+        public Builder priority(TaskType taskType, int priority) {
+            priorities.put(taskType, priority);
+            return this;
+        }
+
+        public TaskConcurrencyConfiguration build() {
+            return new TaskConcurrencyConfiguration(
+                maxConcurrentTasks.orElse(DEFAULT_MAX_CONCURRENT_TASKS),
+                concurrencyLimits.buildKeepingLast(),
+                priorities.buildKeepingLast());
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static TaskConcurrencyConfiguration from(Configuration configuration) {
+        Builder builder = builder();
+        Optional.ofNullable(configuration.getInteger(MAX_CONCURRENT_TASKS_PROPERTY, null))
+            .ifPresent(builder::maxConcurrentTasks);
+        readTaskTypeValues(configuration, CONCURRENCY_LIMIT_PREFIX)
+            .forEach(builder::concurrencyLimit);
+        readTaskTypeValues(configuration, PRIORITY_PREFIX)
+            .forEach(builder::priority);
+        return builder.build();
+    }
+
+    private static Map<TaskType, Integer> readTaskTypeValues(Configuration configuration, String prefix) {
+        ImmutableMap.Builder<TaskType, Integer> result = ImmutableMap.builder();
+        Iterator<String> keys = configuration.getKeys(prefix);
+        while (keys.hasNext()) {
+            String key = keys.next();
+            if (key.length() <= prefix.length() + 1) {
+                throw new IllegalArgumentException("'" + key + "' needs to be suffixed by a task type");
+            }
+            result.put(TaskType.of(key.substring(prefix.length() + 1)), configuration.getInt(key));
+        }
+        return result.buildKeepingLast();
+    }
+
+    private final int maxConcurrentTasks;
+    private final Map<TaskType, Integer> concurrencyLimits;
+    private final Map<TaskType, Integer> priorities;
+
+    private TaskConcurrencyConfiguration(int maxConcurrentTasks, Map<TaskType, Integer> concurrencyLimits, Map<TaskType, Integer> priorities) {
+        this.maxConcurrentTasks = maxConcurrentTasks;
+        this.concurrencyLimits = concurrencyLimits;
+        this.priorities = priorities;
+    }
+
+    public int getMaxConcurrentTasks() {
+        return maxConcurrentTasks;
+    }
+
+    public int concurrencyLimit(TaskType taskType) {
+        return Math.min(maxConcurrentTasks, concurrencyLimits.getOrDefault(taskType, maxConcurrentTasks));
+    }
+
+    public int priority(TaskType taskType) {
+        return priorities.getOrDefault(taskType, DEFAULT_PRIORITY);
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof TaskConcurrencyConfiguration) {
+            TaskConcurrencyConfiguration that = (TaskConcurrencyConfiguration) o;
+
+            return Objects.equals(this.maxConcurrentTasks, that.maxConcurrentTasks)
+                && Objects.equals(this.concurrencyLimits, that.concurrencyLimits)
+                && Objects.equals(this.priorities, that.priorities);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(maxConcurrentTasks, concurrencyLimits, priorities);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("maxConcurrentTasks", maxConcurrentTasks)
+            .add("concurrencyLimits", concurrencyLimits)
+            .add("priorities", priorities)
+            .toString();
+    }
+}
@@ -0,0 +1,217 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.task;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.reactivestreams.Publisher;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Starts submitted tasks as soon as the {@link TaskConcurrencyConfiguration} allows it: waiting tasks are started by
+ * decreasing priority then submission order, skipping those whose type reached its concurrency limit.
+ */
+public class TaskDispatcher {
+    private static final Comparator<PendingTask> START_ORDER = Comparator.comparingInt((PendingTask task) -> -task.priority)
+        .thenComparingLong(task -> task.sequence);
+
+    private static class PendingTask {
+        private final TaskWithId taskWithId;
+        private final TaskType type;
+        private final int priority;
+        private final long sequence;
+        private final Runnable onStart;
+        private final Sinks.Empty<Void> completion;
+
+        PendingTask(TaskWithId taskWithId, int priority, long sequence, Runnable onStart) {
+            this.taskWithId = taskWithId;
+            this.type = taskWithId.getTask().type();
+            this.priority = priority;
+            this.sequence = sequence;
+            this.onStart = onStart;
+            this.completion = Sinks.empty();
+        }
+    }
+
+    private final TaskConcurrencyConfiguration configuration;
+    private final Function<TaskWithId, Publisher<?>> execution;
+    private final AtomicLong sequence;
+    private final TreeSet<PendingTask> pendingTasks;
+    private final Map<TaskType, Integer> runningTasksByType;
+    private final List<Sinks.Empty<Void>> admissionWaiters;
+    private int runningTasks;
+
+    public TaskDispatcher(TaskConcurrencyConfiguration configuration, Function<TaskWithId, Publisher<?>> execution) {
+        this.configuration = configuration;
+        this.execution = execution;
+        this.sequence = new AtomicLong();
+        this.pendingTasks = new TreeSet<>(START_ORDER);
+        this.runningTasksByType = new HashMap<>();
+        this.admissionWaiters = new ArrayList<>();
+    }
+
+    /**
+     * @return a {@link Mono} completing once the task was executed
+     */
+    public Mono<Void> dispatch(TaskWithId taskWithId) {
+        return dispatch(taskWithId, () -> { });
+    }
+
+    /**
+     * @param onStart called right before the task starts, the task is not executed if it throws
+     * @return a {@link Mono} completing once the task was executed
+     */
+    public Mono<Void> dispatch(TaskWithId taskWithId, Runnable onStart) {
+        return Mono.defer(() -> {
+            PendingTask pendingTask = new PendingTask(taskWithId, configuration.priority(taskWithId.getTask().type()), sequence.incrementAndGet(), onStart);
+            synchronized (this) {
+                pendingTasks.add(pendingTask);
+            }
+            startTasks();
+            return pendingTask.completion.asMono();
+        });
+    }
+
+    /**
+     * Starts right away the given task if it is still waiting, regardless of concurrency limits, so that it gets
+     * cancelled by the worker without waiting for other tasks to complete.
+     */
+    public void expedite(TaskId taskId) {
+        Optional<PendingTask> expedited;
+        synchronized (this) {
+            expedited = pendingTasks.stream()
+                .filter(task -> task.taskWithId.getId().equals(taskId))
+                .findFirst();
+            expedited.ifPresent(task -> {
+                pendingTasks.remove(task);
+                acquire(task);
+            });
+        }
+        expedited.ifPresent(this::start);
+        notifyAdmission();
+    }
+
+    /**
+     * Lets callers pulling tasks from a queue hold back until waiting tasks can start soon: fewer tasks than the
+     * maximum concurrency wait, and no task type has as many waiting tasks as its concurrency limit. This way a capped
+     * task type does not take over the tasks waiting to start.
+     *
+     * @return a {@link Mono} completing once one more task can be dispatched
+     */
+    public Mono<Void> awaitAdmission() {
+        return Mono.defer(() -> {
+            synchronized (this) {
+                if (admitsMoreTasks()) {
+                    return Mono.empty();
+                }
+                Sinks.Empty<Void> waiter = Sinks.empty();
+                admissionWaiters.add(waiter);
+                return waiter.asMono();
+            }
+        });
+    }
+
+    @VisibleForTesting
+    synchronized int runningTasks() {
+        return runningTasks;
+    }
+
+    private boolean admitsMoreTasks() {
+        if (pendingTasks.size() >= configuration.getMaxConcurrentTasks()) {
+            return false;
+        }
+        return pendingTasks.stream()
+            .collect(Collectors.groupingBy(task -> task.type, Collectors.counting()))
+            .entrySet()
+            .stream()
+            .allMatch(waitingTasks -> waitingTasks.getValue() < configuration.concurrencyLimit(waitingTasks.getKey()));
+    }
+
+    private void notifyAdmission() {
+        ImmutableList<Sinks.Empty<Void>> admitted;
+        synchronized (this) {
+            if (admissionWaiters.isEmpty() || !admitsMoreTasks()) {
+                return;
+            }
+            admitted = ImmutableList.copyOf(admissionWaiters);
+            admissionWaiters.clear();
+        }
+        admitted.forEach(Sinks.Empty::tryEmitEmpty);
+    }
+
+    private void startTasks() {
+        ImmutableList<PendingTask> startable;
+        synchronized (this) {
+            ImmutableList.Builder<PendingTask> builder = ImmutableList.builder();
+            Iterator<PendingTask> iterator = pendingTasks.iterator();
+            while (runningTasks < configuration.getMaxConcurrentTasks() && iterator.hasNext()) {
+                PendingTask task = iterator.next();
+                if (runningTasksByType.getOrDefault(task.type, 0) < configuration.concurrencyLimit(task.type)) {
+                    iterator.remove();
+                    acquire(task);
+                    builder.add(task);
+                }
+            }
+            startable = builder.build();
+        }
+        startable.forEach(this::start);
+        notifyAdmission();
+    }
+
+    private void acquire(PendingTask task) {
+        runningTasks++;
+        runningTasksByType.merge(task.type, 1, Integer::sum);
+    }
+
+    private synchronized void release(PendingTask task) {
+        runningTasks--;
+        runningTasksByType.computeIfPresent(task.type, (type, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private void start(PendingTask task) {
+        Mono.defer(() -> {
+                task.onStart.run();
+                return Mono.from(execution.apply(task.taskWithId));
+            })
+            .subscribeOn(Schedulers.boundedElastic())
+            .then()
+            .doFinally(signal -> {
+                release(task);
+                startTasks();
+            })
+            .subscribe(null, task.completion::tryEmitError, task.completion::tryEmitEmpty);
+    }
+}
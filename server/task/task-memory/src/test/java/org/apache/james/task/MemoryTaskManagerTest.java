@@ -19,8 +19,14 @@
 
 package org.apache.james.task;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 @ExtendWith(CountDownLatchExtension.class)
@@ -42,4 +48,26 @@ class MemoryTaskManagerTest implements TaskManagerContract {
     public TaskManager taskManager() {
         return memoryTaskManager;
     }
+
+    @Test
+    void tasksShouldRunConcurrentlyWhenConfigured(CountDownLatch waitingForResultLatch) throws Exception {
+        MemoryTaskManager concurrentTaskManager = new MemoryTaskManager(new Hostname("foo"), TaskConcurrencyConfiguration.builder()
+            .maxConcurrentTasks(2)
+            .build());
+        try {
+            TaskId blockingTaskId = concurrentTaskManager.submit(new MemoryReferenceTask(() -> {
+                waitingForResultLatch.await();
+                return Task.Result.COMPLETED;
+            }));
+            TaskId otherTaskId = concurrentTaskManager.submit(new MemoryReferenceTask(() -> Task.Result.COMPLETED));
+
+            assertThat(concurrentTaskManager.await(otherTaskId, Duration.ofSeconds(10)).getStatus())
+                .isEqualTo(TaskManager.Status.COMPLETED);
+            assertThat(concurrentTaskManager.getExecutionDetails(blockingTaskId).getStatus())
+                .isEqualTo(TaskManager.Status.IN_PROGRESS);
+        } finally {
+            waitingForResultLatch.countDown();
+            concurrentTaskManager.stop();
+        }
+    }
 }
\ No newline at end of file
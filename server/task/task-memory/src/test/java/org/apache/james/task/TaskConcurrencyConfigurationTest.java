@@ -0,0 +1,97 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.task;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.apache.commons.configuration2.PropertiesConfiguration;
+import org.junit.jupiter.api.Test;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+
+class TaskConcurrencyConfigurationTest {
+    private static final TaskType REINDEXING = TaskType.of("full-reindexing");
+    private static final TaskType QUOTA = TaskType.of("recompute-current-quotas");
+
+    @Test
+    void shouldMatchBeanContract() {
+        EqualsVerifier.forClass(TaskConcurrencyConfiguration.class)
+            .verify();
+    }
+
+    @Test
+    void fromShouldReturnDefaultWhenEmpty() {
+        assertThat(TaskConcurrencyConfiguration.from(new PropertiesConfiguration()))
+            .isEqualTo(TaskConcurrencyConfiguration.DEFAULT);
+    }
+
+    @Test
+    void fromShouldReadLimitsAndPriorities() {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+        configuration.addProperty("task.concurrency.max", 4);
+        configuration.addProperty("task.concurrency.limit.full-reindexing", 1);
+        configuration.addProperty("task.priority.recompute-current-quotas", 10);
+
+        assertThat(TaskConcurrencyConfiguration.from(configuration))
+            .isEqualTo(TaskConcurrencyConfiguration.builder()
+                .maxConcurrentTasks(4)
+                .concurrencyLimit(REINDEXING, 1)
+                .priority(QUOTA, 10)
+                .build());
+    }
+
+    @Test
+    void concurrencyLimitShouldDefaultToTheMaximum() {
+        TaskConcurrencyConfiguration configuration = TaskConcurrencyConfiguration.builder()
+            .maxConcurrentTasks(4)
+            .concurrencyLimit(REINDEXING, 1)
+            .build();
+
+        assertThat(configuration.concurrencyLimit(QUOTA)).isEqualTo(4);
+    }
+
+    @Test
+    void concurrencyLimitShouldNotExceedTheMaximum() {
+        TaskConcurrencyConfiguration configuration = TaskConcurrencyConfiguration.builder()
+            .maxConcurrentTasks(2)
+            .concurrencyLimit(REINDEXING, 5)
+            .build();
+
+        assertThat(configuration.concurrencyLimit(REINDEXING)).isEqualTo(2);
+    }
+
+    @Test
+    void priorityShouldDefaultToZero() {
+        assertThat(TaskConcurrencyConfiguration.DEFAULT.priority(QUOTA)).isZero();
+    }
+
+    @Test
+    void maxConcurrentTasksShouldBeStrictlyPositive() {
+        assertThatThrownBy(() -> TaskConcurrencyConfiguration.builder().maxConcurrentTasks(0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void concurrencyLimitShouldBeStrictlyPositive() {
+        assertThatThrownBy(() -> TaskConcurrencyConfiguration.builder().concurrencyLimit(REINDEXING, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,293 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.task;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Durations.TEN_SECONDS;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class TaskDispatcherTest {
+    private static final TaskType REINDEXING = TaskType.of("reindexing");
+    private static final TaskType QUOTA = TaskType.of("quota");
+
+    private static class TypedTask implements Task {
+        private final TaskType type;
+
+        TypedTask(TaskType type) {
+            this.type = type;
+        }
+
+        @Override
+        public Result run() {
+            return Result.COMPLETED;
+        }
+
+        @Override
+        public TaskType type() {
+            return type;
+        }
+    }
+
+    private List<TaskId> startedTasks;
+    private Map<TaskId, Sinks.Empty<Void>> completions;
+
+    @BeforeEach
+    void setUp() {
+        startedTasks = new CopyOnWriteArrayList<>();
+        completions = new ConcurrentHashMap<>();
+    }
+
+    private TaskDispatcher dispatcher(TaskConcurrencyConfiguration configuration) {
+        return new TaskDispatcher(configuration, taskWithId -> {
+            Sinks.Empty<Void> completion = completions.computeIfAbsent(taskWithId.getId(), id -> Sinks.empty());
+            startedTasks.add(taskWithId.getId());
+            return completion.asMono();
+        });
+    }
+
+    private TaskWithId submit(TaskDispatcher dispatcher, TaskType type) {
+        TaskWithId taskWithId = new TaskWithId(TaskId.generateTaskId(), new TypedTask(type));
+        completions.put(taskWithId.getId(), Sinks.empty());
+        dispatcher.dispatch(taskWithId).subscribe();
+        return taskWithId;
+    }
+
+    private void complete(TaskWithId taskWithId) {
+        completions.get(taskWithId.getId()).tryEmitEmpty();
+    }
+
+    private void awaitStarted(TaskWithId... tasks) {
+        Awaitility.await().atMost(TEN_SECONDS)
+            .untilAsserted(() -> assertThat(startedTasks).contains(Arrays.stream(tasks).map(TaskWithId::getId).toArray(TaskId[]::new)));
+    }
+
+    @Test
+    void defaultConfigurationShouldRunTasksOneAtATime() throws Exception {
+        TaskDispatcher testee = dispatcher(TaskConcurrencyConfiguration.DEFAULT);
+
+        TaskWithId first = submit(testee, QUOTA);
+        TaskWithId second = submit(testee, QUOTA);
+        awaitStarted(first);
+        Thread.sleep(100);
+
+        assertThat(startedTasks).containsExactly(first.getId());
+
+        complete(first);
+        awaitStarted(second);
+    }
+
+    @Test
+    void tasksShouldRunConcurrentlyUpToTheMaximum() throws Exception {
+        TaskDispatcher testee = dispatcher(TaskConcurrencyConfiguration.builder()
+            .maxConcurrentTasks(2)
+            .build());
+
+        TaskWithId first = submit(testee, QUOTA);
+        TaskWithId second = submit(testee, REINDEXING);
+        TaskWithId third = submit(testee, QUOTA);
+        awaitStarted(first, second);
+        Thread.sleep(100);
+
+        assertThat(startedTasks).containsExactlyInAnyOrder(first.getId(), second.getId());
+
+        complete(second);
+        awaitStarted(third);
+    }
+
+    @Test
+    void concurrencyLimitShouldLetOtherTypesRun() throws Exception {
+        TaskDispatcher testee = dispatcher(TaskConcurrencyConfiguration.builder()
+            .maxConcurrentTasks(3)
+            .concurrencyLimit(REINDEXING, 1)
+            .build());
+
+        TaskWithId firstReindexing = submit(testee, REINDEXING);
+        TaskWithId secondReindexing = submit(testee, REINDEXING);
+        TaskWithId quota = submit(testee, QUOTA);
+        awaitStarted(firstReindexing, quota);
+        Thread.sleep(100);
+
+        assertThat(startedTasks).containsExactlyInAnyOrder(firstReindexing.getId(), quota.getId());
+
+        complete(firstReindexing);
+        awaitStarted(secondReindexing);
+    }
+
+    @Test
+    void waitingTasksShouldStartByPriority() {
+        TaskDispatcher testee = dispatcher(TaskConcurrencyConfiguration.builder()
+            .priority(QUOTA, 10)
+            .build());
+
+        TaskWithId running = submit(testee, REINDEXING);
+        awaitStarted(running);
+        TaskWithId reindexing = submit(testee, REINDEXING);
+        TaskWithId quota = submit(testee, QUOTA);
+
+        complete(running);
+        awaitStarted(quota);
+        complete(quota);
+        awaitStarted(reindexing);
+
+        assertThat(startedTasks).containsExactly(running.getId(), quota.getId(), reindexing.getId());
+    }
+
+    @Test
+    void expediteShouldStartWaitingTaskRegardlessOfLimits() {
+        TaskDispatcher testee = dispatcher(TaskConcurrencyConfiguration.DEFAULT);
+
+        TaskWithId running = submit(testee, QUOTA);
+        TaskWithId waiting = submit(testee, QUOTA);
+        awaitStarted(running);
+
+        testee.expedite(waiting.getId());
+
+        awaitStarted(waiting);
+    }
+
+    @Test
+    void completedTasksShouldReleaseTheirSlot() {
+        TaskDispatcher testee = dispatcher(TaskConcurrencyConfiguration.builder()
+            .maxConcurrentTasks(2)
+            .build());
+
+        TaskWithId first = submit(testee, QUOTA);
+        TaskWithId second = submit(testee, QUOTA);
+        awaitStarted(first, second);
+        complete(first);
+        complete(second);
+
+        Awaitility.await().atMost(TEN_SECONDS)
+            .untilAsserted(() -> assertThat(testee.runningTasks()).isZero());
+    }
+
+    @Test
+    void onStartShouldBeCalledWhenTheTaskStarts() {
+        TaskDispatcher testee = dispatcher(TaskConcurrencyConfiguration.DEFAULT);
+        List<TaskId> onStartCalls = new CopyOnWriteArrayList<>();
+
+        TaskWithId running = submit(testee, QUOTA);
+        awaitStarted(running);
+        TaskWithId waiting = new TaskWithId(TaskId.generateTaskId(), new TypedTask(QUOTA));
+        completions.put(waiting.getId(), Sinks.empty());
+        testee.dispatch(waiting, () -> onStartCalls.add(waiting.getId())).subscribe();
+
+        assertThat(onStartCalls).isEmpty();
+
+        complete(running);
+        awaitStarted(waiting);
+        assertThat(onStartCalls).containsExactly(waiting.getId());
+    }
+
+    @Test
+    void taskShouldNotRunWhenOnStartFails() {
+        TaskDispatcher testee = dispatcher(TaskConcurrencyConfiguration.DEFAULT);
+        TaskWithId taskWithId = new TaskWithId(TaskId.generateTaskId(), new TypedTask(QUOTA));
+
+        Mono<Void> dispatch = testee.dispatch(taskWithId, () -> {
+            throw new RuntimeException();
+        });
+
+        dispatch.onErrorResume(RuntimeException.class, e -> Mono.empty()).block(Duration.ofSeconds(10));
+
+        assertThat(startedTasks).isEmpty();
+        Awaitility.await().atMost(TEN_SECONDS)
+            .untilAsserted(() -> assertThat(testee.runningTasks()).isZero());
+    }
+
+    @Test
+    void admissionShouldBeGrantedWhileTasksCanStartSoon() {
+        TaskDispatcher testee = dispatcher(TaskConcurrencyConfiguration.builder()
+            .maxConcurrentTasks(2)
+            .build());
+
+        TaskWithId first = submit(testee, QUOTA);
+        TaskWithId second = submit(testee, QUOTA);
+        submit(testee, QUOTA);
+        awaitStarted(first, second);
+
+        assertThat(testee.awaitAdmission().block(Duration.ofSeconds(10))).isNull();
+    }
+
+    @Test
+    void admissionShouldBeHeldBackByATypeReachingItsLimit() {
+        TaskDispatcher testee = dispatcher(TaskConcurrencyConfiguration.builder()
+            .maxConcurrentTasks(3)
+            .concurrencyLimit(REINDEXING, 1)
+            .build());
+
+        TaskWithId running = submit(testee, REINDEXING);
+        awaitStarted(running);
+        submit(testee, REINDEXING);
+
+        Mono<Void> admission = testee.awaitAdmission().cache();
+        admission.subscribe();
+
+        assertThat(admission.toFuture()).isNotDone();
+
+        complete(running);
+
+        admission.block(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void admissionShouldBeHeldBackWhenAsManyTasksWaitAsCanRun() {
+        TaskDispatcher testee = dispatcher(TaskConcurrencyConfiguration.DEFAULT);
+
+        TaskWithId running = submit(testee, QUOTA);
+        awaitStarted(running);
+        submit(testee, REINDEXING);
+
+        Mono<Void> admission = testee.awaitAdmission().cache();
+        admission.subscribe();
+
+        assertThat(admission.toFuture()).isNotDone();
+
+        complete(running);
+
+        admission.block(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void failedExecutionsShouldReleaseTheirSlot() {
+        TaskDispatcher testee = new TaskDispatcher(TaskConcurrencyConfiguration.DEFAULT,
+            taskWithId -> Mono.error(new RuntimeException()));
+
+        Mono<Void> dispatch = testee.dispatch(new TaskWithId(TaskId.generateTaskId(), new TypedTask(QUOTA)));
+
+        dispatch.onErrorResume(RuntimeException.class, e -> Mono.empty()).block(Duration.ofSeconds(10));
+
+        Awaitility.await().atMost(TEN_SECONDS)
+            .untilAsserted(() -> assertThat(testee.runningTasks()).isZero());
+    }
+}